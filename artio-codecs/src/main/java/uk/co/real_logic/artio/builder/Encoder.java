@@ -22,6 +22,11 @@ public interface Encoder
 {
     int BITS_IN_INT = 32;
 
+    /**
+     * Returned by {@link #maxEncodedLength()} when an encoder can't bound the length that it encodes.
+     */
+    int UNKNOWN_LENGTH = -1;
+
     static int length(final long result)
     {
         return (int)result;
@@ -48,6 +53,17 @@ public interface Encoder
      */
     long encode(MutableAsciiBuffer buffer, int offset);
 
+    /**
+     * Gets an upper bound on the number of bytes that {@link #encode(MutableAsciiBuffer, int)} writes after its offset
+     * given the current values of the encoder's fields, without encoding the message.
+     *
+     * @return an upper bound on the encoded length of the message or {@link #UNKNOWN_LENGTH} if it isn't known.
+     */
+    default int maxEncodedLength()
+    {
+        return UNKNOWN_LENGTH;
+    }
+
     /**
      * Resets the encoder. Sets all the fields back to their uninitialized state.
      */
@@ -148,4 +148,12 @@ public interface SessionHeaderEncoder
 
     boolean hasLastMsgSeqNumProcessed();
 
+    /**
+     * Gets the offset within the buffer that the SendingTime value was put at when the message was last encoded,
+     * so that it can be overwritten without parsing the message.
+     *
+     * @return the offset of the SendingTime value or 0 if it wasn't encoded.
+     */
+    int encodedSendingTimeOffset();
+
 }
@@ -28,6 +28,12 @@ import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.*;
 
 public final class CodecGenerationTool
 {
+    /**
+     * Set this system property to true in order to generate flyweight decoders, which record the position of each
+     * field whilst decoding and parse its value from the decoded buffer when its getter is called.
+     */
+    public static final String FLYWEIGHTS_ENABLED_PROPERTY = "fix.codecs.flyweight";
+
     public static void main(final String[] args) throws Exception
     {
         if (args.length < 2)
@@ -63,8 +69,16 @@ public final class CodecGenerationTool
             PARENT_PACKAGE,
             new PackageOutputManager(outputPath, ENCODER_PACKAGE), Validation.class, RejectUnknownField.class);
 
+        final boolean flyweightsEnabled = Boolean.getBoolean(FLYWEIGHTS_ENABLED_PROPERTY);
         final DecoderGenerator decoderGenerator = new DecoderGenerator(
-            dictionary, 1, DECODER_PACKAGE, PARENT_PACKAGE, decoder, Validation.class, RejectUnknownField.class);
+            dictionary,
+            1,
+            DECODER_PACKAGE,
+            PARENT_PACKAGE,
+            decoder,
+            Validation.class,
+            RejectUnknownField.class,
+            flyweightsEnabled);
         final PrinterGenerator printerGenerator = new PrinterGenerator(dictionary, DECODER_PACKAGE, decoder);
         final AcceptorGenerator acceptorGenerator = new AcceptorGenerator(dictionary, DECODER_PACKAGE, decoder);
 
@@ -102,6 +116,7 @@ public final class CodecGenerationTool
     {
         System.err.println("Usage: CodecGenerationTool </path/to/output-directory> " +
             "<[/path/to/fixt-xml/dictionary;]/path/to/xml/dictionary>");
+        System.err.println("Set -D" + FLYWEIGHTS_ENABLED_PROPERTY + "=true to generate flyweight decoders");
         System.exit(-1);
     }
 }
@@ -25,7 +25,9 @@ import uk.co.real_logic.artio.fields.*;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
@@ -82,7 +84,13 @@ public class DecoderGenerator extends Generator
 
     private Aggregate currentAggregate = null;
 
+    // Validation state of the aggregate whose decode method is being generated.
+    private Map<String, Integer> decodeFieldOrdinals;
+    private List<String> decodeRequiredFields;
+    private boolean decodeChecksDuplicateFields;
+
     private final int initialBufferSize;
+    private final boolean flyweightsEnabled;
 
     public DecoderGenerator(
         final Dictionary dictionary,
@@ -92,9 +100,45 @@ public class DecoderGenerator extends Generator
         final OutputManager outputManager,
         final Class<?> validationClass,
         final Class<?> rejectUnknownClass)
+    {
+        this(
+            dictionary,
+            initialBufferSize,
+            builderPackage,
+            builderCommonPackage,
+            outputManager,
+            validationClass,
+            rejectUnknownClass,
+            false);
+    }
+
+    /**
+     * Creates a decoder generator.
+     *
+     * @param dictionary the dictionary to generate decoders for.
+     * @param initialBufferSize the initial size of the buffers that field values are copied into.
+     * @param builderPackage the package of the generated decoders.
+     * @param builderCommonPackage the package of the generated constants and enums.
+     * @param outputManager the output manager that the decoders are written to.
+     * @param validationClass the class that decides whether generated decoders validate messages.
+     * @param rejectUnknownClass the class that decides whether generated decoders reject unknown fields.
+     * @param flyweightsEnabled if true then decoding only records the offset and length of each field, and field
+     *                          values are parsed from the decoded buffer when their getter is called. The buffer
+     *                          must be left unchanged for as long as the decoder's fields are read.
+     */
+    public DecoderGenerator(
+        final Dictionary dictionary,
+        final int initialBufferSize,
+        final String builderPackage,
+        final String builderCommonPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownClass,
+        final boolean flyweightsEnabled)
     {
         super(dictionary, builderPackage, builderCommonPackage, outputManager, validationClass, rejectUnknownClass);
         this.initialBufferSize = initialBufferSize;
+        this.flyweightsEnabled = flyweightsEnabled;
     }
 
     protected void generateAggregateFile(final Aggregate aggregate, final AggregateType type)
@@ -151,7 +195,7 @@ public class DecoderGenerator extends Generator
         headerMethods(out, aggregate, type);
         getters(out, aggregate.entries());
         out.append(decodeMethod(aggregate.entries(), aggregate, type));
-        out.append(completeResetMethod(isMessage, aggregate.entries(), resetValidation(isGroup)));
+        out.append(completeResetMethod(isMessage, aggregate.entries(), resetValidation(aggregate, isGroup)));
         out.append(toString(aggregate, isMessage));
         out.append("}\n");
         currentAggregate = parentAggregate;
@@ -224,6 +268,125 @@ public class DecoderGenerator extends Generator
                 formatPropertyName(decoderClassName(name)));
     }
 
+    // Decoders record the tags that they decode so that resets only touch the entries which were decoded, rather
+    // than every entry in the dictionary. The first reset, and any reset after more tags were decoded than have
+    // entries, falls back to resetting every entry.
+    @Override
+    protected String completeResetMethod(
+        final boolean isMessage,
+        final List<Entry> entries,
+        final String additionalReset)
+    {
+        final StringBuilder methods = new StringBuilder();
+        final String resetEntries = resetEntries(entries, methods);
+        final StringBuilder resetDecodedCases = new StringBuilder();
+        final int trackedEntryCount = resetDecodedCases(entries, resetDecodedCases);
+
+        final String trackedReset = String.format(
+            "    private final int[] decodedTags = new int[%1$d];\n\n" +
+            "    private int decodedTagCount = 0;\n\n" +
+            "    private boolean resetAllEntries = true;\n\n" +
+            "    private void trackDecodedTag(final int tag)\n" +
+            "    {\n" +
+            "        if (decodedTagCount < decodedTags.length)\n" +
+            "        {\n" +
+            "            decodedTags[decodedTagCount++] = tag;\n" +
+            "        }\n" +
+            "        else\n" +
+            "        {\n" +
+            "            resetAllEntries = true;\n" +
+            "        }\n" +
+            "    }\n\n" +
+            "    private void resetEntries()\n" +
+            "    {\n" +
+            "        if (resetAllEntries)\n" +
+            "        {\n" +
+            "%2$s" +
+            "            resetAllEntries = false;\n" +
+            "        }\n" +
+            "        else\n" +
+            "        {\n" +
+            "            final int[] decodedTags = this.decodedTags;\n" +
+            "            for (int i = 0, size = decodedTagCount; i < size; i++)\n" +
+            "            {\n" +
+            "                switch (decodedTags[i])\n" +
+            "                {\n" +
+            "%3$s" +
+            "                }\n" +
+            "            }\n" +
+            "        }\n" +
+            "        decodedTagCount = 0;\n" +
+            "    }\n\n",
+            trackedEntryCount,
+            resetEntries.replaceAll("(?m)^", "    "),
+            resetDecodedCases);
+
+        if (isMessage)
+        {
+            return String.format(
+                "    public void reset()\n" +
+                "    {\n" +
+                "        header.reset();\n" +
+                "        trailer.reset();\n" +
+                "        resetMessage();\n" +
+                "%2$s" +
+                "    }\n\n" +
+                "    public void resetMessage()\n" +
+                "    {\n" +
+                "        resetEntries();\n" +
+                "    }\n\n" +
+                "%1$s" +
+                "%3$s",
+                trackedReset,
+                additionalReset,
+                methods);
+        }
+        else
+        {
+            return String.format(
+                "    public void reset()\n" +
+                "    {\n" +
+                "        resetEntries();\n" +
+                "%2$s" +
+                "    }\n\n" +
+                "%1$s" +
+                "%3$s",
+                trackedReset,
+                additionalReset,
+                methods);
+        }
+    }
+
+    private int resetDecodedCases(final List<Entry> entries, final StringBuilder cases)
+    {
+        int trackedEntryCount = 0;
+        for (final Entry entry : entries)
+        {
+            if (entry.isComponent())
+            {
+                trackedEntryCount += resetDecodedCases(((Component)entry.element()).entries(), cases);
+            }
+            else if (isTrackedEntry(entry))
+            {
+                final String tagName = entry.isGroup() ? ((Group)entry.element()).numberField().name() : entry.name();
+                cases.append(String.format(
+                    "                    case Constants.%1$s:\n" +
+                    "                        %2$s();\n" +
+                    "                        break;\n",
+                    constantName(tagName),
+                    nameOfResetMethod(entry.name())));
+                trackedEntryCount++;
+            }
+        }
+
+        return trackedEntryCount;
+    }
+
+    private boolean isTrackedEntry(final Entry entry)
+    {
+        return entry.isGroup() || (entry.isField() && !isNotResettableField(entry.name()));
+    }
+
     private static String iteratorClassName(final Group group)
     {
         return group.name() + "Iterator";
@@ -236,12 +399,19 @@ public class DecoderGenerator extends Generator
 
     protected String resetRequiredFloat(final String name)
     {
-        return resetByMethod(name);
+        return flyweightsEnabled ? resetStringBasedData(name) : resetByMethod(name);
     }
 
     protected String resetRequiredInt(final Field field)
     {
-        return resetFieldValue(field.name(), "MISSING_INT");
+        final String name = field.name();
+        return isLazy(field.type()) ? resetStringBasedData(name) : super.resetFieldValue(name, "MISSING_INT");
+    }
+
+    // Only used for char, boolean and data fields
+    protected String resetFieldValue(final String name, final String resetValue)
+    {
+        return flyweightsEnabled ? resetStringBasedData(name) : super.resetFieldValue(name, resetValue);
     }
 
     protected String toStringGroupParameters()
@@ -258,26 +428,85 @@ public class DecoderGenerator extends Generator
             "        }\n";
     }
 
-    private String resetValidation(final boolean isGroup)
+    private String resetValidation(final Aggregate aggregate, final boolean isGroup)
     {
+        final int fieldBitsetLength = fieldBitsetLength(fieldOrdinals(aggregate.entries()));
         return
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
             "            invalidTagId = NO_ERROR;\n" +
             "            rejectReason = NO_ERROR;\n" +
-            "            missingRequiredFields.clear();\n" +
+            assignWords("missingRequiredFields", new long[fieldBitsetLength], 3) +
             (isGroup ? "" :
                 "            unknownFields.clear();\n" +
-                "            alreadyVisitedFields.clear();\n") +
+                assignWords("alreadyVisitedFields", new long[fieldBitsetLength], 3)) +
             "        }\n";
     }
 
+    // Each field that an aggregate's decode method has a case for gets a dense ordinal, which is its bit in the
+    // long[] bitsets that validation uses to track visited and missing fields.
+    private Map<String, Integer> fieldOrdinals(final List<Entry> entries)
+    {
+        final Map<String, Integer> fieldOrdinals = new LinkedHashMap<>();
+        addFieldOrdinals(entries, fieldOrdinals);
+        return fieldOrdinals;
+    }
+
+    private void addFieldOrdinals(final List<Entry> entries, final Map<String, Integer> fieldOrdinals)
+    {
+        for (final Entry entry : entries)
+        {
+            if (entry.isComponent())
+            {
+                addFieldOrdinals(((Component)entry.element()).entries(), fieldOrdinals);
+            }
+            else
+            {
+                final String name = entry.isGroup() ? ((Group)entry.element()).numberField().name() : entry.name();
+                fieldOrdinals.putIfAbsent(name, fieldOrdinals.size());
+            }
+        }
+    }
+
+    private static int fieldBitsetLength(final Map<String, Integer> fieldOrdinals)
+    {
+        return Math.max(1, (fieldOrdinals.size() + 63) >> 6);
+    }
+
+    private static int fieldWord(final int ordinal)
+    {
+        return ordinal >> 6;
+    }
+
+    private static long fieldBit(final int ordinal)
+    {
+        return 1L << (ordinal & 63);
+    }
+
+    private String assignWords(final String bitsetName, final long[] words, final int indent)
+    {
+        final StringBuilder assignments = new StringBuilder();
+        for (int i = 0; i < words.length; i++)
+        {
+            assignments.append(indent(indent, String.format("%s[%d] = 0x%xL;\n", bitsetName, i, words[i])));
+        }
+        return assignments.toString();
+    }
+
     private void validation(final Writer out, final Aggregate aggregate, final AggregateType type)
         throws IOException
     {
         final List<Field> requiredFields = requiredFields(aggregate.entries()).collect(toList());
         out.append(generateFieldDictionary(requiredFields, REQUIRED_FIELDS, true));
 
+        final Map<String, Integer> fieldOrdinals = fieldOrdinals(aggregate.entries());
+        final int fieldBitsetLength = fieldBitsetLength(fieldOrdinals);
+        final String fieldOrdinalTags = fieldOrdinals
+            .keySet()
+            .stream()
+            .map((name) -> "Constants." + constantName(name))
+            .collect(joining(", "));
+
         if (aggregate.containsGroup())
         {
             final List<Field> groupFields = aggregate
@@ -325,10 +554,11 @@ public class DecoderGenerator extends Generator
             "";
 
         out.append(String.format(
+            "    private final int[] fieldOrdinalTags = { %5$s };\n\n" +
             (isGroup ? "" :
-            "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%5$d);\n\n" +
+            "    private final long[] alreadyVisitedFields = new long[%1$d];\n\n" +
             "    private final IntHashSet unknownFields = new IntHashSet(10);\n\n") +
-            "    private final IntHashSet missingRequiredFields = new IntHashSet(%1$d);\n\n" +
+            "    private final long[] missingRequiredFields = new long[%1$d];\n\n" +
             "    private int invalidTagId = NO_ERROR;\n\n" +
             "    public int invalidTagId()\n" +
             "    {\n" +
@@ -346,24 +576,28 @@ public class DecoderGenerator extends Generator
             "        {\n" +
             "            return false;\n" +
             "        }\n" +
-            "        final IntIterator missingFieldsIterator = missingRequiredFields.iterator();\n" +
             (isMessage ? "        final IntIterator unknownFieldsIterator = unknownFields.iterator();\n" : "") +
             "%2$s" +
-            "        if (missingFieldsIterator.hasNext())\n" +
+            "        final long[] missingRequiredFields = this.missingRequiredFields;\n" +
+            "        for (int i = 0; i < missingRequiredFields.length; i++)\n" +
             "        {\n" +
-            "            invalidTagId = missingFieldsIterator.nextValue();\n" +
-            "            rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
-            "            return false;\n" +
+            "            final long missingFields = missingRequiredFields[i];\n" +
+            "            if (missingFields != 0)\n" +
+            "            {\n" +
+            "                invalidTagId = fieldOrdinalTags[(i << 6) + Long.numberOfTrailingZeros(missingFields)];\n" +
+            "                rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
+            "                return false;\n" +
+            "            }\n" +
             "        }\n" +
             "%3$s" +
             "%4$s" +
             "        return true;\n" +
             "    }\n\n",
-            sizeHashSet(requiredFields),
+            fieldBitsetLength,
             messageValidation,
             enumValidation,
             groupValidation,
-            2 * aggregate.allFieldsIncludingComponents().count()));
+            fieldOrdinalTags));
     }
 
     private String generateFieldDictionary(final Collection<Field> fields, final String name,
@@ -423,6 +657,7 @@ public class DecoderGenerator extends Generator
 
         final boolean isChar = type == Type.CHAR;
         final boolean isPrimitive = type.isIntBased() || isChar;
+        final String value = isLazy(type) ? propertyName + "()" : propertyName;
 
 
         return String.format(
@@ -434,7 +669,7 @@ public class DecoderGenerator extends Generator
             "        }\n",
             optionalCheck,
             name,
-            propertyName,
+            value,
             tagNumber,
             isPrimitive ? "" : ", " + propertyName + "Length");
     }
@@ -764,19 +999,23 @@ public class DecoderGenerator extends Generator
         final String fieldName = formatPropertyName(name);
         final Type type = field.type();
         final String optionalCheck = optionalCheck(entry);
+        final boolean isLazy = isLazy(type);
+        final String value = isLazy ? fieldName + "()" : fieldName;
 
         final String asStringBody = String.format(entry.required() ?
-            "new String(%1$s, 0, %1$sLength)" :
-            "has%2$s ? new String(%1$s, 0, %1$sLength) : null",
+            "new String(%3$s, 0, %1$sLength)" :
+            "has%2$s ? new String(%3$s, 0, %1$sLength) : null",
             fieldName,
-            name);
+            name,
+            value);
 
         final String enumValueDecoder = String.format(
             type.isStringBased() ?
-            "%1$s.decode(%2$s, %2$sLength)" :
-            "%1$s.decode(%2$s)",
+            "%1$s.decode(%3$s, %2$sLength)" :
+            "%1$s.decode(%3$s)",
             name,
-            fieldName);
+            fieldName,
+            value);
 
         final String asEnumBody = String.format(
             entry.required() ?
@@ -819,13 +1058,23 @@ public class DecoderGenerator extends Generator
             asEnumBody
         ) : "";
 
+        final String flyweightPosition = isLazy && !type.hasLengthField() ? String.format(
+            "    private int %1$sOffset;\n\n" +
+            "    private int %1$sLength;\n\n",
+            fieldName) : "";
+
+        final String getterBody = isLazy ?
+            lazyGetterBody(type, fieldName) :
+            String.format("        return %s;\n", fieldName);
+
         return String.format(
             "    private %s %s%s;\n\n" +
             "%s" +
+            "%s" +
             "    public %1$s %2$s()\n" +
             "    {\n" +
             "%s" +
-            "        return %2$s;\n" +
+            "%s" +
             "    }\n\n" +
             "%s\n" +
             "%s\n" +
@@ -833,13 +1082,101 @@ public class DecoderGenerator extends Generator
             javaTypeOf(type),
             fieldName,
             fieldInitialisation(type),
+            flyweightPosition,
             hasField(entry),
             optionalCheck,
+            getterBody,
             optionalGetter(entry),
             stringDecoder,
             enumDecoder);
     }
 
+    private boolean isLazy(final Type type)
+    {
+        // Group counts are always parsed as the group decoders need them.
+        return flyweightsEnabled && type != Type.NUMINGROUP;
+    }
+
+    // Parses the value from the buffer each time that the getter is called, a zero length means that it is missing.
+    private String lazyGetterBody(final Type type, final String fieldName)
+    {
+        switch (type)
+        {
+            case INT:
+            case LENGTH:
+            case SEQNUM:
+            case DAYOFMONTH:
+                return String.format(
+                    "        return %1$sLength == 0 ?\n" +
+                    "            MISSING_INT : buffer.getInt(%1$sOffset, %1$sOffset + %1$sLength);\n",
+                    fieldName);
+
+            case FLOAT:
+            case PRICE:
+            case PRICEOFFSET:
+            case QTY:
+            case PERCENTAGE:
+            case AMT:
+                return String.format(
+                    "        if (%1$sLength == 0)\n" +
+                    "        {\n" +
+                    "            %1$s.reset();\n" +
+                    "            return %1$s;\n" +
+                    "        }\n" +
+                    "        return buffer.getFloat(%1$s, %1$sOffset, %1$sLength);\n",
+                    fieldName);
+
+            case CHAR:
+                return String.format(
+                    "        return %1$sLength == 0 ? MISSING_CHAR : buffer.getChar(%1$sOffset);\n",
+                    fieldName);
+
+            case BOOLEAN:
+                return String.format(
+                    "        return %1$sLength != 0 && buffer.getBoolean(%1$sOffset);\n",
+                    fieldName);
+
+            case STRING:
+            case MULTIPLEVALUESTRING:
+            case MULTIPLESTRINGVALUE:
+            case MULTIPLECHARVALUE:
+            case CURRENCY:
+            case EXCHANGE:
+            case COUNTRY:
+            case LANGUAGE:
+                return String.format(
+                    "        %1$s = buffer.getChars(%1$s, %1$sOffset, %1$sLength);\n" +
+                    "        return %1$s;\n",
+                    fieldName);
+
+            case DATA:
+            case XMLDATA:
+                return String.format(
+                    "        if (%1$sLength == 0)\n" +
+                    "        {\n" +
+                    "            return null;\n" +
+                    "        }\n" +
+                    "        %1$s = buffer.getBytes(%1$s, %1$sOffset, %1$sLength);\n" +
+                    "        return %1$s;\n",
+                    fieldName);
+
+            case UTCTIMESTAMP:
+            case LOCALMKTDATE:
+            case UTCTIMEONLY:
+            case UTCDATEONLY:
+            case TZTIMEONLY:
+            case TZTIMESTAMP:
+            case MONTHYEAR:
+                return String.format(
+                    "        %1$s = buffer.getBytes(%1$s, %1$sOffset, %1$sLength);\n" +
+                    "        return %1$s;\n",
+                    fieldName);
+
+            default:
+                throw new UnsupportedOperationException("Unknown type: " + type);
+        }
+    }
+
     private String fieldInitialisation(final Type type)
     {
         switch (type)
@@ -979,6 +1316,17 @@ public class DecoderGenerator extends Generator
         final boolean isHeader = type == HEADER;
         final String endGroupCheck = endGroupCheck(aggregate, isGroup);
 
+        decodeFieldOrdinals = fieldOrdinals(entries);
+        decodeRequiredFields = requiredFields(entries).map(Field::name).collect(toList());
+        decodeChecksDuplicateFields = !isGroup;
+        final int fieldBitsetLength = fieldBitsetLength(decodeFieldOrdinals);
+        final long[] requiredFieldBits = new long[fieldBitsetLength];
+        for (final String requiredField : decodeRequiredFields)
+        {
+            final int ordinal = decodeFieldOrdinals.get(requiredField);
+            requiredFieldBits[fieldWord(ordinal)] |= fieldBit(ordinal);
+        }
+
         final String prefix =
             "    private AsciiBuffer buffer;\n\n" +
             "    public int decode(final AsciiBuffer buffer, final int offset, final int length)\n" +
@@ -987,8 +1335,8 @@ public class DecoderGenerator extends Generator
             "        int seenFieldCount = 0;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
-            "            missingRequiredFields.copy(" + REQUIRED_FIELDS + ");\n" +
-            (isGroup ? "" : "            alreadyVisitedFields.clear();\n") +
+            assignWords("missingRequiredFields", requiredFieldBits, 3) +
+            (isGroup ? "" : assignWords("alreadyVisitedFields", new long[fieldBitsetLength], 3)) +
             "        }\n" +
             "        this.buffer = buffer;\n" +
             "        final int end = offset + length;\n" +
@@ -1018,15 +1366,6 @@ public class DecoderGenerator extends Generator
             "                    rejectReason = " + TAG_SPECIFIED_WITHOUT_A_VALUE + ";\n" +
             "                }\n" +
             headerValidation(isHeader) +
-
-            (isGroup ? "" :
-            "                if (!alreadyVisitedFields.add(tag))\n" +
-            "                {\n" +
-            "                    invalidTagId = tag;\n" +
-            "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
-            "                }\n") +
-
-            "                missingRequiredFields.remove(tag);\n" +
             "                seenFieldCount++;\n" +
             "            }\n" +
             "            switch (tag)\n" +
@@ -1038,18 +1377,17 @@ public class DecoderGenerator extends Generator
 
         final String suffix =
             "            default:\n" +
+            (isGroup ?
             "                if (!" + CODEC_REJECT_UNKNOWN_FIELD_ENABLED + ")\n" +
             "                {\n" +
-            (isGroup ?
-            "                    seenFields.remove(tag);\n" :
-            "                    alreadyVisitedFields.remove(tag);\n") +
-            "                }\n" +
-            (isGroup ? "" :
-            "                else\n" +
+            "                    seenFields.remove(tag);\n" +
+            "                }\n" :
+            "                if (" + CODEC_REJECT_UNKNOWN_FIELD_ENABLED + " && !" + unknownFieldPredicate(type) + ")\n" +
             "                {\n" +
-            "                    if (!" + unknownFieldPredicate(type) + ")\n" +
+            "                    if (!unknownFields.add(tag) && " + CODEC_VALIDATION_ENABLED + ")\n" +
             "                    {\n" +
-            "                        unknownFields.add(tag);\n" +
+            "                        invalidTagId = tag;\n" +
+            "                        rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
             "                    }\n" +
             "                }\n") +
 
@@ -1157,7 +1495,7 @@ public class DecoderGenerator extends Generator
     private String decodeEntry(final Entry entry)
     {
         return entry.matchEntry(
-            (e) -> decodeField(e, ""),
+            (e) -> decodeField(e, trackDecodedTag(e)),
             this::decodeGroup,
             this::decodeComponent);
     }
@@ -1205,7 +1543,7 @@ public class DecoderGenerator extends Generator
             formatPropertyName(group.numberField().name()),
             MESSAGE_FIELDS);
 
-        return decodeField(group.numberField(), parseGroup);
+        return decodeField(group.numberField(), trackDecodedTag(entry) + parseGroup);
     }
 
     private String decodeField(final Entry entry, final String suffix)
@@ -1219,9 +1557,28 @@ public class DecoderGenerator extends Generator
         final Field field = (Field)entry.element();
         final String name = entry.name();
         final String fieldName = formatPropertyName(name);
+        final Type type = field.type();
+        final String validateField = validateDecodedField(name);
+
+        if (isLazy(type))
+        {
+            return String.format(
+                "            case Constants.%s:\n" +
+                validateField +
+                "%s" +
+                "                %3$sOffset = valueOffset;\n" +
+                "                %3$sLength = valueLength;\n" +
+                "%s" +
+                "                break;\n",
+                constantName(name),
+                optionalAssign(entry),
+                fieldName,
+                suffix);
+        }
 
         return String.format(
             "            case Constants.%s:\n" +
+            validateField +
             "%s" +
             "                %s = buffer.%s);\n" +
             "%s" +
@@ -1231,12 +1588,51 @@ public class DecoderGenerator extends Generator
             constantName(name),
             optionalAssign(entry),
             fieldName,
-            decodeMethodFor(field.type(), fieldName),
-            storeOffsetForStrings(field.type(), fieldName),
-            storeLengthForVariableLength(field.type(), fieldName),
+            decodeMethodFor(type, fieldName),
+            storeOffsetForStrings(type, fieldName),
+            storeLengthForVariableLength(type, fieldName),
             suffix);
     }
 
+    private String validateDecodedField(final String name)
+    {
+        final int ordinal = decodeFieldOrdinals.get(name);
+        final int word = fieldWord(ordinal);
+        final long bit = fieldBit(ordinal);
+
+        final String duplicateCheck = decodeChecksDuplicateFields ? String.format(
+            "                    if ((alreadyVisitedFields[%1$d] & 0x%2$xL) != 0)\n" +
+            "                    {\n" +
+            "                        invalidTagId = tag;\n" +
+            "                        rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
+            "                    }\n" +
+            "                    alreadyVisitedFields[%1$d] |= 0x%2$xL;\n",
+            word,
+            bit) : "";
+
+        final String requiredCheck = decodeRequiredFields.contains(name) ? String.format(
+            "                    missingRequiredFields[%1$d] &= 0x%2$xL;\n",
+            word,
+            ~bit) : "";
+
+        if (duplicateCheck.isEmpty() && requiredCheck.isEmpty())
+        {
+            return "";
+        }
+
+        return
+            "                if (" + CODEC_VALIDATION_ENABLED + ")\n" +
+            "                {\n" +
+            duplicateCheck +
+            requiredCheck +
+            "                }\n";
+    }
+
+    private String trackDecodedTag(final Entry entry)
+    {
+        return isTrackedEntry(entry) ? "                trackDecodedTag(tag);\n" : "";
+    }
+
     private String storeLengthForVariableLength(final Type type, final String fieldName)
     {
         return type.hasLengthField() ?
@@ -1312,6 +1708,29 @@ public class DecoderGenerator extends Generator
         return String.format("new String(%s, 0, %1$sLength)", fieldName);
     }
 
+    protected String fieldToString(final Field field)
+    {
+        final Type type = field.type();
+        if (!isLazy(type))
+        {
+            return super.fieldToString(field);
+        }
+
+        final String fieldName = formatPropertyName(field.name());
+        if (type.isStringBased())
+        {
+            return String.format("new String(%s(), 0, %1$sLength)", fieldName);
+        }
+        else if (type == Type.DATA || type == Type.XMLDATA)
+        {
+            return String.format("Arrays.toString(%s())", fieldName);
+        }
+        else
+        {
+            return fieldName + "()";
+        }
+    }
+
     protected boolean hasFlag(final Entry entry, final Field field)
     {
         return !entry.required();
@@ -1319,7 +1738,7 @@ public class DecoderGenerator extends Generator
 
     protected String resetTemporalValue(final String name)
     {
-        return resetNothing(name);
+        return flyweightsEnabled ? resetStringBasedData(name) : resetNothing(name);
     }
 
     protected String resetComponents(final List<Entry> entries, final StringBuilder methods)
@@ -44,12 +44,15 @@ import static uk.co.real_logic.artio.dictionary.generation.AggregateType.GROUP;
 import static uk.co.real_logic.artio.dictionary.generation.AggregateType.HEADER;
 import static uk.co.real_logic.artio.dictionary.generation.EnumGenerator.hasEnumGenerated;
 import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.fileHeader;
+import static uk.co.real_logic.artio.util.MutableAsciiBuffer.LONGEST_FLOAT_LENGTH;
 import static uk.co.real_logic.artio.util.MutableAsciiBuffer.LONGEST_INT_LENGTH;
 import static uk.co.real_logic.sbe.generation.java.JavaUtil.formatClassName;
 import static uk.co.real_logic.sbe.generation.java.JavaUtil.formatPropertyName;
 
 public class EncoderGenerator extends Generator
 {
+    private static final String SENDING_TIME = "SendingTime";
+
     private static final String SUFFIX =
         "        buffer.putSeparator(position);\n" +
         "        position++;\n" +
@@ -110,7 +113,8 @@ public class EncoderGenerator extends Generator
         "    public long startMessage(final MutableAsciiBuffer buffer, final int offset)\n" +
         "    {\n" +
         "        final int start = offset + beginStringLength + 16;\n" +
-        "        int position = start;";
+        "        int position = start;\n" +
+        "        encodedSendingTimeOffset = 0;";
 
     private static final String GROUP_ENCODE_PREFIX =
         "    public int encode(final MutableAsciiBuffer buffer, final int offset, final int remainingElements)\n" +
@@ -136,6 +140,37 @@ public class EncoderGenerator extends Generator
         "    {\n" +
         "        int position = offset;\n\n";
 
+    private static final String GROUP_MAX_ENCODED_LENGTH_PREFIX =
+        "    public int maxEncodedLength(final int remainingElements)\n" +
+        "    {\n" +
+        "        if (remainingElements == 0)\n" +
+        "        {\n" +
+        "            return 0;\n" +
+        "        }\n\n" +
+        "        int length = 0;\n\n";
+
+    // The header's 8=...|9=...| is encoded into space reserved before the other header fields, see startMessage
+    private static final String HEADER_MAX_ENCODED_LENGTH_PREFIX =
+        "    public int maxEncodedLength()\n" +
+        "    {\n" +
+        "        int length = beginStringLength + 16;\n\n";
+
+    // |10=...| is always 7 bytes long
+    private static final String TRAILER_MAX_ENCODED_LENGTH_PREFIX =
+        "    int maxEncodedLength()\n" +
+        "    {\n" +
+        "        int length = checkSumHeaderLength + 3 + 1;\n\n";
+
+    private static final String MESSAGE_MAX_ENCODED_LENGTH_PREFIX =
+        "    public int maxEncodedLength()\n" +
+        "    {\n" +
+        "        int length = header.maxEncodedLength() + trailer.maxEncodedLength();\n\n";
+
+    private static final String OTHER_MAX_ENCODED_LENGTH_PREFIX =
+        "    public int maxEncodedLength()\n" +
+        "    {\n" +
+        "        int length = 0;\n\n";
+
     private static final String RESET_NEXT_GROUP =
         "        if (next != null)" +
         "        {\n" +
@@ -265,7 +300,12 @@ public class EncoderGenerator extends Generator
             out.append(
                 String.format("\n" +
                 "    private static final byte[] DEFAULT_BEGIN_STRING=\"%s\".getBytes(StandardCharsets.US_ASCII);" +
-                "\n\n",
+                "\n\n" +
+                "    private int encodedSendingTimeOffset;\n\n" +
+                "    public int encodedSendingTimeOffset()\n" +
+                "    {\n" +
+                "        return encodedSendingTimeOffset;\n" +
+                "    }\n\n",
                 beginString));
 
         }
@@ -273,6 +313,7 @@ public class EncoderGenerator extends Generator
         precomputedHeaders(out, aggregate.entries());
         setters(out, className, aggregate.entries());
         out.append(encodeMethod(aggregate.entries(), type));
+        out.append(maxEncodedLengthMethod(aggregate.entries(), type));
         out.append(completeResetMethod(aggregate, isMessage, type));
         out.append(toString(aggregate, isMessage));
         out.append("}\n");
@@ -653,7 +694,8 @@ public class EncoderGenerator extends Generator
         }
 
         final String body = entries.stream()
-            .map(this::encodeEntry)
+            .map(entry -> aggregateType == HEADER && SENDING_TIME.equals(entry.name()) ?
+                encodeSendingTime(entry) : encodeEntry(entry))
             .collect(joining("\n"));
 
         String suffix;
@@ -710,7 +752,18 @@ public class EncoderGenerator extends Generator
         }
     }
 
+    // Records where the value is put, so that it can be overwritten without parsing the message
+    private String encodeSendingTime(final Entry entry)
+    {
+        return encodeField(entry, "        encodedSendingTimeOffset = position;\n");
+    }
+
     private String encodeField(final Entry entry)
+    {
+        return encodeField(entry, "");
+    }
+
+    private String encodeField(final Entry entry, final String valuePrefix)
     {
         final Element element = entry.element();
         final Field field = (Field)element;
@@ -722,19 +775,7 @@ public class EncoderGenerator extends Generator
         final boolean needsMissingThrow =
             (mustCheckFlag || mustCheckLength) && entry.required() && !"MsgSeqNum".equals(name);
 
-        final String enablingPrefix;
-        if (mustCheckFlag)
-        {
-            enablingPrefix = String.format("        if (has%s) {\n", name);
-        }
-        else if (mustCheckLength)
-        {
-            enablingPrefix = String.format("        if (%sLength > 0) {\n", fieldName);
-        }
-        else
-        {
-            enablingPrefix = "";
-        }
+        final String enablingPrefix = enablingPrefix(entry, field);
         String enablingSuffix = mustCheckFlag || mustCheckLength ? "        }\n" : "";
 
         if (needsMissingThrow)
@@ -746,7 +787,7 @@ public class EncoderGenerator extends Generator
                 "        }\n";
         }
 
-        final String tag = formatTag(fieldName, enablingPrefix);
+        final String tag = formatTag(fieldName, enablingPrefix) + valuePrefix;
 
         switch (type)
         {
@@ -804,6 +845,156 @@ public class EncoderGenerator extends Generator
         }
     }
 
+    private String enablingPrefix(final Entry entry, final Field field)
+    {
+        if (hasFlag(entry, field))
+        {
+            return String.format("        if (has%s) {\n", field.name());
+        }
+        else if (field.type().hasLengthField())
+        {
+            return String.format("        if (%sLength > 0) {\n", formatPropertyName(field.name()));
+        }
+        else
+        {
+            return "";
+        }
+    }
+
+    // Mirrors encodeMethod(), but only adds up an upper bound on the length that it encodes
+    private String maxEncodedLengthMethod(final List<Entry> entries, final AggregateType aggregateType)
+    {
+        final String prefix;
+        switch (aggregateType)
+        {
+            case TRAILER:
+                prefix = TRAILER_MAX_ENCODED_LENGTH_PREFIX;
+                break;
+
+            case GROUP:
+                prefix = GROUP_MAX_ENCODED_LENGTH_PREFIX;
+                break;
+
+            case MESSAGE:
+                prefix = MESSAGE_MAX_ENCODED_LENGTH_PREFIX;
+                break;
+
+            case HEADER:
+                prefix = HEADER_MAX_ENCODED_LENGTH_PREFIX;
+                break;
+
+            default:
+                prefix = OTHER_MAX_ENCODED_LENGTH_PREFIX;
+                break;
+        }
+
+        final String body = entries.stream()
+            .map(this::maxEncodedLengthEntry)
+            .collect(joining());
+
+        String suffix =
+            "        return length;\n" +
+            "    }\n\n";
+
+        if (aggregateType == GROUP)
+        {
+            suffix =
+                "        if (next != null)\n" +
+                "        {\n" +
+                "            length += next.maxEncodedLength(remainingElements - 1);\n" +
+                "        }\n" + suffix;
+        }
+
+        return prefix + body + suffix;
+    }
+
+    private String maxEncodedLengthEntry(final Entry entry)
+    {
+        if (isBodyLength(entry) || isBeginString(entry) || isCheckSum(entry))
+        {
+            return "";
+        }
+        else
+        {
+            return entry.matchEntry(
+                this::maxEncodedLengthField, this::maxEncodedLengthGroup, this::maxEncodedLengthComponent);
+        }
+    }
+
+    private String maxEncodedLengthField(final Entry entry)
+    {
+        final Field field = (Field)entry.element();
+        final String fieldName = formatPropertyName(field.name());
+        final String enablingPrefix = enablingPrefix(entry, field);
+        final String enablingSuffix = enablingPrefix.isEmpty() ? "" : "        }\n";
+
+        final String valueLength;
+        switch (field.type())
+        {
+            case INT:
+            case LENGTH:
+            case SEQNUM:
+            case NUMINGROUP:
+            case DAYOFMONTH:
+                valueLength = String.valueOf(LONGEST_INT_LENGTH);
+                break;
+
+            case FLOAT:
+            case PRICE:
+            case PRICEOFFSET:
+            case QTY:
+            case PERCENTAGE:
+            case AMT:
+                // Zeros are added either side of the value's digits to make up its scale
+                valueLength = String.format("%d + Math.abs(%s.scale())", LONGEST_FLOAT_LENGTH, fieldName);
+                break;
+
+            case CHAR:
+            case BOOLEAN:
+                valueLength = "1";
+                break;
+
+            case DATA:
+            case XMLDATA:
+                valueLength = fieldName + ".length";
+                break;
+
+            default:
+                valueLength = fieldName + "Length";
+                break;
+        }
+
+        return String.format(
+            "%s" +
+            "        length += %sHeaderLength + %s + 1;\n" +
+            "%s",
+            enablingPrefix,
+            fieldName,
+            valueLength,
+            enablingSuffix);
+    }
+
+    private String maxEncodedLengthGroup(final Entry entry)
+    {
+        final Group group = (Group)entry.element();
+        return String.format(
+            "%1$s" +
+            "        if (%2$s != null)\n" +
+            "        {\n" +
+            "            length += %2$s.maxEncodedLength(%3$s);\n" +
+            "        }\n",
+            maxEncodedLengthField(group.numberField()),
+            formatPropertyName(group.name()),
+            formatPropertyName(group.numberField().name()));
+    }
+
+    private String maxEncodedLengthComponent(final Entry entry)
+    {
+        return String.format(
+            "        length += %1$s.maxEncodedLength();\n",
+            formatPropertyName(entry.name()));
+    }
+
     private String stringPut(final String fieldName, final String optionalSuffix, final String tag)
     {
         return formatEncoder(fieldName, optionalSuffix, tag,
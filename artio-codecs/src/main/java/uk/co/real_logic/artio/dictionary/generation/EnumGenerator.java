@@ -21,7 +21,6 @@ import org.agrona.generation.OutputManager;
 import uk.co.real_logic.artio.builder.CharRepresentable;
 import uk.co.real_logic.artio.builder.IntRepresentable;
 import uk.co.real_logic.artio.builder.StringRepresentable;
-import uk.co.real_logic.artio.dictionary.CharArrayMap;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 import uk.co.real_logic.artio.dictionary.ir.Field;
 import uk.co.real_logic.artio.dictionary.ir.Field.Type;
@@ -29,12 +28,14 @@ import uk.co.real_logic.artio.dictionary.ir.Field.Value;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.*;
 import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.*;
 
@@ -125,10 +126,7 @@ public final class EnumGenerator
             try
             {
                 out.append(fileHeader(builderPackage));
-                out.append(importFor(CharArrayMap.class));
                 out.append(importFor(IntHashSet.class));
-                out.append(importFor(Map.class));
-                out.append(importFor(HashMap.class));
                 out.append(interfaceToImport);
                 out.append(generateEnumDeclaration(enumName, interfaceToImplement));
 
@@ -226,7 +224,7 @@ public final class EnumGenerator
             case STRING:
                 return "    public static boolean isValid(final char[] representation, final int length)\n" +
                        "    {\n" +
-                       "        return charMap.containsKey(representation, length);\n" +
+                       "        return decode(representation, 0, length) != " + UNKNOWN_NAME + ";\n" +
                        "    }\n";
 
             case MULTIPLEVALUESTRING:
@@ -238,12 +236,12 @@ public final class EnumGenerator
                        "        {\n" +
                        "            if (representation[i] == ' ')\n" +
                        "            {\n" +
-                       "                if (! charMap.containsKey(representation, offset, i - offset))\n" +
+                       "                if (decode(representation, offset, i - offset) == " + UNKNOWN_NAME + ")\n" +
                        "                    return false;\n" +
                        "                offset = i + 1;\n" +
                        "            }\n" +
                        "        }\n" +
-                       "        return charMap.containsKey(representation, offset, length - offset);\n" +
+                       "        return decode(representation, offset, length - offset) != " + UNKNOWN_NAME + ";\n" +
                        "    }\n";
 
             case MULTIPLECHARVALUE:
@@ -296,31 +294,22 @@ public final class EnumGenerator
             case STRING:
             case MULTIPLEVALUESTRING:
             case MULTIPLESTRINGVALUE:
-                final String entries = allValues
-                    .stream()
-                    .map((v) -> format("        stringMap.put(%s, %s);\n", literal(v, type), v.description()))
-                    .collect(joining());
-
                 return format(
-                    "    private static final CharArrayMap<%1$s> charMap;\n" +
-                    "    static\n" +
+                    "    public static %1$s decode(final char[] representation, final int length)\n" +
                     "    {\n" +
-                    "        final Map<String, %1$s> stringMap = new HashMap<>();\n" +
-                    "%2$s" +
-                    "        charMap = new CharArrayMap<>(stringMap);\n" +
+                    "        return decode(representation, 0, length);\n" +
                     "    }\n" +
                     "\n" +
-                    "    public static %1$s decode(final char[] representation, final int length)\n" +
+                    "    public static %1$s decode(final char[] representation, final int offset, final int length)\n" +
                     "    {\n" +
-                            "        final %1$s value = charMap.get(representation, length);\n" +
-                            "        if (value == null)\n" +
-                            "        {\n" +
-                            "            return %3$s;\n" +
-                            "        }\n" +
-                            "        return value;\n" +
+                    "        switch (length)\n" +
+                    "        {\n" +
+                    "%2$s" +
+                    "        }\n" +
+                    "        return %3$s;\n" +
                     "    }\n",
                     typeName,
-                    entries,
+                    lengthCases(allValues),
                     UNKNOWN_NAME);
             case MULTIPLECHARVALUE:
 
@@ -340,6 +329,80 @@ public final class EnumGenerator
         }
     }
 
+    // Decodes by switching on the length and then the first character, so only values that share both have their
+    // remaining characters compared. Works in place on the char[] without hashing or shared mutable state.
+    private String lengthCases(final List<Value> allValues)
+    {
+        final Map<Integer, List<Value>> valuesByLength = allValues
+            .stream()
+            .collect(groupingBy((value) -> value.representation().length(), TreeMap::new, toList()));
+
+        final StringBuilder cases = new StringBuilder();
+        valuesByLength.forEach((length, values) ->
+        {
+            cases.append(format("        case %d:\n", length));
+            if (length == 0)
+            {
+                cases.append(format("            return %s;\n", values.get(0).description()));
+                return;
+            }
+
+            final Map<Character, List<Value>> valuesByFirstChar = values
+                .stream()
+                .collect(groupingBy((value) -> value.representation().charAt(0), TreeMap::new, toList()));
+
+            cases.append("            switch (representation[offset])\n");
+            cases.append("            {\n");
+            valuesByFirstChar.forEach((firstChar, firstCharValues) ->
+            {
+                cases.append(format("            case %s:\n", charLiteral(firstChar)));
+                if (length == 1)
+                {
+                    cases.append(format("                return %s;\n", firstCharValues.get(0).description()));
+                    return;
+                }
+
+                for (final Value value : firstCharValues)
+                {
+                    cases.append(format("                if (%s)\n", remainingCharsMatch(value.representation())));
+                    cases.append("                {\n");
+                    cases.append(format("                    return %s;\n", value.description()));
+                    cases.append("                }\n");
+                }
+                cases.append("                break;\n");
+            });
+            cases.append("            }\n");
+            cases.append("            break;\n");
+        });
+
+        return cases.toString();
+    }
+
+    private String remainingCharsMatch(final String representation)
+    {
+        final StringBuilder matches = new StringBuilder();
+        for (int i = 1; i < representation.length(); i++)
+        {
+            if (i > 1)
+            {
+                matches.append(" && ");
+            }
+            matches.append(format("representation[offset + %d] == %s", i, charLiteral(representation.charAt(i))));
+        }
+
+        return matches.toString();
+    }
+
+    private static String charLiteral(final char value)
+    {
+        if (value == '\'' || value == '\\')
+        {
+            return "'\\" + value + "'";
+        }
+
+        return "'" + value + "'";
+    }
+
     private boolean hasGeneratedValueOf(final Type type)
     {
         switch (type)
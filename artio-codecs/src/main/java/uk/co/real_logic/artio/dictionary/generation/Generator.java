@@ -379,7 +379,7 @@ public abstract class Generator
             nameOfResetMethod(name));
     }
 
-    private boolean isNotResettableField(final String name)
+    protected boolean isNotResettableField(final String name)
     {
         return isDerivedField(name) || isPreCalculatedField(name);
     }
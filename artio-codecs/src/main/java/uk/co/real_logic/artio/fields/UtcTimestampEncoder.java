@@ -17,6 +17,8 @@ package uk.co.real_logic.artio.fields;
 
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
+import java.util.concurrent.TimeUnit;
+
 import static uk.co.real_logic.artio.fields.CalendricalUtil.*;
 import static uk.co.real_logic.artio.fields.UtcTimeOnlyDecoder.MICROS_FIELD_LENGTH;
 import static uk.co.real_logic.artio.fields.UtcTimeOnlyDecoder.MILLIS_FIELD_LENGTH;
@@ -31,20 +33,36 @@ public final class UtcTimestampEncoder
     public static final int LENGTH_WITHOUT_MILLISECONDS = UtcTimestampDecoder.LENGTH_WITHOUT_MILLISECONDS;
     public static final int LENGTH_WITH_MILLISECONDS = UtcTimestampDecoder.LENGTH_WITH_MILLISECONDS;
     public static final int LENGTH_WITH_MICROSECONDS = UtcTimestampDecoder.LENGTH_WITH_MICROSECONDS;
+    public static final int LENGTH_WITH_NANOSECONDS = LENGTH_WITH_MICROSECONDS + 3;
 
     private static final int LENGTH_OF_DATE = 8;
     private static final int LENGTH_OF_DATE_AND_DASH = LENGTH_OF_DATE + 1;
 
-    private final boolean usesMillisecondsAsEpochFraction;
-    private final byte[] bytes = new byte[LENGTH_WITH_MICROSECONDS];
+    // yyyyMMdd-HH:mm:ss.SSS
+    private static final int HOURS_OFFSET = LENGTH_OF_DATE_AND_DASH;
+    private static final int MINUTES_OFFSET = 12;
+    private static final int SECONDS_OFFSET = 15;
+    private static final int FRACTION_SEPARATOR_OFFSET = 17;
+    private static final int FRACTION_OFFSET = 18;
+
+    private final long minEpochFraction;
+    private final long maxEpochFraction;
+    private final long fractionInSecond;
+    private final int fractionFieldLength;
+    private final int lengthWithFraction;
+    private final byte[] bytes = new byte[LENGTH_WITH_NANOSECONDS];
     private final MutableAsciiBuffer flyweight = new MutableAsciiBuffer(bytes);
 
-    private long startOfNextDayInFraction;
-    private long beginningOfDayInFraction;
+    // The day and second of the timestamp that was last encoded by initialise() or update()
+    private long startOfDayInSeconds;
+    private long startOfNextDayInSeconds;
+    private long lastEpochSecond;
+    private long lastEpochFraction;
+    private int lastLength;
 
     public UtcTimestampEncoder()
     {
-        this(true);
+        this(TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -56,105 +74,162 @@ public final class UtcTimestampEncoder
      */
     public UtcTimestampEncoder(final boolean usesMillisecondsAsEpochFraction)
     {
-        this.usesMillisecondsAsEpochFraction = usesMillisecondsAsEpochFraction;
-        flyweight.wrap(bytes);
+        this(usesMillisecondsAsEpochFraction ? TimeUnit.MILLISECONDS : TimeUnit.MICROSECONDS);
     }
 
     /**
-     * Encode the current time into the buffer as an ascii UTC String
+     * Create the encoder.
      *
-     * @param epochFraction the current time as the number of milliseconds or microseconds since the start of the
-     *                      UNIX Epoch.
-     * @return the length of the encoded data in the flyweight.
+     * @param precision the time unit of the <code>epochFraction</code> passed to encode(), initialise() and update()
+     *                  and of the fraction of the second that is encoded, one of milliseconds, microseconds or
+     *                  nanoseconds.
      */
-    public int encode(final long epochFraction)
+    public UtcTimestampEncoder(final TimeUnit precision)
     {
-        if (usesMillisecondsAsEpochFraction)
-        {
-            return encode(epochFraction, flyweight, 0);
-        }
-        else
+        switch (precision)
         {
-            return encodeMicros(epochFraction, flyweight, 0);
+            case MILLISECONDS:
+                minEpochFraction = MIN_EPOCH_MILLIS;
+                maxEpochFraction = MAX_EPOCH_MILLIS;
+                fractionInSecond = MILLIS_IN_SECOND;
+                fractionFieldLength = MILLIS_FIELD_LENGTH;
+                lengthWithFraction = LENGTH_WITH_MILLISECONDS;
+                break;
+
+            case MICROSECONDS:
+                minEpochFraction = MIN_EPOCH_MICROS;
+                maxEpochFraction = MAX_EPOCH_MICROS;
+                fractionInSecond = MICROS_IN_SECOND;
+                fractionFieldLength = MICROS_FIELD_LENGTH;
+                lengthWithFraction = LENGTH_WITH_MICROSECONDS;
+                break;
+
+            case NANOSECONDS:
+                // Every long number of nanoseconds is within the years that can be encoded.
+                minEpochFraction = Long.MIN_VALUE;
+                maxEpochFraction = Long.MAX_VALUE;
+                fractionInSecond = NANOS_IN_SECOND;
+                fractionFieldLength = LENGTH_WITH_NANOSECONDS - FRACTION_OFFSET;
+                lengthWithFraction = LENGTH_WITH_NANOSECONDS;
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unsupported precision: " + precision);
         }
     }
 
-    public int initialise(final long epochFraction)
+    /**
+     * Encode the current time into the buffer as an ascii UTC String
+     *
+     * @param epochFraction the current time as the number of milliseconds, microseconds or nanoseconds since the start
+     *                      of the UNIX Epoch, depending upon the precision of this encoder.
+     * @return the length of the encoded data in the flyweight.
+     */
+    public int encode(final long epochFraction)
     {
-        final long minEpochFraction;
-        final long maxEpochFraction;
-        final long fractionInSecond;
-        final long fractionInDay;
-        final int fractionFieldLength;
-        final int lengthWithFraction;
+        // The next update() can't reuse the digits in the buffer.
+        startOfNextDayInSeconds = startOfDayInSeconds;
 
-        if (usesMillisecondsAsEpochFraction)
-        {
-            minEpochFraction = MIN_EPOCH_MILLIS;
-            maxEpochFraction = MAX_EPOCH_MILLIS;
-            fractionInSecond = MILLIS_IN_SECOND;
-            fractionInDay = MILLIS_IN_DAY;
-            fractionFieldLength = MILLIS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_MILLISECONDS;
-        }
-        else
-        {
-            minEpochFraction = MIN_EPOCH_MICROS;
-            maxEpochFraction = MAX_EPOCH_MICROS;
-            fractionInSecond = MICROS_IN_SECOND;
-            fractionInDay = MICROS_IN_DAY;
-            fractionFieldLength = MICROS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_MICROSECONDS;
-        }
+        return encodeFraction(
+            epochFraction,
+            flyweight,
+            0,
+            minEpochFraction,
+            maxEpochFraction,
+            fractionInSecond,
+            lengthWithFraction,
+            fractionFieldLength);
+    }
 
+    /**
+     * Encode a time into the buffer as an ascii UTC String, so that it can be updated with {@link #update(long)}.
+     * Unlike {@link #encode(long)} the fraction of the second is always written to the buffer, even when it's zero
+     * and so left out of the returned length.
+     *
+     * @param epochFraction the time as the number of milliseconds, microseconds or nanoseconds since the start of the
+     *                      UNIX Epoch, depending upon the precision of this encoder.
+     * @return the length of the encoded data in the flyweight.
+     */
+    public int initialise(final long epochFraction)
+    {
         validate(epochFraction, minEpochFraction, maxEpochFraction);
 
-        final long localSecond = localSecond(epochFraction, fractionInSecond);
-        final long epochDay = epochDay(localSecond);
-        final int fractionOfSecond = fractionOfSecond(epochFraction, fractionInSecond);
-
-        startOfNextDayInFraction = (epochDay + 1) * fractionInDay;
-        beginningOfDayInFraction = startOfNextDayInFraction - fractionInDay;
+        final long epochSecond = localSecond(epochFraction, fractionInSecond);
+        final long epochDay = epochDay(epochSecond);
+        startOfDayInSeconds = epochDay * SECONDS_IN_DAY;
+        startOfNextDayInSeconds = startOfDayInSeconds + SECONDS_IN_DAY;
+        lastEpochSecond = epochSecond;
 
+        final MutableAsciiBuffer flyweight = this.flyweight;
         encodeDate(epochDay, flyweight, 0);
         flyweight.putChar(LENGTH_OF_DATE, '-');
-        UtcTimeOnlyEncoder.encodeFraction(
-            localSecond, fractionOfSecond, flyweight, LENGTH_OF_DATE_AND_DASH, fractionFieldLength);
+        UtcTimeOnlyEncoder.encodeFraction(epochSecond, 0, flyweight, HOURS_OFFSET, fractionFieldLength);
+        flyweight.putChar(FRACTION_SEPARATOR_OFFSET, '.');
 
-        return fractionOfSecond > 0 ? lengthWithFraction : LENGTH_WITHOUT_MILLISECONDS;
+        return encodeFractionOfSecond(epochFraction);
     }
 
+    /**
+     * Encode a time into the buffer as an ascii UTC String, only rewriting the digits that have changed since the
+     * previously encoded time. This is cheaper than {@link #encode(long)} when encoding a series of close times,
+     * for example the SendingTime of messages: the date is only rewritten when the day changes, and the hours and
+     * minutes when they change. The fraction of the second is always written to the buffer, even when it's zero and
+     * so left out of the returned length.
+     *
+     * @param epochFraction the time as the number of milliseconds, microseconds or nanoseconds since the start of the
+     *                      UNIX Epoch, depending upon the precision of this encoder.
+     * @return the length of the encoded data in the flyweight.
+     */
     public int update(final long epochFraction)
     {
-        if (epochFraction > startOfNextDayInFraction || epochFraction < beginningOfDayInFraction)
+        final long epochSecond = localSecond(epochFraction, fractionInSecond);
+        final long startOfDayInSeconds = this.startOfDayInSeconds;
+        if (epochSecond < startOfDayInSeconds || epochSecond >= startOfNextDayInSeconds)
         {
             return initialise(epochFraction);
         }
 
-        final long fractionInSecond;
-        final int fractionFieldLength;
-        final int lengthWithFraction;
+        if (epochFraction == lastEpochFraction)
+        {
+            return lastLength;
+        }
 
-        if (usesMillisecondsAsEpochFraction)
+        final long lastEpochSecond = this.lastEpochSecond;
+        if (epochSecond != lastEpochSecond)
         {
-            fractionInSecond = MILLIS_IN_SECOND;
-            fractionFieldLength = MILLIS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_MILLISECONDS;
+            this.lastEpochSecond = epochSecond;
+            encodeTime((int)(epochSecond - startOfDayInSeconds), (int)(lastEpochSecond - startOfDayInSeconds));
         }
-        else
+
+        return encodeFractionOfSecond(epochFraction);
+    }
+
+    private void encodeTime(final int secondOfDay, final int lastSecondOfDay)
+    {
+        final MutableAsciiBuffer flyweight = this.flyweight;
+        final int minuteOfDay = secondOfDay / SECONDS_IN_MINUTE;
+        if (minuteOfDay != lastSecondOfDay / SECONDS_IN_MINUTE)
         {
-            fractionInSecond = MICROS_IN_SECOND;
-            fractionFieldLength = MICROS_FIELD_LENGTH;
-            lengthWithFraction = LENGTH_WITH_MICROSECONDS;
+            final int hour = secondOfDay / SECONDS_IN_HOUR;
+            if (hour != lastSecondOfDay / SECONDS_IN_HOUR)
+            {
+                flyweight.putNaturalPaddedIntAscii(HOURS_OFFSET, 2, hour);
+            }
+
+            flyweight.putNaturalPaddedIntAscii(MINUTES_OFFSET, 2, (secondOfDay % SECONDS_IN_HOUR) / SECONDS_IN_MINUTE);
         }
 
-        final long localSecond = localSecond(epochFraction, fractionInSecond);
-        final int fractionOfSecond = fractionOfSecond(epochFraction, fractionInSecond);
+        flyweight.putNaturalPaddedIntAscii(SECONDS_OFFSET, 2, secondOfDay - minuteOfDay * SECONDS_IN_MINUTE);
+    }
 
-        UtcTimeOnlyEncoder.encodeFraction(
-            localSecond, fractionOfSecond, flyweight, LENGTH_OF_DATE_AND_DASH, fractionFieldLength);
+    private int encodeFractionOfSecond(final long epochFraction)
+    {
+        final int fractionOfSecond = fractionOfSecond(epochFraction, fractionInSecond);
+        flyweight.putNaturalPaddedIntAscii(FRACTION_OFFSET, fractionFieldLength, fractionOfSecond);
+        lastEpochFraction = epochFraction;
+        lastLength = fractionOfSecond > 0 ? lengthWithFraction : LENGTH_WITHOUT_MILLISECONDS;
 
-        return fractionOfSecond > 0 ? lengthWithFraction : LENGTH_WITHOUT_MILLISECONDS;
+        return lastLength;
     }
 
     public byte[] buffer()
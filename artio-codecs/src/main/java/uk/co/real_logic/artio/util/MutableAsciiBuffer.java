@@ -21,7 +21,9 @@ import uk.co.real_logic.artio.fields.*;
 
 import java.nio.ByteBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffer
 {
@@ -35,6 +37,14 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     private static final byte[] MIN_INTEGER_VALUE = String.valueOf(Integer.MIN_VALUE).getBytes(US_ASCII);
     private static final byte[] MIN_LONG_VALUE = String.valueOf(Long.MIN_VALUE).getBytes(US_ASCII);
 
+    // Constants for operating on 8 bytes at a time within a long
+    private static final int LAST_BYTE_IN_WORD = SIZE_OF_LONG - 1;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long LOW_BYTES_OF_SHORTS = 0x00FF00FF00FF00FFL;
+    private static final long SUM_OF_SHORTS = 0x0001000100010001L;
+
     public MutableAsciiBuffer()
     {
         super(0, 0);
@@ -275,7 +285,21 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scanBack(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        for (int index = startInclusive; index >= endExclusive; index--)
+        final long pattern = broadcast(terminator);
+        int index = startInclusive;
+        // Callers may scan from beyond the end of the buffer, so only read words that are within its bounds.
+        while (index - LAST_BYTE_IN_WORD >= endExclusive && index < capacity())
+        {
+            final long matches = matchingBytes(getLong(index - LAST_BYTE_IN_WORD, LITTLE_ENDIAN), pattern);
+            if (matches != 0)
+            {
+                return index - (Long.numberOfLeadingZeros(matches) >>> 3);
+            }
+
+            index -= SIZE_OF_LONG;
+        }
+
+        for (; index >= endExclusive; index--)
         {
             final byte value = getByte(index);
             if (value == terminator)
@@ -294,24 +318,51 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scan(final int startInclusive, final int endInclusive, final byte terminator)
     {
-        int indexValue = UNKNOWN_INDEX;
-        for (int i = startInclusive; i <= endInclusive; i++)
+        final long pattern = broadcast(terminator);
+        // Callers may scan up to beyond the end of the buffer, so only read words that are within its bounds.
+        final int lastWordStart = Math.min(endInclusive, capacity() - 1) - LAST_BYTE_IN_WORD;
+        int index = startInclusive;
+        while (index <= lastWordStart)
+        {
+            final long matches = matchingBytes(getLong(index, LITTLE_ENDIAN), pattern);
+            if (matches != 0)
+            {
+                return index + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+
+            index += SIZE_OF_LONG;
+        }
+
+        for (; index <= endInclusive; index++)
         {
-            final byte value = getByte(i);
+            final byte value = getByte(index);
             if (value == terminator)
             {
-                indexValue = i;
-                break;
+                return index;
             }
         }
 
-        return indexValue;
+        return UNKNOWN_INDEX;
     }
 
     public int computeChecksum(final int offset, final int end)
     {
+        // Sums bytes as signed values, a word at a time: the unsigned sum of each word's bytes less 256 for each
+        // byte with its high bit set.
         int total = 0;
-        for (int index = offset; index < end; index++)
+        int index = offset;
+        final int lastWordStart = end - SIZE_OF_LONG;
+        while (index <= lastWordStart)
+        {
+            final long word = getLong(index);
+            final long pairs = (word & LOW_BYTES_OF_SHORTS) + ((word >>> 8) & LOW_BYTES_OF_SHORTS);
+            final int unsignedSum = (int)((pairs * SUM_OF_SHORTS) >>> 48);
+            total += unsignedSum - (Long.bitCount(word & HIGH_BITS) << 8);
+
+            index += SIZE_OF_LONG;
+        }
+
+        for (; index < end; index++)
         {
             total += (int)getByte(index);
         }
@@ -319,6 +370,25 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
         return total % 256;
     }
 
+    private static long broadcast(final byte value)
+    {
+        return (value & 0xFFL) * LOW_BITS;
+    }
+
+    /**
+     * Finds bytes within a word that are equal to the corresponding byte of the pattern without any
+     * false positives, so the result can be safely searched from either end.
+     *
+     * @param word the word to search.
+     * @param pattern the byte being searched for, repeated in each byte of the word.
+     * @return a word with the high bit set in each matching byte and all other bits clear.
+     */
+    private static long matchingBytes(final long word, final long pattern)
+    {
+        final long difference = word ^ pattern;
+        return ~(((difference & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | difference | LOW_SEVEN_BITS);
+    }
+
     public int putAscii(final int index, final String string)
     {
         final byte[] bytes = string.getBytes(US_ASCII);
@@ -375,6 +375,37 @@ public class DecoderGeneratorTest
         assertEquals(MISSING_INT, getIntField(decoder));
     }
 
+    @Test
+    public void shouldResetDecodedFieldsAfterFirstReset() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(ENCODED_MESSAGE);
+        decoder.reset();
+
+        decode(ENCODED_MESSAGE, decoder);
+        decoder.reset();
+
+        assertFalse(hasTestReqId(decoder));
+        assertFalse(hasBooleanField(decoder));
+        assertFalse(hasDataField(decoder));
+        assertFalse(hasComponentField(decoder));
+        assertFalse(hasNoEgGroupGroupCounter(decoder));
+
+        assertEquals(MISSING_FLOAT, getFloatField(decoder));
+        assertEquals(MISSING_INT, getIntField(decoder));
+    }
+
+    @Test
+    public void shouldResetRepeatingGroupsDecodedAfterFirstReset() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+        decoder.reset();
+
+        decode(REPEATING_GROUP_MESSAGE, decoder);
+        decoder.reset();
+
+        assertFalse(hasNoEgGroupGroupCounter(decoder));
+    }
+
     @Test
     public void shouldGenerateHumanReadableToString() throws Exception
     {
@@ -560,6 +591,24 @@ public class DecoderGeneratorTest
         assertEquals("Wrong reject reason", REQUIRED_TAG_MISSING, decoder.rejectReason());
     }
 
+    @Test
+    public void shouldNotCarryValidatedFieldsBetweenDecodes() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(ENCODED_MESSAGE);
+        assertTrue("Failed validation when it should have passed", decoder.validate());
+
+        decoder.reset();
+        decode(MISSING_REQUIRED_FIELDS_MESSAGE, decoder);
+
+        assertFalse("Passed validation with missing fields", decoder.validate());
+        assertEquals("Wrong tag id", 116, decoder.invalidTagId());
+
+        decoder.reset();
+        decode(ENCODED_MESSAGE, decoder);
+
+        assertTrue("Failed validation when it should have passed", decoder.validate());
+    }
+
     @Test
     public void shouldValidateMissingRequiredFieldsInRepeatingGroup() throws Exception
     {
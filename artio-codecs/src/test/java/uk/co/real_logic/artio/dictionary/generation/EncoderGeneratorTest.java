@@ -241,6 +241,36 @@ public class EncoderGeneratorTest
         assertEncodesTo(encoder, ENCODED_MESSAGE);
     }
 
+    @Test
+    public void recordsOffsetOfEncodedSendingTime() throws Exception
+    {
+        final String sendingTime = "20190101-12:00:00.000";
+        final Encoder encoder = newHeartbeat();
+
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        setupTrailer(encoder);
+        encoder.header().sendingTime(sendingTime.getBytes(StandardCharsets.US_ASCII));
+        encoder.encode(buffer, 1);
+
+        final int sendingTimeOffset = encoder.header().encodedSendingTimeOffset();
+        assertEquals(
+            "\00152=" + sendingTime + "\001", buffer.getAscii(sendingTimeOffset - 4, sendingTime.length() + 5));
+    }
+
+    @Test
+    public void doesNotRecordOffsetOfSendingTimeThatIsNotEncoded() throws Exception
+    {
+        final Encoder encoder = newHeartbeat();
+
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        setupTrailer(encoder);
+        encoder.encode(buffer, 1);
+
+        assertEquals(0, encoder.header().encodedSendingTimeOffset());
+    }
+
     @Test
     public void encodesValuesWithOptionalTrailerFields() throws Exception
     {
@@ -869,6 +899,7 @@ public class EncoderGeneratorTest
         final int offset = Encoder.offset(result);
         assertEquals(expectedValue, buffer.getAscii(offset, expectedValue.length()));
         assertEquals(expectedValue.length(), length);
+        assertThat(offset + length - 1, lessThanOrEqualTo(encoder.maxEncodedLength()));
     }
 
     private void assertTestReqIsValue(final Object encoder) throws Exception
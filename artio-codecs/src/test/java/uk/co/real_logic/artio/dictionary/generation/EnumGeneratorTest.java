@@ -140,6 +140,21 @@ public class EnumGeneratorTest
         assertEquals(values[2], decode.invoke(null, "AA ".toCharArray(), 2));
     }
 
+    @Test
+    public void generatesCharArrayRegionBasedDecode() throws Exception
+    {
+        final Class<?> clazz = compile(STRING_ENUM, sources);
+        final Enum[] values = (Enum[])clazz.getEnumConstants();
+
+        final Method decode = clazz.getMethod("decode", char[].class, int.class, int.class);
+        final char[] representation = "0 AA A0".toCharArray();
+
+        assertEquals(values[0], decode.invoke(null, representation, 0, 1));
+        assertEquals(values[2], decode.invoke(null, representation, 2, 2));
+        assertEquals(values[1], decode.invoke(null, representation, 5, 1));
+        assertEquals(values[values.length - 1], decode.invoke(null, representation, 5, 2));
+    }
+
     @Test
     public void generateMultiStringValueValidation() throws Exception
     {
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.agrona.generation.CompilerUtil.compileInMemory;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
+import static uk.co.real_logic.artio.fields.DecimalFloat.MISSING_FLOAT;
+import static uk.co.real_logic.artio.util.Reflection.*;
+
+public class FlyweightDecoderGeneratorTest
+{
+    private static Class<?> heartbeat;
+
+    private MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        final ConstantGenerator constantGenerator = new ConstantGenerator(
+            MESSAGE_EXAMPLE, TEST_PACKAGE, outputManager);
+        final EnumGenerator enumGenerator = new EnumGenerator(MESSAGE_EXAMPLE, TEST_PARENT_PACKAGE, outputManager);
+        final DecoderGenerator decoderGenerator = new DecoderGenerator(
+            MESSAGE_EXAMPLE,
+            1,
+            TEST_PACKAGE,
+            TEST_PARENT_PACKAGE,
+            outputManager,
+            ValidationOn.class,
+            RejectUnknownFieldOff.class,
+            true);
+
+        constantGenerator.generate();
+        enumGenerator.generate();
+        decoderGenerator.generate();
+
+        final Map<String, CharSequence> sources = outputManager.getSources();
+        heartbeat = compileInMemory(HEARTBEAT_DECODER, sources);
+        if (heartbeat == null || DecoderGenerator.CODEC_LOGGING)
+        {
+            System.out.println("sources = " + sources);
+        }
+    }
+
+    @Test
+    public void shouldParseFieldsWhenRead() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(ENCODED_MESSAGE);
+
+        assertArrayEquals("abc".toCharArray(), getCharArray(decoder, TEST_REQ_ID));
+        assertEquals(2, get(decoder, INT_FIELD));
+        assertEquals(new DecimalFloat(11, 1), get(decoder, FLOAT_FIELD));
+        assertEquals(true, get(decoder, BOOLEAN_FIELD));
+        assertArrayEquals(new byte[]{ '1', '2', '3' }, getBytes(decoder, DATA_FIELD));
+        assertEquals("19700101-00:00:00.001", get(decoder, SOME_TIME_FIELD + "AsString"));
+        assertTrue(decoder.validate());
+    }
+
+    @Test
+    public void shouldOnlyRecordFieldPositionsWhenDecoding() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(ENCODED_MESSAGE);
+
+        assertEquals(0, getField(decoder, INT_FIELD));
+        assertEquals(2, get(decoder, INT_FIELD));
+    }
+
+    @Test
+    public void shouldResetFields() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(ENCODED_MESSAGE);
+
+        decoder.reset();
+
+        assertFalse((boolean)getField(decoder, HAS_TEST_REQ_ID));
+        assertEquals(MISSING_FLOAT, get(decoder, FLOAT_FIELD));
+        assertEquals(MISSING_INT, get(decoder, INT_FIELD));
+    }
+
+    @Test
+    public void shouldReadFieldsInToString() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(ENCODED_MESSAGE);
+
+        assertThat(decoder.toString(), containsString("\"IntField\": \"2\""));
+        assertThat(decoder.toString(), containsString("\"TestReqID\": \"abc\""));
+    }
+
+    private Decoder decodeHeartbeat(final String example) throws Exception
+    {
+        final Decoder decoder = (Decoder)heartbeat.getConstructor().newInstance();
+        buffer.putAscii(1, example);
+        decoder.decode(buffer, 1, example.length());
+        return decoder;
+    }
+
+    private char[] getCharArray(final Decoder decoder, final String name) throws Exception
+    {
+        final char[] value = (char[])get(decoder, name);
+        final int length = (int)get(decoder, name + "Length");
+        return Arrays.copyOf(value, length);
+    }
+}
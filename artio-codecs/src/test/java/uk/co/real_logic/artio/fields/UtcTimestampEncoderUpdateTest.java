@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.fields;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.*;
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.fields.UtcTimestampEncoder.*;
+
+public class UtcTimestampEncoderUpdateTest
+{
+    private static final long START = Instant.parse("2019-03-31T23:58:59.998Z").toEpochMilli();
+
+    @Test
+    public void shouldEncodeTimestampsWithMilliseconds()
+    {
+        final UtcTimestampEncoder encoder = new UtcTimestampEncoder();
+
+        assertEncodes(encoder, MILLISECONDS, "20190331-23:58:59.998", START);
+        assertEncodes(encoder, MILLISECONDS, "20190331-23:58:59.999", START + 1);
+        assertEncodes(encoder, MILLISECONDS, "20190331-23:59:00", START + 2);
+        assertEncodes(encoder, MILLISECONDS, "20190331-23:59:00", START + 2);
+        assertEncodes(encoder, MILLISECONDS, "20190401-00:00:00.001", START + 60_003);
+        assertEncodes(encoder, MILLISECONDS, "20190401-01:00:00.001", START + 3_660_003);
+        assertEncodes(encoder, MILLISECONDS, "20190331-23:58:59.998", START);
+        assertEncodes(encoder, MILLISECONDS, "00010101-00:00:00", MIN_EPOCH_MILLIS);
+        assertEncodes(encoder, MILLISECONDS, "99991231-23:59:59.999", MAX_EPOCH_MILLIS);
+    }
+
+    @Test
+    public void shouldEncodeTimestampsWithMicroseconds()
+    {
+        final UtcTimestampEncoder encoder = new UtcTimestampEncoder(MICROSECONDS);
+        final long start = MILLISECONDS.toMicros(START);
+
+        assertEncodes(encoder, MICROSECONDS, "20190331-23:58:59.998000", start);
+        assertEncodes(encoder, MICROSECONDS, "20190331-23:58:59.998001", start + 1);
+        assertEncodes(encoder, MICROSECONDS, "20190401-00:00:00.000002", start + 60_002_002);
+    }
+
+    @Test
+    public void shouldEncodeTimestampsWithNanoseconds()
+    {
+        final UtcTimestampEncoder encoder = new UtcTimestampEncoder(NANOSECONDS);
+        final long start = MILLISECONDS.toNanos(START);
+
+        assertEncodes(encoder, NANOSECONDS, "20190331-23:58:59.998000000", start);
+        assertEncodes(encoder, NANOSECONDS, "20190331-23:58:59.998000001", start + 1);
+        assertEncodes(encoder, NANOSECONDS, "20190401-00:00:00.000000002", start + 60_002_000_002L);
+        assertEncodes(encoder, NANOSECONDS, "19691231-23:59:59.999999999", -1);
+    }
+
+    @Test
+    public void shouldEncodeSameTimestampsAsJavaTime()
+    {
+        final Random random = new Random(1);
+        final UtcTimestampEncoder millisEncoder = new UtcTimestampEncoder(MILLISECONDS);
+        final UtcTimestampEncoder microsEncoder = new UtcTimestampEncoder(MICROSECONDS);
+        final UtcTimestampEncoder nanosEncoder = new UtcTimestampEncoder(NANOSECONDS);
+
+        long timeInNs = MILLISECONDS.toNanos(START);
+        for (int i = 0; i < 10_000; i++)
+        {
+            // Mostly small steps, with occasional jumps forwards and backwards across days
+            timeInNs += i % 100 == 0 ? random.nextInt() * 100_000L : random.nextInt(10_000_000);
+
+            assertEncodes(millisEncoder, MILLISECONDS, NANOSECONDS.toMillis(timeInNs));
+            assertEncodes(microsEncoder, MICROSECONDS, NANOSECONDS.toMicros(timeInNs));
+            assertEncodes(nanosEncoder, NANOSECONDS, timeInNs);
+        }
+    }
+
+    @Test
+    public void shouldAlwaysWriteFractionOfSecondToBuffer()
+    {
+        final UtcTimestampEncoder encoder = new UtcTimestampEncoder();
+        encoder.update(START);
+
+        assertEquals(LENGTH_WITHOUT_MILLISECONDS, encoder.update(START + 2));
+        assertEquals(
+            "20190331-23:59:00.000", new String(encoder.buffer(), 0, LENGTH_WITH_MILLISECONDS, US_ASCII));
+    }
+
+    @Test
+    public void shouldUpdateAfterEncode()
+    {
+        final UtcTimestampEncoder encoder = new UtcTimestampEncoder();
+        encoder.update(START);
+        encoder.encode(START + 3_660_003);
+
+        assertEncodes(encoder, MILLISECONDS, "20190331-23:58:59.999", START + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldValidateRange()
+    {
+        new UtcTimestampEncoder().update(MAX_EPOCH_MILLIS + 1);
+    }
+
+    private static void assertEncodes(
+        final UtcTimestampEncoder encoder, final TimeUnit precision, final long epochFraction)
+    {
+        final long fractionInSecond = precision.convert(1, SECONDS);
+        final long fractionOfSecond = Math.floorMod(epochFraction, fractionInSecond);
+        final Instant instant = Instant.ofEpochSecond(
+            Math.floorDiv(epochFraction, fractionInSecond), precision.toNanos(fractionOfSecond));
+        String pattern = "uuuuMMdd-HH:mm:ss";
+        if (fractionOfSecond > 0)
+        {
+            pattern += precision == MILLISECONDS ? ".SSS" : precision == MICROSECONDS ? ".SSSSSS" : ".SSSSSSSSS";
+        }
+
+        assertEncodes(
+            encoder,
+            precision,
+            DateTimeFormatter.ofPattern(pattern).withZone(ZoneOffset.UTC).format(instant),
+            epochFraction);
+    }
+
+    private static void assertEncodes(
+        final UtcTimestampEncoder encoder,
+        final TimeUnit precision,
+        final String expectedTimestamp,
+        final long epochFraction)
+    {
+        final int length = encoder.update(epochFraction);
+
+        assertEquals(expectedTimestamp.length(), length);
+        assertEquals(
+            precision + " " + epochFraction, expectedTimestamp, new String(encoder.buffer(), 0, length, US_ASCII));
+    }
+}
@@ -142,6 +142,87 @@ public class AsciiBufferTest
         assertEquals(-1, value);
     }
 
+    @Test
+    public void shouldFindCharactersWhenScanningForwards()
+    {
+        value = buffer.scan(OFFSET, OFFSET + BYTES.length - 1, '=');
+        second = buffer.scan(value + 1, OFFSET + BYTES.length - 1, '=');
+
+        assertEquals(4, value);
+        assertEquals(15, second);
+    }
+
+    @Test
+    public void shouldNotFindCharactersWhenScanningForwardsIfTheyDontExist()
+    {
+        value = buffer.scan(OFFSET, OFFSET + BYTES.length - 1, 'Z');
+
+        assertEquals(UNKNOWN_INDEX, value);
+    }
+
+    @Test
+    public void shouldScanToExactlyTheEndsOfTheRange()
+    {
+        final byte[] bytes = "abcdefghijklmnopqrstuvwxyz".getBytes(US_ASCII);
+        buffer.putBytes(0, bytes);
+
+        for (int start = 0; start < bytes.length; start++)
+        {
+            for (int end = start; end < bytes.length; end++)
+            {
+                for (int target = 0; target < bytes.length; target++)
+                {
+                    final int expected = target >= start && target <= end ? target : UNKNOWN_INDEX;
+                    assertEquals(expected, buffer.scan(start, end, bytes[target]));
+                    assertEquals(expected, buffer.scanBack(end, start, bytes[target]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindClosestMatchWhenScanningMultipleMatches()
+    {
+        putAscii("==\u0001=====\u0001=====");
+
+        assertEquals(2, buffer.scan(0, 13, (byte)1));
+        assertEquals(8, buffer.scanBack(13, 0, (byte)1));
+        assertEquals(7, buffer.scanBack(7, 0, '='));
+    }
+
+    @Test
+    public void shouldScanForwardsWithAnEndBeyondTheBuffer()
+    {
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer(BYTES);
+
+        assertEquals(BYTES.length - 1, buffer.scan(OFFSET + 8, BYTES.length + 64, ' '));
+    }
+
+    @Test
+    public void shouldComputeChecksumOfSignedBytes()
+    {
+        final byte[] bytes = new byte[300];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte)(i * 31);
+        }
+        buffer.putBytes(0, bytes);
+
+        for (int offset = 0; offset < 9; offset++)
+        {
+            for (int end = offset; end <= bytes.length; end++)
+            {
+                int total = 0;
+                for (int i = offset; i < end; i++)
+                {
+                    total += bytes[i];
+                }
+
+                assertEquals(total % 256, buffer.computeChecksum(offset, end));
+            }
+        }
+    }
+
     private void putAscii(final String value)
     {
         buffer.putBytes(0, value.getBytes(US_ASCII));
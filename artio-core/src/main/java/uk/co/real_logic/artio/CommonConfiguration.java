@@ -105,6 +105,12 @@ public class CommonConfiguration
      */
     public static final String LOGGING_SEPARATOR_PROPERTY = "fix.core.debug.separator";
 
+    /**
+     * Property name for the flag to enable or disable the engine stamping the SendingTime of messages sent by
+     * sessions as it writes them
+     */
+    public static final String ENGINE_SENDING_TIME_PROPERTY = "fix.core.engine_sending_time";
+
     public static void validateTimeout(final long timeoutInMs)
     {
         if (timeoutInMs <= 0)
@@ -230,6 +236,7 @@ public class CommonConfiguration
     private String agentNamePrefix = DEFAULT_NAME_PREFIX;
     private int inboundLibraryStream = DEFAULT_INBOUND_LIBRARY_STREAM;
     private int outboundLibraryStream = DEFAULT_OUTBOUND_LIBRARY_STREAM;
+    private boolean engineSendingTime = Boolean.getBoolean(ENGINE_SENDING_TIME_PROPERTY);
 
     private final AtomicBoolean isConcluded = new AtomicBoolean(false);
 
@@ -433,6 +440,33 @@ public class CommonConfiguration
         return this;
     }
 
+    /**
+     * Sets whether the SendingTime of messages sent via
+     * {@link uk.co.real_logic.artio.session.Session#send(uk.co.real_logic.artio.builder.Encoder)} is stamped by the
+     * engine when it writes them to the TCP connection, rather than by the library when they're encoded.
+     * <p>
+     * When switched on in a library, sessions encode
+     * {@link uk.co.real_logic.artio.session.Session#ENGINE_SENDING_TIME_PLACEHOLDER} as the SendingTime of messages.
+     * When switched on in an engine, the engine replaces this placeholder in the messages that it writes with the
+     * time, in milliseconds, that it writes them and updates their checksum. This makes the SendingTime accurate even
+     * if the message has been queued and saves encoding a timestamp on the application thread. This must be switched
+     * on in both the engine and its libraries. Session management messages, like heartbeats, are stamped as normal.
+     * <p>
+     * The engine's archive contains messages with the placeholder, so messages that are resent with PossDupFlag set
+     * have an OrigSendingTime of the time that the library sent them.
+     * <p>
+     * Default: false.
+     *
+     * @param engineSendingTime true for the engine to stamp the SendingTime of messages, false for the library to.
+     * @return this
+     * @see CommonConfiguration#ENGINE_SENDING_TIME_PROPERTY
+     */
+    public CommonConfiguration engineSendingTime(final boolean engineSendingTime)
+    {
+        this.engineSendingTime = engineSendingTime;
+        return this;
+    }
+
     public CommonConfiguration histogramPollPeriodInMs(final long histogramPollPeriodInMs)
     {
         this.histogramPollPeriodInMs = histogramPollPeriodInMs;
@@ -557,6 +591,11 @@ public class CommonConfiguration
         return sessionBufferSize;
     }
 
+    public boolean engineSendingTime()
+    {
+        return engineSendingTime;
+    }
+
     public String histogramLoggingFile()
     {
         return histogramLoggingFile;
@@ -35,6 +35,16 @@ public class FixCounters implements AutoCloseable
     private static final int INVALID_LIBRARY_ATTEMPTS_TYPE_ID = 10_005;
     private static final int SENT_MSG_SEQ_NO_TYPE_ID = 10_006;
     private static final int RECV_MSG_SEQ_NO_TYPE_ID = 10_007;
+    private static final int COALESCED_WRITES_TYPE_ID = 10_008;
+    private static final int COALESCED_MESSAGES_TYPE_ID = 10_009;
+    private static final int RECEIVE_BUFFERS_BORROWED_TYPE_ID = 10_010;
+    private static final int RECEIVE_BUFFERS_POOLED_TYPE_ID = 10_011;
+    private static final int LOGONS_AWAITING_AUTHENTICATION_TYPE_ID = 10_012;
+    private static final int AUTHENTICATION_QUEUE_FULL_TYPE_ID = 10_013;
+    private static final int FRAMER_STAGE_TIME_TYPE_ID = 10_014;
+    private static final int FRAMER_STAGE_WORK_TYPE_ID = 10_015;
+    private static final int OUTBOUND_FRAGMENT_LIMIT_TYPE_ID = 10_016;
+    private static final int REPLAY_FRAGMENT_LIMIT_TYPE_ID = 10_017;
 
     private final List<Counter> counters = new ArrayList<>();
     private final AtomicCounter failedInboundPublications;
@@ -81,6 +91,57 @@ public class FixCounters implements AutoCloseable
             "Invalid Library Attempts for " + address + " id = " + connectionId);
     }
 
+    public AtomicCounter coalescedWrites(final long connectionId, final String address)
+    {
+        return newCounter(COALESCED_WRITES_TYPE_ID, "Coalesced writes to " + address + " id = " + connectionId);
+    }
+
+    public AtomicCounter coalescedMessages(final long connectionId, final String address)
+    {
+        return newCounter(COALESCED_MESSAGES_TYPE_ID,
+            "Messages in coalesced writes to " + address + " id = " + connectionId);
+    }
+
+    public AtomicCounter receiveBuffersBorrowed()
+    {
+        return newCounter(RECEIVE_BUFFERS_BORROWED_TYPE_ID, "Receive buffers borrowed from the pool");
+    }
+
+    public AtomicCounter receiveBuffersPooled()
+    {
+        return newCounter(RECEIVE_BUFFERS_POOLED_TYPE_ID, "Idle receive buffers in the pool");
+    }
+
+    public AtomicCounter logonsAwaitingAuthentication()
+    {
+        return newCounter(LOGONS_AWAITING_AUTHENTICATION_TYPE_ID, "Logons queued for authentication");
+    }
+
+    public AtomicCounter authenticationQueueFull()
+    {
+        return newCounter(AUTHENTICATION_QUEUE_FULL_TYPE_ID, "Logons deferred by a full authentication queue");
+    }
+
+    public AtomicCounter framerStageTime(final String stageName)
+    {
+        return newCounter(FRAMER_STAGE_TIME_TYPE_ID, stageName + " time in ns");
+    }
+
+    public AtomicCounter framerStageWork(final String stageName)
+    {
+        return newCounter(FRAMER_STAGE_WORK_TYPE_ID, stageName + " work count");
+    }
+
+    public AtomicCounter outboundFragmentLimit()
+    {
+        return newCounter(OUTBOUND_FRAGMENT_LIMIT_TYPE_ID, "Outbound library fragment limit");
+    }
+
+    public AtomicCounter replayFragmentLimit()
+    {
+        return newCounter(REPLAY_FRAGMENT_LIMIT_TYPE_ID, "Replay fragment limit");
+    }
+
     public AtomicCounter sentMsgSeqNo(final long connectionId)
     {
         return newCounter(SENT_MSG_SEQ_NO_TYPE_ID, "Last Sent MsgSeqNo for " + connectionId);
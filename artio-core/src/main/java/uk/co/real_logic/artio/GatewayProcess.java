@@ -106,9 +106,15 @@ public class GatewayProcess implements AutoCloseable
     }
 
     protected void initMonitoringAgent(final List<Timer> timers, final CommonConfiguration configuration)
+    {
+        initMonitoringAgent(timers, configuration, TIME_MESSAGES);
+    }
+
+    protected void initMonitoringAgent(
+        final List<Timer> timers, final CommonConfiguration configuration, final boolean logHistograms)
     {
         final List<Agent> agents = new ArrayList<>();
-        if (TIME_MESSAGES)
+        if (logHistograms)
         {
             agents.add(new HistogramLogAgent(
                 timers,
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import uk.co.real_logic.artio.Clock;
+
+/**
+ * Adjusts the fragment limits to keep the latency of live outbound messages within a target whilst letting replays
+ * use the rest of the Framer's duty cycle.
+ * <p>
+ * Whilst live messages are late, that is the oldest live message read in a duty cycle was sent more than the target
+ * latency ago, the replay limit is halved and the outbound limit is doubled if the outbound subscription has a
+ * backlog. Otherwise the replay limit grows by one for each duty cycle where the replay stream has a backlog and the
+ * outbound limit grows by its initial value for each duty cycle where the outbound subscription has a backlog. Limits
+ * shrink back towards their initial values when there's no backlog. The replay limit is never less than one, so that
+ * replays always make progress, and neither limit grows beyond {@link #MAX_LIMIT_MULTIPLIER} times its initial value.
+ * <p>
+ * Aeron doesn't expose how many fragments are waiting on a subscription, so a subscription that reads as many
+ * fragments as its limit is treated as having a backlog.
+ */
+public class AdaptiveFragmentLimitStrategy implements FragmentLimitStrategy
+{
+    public static final int MAX_LIMIT_MULTIPLIER = 16;
+
+    private final Clock clock;
+    private final long targetLatencyInNs;
+    private final int initialOutboundLimit;
+    private final int initialReplayLimit;
+    private final int maxOutboundLimit;
+    private final int maxReplayLimit;
+
+    private int outboundLimit;
+    private int replayLimit;
+
+    /**
+     * Creates the strategy.
+     *
+     * @param initialOutboundLimit the initial fragment limit for the outbound library subscription.
+     * @param initialReplayLimit the initial fragment limit for the replay stream.
+     * @param targetLatencyInNs the time in nanoseconds that live outbound messages should be read within.
+     * @param clock the clock that libraries timestamp their messages with.
+     */
+    public AdaptiveFragmentLimitStrategy(
+        final int initialOutboundLimit,
+        final int initialReplayLimit,
+        final long targetLatencyInNs,
+        final Clock clock)
+    {
+        this.clock = clock;
+        this.targetLatencyInNs = targetLatencyInNs;
+        this.initialOutboundLimit = initialOutboundLimit;
+        this.initialReplayLimit = Math.max(1, initialReplayLimit);
+        maxOutboundLimit = initialOutboundLimit * MAX_LIMIT_MULTIPLIER;
+        maxReplayLimit = this.initialReplayLimit * MAX_LIMIT_MULTIPLIER;
+
+        outboundLimit = initialOutboundLimit;
+        replayLimit = this.initialReplayLimit;
+    }
+
+    public int outboundLibraryFragmentLimit()
+    {
+        return outboundLimit;
+    }
+
+    public int replayFragmentLimit()
+    {
+        return replayLimit;
+    }
+
+    public void onPoll(
+        final int outboundFragmentsRead, final int replayFragmentsRead, final long oldestOutboundTimestamp)
+    {
+        final boolean outboundBacklog = outboundFragmentsRead >= outboundLimit;
+        final boolean replayBacklog = replayFragmentsRead >= replayLimit;
+
+        if (oldestOutboundTimestamp != NO_OUTBOUND_MESSAGES &&
+            clock.time() - oldestOutboundTimestamp > targetLatencyInNs)
+        {
+            replayLimit = Math.max(1, replayLimit >> 1);
+            if (outboundBacklog)
+            {
+                outboundLimit = Math.min(maxOutboundLimit, outboundLimit << 1);
+            }
+
+            return;
+        }
+
+        if (replayBacklog)
+        {
+            replayLimit = Math.min(maxReplayLimit, replayLimit + 1);
+        }
+        else if (replayLimit > initialReplayLimit)
+        {
+            replayLimit--;
+        }
+
+        if (outboundBacklog)
+        {
+            outboundLimit = Math.min(maxOutboundLimit, outboundLimit + initialOutboundLimit);
+        }
+        else if (outboundLimit > initialOutboundLimit)
+        {
+            outboundLimit = Math.max(initialOutboundLimit, outboundLimit >> 1);
+        }
+    }
+}
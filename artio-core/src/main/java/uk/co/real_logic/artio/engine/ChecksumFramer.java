@@ -21,7 +21,6 @@ import org.agrona.concurrent.AtomicBuffer;
 import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 
-// TODO: optimisation: write and checksum only needed bytes
 public class ChecksumFramer extends SectorFramer
 {
     private final CRC32 crc32 = new CRC32();
@@ -66,31 +65,31 @@ public class ChecksumFramer extends SectorFramer
         validateCheckSum(fileName, start, end, savedChecksum, calculatedChecksum, errorHandler);
     }
 
+    /**
+     * Update the checksum of a single sector, for when only some sectors of the buffer have been modified.
+     *
+     * @param sectorStart the offset of the start of the sector within the buffer.
+     */
+    public void updateChecksum(final int sectorStart)
+    {
+        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
+
+        checksum(sectorStart + SECTOR_SIZE, saveChecksumFunc);
+
+        if (inMemoryByteBuffer != null)
+        {
+            inMemoryByteBuffer.clear();
+        }
+    }
+
     private void withChecksums(final ChecksumConsumer consumer)
     {
-        final byte[] inMemoryBytes = buffer.byteArray();
         final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
-        final int wrapAdjustment = buffer.wrapAdjustment();
         final int capacity = this.capacity;
 
         for (int sectorEnd = SECTOR_SIZE; sectorEnd <= capacity; sectorEnd += SECTOR_SIZE)
         {
-            final int sectorStart = sectorEnd - SECTOR_SIZE + wrapAdjustment;
-            final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
-
-            crc32.reset();
-            if (inMemoryBytes != null)
-            {
-                crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
-            }
-            else
-            {
-                ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
-                ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
-                crc32.update(inMemoryByteBuffer);
-            }
-            final int sectorChecksum = (int)crc32.getValue();
-            consumer.accept(checksumOffset, sectorChecksum);
+            checksum(sectorEnd, consumer);
         }
 
         if (inMemoryByteBuffer != null)
@@ -99,6 +98,28 @@ public class ChecksumFramer extends SectorFramer
         }
     }
 
+    private void checksum(final int sectorEnd, final ChecksumConsumer consumer)
+    {
+        final byte[] inMemoryBytes = buffer.byteArray();
+        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
+        final int sectorStart = sectorEnd - SECTOR_SIZE + buffer.wrapAdjustment();
+        final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
+
+        crc32.reset();
+        if (inMemoryBytes != null)
+        {
+            crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
+        }
+        else
+        {
+            ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
+            ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
+            crc32.update(inMemoryByteBuffer);
+        }
+        final int sectorChecksum = (int)crc32.getValue();
+        consumer.accept(checksumOffset, sectorChecksum);
+    }
+
     private interface ChecksumConsumer
     {
         void accept(int checksumOffset, int sectorChecksum);
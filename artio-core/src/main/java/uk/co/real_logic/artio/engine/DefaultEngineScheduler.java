@@ -21,8 +21,12 @@ import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentRunner;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ThreadFactory;
 
+import static java.util.Collections.emptyList;
 import static org.agrona.concurrent.AgentRunner.startOnThread;
 import static uk.co.real_logic.artio.CommonConfiguration.backoffIdleStrategy;
 
@@ -32,6 +36,7 @@ import static uk.co.real_logic.artio.CommonConfiguration.backoffIdleStrategy;
 public class DefaultEngineScheduler implements EngineScheduler
 {
     private AgentRunner framerRunner;
+    private final List<AgentRunner> framerShardRunners = new ArrayList<>();
     private AgentRunner archivingRunner;
     private AgentRunner monitoringRunner;
     private RecordingCoordinator recordingCoordinator;
@@ -44,6 +49,27 @@ public class DefaultEngineScheduler implements EngineScheduler
         final Agent monitoringAgent,
         final Agent conductorAgent,
         final RecordingCoordinator recordingCoordinator)
+    {
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            emptyList(),
+            indexingAgent,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
+    public void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final List<Agent> framerShards,
+        final Agent indexingAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
     {
         this.recordingCoordinator = recordingCoordinator;
         if (framerRunner != null)
@@ -58,6 +84,13 @@ public class DefaultEngineScheduler implements EngineScheduler
 
         final ThreadFactory threadFactory = configuration.threadFactory();
         startOnThread(framerRunner, threadFactory);
+        for (final Agent framerShard : framerShards)
+        {
+            final AgentRunner framerShardRunner = new AgentRunner(
+                backoffIdleStrategy(), errorHandler, null, framerShard);
+            framerShardRunners.add(framerShardRunner);
+            startOnThread(framerShardRunner, threadFactory);
+        }
         startOnThread(archivingRunner, threadFactory);
 
         if (monitoringAgent != null)
@@ -71,10 +104,15 @@ public class DefaultEngineScheduler implements EngineScheduler
     public void close()
     {
         EngineScheduler.awaitRunnerStart(framerRunner);
+        framerShardRunners.forEach(EngineScheduler::awaitRunnerStart);
         EngineScheduler.awaitRunnerStart(archivingRunner);
         EngineScheduler.awaitRunnerStart(monitoringRunner);
 
-        Exceptions.closeAll(framerRunner, archivingRunner, recordingCoordinator, monitoringRunner);
+        final List<AutoCloseable> closeables = new ArrayList<>();
+        closeables.add(framerRunner);
+        closeables.addAll(framerShardRunners);
+        Collections.addAll(closeables, archivingRunner, recordingCoordinator, monitoringRunner);
+        Exceptions.closeAll(closeables);
     }
 
     public void configure(final Aeron.Context aeronContext)
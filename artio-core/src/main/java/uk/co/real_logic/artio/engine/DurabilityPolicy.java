@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+/**
+ * Decides when the engine's index files, ie the sequence number indices, replay indices, their indexed positions and
+ * the session id file, are synced to disk. Fewer syncs mean lower latency and less I/O on the archiver and Framer
+ * threads, but more index data that can be lost if the machine fails. Unless the policy is {@link #NONE}, index files
+ * are also synced when the engine closes.
+ *
+ * @see EngineConfiguration#durabilityPolicy(DurabilityPolicy)
+ * @see GroupCommitter
+ */
+public enum DurabilityPolicy
+{
+    /**
+     * Index files are left for the operating system to write back, apart from the sequence number indices, which are
+     * only saved when the engine closes.
+     */
+    NONE,
+
+    /**
+     * Index files that have been written to are synced every {@link EngineConfiguration#durabilityPeriodInMs(long)}.
+     */
+    PERIODIC,
+
+    /**
+     * Index files that have been written to are synced every
+     * {@link EngineConfiguration#durabilityMessageBatchSize(int)} indexed messages, or session id writes.
+     */
+    PER_N_MESSAGES,
+
+    /**
+     * Index files that have been written to are synced whenever one of the indexed streams rolls over to a new term.
+     * The session id file isn't written from a stream, so it is synced after each write. This is the default.
+     */
+    PER_TERM
+}
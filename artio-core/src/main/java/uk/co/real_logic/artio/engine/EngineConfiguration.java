@@ -39,8 +39,10 @@ import java.util.function.Function;
 
 import static java.lang.Integer.getInteger;
 import static java.lang.System.getProperty;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.INITIAL_RECORD_OFFSET;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.NO_SEGMENT_LIMIT;
 import static uk.co.real_logic.artio.library.SessionConfiguration.*;
 import static uk.co.real_logic.artio.validation.SessionPersistenceStrategy.alwaysUnindexed;
 
@@ -68,6 +70,14 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for size of logging index files
      */
     public static final String REPLAY_INDEX_FILE_SIZE_PROP = "logging.index.size";
+    /**
+     * Property name for whether logging index files are split into segments of the index file size
+     */
+    public static final String REPLAY_INDEX_SEGMENTED_PROP = "logging.index.segmented";
+    /**
+     * Property name for the number of segments of each segmented logging index that are retained
+     */
+    public static final String REPLAY_INDEX_SEGMENT_LIMIT_PROP = "logging.index.segment_limit";
 
     // Care needs to be taken when setting the fragment limits, and buffer sizes
     // The inbound bytes received and buffer sizes should always be set low enough
@@ -114,6 +124,70 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
     public static final String NO_LOGON_DISCONNECT_TIMEOUT_PROP = "fix.core.no_logon_disconnect";
+    /**
+     * Property name for whether sender end points coalesce each duty cycle's messages into a single write
+     */
+    public static final String SENDER_COALESCE_WRITES_PROP = "fix.core.sender_coalesce_writes";
+    /**
+     * Property name for the size in bytes of the sender end point's coalescing buffer
+     */
+    public static final String SENDER_COALESCING_BUFFER_SIZE_PROP = "fix.core.sender_coalescing_buffer_size";
+    /**
+     * Property name for whether slow consumers copy their unsent messages into a spill buffer
+     */
+    public static final String SENDER_SPILL_SLOW_CONSUMER_MESSAGES_PROP =
+        "fix.core.sender_spill_slow_consumer_messages";
+    /**
+     * Property name for the number of agents, including the Framer, that TCP connections are partitioned across
+     */
+    public static final String FRAMER_SHARD_COUNT_PROP = "fix.core.framer_shard_count";
+    /**
+     * Property name for whether receiver end points defer compacting their buffers after framing messages
+     */
+    public static final String RECEIVER_DEFERRED_COMPACTION_PROP = "fix.core.receiver_deferred_compaction";
+    /**
+     * Property name for whether receiver end points borrow pooled buffers rather than each owning a buffer
+     */
+    public static final String RECEIVER_BUFFER_POOLING_PROP = "fix.core.receiver_buffer_pooling";
+    /**
+     * Property name for the maximum number of idle buffers that are retained by the receiver buffer pool
+     */
+    public static final String RECEIVER_BUFFER_POOL_SIZE_PROP = "fix.core.receiver_buffer_pool_size";
+    /**
+     * Property name for the number of threads that authenticate logons off the Framer thread
+     */
+    public static final String AUTHENTICATION_THREAD_COUNT_PROP = "fix.core.authentication_thread_count";
+    /**
+     * Property name for the number of logons that can be queued up waiting for an authentication thread
+     */
+    public static final String AUTHENTICATION_QUEUE_CAPACITY_PROP = "fix.core.authentication_queue_capacity";
+    /**
+     * Property name for whether the time taken and work done by each stage of the Framer's duty cycle is recorded
+     */
+    public static final String FRAMER_PROFILING_PROP = "fix.core.framer_profiling";
+    /**
+     * Property name for whether the outbound library and replay fragment limits adapt to backlogs and the latency of
+     * live outbound messages
+     */
+    public static final String ADAPTIVE_FRAGMENT_LIMITS_PROP = "fix.core.adaptive_fragment_limits";
+    /**
+     * Property name for the latency in nanoseconds that adaptive fragment limits aim to read live outbound
+     * messages within
+     */
+    public static final String OUTBOUND_TARGET_LATENCY_IN_NS_PROP = "fix.core.outbound_target_latency_in_ns";
+    /**
+     * Property name for the {@link DurabilityPolicy} that decides when index files are synced to disk
+     */
+    public static final String DURABILITY_POLICY_PROP = "fix.core.durability_policy";
+    /**
+     * Property name for the period in milliseconds between syncs of index files for the periodic durability policy
+     */
+    public static final String DURABILITY_PERIOD_IN_MS_PROP = "fix.core.durability_period_in_ms";
+    /**
+     * Property name for the number of indexed messages between syncs of index files for the per N messages
+     * durability policy
+     */
+    public static final String DURABILITY_MESSAGE_BATCH_SIZE_PROP = "fix.core.durability_message_batch_size";
 
     // ------------------------------------------------
     //          Configuration Defaults
@@ -121,6 +195,7 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
 
     public static final String DEFAULT_LOG_FILE_DIR = "logs";
     public static final int DEFAULT_REPLAY_INDEX_FILE_SIZE = 2 * 1024 * 1024 + INITIAL_RECORD_OFFSET;
+    public static final int DEFAULT_REPLAY_INDEX_SEGMENT_LIMIT = NO_SEGMENT_LIMIT;
     public static final int DEFAULT_LOGGER_CACHE_NUM_SETS = 8;
     public static final int DEFAULT_LOGGER_CACHE_SET_SIZE = 4;
 
@@ -134,6 +209,15 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_SESSION_ID_BUFFER_SIZE = 4 * 1024 * 1024;
     public static final int DEFAULT_SENDER_MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
     public static final int DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT = (int)SECONDS.toMillis(5);
+    public static final int DEFAULT_SENDER_COALESCING_BUFFER_SIZE = 16 * 1024;
+    public static final int DEFAULT_FRAMER_SHARD_COUNT = 1;
+    public static final int DEFAULT_RECEIVER_BUFFER_POOL_SIZE = 64;
+    public static final int DEFAULT_AUTHENTICATION_THREAD_COUNT = 0;
+    public static final int DEFAULT_AUTHENTICATION_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_OUTBOUND_TARGET_LATENCY_IN_NS = MICROSECONDS.toNanos(100);
+    public static final DurabilityPolicy DEFAULT_DURABILITY_POLICY = DurabilityPolicy.PER_TERM;
+    public static final long DEFAULT_DURABILITY_PERIOD_IN_MS = 1000;
+    public static final int DEFAULT_DURABILITY_MESSAGE_BATCH_SIZE = 1000;
     public static final String DEFAULT_SESSION_ID_FILE = "session_id_buffer";
     public static final String DEFAULT_SEQUENCE_NUMBERS_SENT_FILE = "sequence_numbers_sent";
     public static final String DEFAULT_SEQUENCE_NUMBERS_RECEIVED_FILE = "sequence_numbers_received";
@@ -164,6 +248,9 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private String host = null;
     private int port;
     private int replayIndexFileSize = getInteger(REPLAY_INDEX_FILE_SIZE_PROP, DEFAULT_REPLAY_INDEX_FILE_SIZE);
+    private boolean replayIndexSegmented = Boolean.getBoolean(REPLAY_INDEX_SEGMENTED_PROP);
+    private int replayIndexSegmentLimit =
+        getInteger(REPLAY_INDEX_SEGMENT_LIMIT_PROP, DEFAULT_REPLAY_INDEX_SEGMENT_LIMIT);
     private String logFileDir = getProperty(LOG_FILE_DIR_PROP, DEFAULT_LOG_FILE_DIR);
     private int loggerCacheNumSets = DEFAULT_LOGGER_CACHE_NUM_SETS;
     private int loggerCacheSetSize = DEFAULT_LOGGER_CACHE_SET_SIZE;
@@ -201,6 +288,29 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(SENDER_MAX_BYTES_IN_BUFFER_PROP, DEFAULT_SENDER_MAX_BYTES_IN_BUFFER);
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT);
+    private boolean senderCoalesceWrites = Boolean.getBoolean(SENDER_COALESCE_WRITES_PROP);
+    private int senderCoalescingBufferSize =
+        getInteger(SENDER_COALESCING_BUFFER_SIZE_PROP, DEFAULT_SENDER_COALESCING_BUFFER_SIZE);
+    private boolean senderSpillSlowConsumerMessages = Boolean.getBoolean(SENDER_SPILL_SLOW_CONSUMER_MESSAGES_PROP);
+    private int framerShardCount = getInteger(FRAMER_SHARD_COUNT_PROP, DEFAULT_FRAMER_SHARD_COUNT);
+    private boolean receiverDeferredCompaction = Boolean.getBoolean(RECEIVER_DEFERRED_COMPACTION_PROP);
+    private boolean receiverBufferPooling = Boolean.getBoolean(RECEIVER_BUFFER_POOLING_PROP);
+    private int receiverBufferPoolSize =
+        getInteger(RECEIVER_BUFFER_POOL_SIZE_PROP, DEFAULT_RECEIVER_BUFFER_POOL_SIZE);
+    private int authenticationThreadCount =
+        getInteger(AUTHENTICATION_THREAD_COUNT_PROP, DEFAULT_AUTHENTICATION_THREAD_COUNT);
+    private int authenticationQueueCapacity =
+        getInteger(AUTHENTICATION_QUEUE_CAPACITY_PROP, DEFAULT_AUTHENTICATION_QUEUE_CAPACITY);
+    private boolean framerProfiling = Boolean.getBoolean(FRAMER_PROFILING_PROP);
+    private boolean adaptiveFragmentLimits = Boolean.getBoolean(ADAPTIVE_FRAGMENT_LIMITS_PROP);
+    private long outboundTargetLatencyInNs =
+        Long.getLong(OUTBOUND_TARGET_LATENCY_IN_NS_PROP, DEFAULT_OUTBOUND_TARGET_LATENCY_IN_NS);
+    private FragmentLimitStrategy fragmentLimitStrategy;
+    private DurabilityPolicy durabilityPolicy =
+        DurabilityPolicy.valueOf(getProperty(DURABILITY_POLICY_PROP, DEFAULT_DURABILITY_POLICY.name()));
+    private long durabilityPeriodInMs = Long.getLong(DURABILITY_PERIOD_IN_MS_PROP, DEFAULT_DURABILITY_PERIOD_IN_MS);
+    private int durabilityMessageBatchSize =
+        getInteger(DURABILITY_MESSAGE_BATCH_SIZE_PROP, DEFAULT_DURABILITY_MESSAGE_BATCH_SIZE);
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = TcpChannelSupplier::new;
@@ -304,6 +414,42 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets whether each session's replay index is split into segment files of {@link #replayIndexFileSize(int)}.
+     * Unsegmented indices are a single ring buffer file, so only the last N messages of a session can be replayed.
+     * Segmented indices append a new segment file whenever the current one is full, so a session can be replayed as
+     * far back as its retained segments, see {@link #replayIndexSegmentLimit(int)}.
+     *
+     * Existing index files aren't converted if this is changed, so it should be set before the first run of an engine
+     * with a given log file directory.
+     *
+     * @param replayIndexSegmented true to split replay indices into segments, false for a single ring buffer file.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_SEGMENTED_PROP
+     */
+    public EngineConfiguration replayIndexSegmented(final boolean replayIndexSegmented)
+    {
+        this.replayIndexSegmented = replayIndexSegmented;
+        return this;
+    }
+
+    /**
+     * Sets the number of segments of each session's replay index that are kept on disk when replay indices are
+     * segmented. Older segments are deleted, and messages that they index can no longer be replayed.
+     *
+     * Default: no limit, every segment is kept.
+     *
+     * @param replayIndexSegmentLimit the number of segments retained per session, or 0 to keep every segment.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_SEGMENT_LIMIT_PROP
+     * @see EngineConfiguration#DEFAULT_REPLAY_INDEX_SEGMENT_LIMIT
+     */
+    public EngineConfiguration replayIndexSegmentLimit(final int replayIndexSegmentLimit)
+    {
+        this.replayIndexSegmentLimit = replayIndexSegmentLimit;
+        return this;
+    }
+
     /**
      * Sets the set size of the logger's caches.
      * <p>
@@ -429,6 +575,99 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets whether the fragment limits for the outbound library subscription and the replay stream adapt to their
+     * backlogs and the latency of live outbound messages, see {@link AdaptiveFragmentLimitStrategy}. The limits set
+     * by {@link #outboundLibraryFragmentLimit(int)} and {@link #replayFragmentLimit(int)} are used as the initial
+     * limits. Otherwise these limits are used on every duty cycle. Ignored if a
+     * {@link #fragmentLimitStrategy(FragmentLimitStrategy)} is set.
+     * <p>
+     * Default: false.
+     *
+     * @param adaptiveFragmentLimits true for the fragment limits to adapt, false for them to be static.
+     * @return this
+     * @see EngineConfiguration#ADAPTIVE_FRAGMENT_LIMITS_PROP
+     * @see EngineConfiguration#outboundTargetLatencyInNs(long)
+     */
+    public EngineConfiguration adaptiveFragmentLimits(final boolean adaptiveFragmentLimits)
+    {
+        this.adaptiveFragmentLimits = adaptiveFragmentLimits;
+        return this;
+    }
+
+    /**
+     * Sets the latency that adaptive fragment limits aim to read live outbound messages from libraries within. This
+     * is measured from when the library sent the message. Only used if {@link #adaptiveFragmentLimits(boolean)} is
+     * switched on.
+     *
+     * @param outboundTargetLatencyInNs the target latency for live outbound messages in nanoseconds.
+     * @return this
+     * @see EngineConfiguration#OUTBOUND_TARGET_LATENCY_IN_NS_PROP
+     */
+    public EngineConfiguration outboundTargetLatencyInNs(final long outboundTargetLatencyInNs)
+    {
+        this.outboundTargetLatencyInNs = outboundTargetLatencyInNs;
+        return this;
+    }
+
+    /**
+     * Sets a custom strategy for the fragment limits of the outbound library subscription and the replay stream.
+     * The current limits are recorded in counters.
+     *
+     * @param fragmentLimitStrategy the strategy for the fragment limits.
+     * @return this
+     * @see EngineConfiguration#adaptiveFragmentLimits(boolean)
+     */
+    public EngineConfiguration fragmentLimitStrategy(final FragmentLimitStrategy fragmentLimitStrategy)
+    {
+        this.fragmentLimitStrategy = fragmentLimitStrategy;
+        return this;
+    }
+
+    /**
+     * Sets when the sequence number indices, the replay indices, their indexed positions and the session id file are
+     * synced to disk. The syncs of all the indices written by the archiver are batched together, as are those of
+     * the Framer.
+     * <p>
+     * Default: {@link DurabilityPolicy#PER_TERM}.
+     *
+     * @param durabilityPolicy the policy that decides when index files are synced to disk.
+     * @return this
+     * @see EngineConfiguration#DURABILITY_POLICY_PROP
+     */
+    public EngineConfiguration durabilityPolicy(final DurabilityPolicy durabilityPolicy)
+    {
+        this.durabilityPolicy = durabilityPolicy;
+        return this;
+    }
+
+    /**
+     * Sets the period between syncs of index files when the durability policy is {@link DurabilityPolicy#PERIODIC}.
+     *
+     * @param durabilityPeriodInMs the period between syncs of index files in milliseconds.
+     * @return this
+     * @see EngineConfiguration#DURABILITY_PERIOD_IN_MS_PROP
+     */
+    public EngineConfiguration durabilityPeriodInMs(final long durabilityPeriodInMs)
+    {
+        this.durabilityPeriodInMs = durabilityPeriodInMs;
+        return this;
+    }
+
+    /**
+     * Sets the number of indexed messages between syncs of index files when the durability policy is
+     * {@link DurabilityPolicy#PER_N_MESSAGES}.
+     *
+     * @param durabilityMessageBatchSize the number of indexed messages between syncs of index files.
+     * @return this
+     * @see EngineConfiguration#DURABILITY_MESSAGE_BATCH_SIZE_PROP
+     */
+    public EngineConfiguration durabilityMessageBatchSize(final int durabilityMessageBatchSize)
+    {
+        this.durabilityMessageBatchSize = durabilityMessageBatchSize;
+        return this;
+    }
+
     /**
      * Sets the bytes limit for receiving inbound messages.
      *
@@ -460,6 +699,216 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets whether receiver end points defer compacting their buffers.
+     * <p>
+     * By default any data that is left over once a TCP read has been framed, for example a partially received message
+     * or messages that couldn't be published due to back pressure, is copied to the start of the receiver buffer after
+     * every framing pass. When compaction is deferred the buffer is used as a sliding window instead: the end point
+     * just records where the remaining data starts and carries on reading after it. The remaining data is only copied
+     * to the start of the buffer once there's less free space at the end of the buffer than before the data. This
+     * means that large messages which arrive over many reads, or messages that are back pressured over many duty
+     * cycles, are copied at most once rather than once per read.
+     * <p>
+     * Default: false.
+     *
+     * @param receiverDeferredCompaction true to defer compacting the receiver buffer, false to compact after every
+     *                                   framing pass.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_DEFERRED_COMPACTION_PROP
+     */
+    public EngineConfiguration receiverDeferredCompaction(final boolean receiverDeferredCompaction)
+    {
+        this.receiverDeferredCompaction = receiverDeferredCompaction;
+        return this;
+    }
+
+    /**
+     * Sets whether receiver end points borrow their buffers from a pool rather than each owning a buffer of
+     * {@link #receiverBufferSize()} for their whole lifetime.
+     * <p>
+     * When switched on each connection reads into a scratch buffer that belongs to the agent polling it. A
+     * connection only borrows a buffer from the pool while it holds data that it can't publish yet, for example a
+     * partially received message, and returns it once that data has been published. This means that mostly idle
+     * connections don't hold onto direct memory. The number of borrowed and idle pooled buffers are recorded in
+     * counters.
+     * <p>
+     * Default: false.
+     *
+     * @param receiverBufferPooling true to borrow receiver buffers from a pool, false for each connection to own one.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_BUFFER_POOLING_PROP
+     * @see EngineConfiguration#receiverBufferPoolSize(int)
+     */
+    public EngineConfiguration receiverBufferPooling(final boolean receiverBufferPooling)
+    {
+        this.receiverBufferPooling = receiverBufferPooling;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of idle buffers that the receiver buffer pool retains. Buffers that are returned to a
+     * full pool are released. Only used if {@link #receiverBufferPooling(boolean)} is switched on.
+     *
+     * @param receiverBufferPoolSize the maximum number of idle buffers that are retained.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_BUFFER_POOL_SIZE_PROP
+     */
+    public EngineConfiguration receiverBufferPoolSize(final int receiverBufferPoolSize)
+    {
+        this.receiverBufferPoolSize = receiverBufferPoolSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads that authenticate acceptor logons. When this is 0 the session id strategy,
+     * session persistence strategy and authentication strategy are invoked on the Framer thread.
+     * <p>
+     * Otherwise these strategies are invoked on a pool of authentication threads, so a slow authentication strategy,
+     * for example one that makes a database lookup, doesn't stall the Framer. These threads are created using the
+     * {@link #threadFactory(ThreadFactory)}. The strategies must be thread safe if more than one thread is used. The
+     * Framer polls for the result of authentication, checks whether the session is already logged on and completes
+     * the logon. The number of logons waiting for an authentication thread is recorded in a counter.
+     * <p>
+     * Default: 0.
+     *
+     * @param authenticationThreadCount the number of threads that authenticate logons, or 0 for the Framer to.
+     * @return this
+     * @see EngineConfiguration#AUTHENTICATION_THREAD_COUNT_PROP
+     * @see EngineConfiguration#authenticationQueueCapacity(int)
+     */
+    public EngineConfiguration authenticationThreadCount(final int authenticationThreadCount)
+    {
+        this.authenticationThreadCount = authenticationThreadCount;
+        return this;
+    }
+
+    /**
+     * Sets the number of logons that can be queued up waiting for an authentication thread. Logons that can't be
+     * queued are retried the next time that the Framer polls them and recorded in a counter. Only used if
+     * {@link #authenticationThreadCount(int)} is greater than 0.
+     *
+     * @param authenticationQueueCapacity the number of logons that can be queued up waiting for authentication.
+     * @return this
+     * @see EngineConfiguration#AUTHENTICATION_QUEUE_CAPACITY_PROP
+     */
+    public EngineConfiguration authenticationQueueCapacity(final int authenticationQueueCapacity)
+    {
+        this.authenticationQueueCapacity = authenticationQueueCapacity;
+        return this;
+    }
+
+    /**
+     * Sets whether the time taken and work done by each stage of the Framer's duty cycle is recorded.
+     * <p>
+     * When switched on the total time in nanoseconds spent in, and the total work done by, each stage is recorded
+     * in counters. The time taken by each stage on every duty cycle is also recorded in a histogram that is
+     * logged by the histogram logging agent, see {@link #histogramLoggingFile(String)}. This adds two clock reads
+     * per stage to every duty cycle, so is intended for finding out which stage causes latency outliers.
+     * <p>
+     * Default: false.
+     *
+     * @param framerProfiling true to record the time taken and work done by each stage of the Framer's duty cycle.
+     * @return this
+     * @see EngineConfiguration#FRAMER_PROFILING_PROP
+     * @see uk.co.real_logic.artio.timing.FramerStage
+     */
+    public EngineConfiguration framerProfiling(final boolean framerProfiling)
+    {
+        this.framerProfiling = framerProfiling;
+        return this;
+    }
+
+    /**
+     * Sets whether outbound messages are coalesced into a single write per connection for each duty cycle.
+     * <p>
+     * When switched on each connection's messages from the library and replay streams are copied into a
+     * coalescing buffer as they are polled and written to the TCP connection together once the Framer has
+     * finished polling each stream, rather than with a write per message. Messages larger than the coalescing
+     * buffer are written on their own. The number of coalesced writes and the number of messages within them are
+     * recorded in counters for each connection.
+     * <p>
+     * Default: false.
+     *
+     * @param senderCoalesceWrites true to coalesce each duty cycle's writes, false to write each message when polled.
+     * @return this
+     * @see EngineConfiguration#SENDER_COALESCE_WRITES_PROP
+     * @see EngineConfiguration#senderCoalescingBufferSize(int)
+     */
+    public EngineConfiguration senderCoalesceWrites(final boolean senderCoalesceWrites)
+    {
+        this.senderCoalesceWrites = senderCoalesceWrites;
+        return this;
+    }
+
+    /**
+     * Sets the size of each connection's coalescing buffer, which is allocated when a connection first coalesces
+     * a message. Only used if {@link #senderCoalesceWrites(boolean)} is switched on.
+     *
+     * @param senderCoalescingBufferSize the size in bytes of each connection's coalescing buffer.
+     * @return this
+     * @see EngineConfiguration#SENDER_COALESCING_BUFFER_SIZE_PROP
+     */
+    public EngineConfiguration senderCoalescingBufferSize(final int senderCoalescingBufferSize)
+    {
+        this.senderCoalescingBufferSize = senderCoalescingBufferSize;
+        return this;
+    }
+
+    /**
+     * Sets whether slow consumers copy their unsent messages into a spill buffer.
+     * <p>
+     * By default when a TCP connection can't keep up with the messages that are sent to it the Framer retries the
+     * unsent messages by re-reading them from the library and replay streams' log buffers. A slow consumer can block
+     * the position of that re-reading, which holds back the stream for every other connection. When spilling is
+     * switched on each unsent message is copied once into an off-heap spill buffer for its connection and written
+     * from there, so the re-reading never has to block. The spill buffer is allocated when a connection first
+     * spills and grows as needed. Its size is bounded by {@link #senderMaxBytesInBuffer()}, since slow consumers
+     * with more than that many unsent bytes are disconnected.
+     * <p>
+     * Default: false.
+     *
+     * @param senderSpillSlowConsumerMessages true to spill slow consumers' unsent messages, false to re-read them
+     *                                        from the log buffers.
+     * @return this
+     * @see EngineConfiguration#SENDER_SPILL_SLOW_CONSUMER_MESSAGES_PROP
+     * @see EngineConfiguration#senderMaxBytesInBuffer(int)
+     */
+    public EngineConfiguration senderSpillSlowConsumerMessages(final boolean senderSpillSlowConsumerMessages)
+    {
+        this.senderSpillSlowConsumerMessages = senderSpillSlowConsumerMessages;
+        return this;
+    }
+
+    /**
+     * Sets the number of agents that the engine's TCP connections are partitioned across.
+     * <p>
+     * With a single shard the Framer polls every connection. With more than one shard the engine also runs
+     * framerShardCount - 1 framer shard agents, each with its own selector, which are scheduled by the
+     * {@link EngineScheduler}. The {@link DefaultEngineScheduler} runs each shard on its own thread, other schedulers
+     * run them on the Framer's thread unless they override the shards' launch method. Once a connection has logged
+     * on and is owned by a library the Framer hands it over to a shard, which reads, frames and publishes its inbound
+     * messages from then on. The Framer recalls the connection before changing its state, for example when handing
+     * the session over to another library or when disconnecting it, so session ownership is only ever changed on the
+     * Framer thread. Sending messages, authentication and
+     * engine managed sessions stay on the Framer, since every library publishes its outbound messages on a single
+     * stream that the Framer subscribes to.
+     * <p>
+     * When sharded the inbound library stream is published to through a publication that is shared between the
+     * Framer and its shards.
+     * <p>
+     * Default: 1.
+     *
+     * @param framerShardCount the number of agents, including the Framer, that connections are partitioned across.
+     * @return this
+     * @see EngineConfiguration#FRAMER_SHARD_COUNT_PROP
+     */
+    public EngineConfiguration framerShardCount(final int framerShardCount)
+    {
+        this.framerShardCount = framerShardCount;
+        return this;
+    }
+
     public EngineConfiguration channelSupplierFactory(final Function<EngineConfiguration, TcpChannelSupplier> value)
     {
         this.channelSupplierFactory = value;
@@ -656,6 +1105,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return replayIndexFileSize;
     }
 
+    public boolean replayIndexSegmented()
+    {
+        return replayIndexSegmented;
+    }
+
+    public int replayIndexSegmentLimit()
+    {
+        return replayIndexSegmentLimit;
+    }
+
     public int loggerCacheSetSize()
     {
         return loggerCacheSetSize;
@@ -756,6 +1215,86 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return noLogonDisconnectTimeoutInMs;
     }
 
+    public boolean senderCoalesceWrites()
+    {
+        return senderCoalesceWrites;
+    }
+
+    public int senderCoalescingBufferSize()
+    {
+        return senderCoalescingBufferSize;
+    }
+
+    public boolean senderSpillSlowConsumerMessages()
+    {
+        return senderSpillSlowConsumerMessages;
+    }
+
+    public int framerShardCount()
+    {
+        return framerShardCount;
+    }
+
+    public boolean receiverDeferredCompaction()
+    {
+        return receiverDeferredCompaction;
+    }
+
+    public boolean receiverBufferPooling()
+    {
+        return receiverBufferPooling;
+    }
+
+    public int receiverBufferPoolSize()
+    {
+        return receiverBufferPoolSize;
+    }
+
+    public int authenticationThreadCount()
+    {
+        return authenticationThreadCount;
+    }
+
+    public int authenticationQueueCapacity()
+    {
+        return authenticationQueueCapacity;
+    }
+
+    public boolean framerProfiling()
+    {
+        return framerProfiling;
+    }
+
+    public boolean adaptiveFragmentLimits()
+    {
+        return adaptiveFragmentLimits;
+    }
+
+    public long outboundTargetLatencyInNs()
+    {
+        return outboundTargetLatencyInNs;
+    }
+
+    public FragmentLimitStrategy fragmentLimitStrategy()
+    {
+        return fragmentLimitStrategy;
+    }
+
+    public DurabilityPolicy durabilityPolicy()
+    {
+        return durabilityPolicy;
+    }
+
+    public long durabilityPeriodInMs()
+    {
+        return durabilityPeriodInMs;
+    }
+
+    public int durabilityMessageBatchSize()
+    {
+        return durabilityMessageBatchSize;
+    }
+
     public SessionPersistenceStrategy sessionPersistenceStrategy()
     {
         return sessionPersistenceStrategy;
@@ -927,6 +1466,67 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
                 sessionBufferSize()));
         }
 
+        if (framerShardCount() < 1)
+        {
+            throw new IllegalArgumentException(String.format(
+                "framerShardCount(%d) must be at least 1", framerShardCount()));
+        }
+
+        if (receiverBufferPoolSize() < 0)
+        {
+            throw new IllegalArgumentException(String.format(
+                "receiverBufferPoolSize(%d) must not be negative", receiverBufferPoolSize()));
+        }
+
+        if (authenticationThreadCount() < 0)
+        {
+            throw new IllegalArgumentException(String.format(
+                "authenticationThreadCount(%d) must not be negative", authenticationThreadCount()));
+        }
+
+        if (authenticationQueueCapacity() < 1)
+        {
+            throw new IllegalArgumentException(String.format(
+                "authenticationQueueCapacity(%d) must be at least 1", authenticationQueueCapacity()));
+        }
+
+        if (replayIndexSegmentLimit() < 0)
+        {
+            throw new IllegalArgumentException(String.format(
+                "replayIndexSegmentLimit(%d) must not be negative", replayIndexSegmentLimit()));
+        }
+
+        if (durabilityPolicy() == null)
+        {
+            throw new IllegalArgumentException("Missing required configuration: durability policy");
+        }
+
+        if (durabilityPeriodInMs() < 1)
+        {
+            throw new IllegalArgumentException(String.format(
+                "durabilityPeriodInMs(%d) must be at least 1", durabilityPeriodInMs()));
+        }
+
+        if (durabilityMessageBatchSize() < 1)
+        {
+            throw new IllegalArgumentException(String.format(
+                "durabilityMessageBatchSize(%d) must be at least 1", durabilityMessageBatchSize()));
+        }
+
+        if (fragmentLimitStrategy() == null)
+        {
+            if (adaptiveFragmentLimits())
+            {
+                fragmentLimitStrategy = new AdaptiveFragmentLimitStrategy(
+                    outboundLibraryFragmentLimit, replayFragmentLimit, outboundTargetLatencyInNs, clock());
+            }
+            else
+            {
+                fragmentLimitStrategy = FragmentLimitStrategy.staticLimits(
+                    outboundLibraryFragmentLimit, replayFragmentLimit);
+            }
+        }
+
         if (sentSequenceNumberIndex() == null)
         {
             sentSequenceNumberIndex = mapFile(DEFAULT_SEQUENCE_NUMBERS_SENT_FILE, sequenceNumberIndexSize);
@@ -56,6 +56,7 @@ public class EngineContext implements AutoCloseable
     private final CompletionPosition inboundCompletionPosition = new CompletionPosition();
     private final CompletionPosition outboundLibraryCompletionPosition = new CompletionPosition();
     private final CompletionPosition outboundClusterCompletionPosition = new CompletionPosition();
+    private final GroupCommitter archiverGroupCommitter;
 
     private Streams inboundLibraryStreams;
     private Streams outboundLibraryStreams;
@@ -84,6 +85,12 @@ public class EngineContext implements AutoCloseable
         this.recordingCoordinator = recordingCoordinator;
 
         senderSequenceNumbers = new SenderSequenceNumbers(configuration.framerIdleStrategy());
+        archiverGroupCommitter = new GroupCommitter(
+            configuration.durabilityPolicy(),
+            configuration.durabilityPeriodInMs(),
+            configuration.durabilityMessageBatchSize(),
+            new SystemEpochClock(),
+            configuration.agentNamePrefix() + "ArchiverGroupCommitter");
 
         try
         {
@@ -92,13 +99,15 @@ public class EngineContext implements AutoCloseable
                 configuration.sentSequenceNumberIndex(),
                 errorHandler,
                 configuration.outboundLibraryStream(),
-                recordingCoordinator.outboundRecordingIdLookup());
+                recordingCoordinator.outboundRecordingIdLookup(),
+                archiverGroupCommitter);
             receivedSequenceNumberIndex = new SequenceNumberIndexWriter(
                 configuration.receivedSequenceNumberBuffer(),
                 configuration.receivedSequenceNumberIndex(),
                 errorHandler,
                 configuration.inboundLibraryStream(),
-                recordingCoordinator.inboundRecordingIdLookup());
+                recordingCoordinator.inboundRecordingIdLookup(),
+                archiverGroupCommitter);
 
             newStreams();
             newArchivingAgent();
@@ -149,15 +158,18 @@ public class EngineContext implements AutoCloseable
             logFileDir,
             streamId,
             configuration.replayIndexFileSize(),
+            configuration.replayIndexSegmented(),
+            configuration.replayIndexSegmentLimit(),
             cacheNumSets,
             cacheSetSize,
             LoggerUtil::map,
             ReplayIndexDescriptor.replayPositionBuffer(logFileDir, streamId),
             errorHandler,
-            recordingIdLookup);
+            recordingIdLookup,
+            archiverGroupCommitter);
     }
 
-    private ReplayQuery newReplayQuery(final IdleStrategy idleStrategy, final int streamId)
+    private ReplayQuery newReplayQuery(final int streamId)
     {
         final String logFileDir = configuration.logFileDir();
         final int cacheSetSize = configuration.loggerCacheSetSize();
@@ -169,8 +181,8 @@ public class EngineContext implements AutoCloseable
             cacheNumSets,
             cacheSetSize,
             LoggerUtil::mapExistingFile,
+            configuration.replayIndexSegmented(),
             streamId,
-            idleStrategy,
             aeronArchive,
             errorHandler,
             archiveReplayStream);
@@ -180,7 +192,7 @@ public class EngineContext implements AutoCloseable
         final ExclusivePublication replayPublication)
     {
         return new Replayer(
-            newReplayQuery(configuration.archiverIdleStrategy(), configuration.outboundLibraryStream()),
+            newReplayQuery(configuration.outboundLibraryStream()),
             replayPublication,
             new BufferClaim(),
             configuration.archiverIdleStrategy(),
@@ -214,7 +226,8 @@ public class EngineContext implements AutoCloseable
             inboundCompletionPosition,
             aeronArchive,
             errorHandler,
-            configuration.archiveReplayStream());
+            configuration.archiveReplayStream(),
+            archiverGroupCommitter);
 
         final List<Index> outboundIndices = new ArrayList<>();
         outboundIndices.add(newReplayIndex(
@@ -233,7 +246,8 @@ public class EngineContext implements AutoCloseable
             outboundLibraryCompletionPosition,
             aeronArchive,
             errorHandler,
-            configuration.archiveReplayStream());
+            configuration.archiveReplayStream(),
+            archiverGroupCommitter);
     }
 
     private void newArchivingAgent()
@@ -248,6 +262,10 @@ public class EngineContext implements AutoCloseable
             agents.add(inboundIndexer);
             agents.add(outboundIndexer);
             agents.add(replayer);
+            if (configuration.durabilityPolicy() == DurabilityPolicy.PERIODIC)
+            {
+                agents.add(archiverGroupCommitter);
+            }
 
             archivingAgent = new CompositeAgent(agents);
         }
@@ -293,7 +311,7 @@ public class EngineContext implements AutoCloseable
             return null;
         }
 
-        return newReplayQuery(configuration.framerIdleStrategy(), configuration.inboundLibraryStream());
+        return newReplayQuery(configuration.inboundLibraryStream());
     }
 
     public GatewayPublication inboundPublication()
@@ -302,6 +320,11 @@ public class EngineContext implements AutoCloseable
             configuration.framerIdleStrategy(), "inboundPublication");
     }
 
+    public GatewayPublication sharedInboundPublication(final IdleStrategy idleStrategy, final String name)
+    {
+        return inboundLibraryStreams.sharedGatewayPublication(idleStrategy, name);
+    }
+
     public CompletionPosition inboundCompletionPosition()
     {
         return inboundCompletionPosition;
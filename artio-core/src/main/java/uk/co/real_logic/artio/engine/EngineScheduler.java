@@ -19,6 +19,10 @@ import io.aeron.Aeron;
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.CompositeAgent;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface for determining how an Engine's Agents are allocated to threads.
@@ -45,6 +49,57 @@ public interface EngineScheduler extends AutoCloseable
         Agent conductorAgent,
         RecordingCoordinator recordingCoordinator);
 
+    /**
+     * Invoked by the FIX Engine to start the threads when it has framer shards, see
+     * {@link EngineConfiguration#framerShardCount(int)}. Should only return once they are started.
+     * <p>
+     * By default the framer shards are run on the framer's thread, after the framer, which works but doesn't poll
+     * connections concurrently. Override this in order to run them on their own threads.
+     *
+     * @param configuration the engine's configuration object.
+     * @param errorHandler the ErrorHandler used by the engine.
+     * @param framer the framer agent to schedule.
+     * @param framerShards the framer shard agents to schedule, empty unless
+     *                     {@link EngineConfiguration#framerShardCount(int)} is greater than 1. These should be
+     *                     closed after the framer.
+     * @param indexingAgent the archiver agent to schedule.
+     * @param monitoringAgent the monitoring agent to schedule.
+     * @param conductorAgent if aeron has useConductorInvoker enable it
+     * @param recordingCoordinator must be shut down after the Framer but before the conductorAgent.
+     */
+    default void launch(
+        EngineConfiguration configuration,
+        ErrorHandler errorHandler,
+        Agent framer,
+        List<Agent> framerShards,
+        Agent indexingAgent,
+        Agent monitoringAgent,
+        Agent conductorAgent,
+        RecordingCoordinator recordingCoordinator)
+    {
+        final Agent framerAgent;
+        if (framerShards.isEmpty())
+        {
+            framerAgent = framer;
+        }
+        else
+        {
+            final List<Agent> agents = new ArrayList<>();
+            agents.add(framer);
+            agents.addAll(framerShards);
+            framerAgent = new CompositeAgent(agents);
+        }
+
+        launch(
+            configuration,
+            errorHandler,
+            framerAgent,
+            indexingAgent,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
     /**
      * Invoked by the FIX Engine to stop the threads. Should only return once they are completed stopped.
      */
@@ -33,6 +33,7 @@ import java.io.File;
 import java.util.List;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
+import static uk.co.real_logic.artio.CommonConfiguration.TIME_MESSAGES;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.closeAll;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.suppressingClose;
 
@@ -153,7 +154,7 @@ public final class FixEngine extends GatewayProcess
         {
             this.configuration = configuration;
 
-            timers = new EngineTimers(configuration.clock());
+            timers = new EngineTimers(configuration.clock(), configuration.framerProfiling());
             scheduler = configuration.scheduler();
             scheduler.configure(configuration.aeronContext());
             init(configuration);
@@ -175,7 +176,7 @@ public final class FixEngine extends GatewayProcess
                 aeronArchive,
                 recordingCoordinator);
             initFramer(configuration, fixCounters, replayPublication.sessionId());
-            initMonitoringAgent(timers.all(), configuration);
+            initMonitoringAgent(timers.all(), configuration, TIME_MESSAGES || configuration.framerProfiling());
             recordingCoordinator.awaitReady();
         }
         catch (final Exception e)
@@ -251,6 +252,7 @@ public final class FixEngine extends GatewayProcess
             configuration,
             errorHandler,
             framerContext.framer(),
+            framerContext.framerShards(),
             engineContext.archivingAgent(),
             monitoringAgent,
             conductorAgent(),
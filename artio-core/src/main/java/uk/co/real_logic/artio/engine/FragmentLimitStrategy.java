@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+/**
+ * Decides how many fragments the Framer polls from the outbound library subscription and from the replay stream on
+ * each duty cycle. Large limits for the replay stream let big resends complete sooner at the cost of delaying live
+ * outbound messages and vice versa.
+ *
+ * Only invoked on the Framer thread.
+ *
+ * @see EngineConfiguration#fragmentLimitStrategy(FragmentLimitStrategy)
+ */
+public interface FragmentLimitStrategy
+{
+    /**
+     * Timestamp passed to {@link #onPoll(int, int, long)} if no live outbound messages were polled.
+     */
+    long NO_OUTBOUND_MESSAGES = Long.MAX_VALUE;
+
+    /**
+     * Creates a strategy that always uses the same limits, this is the default.
+     *
+     * @param outboundLibraryFragmentLimit the fragment limit for the subscription to outbound messages from libraries.
+     * @param replayFragmentLimit the fragment limit for the subscription to messages from the replayer.
+     * @return the strategy.
+     */
+    static FragmentLimitStrategy staticLimits(final int outboundLibraryFragmentLimit, final int replayFragmentLimit)
+    {
+        return new StaticFragmentLimitStrategy(outboundLibraryFragmentLimit, replayFragmentLimit);
+    }
+
+    /**
+     * Gets the fragment limit for the next poll of the subscription to outbound messages from libraries.
+     *
+     * @return the fragment limit for the next poll of the subscription to outbound messages from libraries.
+     */
+    int outboundLibraryFragmentLimit();
+
+    /**
+     * Gets the fragment limit for the next poll of the subscription to messages from the replayer.
+     *
+     * @return the fragment limit for the next poll of the subscription to messages from the replayer.
+     */
+    int replayFragmentLimit();
+
+    /**
+     * Invoked once the Framer has polled both subscriptions in a duty cycle. A subscription that has read as many
+     * fragments as its limit may have a backlog of fragments left to read.
+     *
+     * @param outboundFragmentsRead the number of fragments read from the outbound library subscription.
+     * @param replayFragmentsRead the number of fragments read from the replay stream.
+     * @param oldestOutboundTimestamp the timestamp that the oldest live message that was read was sent by its
+     *                                library at, using the library's {@link uk.co.real_logic.artio.Clock}, or
+     *                                {@link #NO_OUTBOUND_MESSAGES} if no live message was read.
+     */
+    void onPoll(int outboundFragmentsRead, int replayFragmentsRead, long oldestOutboundTimestamp);
+}
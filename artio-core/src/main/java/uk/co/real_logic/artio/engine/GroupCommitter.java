@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.EpochClock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static uk.co.real_logic.artio.engine.DurabilityPolicy.*;
+
+/**
+ * Syncs index files to disk according to a {@link DurabilityPolicy}. Indices report their writes to the committer
+ * rather than syncing themselves, and every index that has been written to since the last commit is synced by the
+ * next commit, so the syncs of different indices are batched together.
+ *
+ * Not thread safe, each agent that writes to indices has its own instance. The instance is also run as part of that
+ * agent in order to make periodic commits, and to commit any outstanding writes when the agent closes.
+ */
+public class GroupCommitter implements Agent
+{
+    /**
+     * An index file that can be synced to disk.
+     */
+    @FunctionalInterface
+    public interface Syncable
+    {
+        void sync();
+    }
+
+    private final List<Syncable> unsynced = new ArrayList<>();
+    private final DurabilityPolicy policy;
+    private final long periodInMs;
+    private final int messageBatchSize;
+    private final EpochClock clock;
+    private final String roleName;
+
+    private int uncommittedMessages;
+    private long nextCommitTimeInMs;
+
+    public GroupCommitter(
+        final DurabilityPolicy policy,
+        final long periodInMs,
+        final int messageBatchSize,
+        final EpochClock clock,
+        final String roleName)
+    {
+        this.policy = policy;
+        this.periodInMs = periodInMs;
+        this.messageBatchSize = messageBatchSize;
+        this.clock = clock;
+        this.roleName = roleName;
+    }
+
+    /**
+     * Whether writes are ever synced by this committer.
+     *
+     * @return false if the policy is {@link DurabilityPolicy#NONE}, true otherwise.
+     */
+    public boolean syncsWrites()
+    {
+        return policy != NONE;
+    }
+
+    /**
+     * Records a write to an index while it indexes a message from a stream.
+     *
+     * @param syncable the index that has been written to.
+     */
+    public void onWrite(final Syncable syncable)
+    {
+        if (policy != NONE && !unsynced.contains(syncable))
+        {
+            unsynced.add(syncable);
+        }
+    }
+
+    /**
+     * Records a write to an index that isn't made whilst indexing a stream, for example allocating a session id.
+     *
+     * @param syncable the index that has been written to.
+     */
+    public void onStandaloneWrite(final Syncable syncable)
+    {
+        onWrite(syncable);
+
+        if (policy == PER_TERM)
+        {
+            commit();
+        }
+        else
+        {
+            onMessage();
+        }
+    }
+
+    /**
+     * Records that a message has been indexed by every index of its stream.
+     */
+    public void onMessage()
+    {
+        if (policy == PER_N_MESSAGES && ++uncommittedMessages >= messageBatchSize)
+        {
+            commit();
+        }
+    }
+
+    /**
+     * Records that an indexed stream has rolled over to a new term.
+     */
+    public void onTermRoll()
+    {
+        if (policy == PER_TERM)
+        {
+            commit();
+        }
+    }
+
+    public int doWork()
+    {
+        if (policy == PERIODIC)
+        {
+            final long timeInMs = clock.time();
+            if (timeInMs >= nextCommitTimeInMs)
+            {
+                nextCommitTimeInMs = timeInMs + periodInMs;
+                return commit();
+            }
+        }
+
+        return 0;
+    }
+
+    public void onClose()
+    {
+        commit();
+    }
+
+    /**
+     * Syncs every index that has been written to since the last commit.
+     *
+     * @return the number of indices synced.
+     */
+    public int commit()
+    {
+        final List<Syncable> unsynced = this.unsynced;
+        final int size = unsynced.size();
+        for (int i = 0; i < size; i++)
+        {
+            unsynced.get(i).sync();
+        }
+        unsynced.clear();
+        uncommittedMessages = 0;
+
+        return size;
+    }
+
+    public String roleName()
+    {
+        return roleName;
+    }
+}
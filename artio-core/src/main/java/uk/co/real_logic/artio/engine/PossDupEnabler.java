@@ -42,6 +42,7 @@ import static java.nio.charset.StandardCharsets.US_ASCII;
 import static uk.co.real_logic.artio.LogTag.CATCHUP;
 import static uk.co.real_logic.artio.engine.PossDupFinder.NO_ENTRY;
 import static uk.co.real_logic.artio.engine.framer.CatchupReplayer.FRAME_LENGTH;
+import static uk.co.real_logic.artio.session.Session.ENGINE_SENDING_TIME_PLACEHOLDER;
 import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR_LENGTH;
 import static uk.co.real_logic.artio.util.MutableAsciiBuffer.SEPARATOR;
 
@@ -50,6 +51,8 @@ public class PossDupEnabler
     private static final byte[] POSS_DUP_FIELD = "43=Y\001".getBytes(US_ASCII);
     public static final String ORIG_SENDING_TIME_PREFIX_AS_STR = "122=";
     private static final byte[] ORIG_SENDING_TIME_PREFIX = ORIG_SENDING_TIME_PREFIX_AS_STR.getBytes(US_ASCII);
+    private static final byte[] ENGINE_SENDING_TIME_PLACEHOLDER_BYTES =
+        ENGINE_SENDING_TIME_PLACEHOLDER.getBytes(US_ASCII);
 
     private static final int CHECKSUM_VALUE_LENGTH = 3;
     private static final int FRAGMENTED_MESSAGE_BUFFER_OFFSET = 0;
@@ -311,7 +314,20 @@ public class PossDupEnabler
         final int origSendingTimeValueClaimOffset = origSendingTimePrefixClaimOffset + ORIG_SENDING_TIME_PREFIX.length;
         final int sendingTimeOffset = possDupFinder.sendingTimeOffset();
         final int sendingTimeLength = possDupFinder.sendingTimeLength();
-        writeBuffer.putBytes(origSendingTimeValueClaimOffset, srcBuffer, sendingTimeOffset, sendingTimeLength);
+        if (isEngineSendingTimePlaceholder(srcBuffer, sendingTimeOffset, sendingTimeLength))
+        {
+            // The engine stamped the original message as it wrote it, so use the time that it was sent at instead
+            final long enqueueTimeInMs = srcBuffer.getLong(
+                srcOffset + MessageHeaderDecoder.ENCODED_LENGTH + FixMessageDecoder.enqueueTimeInMsEncodingOffset(),
+                LITTLE_ENDIAN);
+            utcTimestampEncoder.update(enqueueTimeInMs);
+            writeBuffer.putBytes(
+                origSendingTimeValueClaimOffset, utcTimestampEncoder.buffer(), 0, sendingTimeLength);
+        }
+        else
+        {
+            writeBuffer.putBytes(origSendingTimeValueClaimOffset, srcBuffer, sendingTimeOffset, sendingTimeLength);
+        }
 
         final int separatorClaimOffset = origSendingTimeValueClaimOffset + sendingTimeLength;
         writeBuffer.putByte(separatorClaimOffset, SEPARATOR);
@@ -332,6 +348,26 @@ public class PossDupEnabler
         return true;
     }
 
+    private static boolean isEngineSendingTimePlaceholder(
+        final DirectBuffer buffer, final int sendingTimeOffset, final int sendingTimeLength)
+    {
+        final byte[] placeholder = ENGINE_SENDING_TIME_PLACEHOLDER_BYTES;
+        if (sendingTimeLength != placeholder.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < sendingTimeLength; i++)
+        {
+            if (buffer.getByte(sendingTimeOffset + i) != placeholder[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private void updateSendingTime(final int srcOffset)
     {
         final MutableDirectBuffer claimBuffer = writeBuffer();
@@ -340,7 +376,7 @@ public class PossDupEnabler
         final int sendingTimeLength = possDupFinder.sendingTimeLength();
 
         final int sendingTimeClaimOffset = srcToClaim(sendingTimeOffset, srcOffset, claimOffset);
-        utcTimestampEncoder.encode(clock.time());
+        utcTimestampEncoder.update(clock.time());
         claimBuffer.putBytes(sendingTimeClaimOffset, utcTimestampEncoder.buffer(), 0, sendingTimeLength);
     }
 
@@ -162,9 +162,6 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
         final int srcLength,
         final Header header)
     {
-        final int messageLength = srcLength - FRAME_LENGTH;
-        final int messageOffset = srcOffset + FRAME_LENGTH;
-
         messageHeaderDecoder.wrap(srcBuffer, srcOffset);
 
         messageDecoder.wrap(
@@ -173,6 +170,11 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
             messageHeaderDecoder.blockLength(),
             messageHeaderDecoder.version());
 
+        final int messageOffset = srcOffset + FRAME_LENGTH;
+        final int messageLength = messageDecoder.bodyLength();
+        // Excludes any space that was claimed for the message but not used, see GatewayPublication.claimMessage()
+        final int frameLength = FRAME_LENGTH + messageLength;
+
         asciiBuffer.wrap(srcBuffer, messageOffset, messageLength);
         headerDecoder.decode(asciiBuffer, 0, messageLength);
 
@@ -195,7 +197,7 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
                 }
             }
 
-            return processNormalMessage(srcBuffer, srcOffset, srcLength, messageLength, messageOffset);
+            return processNormalMessage(srcBuffer, srcOffset, frameLength, messageLength, messageOffset);
         }
     }
 
@@ -16,6 +16,7 @@
 package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.ErrorHandler;
+import org.agrona.concurrent.SystemEpochClock;
 import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.SenderSequenceNumbers;
@@ -30,6 +31,7 @@ class EndPointFactory
     private final ErrorHandler errorHandler;
     private final GatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
+    private final ReceiveBufferPool receiveBufferPool;
 
     private SlowPeeker replaySlowPeeker;
 
@@ -40,7 +42,8 @@ class EndPointFactory
         final FixCounters fixCounters,
         final ErrorHandler errorHandler,
         final GatewaySessions gatewaySessions,
-        final SenderSequenceNumbers senderSequenceNumbers)
+        final SenderSequenceNumbers senderSequenceNumbers,
+        final ReceiveBufferPool receiveBufferPool)
     {
         this.configuration = configuration;
         this.sessionContexts = sessionContexts;
@@ -49,6 +52,7 @@ class EndPointFactory
         this.errorHandler = errorHandler;
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
+        this.receiveBufferPool = receiveBufferPool;
     }
 
     ReceiverEndPoint receiverEndPoint(
@@ -71,8 +75,9 @@ class EndPointFactory
             framer,
             errorHandler,
             libraryId,
-            gatewaySessions
-        );
+            gatewaySessions,
+            configuration.receiverDeferredCompaction(),
+            receiveBufferPool);
     }
 
     SenderEndPoint senderEndPoint(
@@ -83,6 +88,7 @@ class EndPointFactory
         final Framer framer)
     {
         final String remoteAddress = channel.remoteAddress();
+        final boolean coalesceWrites = configuration.senderCoalesceWrites();
         return new SenderEndPoint(
             connectionId,
             libraryId,
@@ -96,7 +102,12 @@ class EndPointFactory
             configuration.senderMaxBytesInBuffer(),
             configuration.slowConsumerTimeoutInMs(),
             System.currentTimeMillis(),
-            senderSequenceNumbers.onNewSender(connectionId));
+            senderSequenceNumbers.onNewSender(connectionId),
+            coalesceWrites ? configuration.senderCoalescingBufferSize() : 0,
+            coalesceWrites ? fixCounters.coalescedWrites(connectionId, remoteAddress) : null,
+            coalesceWrites ? fixCounters.coalescedMessages(connectionId, remoteAddress) : null,
+            configuration.senderSpillSlowConsumerMessages(),
+            configuration.engineSendingTime() ? new SendingTimeStamper(new SystemEpochClock()) : null);
     }
 
     void replaySlowPeeker(final SlowPeeker replaySlowPeeker)
@@ -31,6 +31,7 @@ import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.EpochClock;
 import org.agrona.concurrent.QueuedPipe;
+import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.LivenessDetector;
 import uk.co.real_logic.artio.Pressure;
@@ -38,6 +39,7 @@ import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.CompletionPosition;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.FragmentLimitStrategy;
 import uk.co.real_logic.artio.engine.PositionSender;
 import uk.co.real_logic.artio.engine.RecordingCoordinator;
 import uk.co.real_logic.artio.engine.framer.SubscriptionSlowPeeker.LibrarySlowPeeker;
@@ -49,6 +51,7 @@ import uk.co.real_logic.artio.protocol.*;
 import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.session.Session;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.timing.FramerStage;
 import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -111,7 +114,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final ControlledFragmentHandler replaySubscriber;
     private final ControlledFragmentHandler replaySlowSubscriber;
 
-    private final ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints();
+    private final ReceiverEndPoints receiverEndPoints;
     private final ControlledFragmentAssembler senderEndPointAssembler;
     private final SenderEndPoints senderEndPoints;
 
@@ -133,8 +136,9 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final SequenceNumberIndexReader sentSequenceNumberIndex;
     private final SequenceNumberIndexReader receivedSequenceNumberIndex;
     private final int inboundBytesReceivedLimit;
-    private final int outboundLibraryFragmentLimit;
-    private final int replayFragmentLimit;
+    private final FragmentLimitStrategy fragmentLimitStrategy;
+    private final AtomicCounter outboundFragmentLimitCounter;
+    private final AtomicCounter replayFragmentLimitCounter;
     private final GatewaySessions gatewaySessions;
     private final Consumer<GatewaySession> onSessionlogon = this::onSessionLogon;
 
@@ -150,11 +154,15 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final AgentInvoker conductorAgentInvoker;
     private final RecordingCoordinator recordingCoordinator;
     private final PositionSender nonLoggingPositionSender;
+    private final FramerProfiler profiler;
 
     private final HeaderDecoder headerDecoder = new HeaderDecoder();
     private final AsciiBuffer asciiBuffer = new MutableAsciiBuffer();
 
     private long nextConnectionId = (long)(Math.random() * Long.MAX_VALUE);
+    private int outboundFragmentsRead;
+    private int replayFragmentsRead;
+    private long oldestOutboundTimestamp = FragmentLimitStrategy.NO_OUTBOUND_MESSAGES;
 
     Framer(
         final EpochClock clock,
@@ -162,6 +170,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final Timer sendTimer,
         final EngineConfiguration configuration,
         final EndPointFactory endPointFactory,
+        final ReceiverEndPoints receiverEndPoints,
         final Subscription librarySubscription,
         final Subscription slowSubscription,
         final Image replayImage,
@@ -181,13 +190,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final CompletionPosition outboundLibraryCompletionPosition,
         final FinalImagePositions finalImagePositions,
         final AgentInvoker conductorAgentInvoker,
-        final RecordingCoordinator recordingCoordinator)
+        final RecordingCoordinator recordingCoordinator,
+        final FramerProfiler profiler,
+        final FragmentLimitStrategy fragmentLimitStrategy,
+        final AtomicCounter outboundFragmentLimitCounter,
+        final AtomicCounter replayFragmentLimitCounter)
     {
         this.clock = clock;
         this.outboundTimer = outboundTimer;
         this.sendTimer = sendTimer;
         this.configuration = configuration;
         this.endPointFactory = endPointFactory;
+        this.receiverEndPoints = receiverEndPoints;
         this.librarySubscription = librarySubscription;
         this.replayImage = replayImage;
         this.gatewaySessions = gatewaySessions;
@@ -201,6 +215,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         this.senderEndPoints = new SenderEndPoints(errorHandler);
         this.conductorAgentInvoker = conductorAgentInvoker;
         this.recordingCoordinator = recordingCoordinator;
+        this.profiler = profiler;
         this.senderEndPointAssembler = new ControlledFragmentAssembler(senderEndPoints, 0, true);
         this.sessionIdStrategy = sessionIdStrategy;
         this.sessionContexts = sessionContexts;
@@ -211,8 +226,11 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
         this.librarySlowPeeker = new SubscriptionSlowPeeker(slowSubscription, librarySubscription);
 
-        this.outboundLibraryFragmentLimit = configuration.outboundLibraryFragmentLimit();
-        this.replayFragmentLimit = configuration.replayFragmentLimit();
+        this.fragmentLimitStrategy = fragmentLimitStrategy;
+        this.outboundFragmentLimitCounter = outboundFragmentLimitCounter;
+        this.replayFragmentLimitCounter = replayFragmentLimitCounter;
+        outboundFragmentLimitCounter.setOrdered(fragmentLimitStrategy.outboundLibraryFragmentLimit());
+        replayFragmentLimitCounter.setOrdered(fragmentLimitStrategy.replayFragmentLimit());
         this.inboundBytesReceivedLimit = configuration.inboundBytesReceivedLimit();
 
         this.replaySlowPeeker = new SlowPeeker(replaySlowImage, replayImage);
@@ -309,7 +327,14 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     {
         final long timeInMs = clock.time();
         senderEndPoints.timeInMs(timeInMs);
+
+        if (profiler != null)
+        {
+            return doProfiledWork(timeInMs);
+        }
+
         return retryManager.attemptSteps() +
+            senderEndPoints.writeSpilledData() +
             sendOutboundMessages() +
             sendReplayMessages() +
             pollEndPoints() +
@@ -321,6 +346,61 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             checkDutyCycle();
     }
 
+    // Keep in sync with doWork(), with a stage for each of its steps
+    private int doProfiledWork(final long timeInMs) throws IOException
+    {
+        final FramerProfiler profiler = this.profiler;
+        long time = profiler.time();
+        int workCount = 0;
+        int stageWorkCount;
+
+        stageWorkCount = retryManager.attemptSteps();
+        time = profiler.onStageComplete(FramerStage.RETRY_MANAGER, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = senderEndPoints.writeSpilledData();
+        time = profiler.onStageComplete(FramerStage.SPILLED_WRITES, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = sendOutboundMessages();
+        time = profiler.onStageComplete(FramerStage.OUTBOUND, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = sendReplayMessages();
+        time = profiler.onStageComplete(FramerStage.REPLAY, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = pollEndPoints();
+        time = profiler.onStageComplete(FramerStage.END_POINTS, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = pollNewConnections(timeInMs);
+        time = profiler.onStageComplete(FramerStage.NEW_CONNECTIONS, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = pollLibraries(timeInMs);
+        time = profiler.onStageComplete(FramerStage.LIBRARIES, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = gatewaySessions.pollSessions(timeInMs);
+        time = profiler.onStageComplete(FramerStage.SESSIONS, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = senderEndPoints.checkTimeouts(timeInMs);
+        time = profiler.onStageComplete(FramerStage.TIMEOUTS, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = adminCommands.drain(onAdminCommand);
+        time = profiler.onStageComplete(FramerStage.ADMIN_COMMANDS, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        stageWorkCount = checkDutyCycle();
+        profiler.onStageComplete(FramerStage.DUTY_CYCLE_CHECKS, time, stageWorkCount);
+        workCount += stageWorkCount;
+
+        return workCount;
+    }
+
     private int checkDutyCycle()
     {
         return removeIf(replies, ResetSequenceNumberCommand::poll) +
@@ -353,13 +433,45 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     private int sendReplayMessages()
     {
-        return replayImage.controlledPoll(replaySubscriber, replayFragmentLimit) +
-            replaySlowPeeker.peek(replaySlowSubscriber);
+        final int messagesRead = replayImage.controlledPoll(
+            replaySubscriber, fragmentLimitStrategy.replayFragmentLimit());
+        replayFragmentsRead = messagesRead;
+        senderEndPoints.flush();
+        updateFragmentLimits();
+
+        return messagesRead + replaySlowPeeker.peek(replaySlowSubscriber);
+    }
+
+    // Invoked once both subscriptions have been polled, outbound messages are polled before replays.
+    private void updateFragmentLimits()
+    {
+        final FragmentLimitStrategy fragmentLimitStrategy = this.fragmentLimitStrategy;
+        final int outboundLimit = fragmentLimitStrategy.outboundLibraryFragmentLimit();
+        final int replayLimit = fragmentLimitStrategy.replayFragmentLimit();
+
+        fragmentLimitStrategy.onPoll(outboundFragmentsRead, replayFragmentsRead, oldestOutboundTimestamp);
+        oldestOutboundTimestamp = FragmentLimitStrategy.NO_OUTBOUND_MESSAGES;
+
+        final int newOutboundLimit = fragmentLimitStrategy.outboundLibraryFragmentLimit();
+        if (newOutboundLimit != outboundLimit)
+        {
+            outboundFragmentLimitCounter.setOrdered(newOutboundLimit);
+        }
+
+        final int newReplayLimit = fragmentLimitStrategy.replayFragmentLimit();
+        if (newReplayLimit != replayLimit)
+        {
+            replayFragmentLimitCounter.setOrdered(newReplayLimit);
+        }
     }
 
     private int sendOutboundMessages()
     {
-        int messagesRead = librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit);
+        int messagesRead = librarySubscription.controlledPoll(
+            librarySubscriber, fragmentLimitStrategy.outboundLibraryFragmentLimit());
+        outboundFragmentsRead = messagesRead;
+        // Coalesced messages must be written before the slow peeker checks which messages have been sent.
+        senderEndPoints.flush();
         messagesRead += librarySlowPeeker.peek(senderEndPointAssembler);
 
         if (nonLoggingPositionSender != null)
@@ -944,6 +1056,11 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     {
         final long now = outboundTimer.recordSince(timestamp);
 
+        if (timestamp < oldestOutboundTimestamp)
+        {
+            oldestOutboundTimestamp = timestamp;
+        }
+
         sessionContexts.onSentFollowerMessage(sessionId, sequenceIndex, messageType, buffer, offset, length);
 
         senderEndPoints.onMessage(libraryId, connectionId, buffer, offset, length, sequenceNumber, position);
@@ -1017,6 +1134,9 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     public Action onRequestDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
+        // Messages sent before the disconnect was requested, for example a logout, may still be coalesced.
+        senderEndPoints.flush(connectionId);
+
         return onDisconnect(libraryId, connectionId, reason);
     }
 
@@ -1600,11 +1720,15 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             inboundMessages,
             receiverEndPoints,
             senderEndPoints,
-            channelSupplier);
+            channelSupplier,
+            gatewaySessions);
     }
 
     private void quiesce()
     {
+        // Stops shards from publishing any further messages after the completion position.
+        receiverEndPoints.recallShardedEndPoints();
+
         final Long2LongHashMap inboundPositions = new Long2LongHashMap(CompletionPosition.MISSING_VALUE);
         inboundPositions.put(inboundPublication.id(), inboundPublication.position());
         inboundCompletionPosition.complete(inboundPositions);
@@ -19,10 +19,12 @@ import io.aeron.Image;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
 import org.agrona.concurrent.*;
+import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.Reply;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.EngineContext;
+import uk.co.real_logic.artio.engine.GroupCommitter;
 import uk.co.real_logic.artio.engine.RecordingCoordinator;
 import uk.co.real_logic.artio.engine.logger.SequenceNumberIndexReader;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
@@ -32,7 +34,15 @@ import uk.co.real_logic.artio.timing.EngineTimers;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Context that injects all the necessary information into different Framer classes.
@@ -43,10 +53,13 @@ import java.util.List;
 public class FramerContext
 {
     private static final int ADMIN_COMMAND_CAPACITY = 16;
+    private static final int SHARD_DISCONNECT_CAPACITY = 1024;
 
     private final QueuedPipe<AdminCommand> adminCommands = new ManyToOneConcurrentArrayQueue<>(ADMIN_COMMAND_CAPACITY);
 
     private final Framer framer;
+    private final Agent framerAgent;
+    private final List<Agent> framerShards = new ArrayList<>();
 
     private final GatewaySessions gatewaySessions;
     private final SequenceNumberIndexReader sentSequenceNumberIndex;
@@ -67,12 +80,22 @@ public class FramerContext
         final RecordingCoordinator recordingCoordinator)
     {
         final SessionIdStrategy sessionIdStrategy = configuration.sessionIdStrategy();
-        this.sessionContexts = new SessionContexts(configuration.sessionIdBuffer(), sessionIdStrategy, errorHandler);
+        final SystemEpochClock clock = new SystemEpochClock();
+        final GroupCommitter groupCommitter = new GroupCommitter(
+            configuration.durabilityPolicy(),
+            configuration.durabilityPeriodInMs(),
+            configuration.durabilityMessageBatchSize(),
+            clock,
+            configuration.agentNamePrefix() + "FramerGroupCommitter");
+        this.sessionContexts = new SessionContexts(
+            configuration.sessionIdBuffer(), sessionIdStrategy, errorHandler, groupCommitter);
         final IdleStrategy idleStrategy = configuration.framerIdleStrategy();
         final Streams outboundLibraryStreams = engineContext.outboundLibraryStreams();
 
-        final SystemEpochClock clock = new SystemEpochClock();
-        this.inboundPublication = engineContext.inboundPublication();
+        final int framerShardCount = configuration.framerShardCount();
+        this.inboundPublication = framerShardCount > 1 ?
+            engineContext.sharedInboundPublication(idleStrategy, "inboundPublication") :
+            engineContext.inboundPublication();
         this.outboundPublication = outboundLibraryStreams.gatewayPublication(idleStrategy, "outboundPublication");
 
         sentSequenceNumberIndex = new SequenceNumberIndexReader(
@@ -96,7 +119,18 @@ public class FramerContext
             sessionContexts,
             configuration.sessionPersistenceStrategy(),
             sentSequenceNumberIndex,
-            receivedSequenceNumberIndex);
+            receivedSequenceNumberIndex,
+            authenticationExecutor(configuration));
+
+        ReceiveBufferPool receiveBufferPool = null;
+        if (configuration.receiverBufferPooling())
+        {
+            receiveBufferPool = new ReceiveBufferPool(
+                configuration.receiverBufferSize(),
+                configuration.receiverBufferPoolSize(),
+                fixCounters.receiveBuffersBorrowed(),
+                fixCounters.receiveBuffersPooled());
+        }
 
         final EndPointFactory endPointFactory = new EndPointFactory(
             configuration,
@@ -105,16 +139,34 @@ public class FramerContext
             fixCounters,
             errorHandler,
             gatewaySessions,
-            engineContext.senderSequenceNumbers());
+            engineContext.senderSequenceNumbers(),
+            receiveBufferPool);
 
         final FinalImagePositions finalImagePositions = new FinalImagePositions();
 
+        final FramerShard[] shards = new FramerShard[framerShardCount - 1];
+        final QueuedPipe<ReceiverEndPoint> shardDisconnects = new ManyToOneConcurrentArrayQueue<>(
+            SHARD_DISCONNECT_CAPACITY);
+        for (int i = 0; i < shards.length; i++)
+        {
+            final int shardId = i + 1;
+            shards[i] = new FramerShard(
+                shardId,
+                engineContext.sharedInboundPublication(
+                    CommonConfiguration.backoffIdleStrategy(), "framerShardInboundPublication-" + shardId),
+                receiveBufferPool == null ? null : receiveBufferPool.newScratchBuffer(),
+                shardDisconnects,
+                configuration.agentNamePrefix());
+            framerShards.add(shards[i]);
+        }
+
         framer = new Framer(
             clock,
             timers.outboundTimer(),
             timers.sendTimer(),
             configuration,
             endPointFactory,
+            new ReceiverEndPoints(shards, shardDisconnects),
             engineContext.outboundLibrarySubscription(
                 "outboundLibrarySubscription", finalImagePositions),
             engineContext.outboundLibrarySubscription(
@@ -136,12 +188,62 @@ public class FramerContext
             engineContext.outboundLibraryCompletionPosition(),
             finalImagePositions,
             conductorAgentInvoker,
-            recordingCoordinator);
+            recordingCoordinator,
+            framerProfiler(configuration, fixCounters, timers),
+            configuration.fragmentLimitStrategy(),
+            fixCounters.outboundFragmentLimit(),
+            fixCounters.replayFragmentLimit());
+
+        // The committer runs on the Framer's thread to make periodic commits, and so that it commits any session id
+        // writes that are still pending, for example part way through a batch, after the Framer has closed.
+        framerAgent = groupCommitter.syncsWrites() ? new CompositeAgent(framer, groupCommitter) : framer;
+    }
+
+    private static FramerProfiler framerProfiler(
+        final EngineConfiguration configuration, final FixCounters fixCounters, final EngineTimers timers)
+    {
+        if (!configuration.framerProfiling())
+        {
+            return null;
+        }
+
+        return new FramerProfiler(configuration.clock(), timers.framerStageTimers(), fixCounters);
+    }
+
+    private static ExecutorService authenticationExecutor(final EngineConfiguration configuration)
+    {
+        final int threadCount = configuration.authenticationThreadCount();
+        if (threadCount == 0)
+        {
+            return null;
+        }
+
+        final ThreadFactory threadFactory = configuration.threadFactory();
+        final String threadNamePrefix = configuration.agentNamePrefix() + "authentication-";
+        final AtomicInteger threadId = new AtomicInteger();
+        return new ThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            0,
+            MILLISECONDS,
+            new ArrayBlockingQueue<>(configuration.authenticationQueueCapacity()),
+            (runnable) ->
+            {
+                final Thread thread = threadFactory.newThread(runnable);
+                thread.setName(threadNamePrefix + threadId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
     }
 
     public Agent framer()
     {
-        return framer;
+        return framerAgent;
+    }
+
+    public List<Agent> framerShards()
+    {
+        return framerShards;
     }
 
     public Reply<List<LibraryInfo>> libraries()
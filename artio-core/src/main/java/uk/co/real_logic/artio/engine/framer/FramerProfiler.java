@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.Clock;
+import uk.co.real_logic.artio.FixCounters;
+import uk.co.real_logic.artio.timing.FramerStage;
+import uk.co.real_logic.artio.timing.Timer;
+
+import java.util.List;
+
+/**
+ * Records the time taken and the work done by each stage of the {@link Framer}'s duty cycle. Each stage's total time
+ * and work are recorded in counters and the time that it takes on each duty cycle is recorded in its timer's
+ * histogram.
+ *
+ * Only used on the Framer thread.
+ */
+class FramerProfiler
+{
+    private final Clock clock;
+    private final Timer[] timers;
+    private final AtomicCounter[] stageTimes;
+    private final AtomicCounter[] stageWork;
+
+    FramerProfiler(final Clock clock, final List<Timer> framerStageTimers, final FixCounters fixCounters)
+    {
+        this.clock = clock;
+
+        final FramerStage[] stages = FramerStage.values();
+        timers = framerStageTimers.toArray(new Timer[0]);
+        stageTimes = new AtomicCounter[stages.length];
+        stageWork = new AtomicCounter[stages.length];
+        for (final FramerStage stage : stages)
+        {
+            stageTimes[stage.ordinal()] = fixCounters.framerStageTime(stage.displayName());
+            stageWork[stage.ordinal()] = fixCounters.framerStageWork(stage.displayName());
+        }
+    }
+
+    long time()
+    {
+        return clock.time();
+    }
+
+    /**
+     * Records that a stage has finished.
+     *
+     * @param stage the stage that has finished.
+     * @param startTime the time that the stage started at.
+     * @param workCount the work done by the stage.
+     * @return the time that the stage finished at, which is the start time of the next stage.
+     */
+    long onStageComplete(final FramerStage stage, final long startTime, final int workCount)
+    {
+        final long time = clock.time();
+        final long duration = time - startTime;
+        final int index = stage.ordinal();
+
+        timers[index].recordValue(duration);
+        stageTimes[index].getAndAddOrdered(duration);
+        if (workCount > 0)
+        {
+            stageWork[index].getAndAddOrdered(workCount);
+        }
+
+        return time;
+    }
+}
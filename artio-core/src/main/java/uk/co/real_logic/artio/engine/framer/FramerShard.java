@@ -0,0 +1,219 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.QueuedPipe;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Polls a partition of the engine's TCP connections on its own thread.
+ * <p>
+ * The {@link Framer} hands a connection's {@link ReceiverEndPoint} over to a shard once its session has logged on
+ * and is owned by a library. The shard then reads, frames and publishes that connection's inbound messages using its
+ * own selector. Every other change to the end point's state is made by the Framer, which recalls the end point
+ * from its shard first, so that session ownership is only changed on the Framer thread.
+ * <p>
+ * The shard's lock is only taken to pass end points between the Framer and the shard, not whilst polling. A recall
+ * is synchronous: the Framer clears the end point's shard and then waits until the shard isn't polling it, whilst
+ * the shard publishes the end point that it's polling before checking that it still owns it. So once a recall
+ * returns the shard has finished publishing any messages that it read from the connection and won't read from it
+ * again, which keeps the connection's inbound messages in order.
+ * <p>
+ * Shards only receive. Each library publishes its outbound messages for every connection on a single stream, which
+ * the Framer subscribes to, so the {@link SenderEndPoint}s stay on the Framer rather than being partitioned: a shard
+ * would need its own subscription to the whole stream, and to skip the other shards' messages, in order to write
+ * its connections' messages.
+ */
+class FramerShard implements Agent
+{
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by the lock
+    private final ArrayList<ReceiverEndPoint> handedOverEndPoints = new ArrayList<>();
+    // Guarded by the lock
+    private final ArrayList<ReceiverEndPoint> recalledEndPoints = new ArrayList<>();
+    private final ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints(this);
+    private final ArrayList<ReceiverEndPoint> unreportedDisconnects = new ArrayList<>();
+
+    private final int shardId;
+    private final GatewayPublication inboundPublication;
+    private final ByteBuffer scratchBuffer;
+    private final QueuedPipe<ReceiverEndPoint> shardDisconnects;
+    private final String agentNamePrefix;
+
+    private volatile boolean hasHandovers;
+    private volatile ReceiverEndPoint pollingEndPoint;
+
+    FramerShard(
+        final int shardId,
+        final GatewayPublication inboundPublication,
+        final ByteBuffer scratchBuffer,
+        final QueuedPipe<ReceiverEndPoint> shardDisconnects,
+        final String agentNamePrefix)
+    {
+        this.shardId = shardId;
+        this.inboundPublication = inboundPublication;
+        this.scratchBuffer = scratchBuffer;
+        this.shardDisconnects = shardDisconnects;
+        this.agentNamePrefix = agentNamePrefix;
+    }
+
+    public int doWork()
+    {
+        int work = reportDisconnects();
+        if (hasHandovers)
+        {
+            work += completeHandovers();
+        }
+
+        return work + receiverEndPoints.pollEndPoints();
+    }
+
+    private int completeHandovers()
+    {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try
+        {
+            hasHandovers = false;
+
+            final ArrayList<ReceiverEndPoint> recalledEndPoints = this.recalledEndPoints;
+            final ArrayList<ReceiverEndPoint> handedOverEndPoints = this.handedOverEndPoints;
+            final int work = recalledEndPoints.size() + handedOverEndPoints.size();
+            recalledEndPoints.forEach(receiverEndPoints::removeSharded);
+            recalledEndPoints.clear();
+            handedOverEndPoints.forEach(receiverEndPoints::addSharded);
+            handedOverEndPoints.clear();
+
+            return work;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private int reportDisconnects()
+    {
+        final ArrayList<ReceiverEndPoint> unreportedDisconnects = this.unreportedDisconnects;
+        final int size = unreportedDisconnects.size();
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        int reported = 0;
+        while (reported < size && shardDisconnects.offer(unreportedDisconnects.get(reported)))
+        {
+            reported++;
+        }
+        unreportedDisconnects.subList(0, reported).clear();
+
+        return reported;
+    }
+
+    // Called on the shard thread by its end points
+    int poll(final ReceiverEndPoint endPoint)
+    {
+        pollingEndPoint = endPoint;
+        try
+        {
+            // Checked after publishing the end point that's being polled, so that it can't be polled after a recall.
+            return endPoint.shard() == this ? endPoint.poll() : 0;
+        }
+        finally
+        {
+            pollingEndPoint = null;
+        }
+    }
+
+    // Called on the Framer thread once the end point uses this shard's publication.
+    void add(final ReceiverEndPoint endPoint)
+    {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try
+        {
+            handedOverEndPoints.add(endPoint);
+            hasHandovers = true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    // Called on the Framer thread after clearing the end point's shard, once this returns the shard no longer polls
+    // the end point.
+    void remove(final ReceiverEndPoint endPoint)
+    {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try
+        {
+            if (!handedOverEndPoints.remove(endPoint))
+            {
+                recalledEndPoints.add(endPoint);
+                hasHandovers = true;
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        while (pollingEndPoint == endPoint)
+        {
+            Thread.yield();
+        }
+    }
+
+    // Called on the shard thread whilst polling the end point.
+    void onDisconnectDetected(final ReceiverEndPoint endPoint)
+    {
+        if (!unreportedDisconnects.isEmpty() || !shardDisconnects.offer(endPoint))
+        {
+            unreportedDisconnects.add(endPoint);
+        }
+    }
+
+    GatewayPublication inboundPublication()
+    {
+        return inboundPublication;
+    }
+
+    ByteBuffer scratchBuffer()
+    {
+        return scratchBuffer;
+    }
+
+    public void onClose()
+    {
+        // The Framer recalls its end points when it closes, so this only closes the selector and publication.
+        completeHandovers();
+        Exceptions.closeAll(receiverEndPoints, inboundPublication);
+    }
+
+    public String roleName()
+    {
+        return agentNamePrefix + "FramerShard-" + shardId;
+    }
+}
@@ -111,11 +111,12 @@ class GatewaySession implements SessionInfo
         final InternalSession session,
         final BlockablePosition blockablePosition)
     {
+        // Recalls the receiver end point from its shard before it can pass messages to the session parser
+        receiverEndPoint.libraryId(ENGINE_LIBRARY_ID);
+        senderEndPoint.libraryId(ENGINE_LIBRARY_ID, blockablePosition);
         this.sessionParser = sessionParser;
         this.session = session;
         this.session.logonListener(logonListener);
-        receiverEndPoint.libraryId(ENGINE_LIBRARY_ID);
-        senderEndPoint.libraryId(ENGINE_LIBRARY_ID, blockablePosition);
     }
 
     // sets management to a library and also cleans up locally associated session.
@@ -144,12 +145,12 @@ class GatewaySession implements SessionInfo
         receiverEndPoint.play();
     }
 
-    int poll(final long time)
+    boolean awaitingLogon()
     {
-        return session.poll(time) + checkNoLogonDisconnect(time);
+        return disconnectTimeout != NO_TIMEOUT;
     }
 
-    private int checkNoLogonDisconnect(final long time)
+    int checkNoLogonDisconnect(final long time)
     {
         if (disconnectTimeout == NO_TIMEOUT)
         {
@@ -35,6 +35,8 @@ import uk.co.real_logic.artio.validation.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import static uk.co.real_logic.artio.LogTag.FIX_CONNECTION;
 import static uk.co.real_logic.artio.engine.framer.SessionContexts.DUPLICATE_SESSION;
@@ -43,9 +45,11 @@ import static uk.co.real_logic.artio.validation.SessionPersistenceStrategy.reset
 /**
  * Keeps track of which sessions managed by the gateway
  */
-class GatewaySessions
+class GatewaySessions implements AutoCloseable
 {
     private final List<GatewaySession> sessions = new ArrayList<>();
+    private final List<GatewaySession> sessionsAwaitingLogon = new ArrayList<>();
+    private final SessionPollScheduler sessionPollScheduler;
     private final EpochClock clock;
     private final GatewayPublication outboundPublication;
     private final SessionIdStrategy sessionIdStrategy;
@@ -61,6 +65,9 @@ class GatewaySessions
     private final SessionPersistenceStrategy sessionPersistenceStrategy;
     private final SequenceNumberIndexReader sentSequenceNumberIndex;
     private final SequenceNumberIndexReader receivedSequenceNumberIndex;
+    private final ExecutorService authenticationExecutor;
+    private final AtomicCounter logonsAwaitingAuthentication;
+    private final AtomicCounter authenticationQueueFull;
 
     private ErrorHandler errorHandler;
 
@@ -80,7 +87,8 @@ class GatewaySessions
         final SessionContexts sessionContexts,
         final SessionPersistenceStrategy sessionPersistenceStrategy,
         final SequenceNumberIndexReader sentSequenceNumberIndex,
-        final SequenceNumberIndexReader receivedSequenceNumberIndex)
+        final SequenceNumberIndexReader receivedSequenceNumberIndex,
+        final ExecutorService authenticationExecutor)
     {
         this.clock = clock;
         this.outboundPublication = outboundPublication;
@@ -98,6 +106,19 @@ class GatewaySessions
         this.sessionPersistenceStrategy = sessionPersistenceStrategy;
         this.sentSequenceNumberIndex = sentSequenceNumberIndex;
         this.receivedSequenceNumberIndex = receivedSequenceNumberIndex;
+        this.authenticationExecutor = authenticationExecutor;
+        this.sessionPollScheduler = new SessionPollScheduler(clock);
+
+        if (authenticationExecutor != null)
+        {
+            logonsAwaitingAuthentication = fixCounters.logonsAwaitingAuthentication();
+            authenticationQueueFull = fixCounters.authenticationQueueFull();
+        }
+        else
+        {
+            logonsAwaitingAuthentication = null;
+            authenticationQueueFull = null;
+        }
     }
 
     static GatewaySession removeSessionByConnectionId(final long connectionId, final List<GatewaySession> sessions)
@@ -171,6 +192,11 @@ class GatewaySessions
 
         sessions.add(gatewaySession);
         gatewaySession.manage(sessionParser, session, engineBlockablePosition);
+        sessionPollScheduler.add(session);
+        if (gatewaySession.awaitingLogon())
+        {
+            sessionsAwaitingLogon.add(gatewaySession);
+        }
 
         final CompositeKey sessionKey = gatewaySession.sessionKey();
         DebugLogger.log(FIX_CONNECTION, "Gateway Acquired Session %d%n", connectionId);
@@ -189,7 +215,9 @@ class GatewaySessions
             return null;
         }
 
-        return sessions.remove(index);
+        final GatewaySession session = sessions.remove(index);
+        sessionsAwaitingLogon.remove(session);
+        return session;
     }
 
     GatewaySession sessionById(final long sessionId)
@@ -224,26 +252,37 @@ class GatewaySessions
         final GatewaySession session = removeSessionByConnectionId(connectionId, sessions);
         if (session != null)
         {
+            sessionsAwaitingLogon.remove(session);
             session.close();
         }
     }
 
     int pollSessions(final long time)
     {
-        final List<GatewaySession> sessions = this.sessions;
+        return sessionPollScheduler.poll(time) + checkNoLogonDisconnects(time);
+    }
+
+    private int checkNoLogonDisconnects(final long time)
+    {
+        final List<GatewaySession> sessions = this.sessionsAwaitingLogon;
 
         int eventsProcessed = 0;
-        for (int i = 0, size = sessions.size(); i < size; )
+        for (int i = 0; i < sessions.size(); )
         {
             final GatewaySession session = sessions.get(i);
-            eventsProcessed += session.poll(time);
-            if (session.hasDisconnected())
-            {
-                size--;
-            }
-            else
+            eventsProcessed += session.checkNoLogonDisconnect(time);
+
+            // Disconnecting the session releases it, which removes it from the list.
+            if (i < sessions.size() && sessions.get(i) == session)
             {
-                i++;
+                if (session.awaitingLogon())
+                {
+                    i++;
+                }
+                else
+                {
+                    sessions.remove(i);
+                }
             }
         }
         return eventsProcessed;
@@ -259,10 +298,7 @@ class GatewaySessions
         final long connectionId,
         final GatewaySession gatewaySession)
     {
-        final CompositeKey compositeKey = sessionIdStrategy.onAcceptLogon(logon.header());
-        final SessionContext sessionContext = sessionContexts.onLogon(compositeKey);
-
-        return new PendingAcceptorLogon(sessionContext, gatewaySession, logon, connectionId, compositeKey);
+        return new PendingAcceptorLogon(gatewaySession, logon, connectionId);
     }
 
     public boolean lookupSequenceNumbers(final GatewaySession gatewaySession, final long requiredPosition)
@@ -282,8 +318,17 @@ class GatewaySessions
         return true;
     }
 
+    public void close()
+    {
+        if (authenticationExecutor != null)
+        {
+            authenticationExecutor.shutdownNow();
+        }
+    }
+
     enum AuthenticationState
     {
+        QUEUED,
         PENDING,
         AUTHENTICATED,
         INDEXER_CATCHUP,
@@ -291,38 +336,107 @@ class GatewaySessions
         REJECTED
     }
 
-    private final class PendingAcceptorLogon implements AuthenticationProxy, AcceptorLogonResult
+    /**
+     * Authenticates an acceptor's logon message. Without an authentication executor the session is looked up and the
+     * authentication strategy is invoked on the Framer thread. With an executor the session id strategy, persistence
+     * strategy and authentication strategy are invoked on the executor and the session is registered with the
+     * session contexts, which also checks for duplicate sessions, once the Framer polls the authenticated logon.
+     */
+    private final class PendingAcceptorLogon implements AuthenticationProxy, AcceptorLogonResult, Runnable
     {
         private static final long NO_REQUIRED_POSITION = -1;
-        private final SessionContext sessionContext;
         private final LogonDecoder logon;
-        private final CompositeKey compositeKey;
-        private final boolean resetSeqNum;
+        private final long connectionId;
         private volatile AuthenticationState state = AuthenticationState.PENDING;
+        private CompositeKey compositeKey;
+        private PersistenceLevel persistenceLevel;
+        private SessionContext sessionContext;
+        private boolean resetSeqNum;
         private GatewaySession session;
         private DisconnectReason reason;
         private long requiredPosition = NO_REQUIRED_POSITION;
 
         PendingAcceptorLogon(
-            final SessionContext sessionContext,
             final GatewaySession gatewaySession,
             final LogonDecoder logon,
-            final long connectionId,
-            final CompositeKey compositeKey)
+            final long connectionId)
         {
-            this.sessionContext = sessionContext;
             this.session = gatewaySession;
             this.logon = logon;
-            this.compositeKey = compositeKey;
+            this.connectionId = connectionId;
 
+            if (authenticationExecutor != null)
+            {
+                submitAuthentication();
+                return;
+            }
+
+            compositeKey = sessionIdStrategy.onAcceptLogon(logon.header());
+            if (!registerSession())
+            {
+                return;
+            }
+
+            persistenceLevel = getPersistenceLevel(logon, connectionId);
+            if (!validatePersistence())
+            {
+                return;
+            }
+
+            authenticate(logon, connectionId);
+        }
+
+        private void submitAuthentication()
+        {
+            state = AuthenticationState.PENDING;
+            logonsAwaitingAuthentication.increment();
+            try
+            {
+                authenticationExecutor.execute(this);
+            }
+            catch (final RejectedExecutionException ex)
+            {
+                // Retried when next polled.
+                logonsAwaitingAuthentication.getAndAdd(-1);
+                authenticationQueueFull.increment();
+                state = AuthenticationState.QUEUED;
+            }
+        }
+
+        // Invoked on the authentication executor
+        public void run()
+        {
+            logonsAwaitingAuthentication.getAndAdd(-1);
+
+            try
+            {
+                compositeKey = sessionIdStrategy.onAcceptLogon(logon.header());
+            }
+            catch (final Throwable throwable)
+            {
+                onStrategyError("session id", throwable, connectionId, "rejected", logon);
+                reject();
+                return;
+            }
+
+            persistenceLevel = getPersistenceLevel(logon, connectionId);
+            authenticate(logon, connectionId);
+        }
+
+        private boolean registerSession()
+        {
+            sessionContext = sessionContexts.onLogon(compositeKey);
             if (sessionContext == DUPLICATE_SESSION)
             {
-                resetSeqNum = false;
                 reject(DisconnectReason.DUPLICATE_SESSION);
-                return;
+                return false;
             }
 
-            final PersistenceLevel persistenceLevel = getPersistenceLevel(logon, connectionId);
+            return true;
+        }
+
+        private boolean validatePersistence()
+        {
             final boolean resetSeqNumFlag = logon.hasResetSeqNumFlag() && logon.resetSeqNumFlag();
 
             resetSeqNum = resetSequenceNumbersUponLogon(persistenceLevel) || resetSeqNumFlag;
@@ -334,10 +448,10 @@ class GatewaySessions
                     "EngineConfiguration has disabled required logging of messsages"));
 
                 reject(DisconnectReason.INVALID_CONFIGURATION_NOT_LOGGING_MESSAGES);
-                return;
+                return false;
             }
 
-            authenticate(logon, connectionId);
+            return true;
         }
 
         private PersistenceLevel getPersistenceLevel(final LogonDecoder logon, final long connectionId)
@@ -414,7 +528,17 @@ class GatewaySessions
         {
             switch (state)
             {
+                case QUEUED:
+                    submitAuthentication();
+                    return false;
+
                 case AUTHENTICATED:
+                    // The session is registered once authenticated when authenticating on the executor.
+                    if (sessionContext == null && !(registerSession() && validatePersistence()))
+                    {
+                        return true;
+                    }
+
                     onAuthenticated();
                     return false;
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.BitUtil;
+import org.agrona.concurrent.ManyToManyConcurrentArrayQueue;
+import org.agrona.concurrent.status.AtomicCounter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pool of the buffers that {@link ReceiverEndPoint}s hold data which hasn't been published yet in, for example
+ * a partially received message.
+ * <p>
+ * End points read into the scratch buffer of the agent that is polling them and only borrow a buffer from the pool if
+ * data is left over once they have framed the read. Buffers can be borrowed and released by the Framer and its shards
+ * concurrently.
+ */
+class ReceiveBufferPool
+{
+    private final ManyToManyConcurrentArrayQueue<ByteBuffer> pooledBuffers;
+    private final ByteBuffer framerScratchBuffer;
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private final AtomicCounter buffersBorrowed;
+    private final AtomicCounter buffersPooled;
+
+    ReceiveBufferPool(
+        final int bufferSize,
+        final int maxPooledBuffers,
+        final AtomicCounter buffersBorrowed,
+        final AtomicCounter buffersPooled)
+    {
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+        this.buffersBorrowed = buffersBorrowed;
+        this.buffersPooled = buffersPooled;
+
+        pooledBuffers = new ManyToManyConcurrentArrayQueue<>(
+            BitUtil.findNextPositivePowerOfTwo(Math.max(2, maxPooledBuffers)));
+        framerScratchBuffer = newScratchBuffer();
+    }
+
+    /**
+     * Gets the scratch buffer for end points that are polled by the Framer.
+     *
+     * @return the scratch buffer for end points that are polled by the Framer.
+     */
+    ByteBuffer framerScratchBuffer()
+    {
+        return framerScratchBuffer;
+    }
+
+    /**
+     * Allocates a scratch buffer for an agent that polls end points. Scratch buffers aren't pooled and must only be
+     * used by a single agent.
+     *
+     * @return a new scratch buffer.
+     */
+    ByteBuffer newScratchBuffer()
+    {
+        return ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    ByteBuffer borrow()
+    {
+        ByteBuffer buffer = pooledBuffers.poll();
+        if (buffer == null)
+        {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        else
+        {
+            buffersPooled.getAndAdd(-1);
+        }
+
+        buffersBorrowed.increment();
+        return buffer;
+    }
+
+    void release(final ByteBuffer buffer)
+    {
+        buffersBorrowed.getAndAdd(-1);
+
+        buffer.clear();
+        if (pooledBuffers.size() < maxPooledBuffers && pooledBuffers.offer(buffer))
+        {
+            buffersPooled.increment();
+        }
+    }
+}
@@ -35,6 +35,7 @@ import java.nio.channels.Selector;
 import java.util.Objects;
 
 import static java.nio.channels.SelectionKey.OP_READ;
+import static uk.co.real_logic.artio.engine.FixEngine.ENGINE_LIBRARY_ID;
 import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE;
 import static uk.co.real_logic.artio.dictionary.StandardFixConstants.MIN_MESSAGE_SIZE;
 import static uk.co.real_logic.artio.dictionary.StandardFixConstants.START_OF_HEADER;
@@ -73,25 +74,39 @@ class ReceiverEndPoint
     private final LogonDecoder logon = new LogonDecoder();
 
     private final TcpChannel channel;
-    private final GatewayPublication publication;
+    private final GatewayPublication framerPublication;
     private final long connectionId;
     private final SessionContexts sessionContexts;
     private final AtomicCounter messagesRead;
     private final Framer framer;
     private final ErrorHandler errorHandler;
     private final MutableAsciiBuffer buffer;
-    private final ByteBuffer byteBuffer;
     private final GatewaySessions gatewaySessions;
+    private final boolean deferredCompaction;
+    private final ReceiveBufferPool receiveBufferPool;
+
+    private ByteBuffer byteBuffer;
+    // Only used when pooling buffers: the scratch buffer of the agent that is polling this end point.
+    private ByteBuffer scratchBuffer;
 
     private int libraryId;
     private GatewaySession gatewaySession;
     private long sessionId;
     private int sequenceIndex;
     private int usedBufferData = 0;
+    // Start of the data that hasn't been framed yet, only non-zero when compaction is deferred.
+    private int dataOffset = 0;
     private boolean hasDisconnected = false;
     private SelectionKey selectionKey;
     private boolean isPaused = false;
 
+    // The publication that messages are saved to, which is the shard's publication while the end point is sharded.
+    private GatewayPublication publication;
+    // Written by the Framer and read by the shard, see FramerShard for how polling and recalls are serialised.
+    private volatile FramerShard shard;
+    private SelectionKey shardSelectionKey;
+    private DisconnectReason shardDisconnectReason;
+
     private AcceptorLogonResult pendingAcceptorLogon;
     private int pendingAcceptorLogonMsgOffset;
     private int pendingAcceptorLogonMsgLength;
@@ -108,13 +123,16 @@ class ReceiverEndPoint
         final Framer framer,
         final ErrorHandler errorHandler,
         final int libraryId,
-        final GatewaySessions gatewaySessions)
+        final GatewaySessions gatewaySessions,
+        final boolean deferredCompaction,
+        final ReceiveBufferPool receiveBufferPool)
     {
         Objects.requireNonNull(publication, "publication");
         Objects.requireNonNull(sessionContexts, "sessionContexts");
         Objects.requireNonNull(gatewaySessions, "gatewaySessions");
 
         this.channel = channel;
+        this.framerPublication = publication;
         this.publication = publication;
         this.connectionId = connectionId;
         this.sessionId = sessionId;
@@ -125,8 +143,18 @@ class ReceiverEndPoint
         this.errorHandler = errorHandler;
         this.libraryId = libraryId;
         this.gatewaySessions = gatewaySessions;
+        this.deferredCompaction = deferredCompaction;
+        this.receiveBufferPool = receiveBufferPool;
 
-        byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+        if (receiveBufferPool == null)
+        {
+            byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        else
+        {
+            scratchBuffer = receiveBufferPool.framerScratchBuffer();
+            byteBuffer = scratchBuffer;
+        }
         buffer = new MutableAsciiBuffer(byteBuffer);
     }
 
@@ -137,11 +165,24 @@ class ReceiverEndPoint
 
     int poll()
     {
-        if (isPaused || hasDisconnected())
+        if (isPaused || hasDisconnected() || shardDisconnectReason != null)
         {
             return 0;
         }
 
+        final ReceiveBufferPool receiveBufferPool = this.receiveBufferPool;
+        if (receiveBufferPool == null)
+        {
+            return pollBuffer();
+        }
+
+        final int work = pollBuffer();
+        retainUnpublishedData(receiveBufferPool);
+        return work;
+    }
+
+    private int pollBuffer()
+    {
         if (pendingAcceptorLogon != null)
         {
             return pollPendingLogon();
@@ -169,6 +210,59 @@ class ReceiverEndPoint
         }
     }
 
+    // Moves data that is left over in the scratch buffer into a borrowed buffer, and releases borrowed buffers
+    // once all of their data has been published.
+    private void retainUnpublishedData(final ReceiveBufferPool receiveBufferPool)
+    {
+        final ByteBuffer byteBuffer = this.byteBuffer;
+        final ByteBuffer scratchBuffer = this.scratchBuffer;
+        final int usedBufferData = this.usedBufferData;
+        if (byteBuffer == scratchBuffer)
+        {
+            if (usedBufferData > 0)
+            {
+                final ByteBuffer borrowedBuffer = receiveBufferPool.borrow();
+                final int dataOffset = this.dataOffset;
+                buffer.getBytes(dataOffset, borrowedBuffer, dataOffset, usedBufferData - dataOffset);
+                ByteBufferUtil.position(borrowedBuffer, usedBufferData);
+                ByteBufferUtil.position(scratchBuffer, 0);
+                wrap(borrowedBuffer);
+            }
+        }
+        else if (usedBufferData == 0)
+        {
+            receiveBufferPool.release(byteBuffer);
+            wrap(scratchBuffer);
+        }
+    }
+
+    private void wrap(final ByteBuffer byteBuffer)
+    {
+        this.byteBuffer = byteBuffer;
+        buffer.wrap(byteBuffer);
+    }
+
+    private void scratchBuffer(final ByteBuffer scratchBuffer)
+    {
+        if (byteBuffer == this.scratchBuffer)
+        {
+            wrap(scratchBuffer);
+        }
+        this.scratchBuffer = scratchBuffer;
+    }
+
+    private void releaseBuffer()
+    {
+        final ReceiveBufferPool receiveBufferPool = this.receiveBufferPool;
+        if (receiveBufferPool != null && byteBuffer != scratchBuffer)
+        {
+            receiveBufferPool.release(byteBuffer);
+            wrap(scratchBuffer);
+            usedBufferData = 0;
+            dataOffset = 0;
+        }
+    }
+
     private int pollPendingLogon()
     {
         if (pendingAcceptorLogon.poll())
@@ -189,7 +283,7 @@ class ReceiverEndPoint
                 // the new session in soleLibraryMode
                 if (isPaused)
                 {
-                    moveRemainingDataToBufferStart(offset);
+                    retainDataFrom(offset);
                     return offset;
                 }
 
@@ -200,7 +294,7 @@ class ReceiverEndPoint
                 else
                 {
                     offset += length;
-                    moveRemainingDataToBufferStart(offset);
+                    retainDataFrom(offset);
                     return offset;
                 }
             }
@@ -215,12 +309,14 @@ class ReceiverEndPoint
 
     private int readData() throws IOException
     {
+        compactIfLowOnSpace();
+
         final int dataRead = channel.read(byteBuffer);
         if (dataRead != SOCKET_DISCONNECTED)
         {
             if (dataRead > 0)
             {
-                DebugLogger.log(FIX_MESSAGE, "Read     %s%n", buffer, 0, dataRead);
+                DebugLogger.log(FIX_MESSAGE, "Read     %s%n", buffer, usedBufferData, dataRead);
             }
             usedBufferData += dataRead;
         }
@@ -235,7 +331,13 @@ class ReceiverEndPoint
 
     private int frameMessages()
     {
-        int offset = 0;
+        final int startOffset = dataOffset;
+        return frameMessagesFrom(startOffset) - startOffset;
+    }
+
+    private int frameMessagesFrom(final int startOffset)
+    {
+        int offset = startOffset;
         while (true)
         {
             if (usedBufferData < offset + StandardFixConstants.MIN_MESSAGE_SIZE) // Need more data
@@ -321,7 +423,7 @@ class ReceiverEndPoint
             }
         }
 
-        moveRemainingDataToBufferStart(offset);
+        retainDataFrom(offset);
         return offset;
     }
 
@@ -351,7 +453,7 @@ class ReceiverEndPoint
             return offset;
         }
 
-        moveRemainingDataToBufferStart(endOfMessage);
+        retainDataFrom(endOfMessage);
         return offset;
     }
 
@@ -436,7 +538,7 @@ class ReceiverEndPoint
         final boolean backPressured = Pressure.isBackPressured(position);
         if (backPressured)
         {
-            moveRemainingDataToBufferStart(offset);
+            retainDataFrom(offset);
         }
 
         return backPressured;
@@ -458,7 +560,7 @@ class ReceiverEndPoint
 
         if (Pressure.isBackPressured(position))
         {
-            moveRemainingDataToBufferStart(offset);
+            retainDataFrom(offset);
             return false;
         }
         else
@@ -509,14 +611,36 @@ class ReceiverEndPoint
         }
     }
 
-    private void moveRemainingDataToBufferStart(final int offset)
+    // Retains the data from offset onwards, which is moved to the start of the buffer unless compaction is deferred.
+    private void retainDataFrom(final int offset)
     {
+        if (deferredCompaction && offset < usedBufferData)
+        {
+            dataOffset = offset;
+            return;
+        }
+
+        dataOffset = 0;
         usedBufferData -= offset;
         buffer.putBytes(0, buffer, offset, usedBufferData);
         // position set to ensure that back pressure is applied to TCP when read(byteBuffer) called.
         ByteBufferUtil.position(byteBuffer, usedBufferData);
     }
 
+    // When compaction is deferred retained data is only moved to the start of the buffer once there's less space
+    // left at the end of the buffer than has been framed before it.
+    private void compactIfLowOnSpace()
+    {
+        final int dataOffset = this.dataOffset;
+        if (dataOffset > 0 && byteBuffer.capacity() - usedBufferData < dataOffset)
+        {
+            this.dataOffset = 0;
+            usedBufferData -= dataOffset;
+            buffer.putBytes(0, buffer, dataOffset, usedBufferData);
+            ByteBufferUtil.position(byteBuffer, usedBufferData);
+        }
+    }
+
     private void invalidateMessage(final int offset)
     {
         DebugLogger.log(FIX_MESSAGE, "%s", buffer, offset, MIN_MESSAGE_SIZE);
@@ -545,7 +669,7 @@ class ReceiverEndPoint
         final long position = publication.saveMessage(
             buffer,
             offset,
-            usedBufferData,
+            usedBufferData - offset,
             libraryId,
             INVALID_MESSAGE_TYPE,
             sessionId,
@@ -564,7 +688,7 @@ class ReceiverEndPoint
 
     private void clearBuffer()
     {
-        moveRemainingDataToBufferStart(usedBufferData);
+        retainDataFrom(usedBufferData);
     }
 
     private boolean saveInvalidChecksumMessage(final int offset, final int messageType, final int length)
@@ -586,7 +710,9 @@ class ReceiverEndPoint
 
     public void close(final DisconnectReason reason)
     {
+        recallFromShard();
         closeResources();
+        releaseBuffer();
 
         if (!hasDisconnected)
         {
@@ -624,13 +750,22 @@ class ReceiverEndPoint
 
     private void completeDisconnect(final DisconnectReason reason)
     {
+        final FramerShard shard = this.shard;
+        if (shard != null)
+        {
+            // Disconnects update the Framer's state so they're completed once the Framer has recalled the end point.
+            shardDisconnectReason = reason;
+            shard.onDisconnectDetected(this);
+            return;
+        }
+
         disconnectEndpoint(reason);
         removeEndpointFromFramer();
     }
 
     private void disconnectEndpoint(final DisconnectReason reason)
     {
-        framer.schedule(() -> publication.saveDisconnect(libraryId, connectionId, reason));
+        framer.schedule(() -> framerPublication.saveDisconnect(libraryId, connectionId, reason));
 
         sessionContexts.onDisconnect(sessionId);
         if (selectionKey != null)
@@ -658,16 +793,19 @@ class ReceiverEndPoint
 
     public void libraryId(final int libraryId)
     {
+        recallFromShard();
         this.libraryId = libraryId;
     }
 
     void gatewaySession(final GatewaySession gatewaySession)
     {
+        recallFromShard();
         this.gatewaySession = gatewaySession;
     }
 
     void pause()
     {
+        recallFromShard();
         isPaused = true;
     }
 
@@ -675,4 +813,91 @@ class ReceiverEndPoint
     {
         isPaused = false;
     }
+
+    /**
+     * Whether this end point can be polled by a {@link FramerShard}: the session is logged on, is owned by a library
+     * and isn't in the process of being handed over.
+     *
+     * @return true if this end point can be polled by a shard.
+     */
+    boolean canBeSharded()
+    {
+        return libraryId != ENGINE_LIBRARY_ID &&
+            sessionId != UNKNOWN &&
+            pendingAcceptorLogon == null &&
+            !isPaused &&
+            !hasDisconnected &&
+            shardDisconnectReason == null;
+    }
+
+    boolean isSharded()
+    {
+        return shard != null;
+    }
+
+    FramerShard shard()
+    {
+        return shard;
+    }
+
+    void moveToShard(final FramerShard shard)
+    {
+        selectionKey.interestOps(0);
+        publication = shard.inboundPublication();
+        if (receiveBufferPool != null)
+        {
+            scratchBuffer(shard.scratchBuffer());
+        }
+        this.shard = shard;
+        shard.add(this);
+    }
+
+    // Called on the shard thread
+    void registerWithShard(final Selector selector) throws IOException
+    {
+        shardSelectionKey = channel.register(selector, OP_READ, this);
+    }
+
+    // Called on the shard thread
+    void deregisterFromShard()
+    {
+        shardSelectionKey.cancel();
+        shardSelectionKey = null;
+    }
+
+    void recallFromShard()
+    {
+        final FramerShard shard = this.shard;
+        if (shard != null)
+        {
+            this.shard = null;
+            shard.remove(this);
+
+            publication = framerPublication;
+            if (receiveBufferPool != null)
+            {
+                scratchBuffer(receiveBufferPool.framerScratchBuffer());
+            }
+
+            if (selectionKey.isValid())
+            {
+                selectionKey.interestOps(OP_READ);
+            }
+        }
+    }
+
+    void completeShardDisconnect()
+    {
+        recallFromShard();
+
+        final DisconnectReason reason = shardDisconnectReason;
+        if (reason != null)
+        {
+            shardDisconnectReason = null;
+            if (!hasDisconnected)
+            {
+                completeDisconnect(reason);
+            }
+        }
+    }
 }
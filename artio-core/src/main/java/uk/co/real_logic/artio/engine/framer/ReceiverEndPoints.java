@@ -17,11 +17,13 @@ package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.LangUtil;
 import org.agrona.collections.ArrayUtil;
+import org.agrona.concurrent.QueuedPipe;
 import org.agrona.nio.TransportPoller;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static org.agrona.collections.ArrayUtil.UNKNOWN_INDEX;
@@ -29,7 +31,49 @@ import static uk.co.real_logic.artio.messages.DisconnectReason.ENGINE_SHUTDOWN;
 
 class ReceiverEndPoints extends TransportPoller
 {
+    private static final FramerShard[] NO_SHARDS = new FramerShard[0];
+
+    private final FramerShard[] shards;
+    private final QueuedPipe<ReceiverEndPoint> shardDisconnects;
+    private final FramerShard owner;
+    private final Consumer<ReceiverEndPoint> completeShardDisconnect = ReceiverEndPoint::completeShardDisconnect;
+
     private ReceiverEndPoint[] endPoints = new ReceiverEndPoint[0];
+    private int nextShard = 0;
+
+    ReceiverEndPoints()
+    {
+        this(NO_SHARDS, null, null);
+    }
+
+    /**
+     * Creates a shard's end points, which the Framer has handed over to the shard.
+     *
+     * @param owner the shard that polls the end points.
+     */
+    ReceiverEndPoints(final FramerShard owner)
+    {
+        this(NO_SHARDS, null, owner);
+    }
+
+    /**
+     * Creates the Framer's end points, which hands end points over to the shards once they can be sharded.
+     *
+     * @param shards the shards that end points are partitioned across, empty if the Framer polls every end point.
+     * @param shardDisconnects the queue that shards report the end points which they have detected disconnects on to.
+     */
+    ReceiverEndPoints(final FramerShard[] shards, final QueuedPipe<ReceiverEndPoint> shardDisconnects)
+    {
+        this(shards, shardDisconnects, null);
+    }
+
+    private ReceiverEndPoints(
+        final FramerShard[] shards, final QueuedPipe<ReceiverEndPoint> shardDisconnects, final FramerShard owner)
+    {
+        this.shards = shards;
+        this.shardDisconnects = shardDisconnects;
+        this.owner = owner;
+    }
 
     void add(final ReceiverEndPoint endPoint)
     {
@@ -65,6 +109,39 @@ class ReceiverEndPoints extends TransportPoller
         selectNowToForceProcessing();
     }
 
+    // Called on a shard's thread, in order to take over polling the end point from the Framer.
+    void addSharded(final ReceiverEndPoint endPoint)
+    {
+        try
+        {
+            endPoint.registerWithShard(selector);
+            endPoints = ArrayUtil.add(endPoints, endPoint);
+        }
+        catch (final IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+    }
+
+    // Called on a shard's thread once the Framer has recalled the end point.
+    void removeSharded(final ReceiverEndPoint endPoint)
+    {
+        endPoints = ArrayUtil.remove(endPoints, endPoint);
+        endPoint.deregisterFromShard();
+
+        // Ensures that the cancelled key is deregistered and can't be polled from the selected keys.
+        selectNowToForceProcessing();
+        selectedKeySet.reset();
+    }
+
+    void recallShardedEndPoints()
+    {
+        for (final ReceiverEndPoint endPoint : endPoints)
+        {
+            endPoint.recallFromShard();
+        }
+    }
+
     private void selectNowToForceProcessing()
     {
         try
@@ -88,7 +165,7 @@ class ReceiverEndPoints extends TransportPoller
             {
                 for (int i = numEndPoints - 1; i >= 0; i--)
                 {
-                    bytesReceived += endPoints[i].poll();
+                    bytesReceived += poll(endPoints[i]);
                 }
             }
             else
@@ -98,7 +175,7 @@ class ReceiverEndPoints extends TransportPoller
                 final SelectionKey[] keys = selectedKeySet.keys();
                 for (int i = selectedKeySet.size() - 1; i >= 0; i--)
                 {
-                    bytesReceived += ((ReceiverEndPoint)keys[i].attachment()).poll();
+                    bytesReceived += poll((ReceiverEndPoint)keys[i].attachment());
                 }
 
                 selectedKeySet.reset();
@@ -109,12 +186,48 @@ class ReceiverEndPoints extends TransportPoller
             LangUtil.rethrowUnchecked(ex);
         }
 
+        if (shards.length > 0)
+        {
+            bytesReceived += shardDisconnects.drain(completeShardDisconnect);
+        }
+
         return bytesReceived;
     }
 
+    private int poll(final ReceiverEndPoint endPoint)
+    {
+        final FramerShard owner = this.owner;
+        if (owner != null)
+        {
+            return owner.poll(endPoint);
+        }
+
+        final FramerShard[] shards = this.shards;
+        if (shards.length > 0)
+        {
+            if (endPoint.isSharded())
+            {
+                return 0;
+            }
+
+            if (endPoint.canBeSharded())
+            {
+                endPoint.moveToShard(shards[nextShard]);
+                nextShard = (nextShard + 1) % shards.length;
+                return 1;
+            }
+        }
+
+        return endPoint.poll();
+    }
+
     public void close()
     {
-        Stream.of(endPoints).forEach(receiverEndPoint -> receiverEndPoint.close(ENGINE_SHUTDOWN));
+        // A shard's end points are closed by the Framer, which recalls them first.
+        if (owner == null)
+        {
+            Stream.of(endPoints).forEach(receiverEndPoint -> receiverEndPoint.close(ENGINE_SHUTDOWN));
+        }
         super.close();
     }
 }
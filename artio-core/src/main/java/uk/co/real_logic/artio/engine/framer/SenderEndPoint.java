@@ -19,6 +19,8 @@ import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
@@ -28,6 +30,7 @@ import uk.co.real_logic.artio.messages.DisconnectReason;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
 import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE;
@@ -35,9 +38,13 @@ import static uk.co.real_logic.artio.engine.FixEngine.ENGINE_LIBRARY_ID;
 import static uk.co.real_logic.artio.messages.DisconnectReason.EXCEPTION;
 import static uk.co.real_logic.artio.messages.DisconnectReason.SLOW_CONSUMER;
 import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_SENDING_TIME_OFFSET;
 
 class SenderEndPoint
 {
+    private static final int INITIAL_COALESCED_MESSAGES_CAPACITY = 16;
+    private static final int INITIAL_SPILL_BUFFER_CAPACITY = 64 * 1024;
+
     private final long connectionId;
     private final TcpChannel channel;
     private final AtomicCounter bytesInBuffer;
@@ -49,6 +56,29 @@ class SenderEndPoint
     private final StreamTracker outboundTracker;
     private final StreamTracker replayTracker;
     private final SenderSequenceNumber senderSequenceNumber;
+    private final int coalescingBufferSize;
+    private final AtomicCounter coalescedWrites;
+    private final AtomicCounter coalescedMessages;
+    private final boolean spillSlowConsumerMessages;
+    private final SendingTimeStamper sendingTimeStamper;
+
+    // Coalescing buffer and the messages within it, allocated when a message is first coalesced.
+    private ByteBuffer coalescingByteBuffer;
+    private UnsafeBuffer coalescingBuffer;
+    private int coalescedBytes;
+    private int coalescedMessageCount;
+    private long[] coalescedPositions;
+    private int[] coalescedBodyLengths;
+    private int[] coalescedSendingTimeOffsets;
+    private StreamTracker[] coalescedTrackers;
+    private boolean flushScheduled;
+
+    // Spill buffer for a slow consumer's unsent data, allocated when data is first spilled. Spilled data is
+    // between the head and the tail.
+    private ExpandableDirectByteBuffer spillBuffer;
+    private int spillHead;
+    private int spillTail;
+    private boolean spillScheduled;
 
     private int libraryId;
     private long sessionId;
@@ -68,7 +98,12 @@ class SenderEndPoint
         final int maxBytesInBuffer,
         final long slowConsumerTimeoutInMs,
         final long timeInMs,
-        final SenderSequenceNumber senderSequenceNumber)
+        final SenderSequenceNumber senderSequenceNumber,
+        final int coalescingBufferSize,
+        final AtomicCounter coalescedWrites,
+        final AtomicCounter coalescedMessages,
+        final boolean spillSlowConsumerMessages,
+        final SendingTimeStamper sendingTimeStamper)
     {
         this.connectionId = connectionId;
         this.libraryId = libraryId;
@@ -80,6 +115,11 @@ class SenderEndPoint
         this.maxBytesInBuffer = maxBytesInBuffer;
         this.slowConsumerTimeoutInMs = slowConsumerTimeoutInMs;
         this.senderSequenceNumber = senderSequenceNumber;
+        this.coalescingBufferSize = coalescingBufferSize;
+        this.coalescedWrites = coalescedWrites;
+        this.coalescedMessages = coalescedMessages;
+        this.spillSlowConsumerMessages = spillSlowConsumerMessages;
+        this.sendingTimeStamper = sendingTimeStamper;
 
         outboundTracker = new StreamTracker(outboundBlockablePosition);
         replayTracker = new StreamTracker(replayBlockablePosition);
@@ -108,7 +148,14 @@ class SenderEndPoint
             return;
         }
 
-        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker);
+        attemptFramedMessage(
+            directBuffer,
+            offset,
+            bodyLength,
+            sendingTimeOffset(directBuffer, offset),
+            timeInMs,
+            position,
+            outboundTracker);
 
         senderSequenceNumber.onNewMessage(sequenceNumber);
     }
@@ -125,7 +172,9 @@ class SenderEndPoint
             replayPaused = true;
         }
 
-        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, replayTracker);
+        // Resent messages have their SendingTime set by the replayer
+        attemptFramedMessage(
+            directBuffer, offset, bodyLength, NO_SENDING_TIME_OFFSET, timeInMs, position, replayTracker);
 
         return CONTINUE;
     }
@@ -145,13 +194,28 @@ class SenderEndPoint
         final int offsetAfterHeader = offset - FRAME_SIZE;
         final int length = bodyLength + FRAME_SIZE;
 
-        return attemptSlowMessage(buffer, offsetAfterHeader, length, position, bodyLength, timeInMs, replayTracker);
+        return attemptSlowMessage(
+            buffer,
+            offsetAfterHeader,
+            length,
+            position,
+            bodyLength,
+            NO_SENDING_TIME_OFFSET,
+            timeInMs,
+            replayTracker);
+    }
+
+    private int sendingTimeOffset(final DirectBuffer directBuffer, final int offset)
+    {
+        return sendingTimeStamper == null ?
+            NO_SENDING_TIME_OFFSET : SendingTimeStamper.sendingTimeOffset(directBuffer, offset);
     }
 
     private void attemptFramedMessage(
         final DirectBuffer directBuffer,
         final int offset,
         final int bodyLength,
+        final int sendingTimeOffset,
         final long timeInMs,
         final long position,
         final StreamTracker tracker)
@@ -163,9 +227,30 @@ class SenderEndPoint
             return;
         }
 
+        if (bodyLength <= coalescingBufferSize)
+        {
+            coalesceMessage(directBuffer, offset, bodyLength, sendingTimeOffset, timeInMs, position, tracker);
+
+            return;
+        }
+
+        // Messages that are too large to coalesce must still be written after any that have been coalesced.
+        if (coalescedMessageCount > 0)
+        {
+            flush(timeInMs);
+
+            if (isSlowConsumer())
+            {
+                dropFurtherBehind(bodyLength);
+
+                return;
+            }
+        }
+
         try
         {
-            final int written = writeFramedMessage(directBuffer, offset, bodyLength, timeInMs);
+            final int written = writeFramedMessage(
+                directBuffer, offset, bodyLength, sendingTimeOffset, position, timeInMs);
 
             if (written != bodyLength)
             {
@@ -182,6 +267,172 @@ class SenderEndPoint
         }
     }
 
+    private void coalesceMessage(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int bodyLength,
+        final int sendingTimeOffset,
+        final long timeInMs,
+        final long position,
+        final StreamTracker tracker)
+    {
+        if (coalescingBuffer == null)
+        {
+            coalescingByteBuffer = ByteBuffer.allocateDirect(coalescingBufferSize);
+            coalescingBuffer = new UnsafeBuffer(coalescingByteBuffer);
+            coalescedPositions = new long[INITIAL_COALESCED_MESSAGES_CAPACITY];
+            coalescedBodyLengths = new int[INITIAL_COALESCED_MESSAGES_CAPACITY];
+            coalescedSendingTimeOffsets = new int[INITIAL_COALESCED_MESSAGES_CAPACITY];
+            coalescedTrackers = new StreamTracker[INITIAL_COALESCED_MESSAGES_CAPACITY];
+        }
+
+        if (coalescedBytes + bodyLength > coalescingBufferSize)
+        {
+            flush(timeInMs);
+
+            if (isSlowConsumer())
+            {
+                dropFurtherBehind(bodyLength);
+
+                return;
+            }
+        }
+
+        final int coalescedMessageCount = this.coalescedMessageCount;
+        if (coalescedMessageCount == coalescedPositions.length)
+        {
+            final int newCapacity = coalescedMessageCount * 2;
+            coalescedPositions = Arrays.copyOf(coalescedPositions, newCapacity);
+            coalescedBodyLengths = Arrays.copyOf(coalescedBodyLengths, newCapacity);
+            coalescedSendingTimeOffsets = Arrays.copyOf(coalescedSendingTimeOffsets, newCapacity);
+            coalescedTrackers = Arrays.copyOf(coalescedTrackers, newCapacity);
+        }
+
+        coalescingBuffer.putBytes(coalescedBytes, directBuffer, offset, bodyLength);
+        coalescedPositions[coalescedMessageCount] = position;
+        coalescedBodyLengths[coalescedMessageCount] = bodyLength;
+        coalescedSendingTimeOffsets[coalescedMessageCount] = sendingTimeOffset;
+        coalescedTrackers[coalescedMessageCount] = tracker;
+        coalescedBytes += bodyLength;
+        this.coalescedMessageCount = coalescedMessageCount + 1;
+    }
+
+    /**
+     * Writes any coalesced messages to the TCP connection. Any messages that can't be completely written are handled
+     * as they would have been if they had been written individually: the first becomes partially sent and the rest
+     * are quarantined.
+     *
+     * @param timeInMs the current time in milliseconds.
+     * @return the number of messages that were flushed.
+     */
+    int flush(final long timeInMs)
+    {
+        final int coalescedMessageCount = this.coalescedMessageCount;
+        if (coalescedMessageCount == 0)
+        {
+            return 0;
+        }
+
+        final int coalescedBytes = this.coalescedBytes;
+        this.coalescedMessageCount = 0;
+        this.coalescedBytes = 0;
+
+        if (sendingTimeStamper != null)
+        {
+            stampCoalescedMessages(coalescedMessageCount);
+        }
+
+        try
+        {
+            final ByteBuffer buffer = coalescingByteBuffer;
+            ByteBufferUtil.limit(buffer, coalescedBytes);
+            ByteBufferUtil.position(buffer, 0);
+
+            final int written = channel.write(buffer);
+            DebugLogger.log(FIX_MESSAGE, "Written  %s%n", buffer, written);
+            updateSendingTimeoutTimeInMs(timeInMs, written);
+            coalescedWrites.incrementOrdered();
+            coalescedMessages.getAndAddOrdered(coalescedMessageCount);
+
+            final long[] coalescedPositions = this.coalescedPositions;
+            final int[] coalescedBodyLengths = this.coalescedBodyLengths;
+            final StreamTracker[] coalescedTrackers = this.coalescedTrackers;
+            int remainingWritten = written;
+            int messageOffset = 0;
+            for (int i = 0; i < coalescedMessageCount; i++)
+            {
+                final int bodyLength = coalescedBodyLengths[i];
+                final StreamTracker tracker = coalescedTrackers[i];
+                coalescedTrackers[i] = null;
+
+                if (isSlowConsumer())
+                {
+                    dropFurtherBehind(bodyLength);
+                }
+                else if (remainingWritten >= bodyLength)
+                {
+                    tracker.sentPosition = coalescedPositions[i];
+                    remainingWritten -= bodyLength;
+                }
+                else
+                {
+                    final int sendingTimeOffset = coalescedSendingTimeOffsets[i];
+                    if (sendingTimeOffset != NO_SENDING_TIME_OFFSET)
+                    {
+                        // The rest of the message must be written with the same SendingTime
+                        sendingTimeStamper.retain(
+                            coalescingBuffer, messageOffset, bodyLength, sendingTimeOffset, coalescedPositions[i]);
+                    }
+
+                    becomeSlowConsumer(remainingWritten, bodyLength, coalescedPositions[i], tracker);
+                    remainingWritten = 0;
+                }
+
+                messageOffset += bodyLength;
+            }
+        }
+        catch (final IOException ex)
+        {
+            onError(ex);
+        }
+
+        return coalescedMessageCount;
+    }
+
+    // Coalesced messages are stamped just before they're written, rather than when they're coalesced.
+    private void stampCoalescedMessages(final int coalescedMessageCount)
+    {
+        final int[] coalescedBodyLengths = this.coalescedBodyLengths;
+        final int[] coalescedSendingTimeOffsets = this.coalescedSendingTimeOffsets;
+        int messageOffset = 0;
+        for (int i = 0; i < coalescedMessageCount; i++)
+        {
+            final int bodyLength = coalescedBodyLengths[i];
+            final int sendingTimeOffset = coalescedSendingTimeOffsets[i];
+            if (sendingTimeOffset != NO_SENDING_TIME_OFFSET)
+            {
+                sendingTimeStamper.stampInPlace(coalescingBuffer, messageOffset, bodyLength, sendingTimeOffset);
+            }
+
+            messageOffset += bodyLength;
+        }
+    }
+
+    boolean hasCoalescedMessages()
+    {
+        return coalescedMessageCount > 0;
+    }
+
+    boolean flushScheduled()
+    {
+        return flushScheduled;
+    }
+
+    void flushScheduled(final boolean flushScheduled)
+    {
+        this.flushScheduled = flushScheduled;
+    }
+
     private void dropFurtherBehind(final int bodyLength)
     {
         final long bytesInBuffer = bytesInBufferWeak() + bodyLength;
@@ -197,16 +448,47 @@ class SenderEndPoint
         final DirectBuffer directBuffer,
         final int offset,
         final int length,
+        final int sendingTimeOffset,
+        final long position,
         final long timeInMs)
         throws IOException
+    {
+        final boolean stamped = sendingTimeOffset != NO_SENDING_TIME_OFFSET;
+        if (stamped)
+        {
+            sendingTimeStamper.stamp(directBuffer, offset, length, sendingTimeOffset, position);
+        }
+
+        final int written = write(directBuffer, offset, length, 0, stamped);
+        updateSendingTimeoutTimeInMs(timeInMs, written);
+
+        return written;
+    }
+
+    // Writes the rest of a message, the parts of it that have been stamped are written from the stamper.
+    private int write(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int length,
+        final int bytesPreviouslySent,
+        final boolean stamped)
+        throws IOException
     {
         final ByteBuffer buffer = directBuffer.byteBuffer();
+        if (stamped)
+        {
+            final int written = (int)channel.write(sendingTimeStamper.buffers(buffer, offset, bytesPreviouslySent));
+            DebugLogger.log(FIX_MESSAGE, "Written  %s%n", directBuffer, offset + bytesPreviouslySent, written);
+
+            return written;
+        }
+
+        final int dataOffset = offset + bytesPreviouslySent;
         ByteBufferUtil.limit(buffer, offset + length);
-        ByteBufferUtil.position(buffer, offset);
+        ByteBufferUtil.position(buffer, dataOffset);
 
         final int written = channel.write(buffer);
         DebugLogger.log(FIX_MESSAGE, "Written  %s%n", buffer, written);
-        updateSendingTimeoutTimeInMs(timeInMs, written);
 
         return written;
     }
@@ -269,8 +551,18 @@ class SenderEndPoint
 
     public void close()
     {
+        coalescedMessageCount = 0;
+        coalescedBytes = 0;
+        spillHead = 0;
+        spillTail = 0;
+
         bytesInBuffer.close();
         invalidLibraryAttempts.close();
+        if (coalescedWrites != null)
+        {
+            coalescedWrites.close();
+            coalescedMessages.close();
+        }
     }
 
     Action onSlowOutboundMessage(
@@ -294,7 +586,14 @@ class SenderEndPoint
         }
 
         return attemptSlowMessage(
-            directBuffer, offsetAfterHeader, length, position, bodyLength, timeInMs, outboundTracker);
+            directBuffer,
+            offsetAfterHeader,
+            length,
+            position,
+            bodyLength,
+            sendingTimeOffset(directBuffer, offsetAfterHeader + FRAME_SIZE),
+            timeInMs,
+            outboundTracker);
     }
 
     private Action attemptSlowMessage(
@@ -303,6 +602,7 @@ class SenderEndPoint
         final int length,
         final long position,
         final int bodyLength,
+        final int sendingTimeOffset,
         final long timeInMs,
         final StreamTracker tracker)
     {
@@ -335,28 +635,29 @@ class SenderEndPoint
         try
         {
             final long startOfMessage = position - length;
-            final int remainingLength;
             final int bytesPreviouslySent;
 
             // You've complete the stream and there's another message in between.
             if (sentPosition < startOfMessage)
             {
-                remainingLength = bodyLength;
                 bytesPreviouslySent = 0;
             }
             else
             {
-                remainingLength = (int)(position - sentPosition);
-                bytesPreviouslySent = bodyLength - remainingLength;
+                bytesPreviouslySent = bodyLength - (int)(position - sentPosition);
             }
 
-            final int dataOffset = offsetAfterHeader + FRAME_SIZE + bytesPreviouslySent;
-            final ByteBuffer buffer = directBuffer.byteBuffer();
+            final int offset = offsetAfterHeader + FRAME_SIZE;
+            final boolean stamped = sendingTimeOffset != NO_SENDING_TIME_OFFSET && stampedSlowMessage(
+                directBuffer, offset, bodyLength, sendingTimeOffset, bytesPreviouslySent, position);
 
-            ByteBufferUtil.limit(buffer, dataOffset + remainingLength);
-            ByteBufferUtil.position(buffer, dataOffset);
+            if (spillSlowConsumerMessages)
+            {
+                return spillSlowMessage(
+                    directBuffer, offset, bodyLength, bytesPreviouslySent, stamped, position, timeInMs, tracker);
+            }
 
-            final int written = channel.write(buffer);
+            final int written = write(directBuffer, offset, bodyLength, bytesPreviouslySent, stamped);
             bytesInBuffer.getAndAddOrdered(-written);
 
             updateSendingTimeoutTimeInMs(timeInMs, written);
@@ -386,6 +687,157 @@ class SenderEndPoint
         return CONTINUE;
     }
 
+    // A partially sent message's stamped parts are retained, so that the rest of it is written with the same
+    // SendingTime.
+    private boolean stampedSlowMessage(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int bodyLength,
+        final int sendingTimeOffset,
+        final int bytesPreviouslySent,
+        final long position)
+    {
+        final SendingTimeStamper sendingTimeStamper = this.sendingTimeStamper;
+        if (bytesPreviouslySent == 0)
+        {
+            sendingTimeStamper.stamp(directBuffer, offset, bodyLength, sendingTimeOffset, position);
+            return true;
+        }
+
+        return sendingTimeStamper.hasStamped(position);
+    }
+
+    // Writes as much of the message as possible if nothing has been spilled yet and then spills the rest, so the
+    // slow peeker doesn't need to block its position in order to retry the message.
+    private Action spillSlowMessage(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int bodyLength,
+        final int bytesPreviouslySent,
+        final boolean stamped,
+        final long position,
+        final long timeInMs,
+        final StreamTracker tracker)
+        throws IOException
+    {
+        int written = 0;
+        if (!hasSpilledData())
+        {
+            written = write(directBuffer, offset, bodyLength, bytesPreviouslySent, stamped);
+            bytesInBuffer.getAndAddOrdered(-written);
+            updateSendingTimeoutTimeInMs(timeInMs, written);
+        }
+
+        final int sent = bytesPreviouslySent + written;
+        if (sent < bodyLength)
+        {
+            final int spillOffset = claimSpill(bodyLength - sent);
+            if (stamped)
+            {
+                sendingTimeStamper.getBytes(directBuffer, offset, sent, spillBuffer, spillOffset);
+            }
+            else
+            {
+                spillBuffer.putBytes(spillOffset, directBuffer, offset + sent, bodyLength - sent);
+            }
+        }
+
+        tracker.sentPosition = position;
+        tracker.partiallySentMessage = false;
+        tracker.skipPosition = Long.MAX_VALUE;
+
+        if (!isSlowConsumer())
+        {
+            becomeNormalConsumer();
+        }
+
+        return CONTINUE;
+    }
+
+    // Makes space for length bytes at the tail of the spill buffer and returns the offset of that space.
+    private int claimSpill(final int length)
+    {
+        ExpandableDirectByteBuffer spillBuffer = this.spillBuffer;
+        if (spillBuffer == null)
+        {
+            spillBuffer = new ExpandableDirectByteBuffer(Math.min(INITIAL_SPILL_BUFFER_CAPACITY, maxBytesInBuffer));
+            this.spillBuffer = spillBuffer;
+        }
+
+        final int spillHead = this.spillHead;
+        if (spillHead > 0 && spillTail + length > spillBuffer.capacity())
+        {
+            spillTail -= spillHead;
+            spillBuffer.putBytes(0, spillBuffer, spillHead, spillTail);
+            this.spillHead = 0;
+        }
+
+        final int spillOffset = spillTail;
+        spillTail += length;
+
+        return spillOffset;
+    }
+
+    /**
+     * Writes data that has been spilled by a slow consumer to the TCP connection.
+     *
+     * @param timeInMs the current time in milliseconds.
+     * @return the number of bytes written.
+     */
+    int writeSpilledData(final long timeInMs)
+    {
+        if (!hasSpilledData())
+        {
+            return 0;
+        }
+
+        try
+        {
+            final ByteBuffer buffer = spillBuffer.byteBuffer();
+            ByteBufferUtil.limit(buffer, spillTail);
+            ByteBufferUtil.position(buffer, spillHead);
+
+            final int written = channel.write(buffer);
+            DebugLogger.log(FIX_MESSAGE, "Written  %s%n", buffer, written);
+            bytesInBuffer.getAndAddOrdered(-written);
+            updateSendingTimeoutTimeInMs(timeInMs, written);
+
+            spillHead += written;
+            if (spillHead == spillTail)
+            {
+                spillHead = 0;
+                spillTail = 0;
+
+                if (!isSlowConsumer())
+                {
+                    becomeNormalConsumer();
+                }
+            }
+
+            return written;
+        }
+        catch (final IOException ex)
+        {
+            onError(ex);
+            return 0;
+        }
+    }
+
+    boolean hasSpilledData()
+    {
+        return spillTail > spillHead;
+    }
+
+    boolean spillScheduled()
+    {
+        return spillScheduled;
+    }
+
+    void spillScheduled(final boolean spillScheduled)
+    {
+        this.spillScheduled = spillScheduled;
+    }
+
     private Action blockPosition(final long position, final int length, final StreamTracker tracker)
     {
         final int alignedLength = ArchiveDescriptor.alignTerm(length);
@@ -19,11 +19,13 @@ import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.collections.ArrayListUtil;
 import org.agrona.collections.Long2ObjectHashMap;
 import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
+import java.util.ArrayList;
 import java.util.function.LongToIntFunction;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
@@ -37,6 +39,8 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
     private final Long2ObjectHashMap<SenderEndPoint> connectionIdToSenderEndpoint = new Long2ObjectHashMap<>();
     private final ErrorHandler errorHandler;
     private final LongToIntFunction libraryLookup = this::libraryLookup;
+    private final ArrayList<SenderEndPoint> endPointsToFlush = new ArrayList<>();
+    private final ArrayList<SenderEndPoint> spillingEndPoints = new ArrayList<>();
 
     private int libraryLookup(final long sessionId)
     {
@@ -69,6 +73,10 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         if (senderEndPoint != null)
         {
             senderEndPoint.close();
+            if (senderEndPoint.spillScheduled())
+            {
+                spillingEndPoints.remove(senderEndPoint);
+            }
         }
     }
 
@@ -85,6 +93,7 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         if (endPoint != null)
         {
             endPoint.onOutboundMessage(libraryId, buffer, offset, length, sequenceNumber, position, timeInMs);
+            scheduleFlush(endPoint);
         }
     }
 
@@ -94,7 +103,9 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
-            return endPoint.onReplayMessage(buffer, offset, length, timeInMs, position);
+            final Action action = endPoint.onReplayMessage(buffer, offset, length, timeInMs, position);
+            scheduleFlush(endPoint);
+            return action;
         }
         else
         {
@@ -110,7 +121,9 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
-            return endPoint.onSlowReplayMessage(buffer, offset, length, timeInMs, position);
+            final Action action = endPoint.onSlowReplayMessage(buffer, offset, length, timeInMs, position);
+            scheduleSpillWrite(endPoint);
+            return action;
         }
         else
         {
@@ -120,6 +133,76 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         }
     }
 
+    private void scheduleFlush(final SenderEndPoint endPoint)
+    {
+        if (endPoint.hasCoalescedMessages() && !endPoint.flushScheduled())
+        {
+            endPoint.flushScheduled(true);
+            endPointsToFlush.add(endPoint);
+        }
+    }
+
+    /**
+     * Writes the messages that end points have coalesced since the last flush.
+     */
+    void flush()
+    {
+        final ArrayList<SenderEndPoint> endPointsToFlush = this.endPointsToFlush;
+        final int size = endPointsToFlush.size();
+        if (size > 0)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                final SenderEndPoint endPoint = endPointsToFlush.get(i);
+                endPoint.flushScheduled(false);
+                endPoint.flush(timeInMs);
+            }
+            endPointsToFlush.clear();
+        }
+    }
+
+    private void scheduleSpillWrite(final SenderEndPoint endPoint)
+    {
+        if (endPoint.hasSpilledData() && !endPoint.spillScheduled())
+        {
+            endPoint.spillScheduled(true);
+            spillingEndPoints.add(endPoint);
+        }
+    }
+
+    /**
+     * Writes the data that slow consumers have spilled, end points stop being scheduled once they have written all
+     * of their spilled data.
+     *
+     * @return the number of bytes written.
+     */
+    int writeSpilledData()
+    {
+        final ArrayList<SenderEndPoint> spillingEndPoints = this.spillingEndPoints;
+        int bytesWritten = 0;
+        for (int i = spillingEndPoints.size() - 1; i >= 0; i--)
+        {
+            final SenderEndPoint endPoint = spillingEndPoints.get(i);
+            bytesWritten += endPoint.writeSpilledData(timeInMs);
+            if (!endPoint.hasSpilledData())
+            {
+                endPoint.spillScheduled(false);
+                ArrayListUtil.fastUnorderedRemove(spillingEndPoints, i);
+            }
+        }
+
+        return bytesWritten;
+    }
+
+    void flush(final long connectionId)
+    {
+        final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
+        if (endPoint != null)
+        {
+            endPoint.flush(timeInMs);
+        }
+    }
+
     private void logReplayError(final long connectionId, final DirectBuffer buffer, final int offset, final int length)
     {
         errorHandler.onError(new IllegalArgumentException(String.format(
@@ -154,8 +237,10 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
             {
                 final int bodyLength = fixMessage.bodyLength();
                 final int libraryId = fixMessage.libraryId();
-                return senderEndPoint.onSlowOutboundMessage(
+                final Action action = senderEndPoint.onSlowOutboundMessage(
                     buffer, offset, length - HEADER_LENGTH, position, bodyLength, libraryId, timeInMs);
+                scheduleSpillWrite(senderEndPoint);
+                return action;
             }
         }
 
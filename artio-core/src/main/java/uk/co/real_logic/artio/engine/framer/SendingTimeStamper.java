@@ -0,0 +1,322 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
+import static uk.co.real_logic.artio.session.Session.ENGINE_SENDING_TIME_PLACEHOLDER;
+
+/**
+ * Replaces the SendingTime placeholder that libraries put into messages when the engine stamps their SendingTime,
+ * see {@link uk.co.real_logic.artio.CommonConfiguration#engineSendingTime(boolean)}, with the time that the message
+ * is written to the TCP connection and updates the message's checksum to match. Libraries record the offset of the
+ * placeholder in the message's frame, so the message doesn't need to be searched for it.
+ * <p>
+ * Messages aren't stamped in the Aeron term buffer that they're read from, since other subscribers, like the
+ * archiver, read that. Coalesced messages are stamped in the coalescing buffer that they've been copied to.
+ * Otherwise only the start of the message, up to the end of its SendingTime, and its checksum are copied and stamped
+ * and then they're written either side of the rest of the message with a gathering write. These copies are retained
+ * for the last stamped message, so that if it's only partially written the rest of it is written with the same
+ * SendingTime and checksum.
+ */
+class SendingTimeStamper
+{
+    static final long NO_STAMPED_MESSAGE = Long.MIN_VALUE;
+
+    private static final int TIMESTAMP_LENGTH = ENGINE_SENDING_TIME_PLACEHOLDER.length();
+    // The XXX\001 of the 10=XXX\001 checksum field
+    private static final int CHECKSUM_VALUE_LENGTH = 3;
+    private static final int TRAILER_LENGTH = CHECKSUM_VALUE_LENGTH + 1;
+    private static final int INITIAL_PREFIX_CAPACITY = 256;
+    private static final int SENDING_TIME_OFFSET_OFFSET = FixMessageDecoder.sendingTimeOffsetEncodingOffset() -
+        FRAME_SIZE;
+
+    private final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+    private final byte[] timestamp = timestampEncoder.buffer();
+    private final ByteBuffer trailerByteBuffer = ByteBuffer.allocateDirect(TRAILER_LENGTH);
+    private final UnsafeBuffer trailerBuffer = new UnsafeBuffer(trailerByteBuffer);
+    private final ByteBuffer[] buffers = new ByteBuffer[3];
+    private final EpochClock clock;
+
+    private ByteBuffer prefixByteBuffer;
+    private UnsafeBuffer prefixBuffer;
+    private int prefixLength;
+    private int middleLength;
+    private long stampedPosition = NO_STAMPED_MESSAGE;
+    private long encodedTimeInMs = Long.MIN_VALUE;
+    private int timestampChecksum;
+
+    SendingTimeStamper(final EpochClock clock)
+    {
+        this.clock = clock;
+    }
+
+    /**
+     * Reads the offset of the SendingTime placeholder that the library recorded in a message's frame.
+     *
+     * @param buffer the buffer that the framed message is in.
+     * @param offset the offset of the message, after its frame, within the buffer.
+     * @return the offset of the placeholder from the start of the message or
+     * {@link uk.co.real_logic.artio.protocol.GatewayPublication#NO_SENDING_TIME_OFFSET} if it isn't to be stamped.
+     */
+    static int sendingTimeOffset(final DirectBuffer buffer, final int offset)
+    {
+        return buffer.getInt(offset + SENDING_TIME_OFFSET_OFFSET, LITTLE_ENDIAN);
+    }
+
+    /**
+     * Stamps a message so that it can be written with {@link #buffers(ByteBuffer, int, int)}, the message itself
+     * isn't altered.
+     *
+     * @param srcBuffer the buffer that the message is in.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param sendingTimeOffset the offset of the SendingTime placeholder from the start of the message.
+     * @param position the position of the end of the message in its stream.
+     */
+    void stamp(
+        final DirectBuffer srcBuffer,
+        final int offset,
+        final int length,
+        final int sendingTimeOffset,
+        final long position)
+    {
+        final int prefixLength = sendingTimeOffset + TIMESTAMP_LENGTH;
+        final MutableDirectBuffer prefixBuffer = prefixBuffer(prefixLength);
+        prefixBuffer.putBytes(0, srcBuffer, offset, prefixLength);
+        trailerBuffer.putBytes(0, srcBuffer, offset + length - TRAILER_LENGTH, TRAILER_LENGTH);
+        stamp(prefixBuffer, sendingTimeOffset, trailerBuffer, 0);
+
+        this.prefixLength = prefixLength;
+        middleLength = length - (prefixLength + TRAILER_LENGTH);
+        stampedPosition = position;
+    }
+
+    /**
+     * Stamps a message that has already been copied, in place.
+     *
+     * @param buffer the buffer that the message is in.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param sendingTimeOffset the offset of the SendingTime placeholder from the start of the message.
+     */
+    void stampInPlace(
+        final MutableDirectBuffer buffer, final int offset, final int length, final int sendingTimeOffset)
+    {
+        stamp(buffer, offset + sendingTimeOffset, buffer, offset + length - TRAILER_LENGTH);
+    }
+
+    /**
+     * Retains the stamped parts of a message that has been stamped in place, but has only been partially written,
+     * so that the rest of it can be written with {@link #buffers(ByteBuffer, int, int)}.
+     *
+     * @param buffer the buffer that the stamped message is in.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param sendingTimeOffset the offset of the SendingTime from the start of the message.
+     * @param position the position of the end of the message in its stream.
+     */
+    void retain(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final int sendingTimeOffset,
+        final long position)
+    {
+        final int prefixLength = sendingTimeOffset + TIMESTAMP_LENGTH;
+        prefixBuffer(prefixLength).putBytes(0, buffer, offset, prefixLength);
+        trailerBuffer.putBytes(0, buffer, offset + length - TRAILER_LENGTH, TRAILER_LENGTH);
+
+        this.prefixLength = prefixLength;
+        middleLength = length - (prefixLength + TRAILER_LENGTH);
+        stampedPosition = position;
+    }
+
+    boolean hasStamped(final long position)
+    {
+        return stampedPosition == position;
+    }
+
+    /**
+     * Gets the buffers for a gathering write of the rest of the last stamped message: its stamped start, the
+     * unaltered middle of the message and its stamped checksum.
+     *
+     * @param srcByteBuffer the byte buffer that the message is in, its position and limit are changed.
+     * @param offset the offset of the message within the byte buffer.
+     * @param bytesPreviouslySent the number of bytes of the message that have already been written.
+     * @return the buffers to write.
+     */
+    ByteBuffer[] buffers(final ByteBuffer srcByteBuffer, final int offset, final int bytesPreviouslySent)
+    {
+        final int prefixLength = this.prefixLength;
+        final int middleLength = this.middleLength;
+        final int middleOffset = offset + prefixLength;
+
+        final ByteBuffer prefixByteBuffer = this.prefixByteBuffer;
+        ByteBufferUtil.limit(prefixByteBuffer, prefixLength);
+        ByteBufferUtil.position(prefixByteBuffer, sentWithin(bytesPreviouslySent, prefixLength));
+
+        ByteBufferUtil.limit(srcByteBuffer, middleOffset + middleLength);
+        ByteBufferUtil.position(
+            srcByteBuffer, middleOffset + sentWithin(bytesPreviouslySent - prefixLength, middleLength));
+
+        final ByteBuffer trailerByteBuffer = this.trailerByteBuffer;
+        ByteBufferUtil.limit(trailerByteBuffer, TRAILER_LENGTH);
+        ByteBufferUtil.position(
+            trailerByteBuffer, sentWithin(bytesPreviouslySent - (prefixLength + middleLength), TRAILER_LENGTH));
+
+        final ByteBuffer[] buffers = this.buffers;
+        buffers[0] = prefixByteBuffer;
+        buffers[1] = srcByteBuffer;
+        buffers[2] = trailerByteBuffer;
+
+        return buffers;
+    }
+
+    /**
+     * Copies the rest of the last stamped message into a buffer.
+     *
+     * @param srcBuffer the buffer that the message is in.
+     * @param offset the offset of the message within the buffer.
+     * @param bytesPreviouslySent the number of bytes of the message that aren't copied.
+     * @param destBuffer the buffer to copy the message into.
+     * @param destOffset the offset within the destination buffer to copy the message to.
+     */
+    void getBytes(
+        final DirectBuffer srcBuffer,
+        final int offset,
+        final int bytesPreviouslySent,
+        final MutableDirectBuffer destBuffer,
+        final int destOffset)
+    {
+        final int prefixLength = this.prefixLength;
+        final int middleLength = this.middleLength;
+
+        int destPosition = destOffset;
+        destPosition = getBytes(prefixBuffer, 0, prefixLength, bytesPreviouslySent, destBuffer, destPosition);
+        destPosition = getBytes(
+            srcBuffer,
+            offset + prefixLength,
+            middleLength,
+            bytesPreviouslySent - prefixLength,
+            destBuffer,
+            destPosition);
+        getBytes(
+            trailerBuffer,
+            0,
+            TRAILER_LENGTH,
+            bytesPreviouslySent - (prefixLength + middleLength),
+            destBuffer,
+            destPosition);
+    }
+
+    private static int getBytes(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final int bytesPreviouslySent,
+        final MutableDirectBuffer destBuffer,
+        final int destPosition)
+    {
+        final int sent = sentWithin(bytesPreviouslySent, srcLength);
+        final int length = srcLength - sent;
+        destBuffer.putBytes(destPosition, srcBuffer, srcOffset + sent, length);
+
+        return destPosition + length;
+    }
+
+    private static int sentWithin(final int bytesPreviouslySent, final int length)
+    {
+        return Math.max(0, Math.min(bytesPreviouslySent, length));
+    }
+
+    private MutableDirectBuffer prefixBuffer(final int length)
+    {
+        UnsafeBuffer prefixBuffer = this.prefixBuffer;
+        if (prefixBuffer == null || prefixBuffer.capacity() < length)
+        {
+            final int capacity = prefixBuffer == null ? INITIAL_PREFIX_CAPACITY : prefixBuffer.capacity() * 2;
+            prefixByteBuffer = ByteBuffer.allocateDirect(Math.max(capacity, length));
+            prefixBuffer = new UnsafeBuffer(prefixByteBuffer);
+            this.prefixBuffer = prefixBuffer;
+        }
+
+        return prefixBuffer;
+    }
+
+    private void stamp(
+        final MutableDirectBuffer buffer,
+        final int sendingTimeOffset,
+        final MutableDirectBuffer checksumBuffer,
+        final int checksumOffset)
+    {
+        final long timeInMs = clock.time();
+        if (timeInMs != encodedTimeInMs)
+        {
+            timestampEncoder.update(timeInMs);
+            timestampChecksum = checksum(timestamp);
+            encodedTimeInMs = timeInMs;
+        }
+
+        final int replacedChecksum = checksum(buffer, sendingTimeOffset);
+        buffer.putBytes(sendingTimeOffset, timestamp, 0, TIMESTAMP_LENGTH);
+
+        final int checksum =
+            (parseChecksum(checksumBuffer, checksumOffset) + timestampChecksum - replacedChecksum) & 0xFF;
+        checksumBuffer.putByte(checksumOffset, (byte)('0' + checksum / 100));
+        checksumBuffer.putByte(checksumOffset + 1, (byte)('0' + (checksum / 10) % 10));
+        checksumBuffer.putByte(checksumOffset + 2, (byte)('0' + checksum % 10));
+    }
+
+    private static int parseChecksum(final DirectBuffer buffer, final int offset)
+    {
+        return (buffer.getByte(offset) - '0') * 100 +
+            (buffer.getByte(offset + 1) - '0') * 10 +
+            (buffer.getByte(offset + 2) - '0');
+    }
+
+    private static int checksum(final DirectBuffer buffer, final int offset)
+    {
+        int checksum = 0;
+        for (int i = 0; i < TIMESTAMP_LENGTH; i++)
+        {
+            checksum += buffer.getByte(offset + i);
+        }
+
+        return checksum;
+    }
+
+    private static int checksum(final byte[] bytes)
+    {
+        int checksum = 0;
+        for (int i = 0; i < TIMESTAMP_LENGTH; i++)
+        {
+            checksum += bytes[i];
+        }
+
+        return checksum;
+    }
+}
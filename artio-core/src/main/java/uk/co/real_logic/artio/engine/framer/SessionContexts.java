@@ -23,6 +23,7 @@ import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.decoder.LogonDecoder;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
+import uk.co.real_logic.artio.engine.GroupCommitter;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.engine.SectorFramer;
 import uk.co.real_logic.artio.engine.logger.LoggerUtil;
@@ -52,7 +53,7 @@ import static uk.co.real_logic.artio.storage.messages.SessionIdEncoder.BLOCK_LEN
  * <p>
  * The session ids table is saved into a file. Records are written out using the {@link SessionIdEncoder}
  * and aren't allowed to span sectors. Each sector has a CRC32 checksum and each checksum is updated after writing
- * each session id record.
+ * each session id record. The file is synced to disk by a {@link GroupCommitter}.
  */
 public class SessionContexts
 {
@@ -92,14 +93,21 @@ public class SessionContexts
     private final SessionIdStrategy idStrategy;
     private final ErrorHandler errorHandler;
     private final MappedFile mappedFile;
+    private final GroupCommitter groupCommitter;
+    private final GroupCommitter.Syncable syncFile;
 
     private int filePosition;
     private long counter = LOWEST_VALID_SESSION_ID;
 
     public SessionContexts(
-        final MappedFile mappedFile, final SessionIdStrategy idStrategy, final ErrorHandler errorHandler)
+        final MappedFile mappedFile,
+        final SessionIdStrategy idStrategy,
+        final ErrorHandler errorHandler,
+        final GroupCommitter groupCommitter)
     {
         this.mappedFile = mappedFile;
+        this.groupCommitter = groupCommitter;
+        this.syncFile = mappedFile::force;
         this.buffer = mappedFile.buffer();
         this.byteBuffer = this.buffer.byteBuffer();
         sectorFramer = new SectorFramer(buffer.capacity());
@@ -274,7 +282,7 @@ public class SessionContexts
                     filePosition += compositeKeyLength;
 
                     updateChecksum(sectorFramer.sectorStart(), sectorFramer.checksumOffset());
-                    mappedFile.force();
+                    groupCommitter.onStandaloneWrite(syncFile);
                 }
             }
 
@@ -374,7 +382,7 @@ public class SessionContexts
         final int checksumOffset = start + SECTOR_DATA_LENGTH;
         updateChecksum(start, checksumOffset);
 
-        mappedFile.force();
+        groupCommitter.onStandaloneWrite(syncFile);
     }
 
     long lookupSessionId(final CompositeKey compositeKey)
@@ -50,6 +50,11 @@ public class TcpChannel implements AutoCloseable
         return socketChannel.write(src);
     }
 
+    public long write(final ByteBuffer[] srcs) throws IOException
+    {
+        return socketChannel.write(srcs);
+    }
+
     public int read(final ByteBuffer dst) throws IOException
     {
         return socketChannel.read(dst);
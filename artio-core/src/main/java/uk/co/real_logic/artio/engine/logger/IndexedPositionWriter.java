@@ -24,6 +24,9 @@ import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionDecoder;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionEncoder;
 
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
 import static uk.co.real_logic.artio.engine.SectorFramer.OUT_OF_SPACE;
 
 /**
@@ -83,7 +86,16 @@ class IndexedPositionWriter
         }
     }
 
-    void indexedUpTo(final int aeronSessionId, final long recordingId, final long position)
+    /**
+     * Record the position that a stream has been indexed up to.
+     *
+     * @param aeronSessionId the session id of the stream's publication.
+     * @param recordingId the recording that the stream is archived in.
+     * @param position the position that the stream has been indexed up to.
+     * @return the offset within the buffer of the record that was written or {@code OUT_OF_SPACE} if there was
+     * no space for a new record.
+     */
+    int indexedUpTo(final int aeronSessionId, final long recordingId, final long position)
     {
         final Int2IntHashMap recordOffsets = this.recordOffsets;
 
@@ -99,12 +111,12 @@ class IndexedPositionWriter
             while (true)
             {
                 offset = checksumFramer.claim(offset, RECORD_LENGTH);
-                if (position == OUT_OF_SPACE)
+                if (offset == OUT_OF_SPACE)
                 {
                     errorHandler.onError(new IllegalStateException(String.format(
                         "Unable to record new session (%d), indexed position buffer full",
                         aeronSessionId)));
-                    return;
+                    return OUT_OF_SPACE;
                 }
 
                 decoder.wrap(buffer, offset, actingBlockLength, actingVersion);
@@ -117,7 +129,7 @@ class IndexedPositionWriter
 
                     recordOffsets.put(aeronSessionId, offset);
                     putPosition(position, buffer, offset);
-                    return;
+                    return offset;
                 }
 
                 offset += RECORD_LENGTH;
@@ -126,6 +138,7 @@ class IndexedPositionWriter
         else
         {
             putPosition(position, buffer, offset);
+            return offset;
         }
     }
 
@@ -139,6 +152,18 @@ class IndexedPositionWriter
         checksumFramer.updateChecksums();
     }
 
+    /**
+     * Syncs the positions to disk if they are in a memory mapped file.
+     */
+    void force()
+    {
+        final ByteBuffer byteBuffer = buffer.byteBuffer();
+        if (byteBuffer instanceof MappedByteBuffer)
+        {
+            ((MappedByteBuffer)byteBuffer).force();
+        }
+    }
+
     AtomicBuffer buffer()
     {
         return buffer;
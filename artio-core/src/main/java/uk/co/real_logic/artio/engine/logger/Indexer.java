@@ -32,6 +32,7 @@ import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.CompletionPosition;
+import uk.co.real_logic.artio.engine.GroupCommitter;
 
 import java.util.List;
 
@@ -51,6 +52,7 @@ public class Indexer implements Agent, ControlledFragmentHandler
     private final String agentNamePrefix;
     private final CompletionPosition completionPosition;
     private final int archiveReplayStream;
+    private final GroupCommitter groupCommitter;
 
     public Indexer(
         final List<Index> indices,
@@ -59,13 +61,15 @@ public class Indexer implements Agent, ControlledFragmentHandler
         final CompletionPosition completionPosition,
         final AeronArchive aeronArchive,
         final ErrorHandler errorHandler,
-        final int archiveReplayStream)
+        final int archiveReplayStream,
+        final GroupCommitter groupCommitter)
     {
         this.indices = indices;
         this.subscription = subscription;
         this.agentNamePrefix = agentNamePrefix;
         this.completionPosition = completionPosition;
         this.archiveReplayStream = archiveReplayStream;
+        this.groupCommitter = groupCommitter;
         catchIndexUp(aeronArchive, errorHandler);
     }
 
@@ -156,6 +160,7 @@ public class Indexer implements Agent, ControlledFragmentHandler
         {
             indices.get(i).onFragment(buffer, offset, length, header);
         }
+        groupCommitter.onMessage();
 
         return CONTINUE;
     }
@@ -24,6 +24,7 @@ import org.agrona.collections.Long2ObjectCache;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
+import uk.co.real_logic.artio.engine.GroupCommitter;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.FixMessageEncoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
@@ -34,6 +35,9 @@ import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.LongFunction;
 
 import static io.aeron.logbuffer.FrameDescriptor.*;
@@ -52,8 +56,15 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  * Head position counter
  * Tail position counter
  * Multiple ReplayIndexRecord entries
+ *
+ * Segmented indices instead store the header and position counters in a head file at
+ * {@link ReplayIndexDescriptor#replayIndexHeadFile(String, long, int)}, followed by the segment file size and the
+ * position of the oldest retained record. The records are appended to segment files of indexFileSize, one segment
+ * after another, and the oldest segments are deleted once there are more than the segment limit.
+ *
+ * Session index files and written positions are synced to disk by a {@link GroupCommitter}.
  */
-public class ReplayIndex implements Index
+public class ReplayIndex implements Index, GroupCommitter.Syncable
 {
     private final LongFunction<SessionIndex> newSessionIndex = SessionIndex::new;
     private final AsciiBuffer asciiBuffer = new MutableAsciiBuffer();
@@ -64,33 +75,45 @@ public class ReplayIndex implements Index
     private final MessageHeaderEncoder indexHeaderEncoder = new MessageHeaderEncoder();
     private final IndexedPositionWriter positionWriter;
     private final IndexedPositionReader positionReader;
+    private final List<SessionIndex> unsyncedSessionIndices = new ArrayList<>();
 
     private final Long2ObjectCache<SessionIndex> fixSessionIdToIndex;
 
     private final String logFileDir;
     private final int requiredStreamId;
     private final int indexFileSize;
+    private final boolean segmented;
+    private final int segmentLimit;
     private final BufferFactory bufferFactory;
     private final AtomicBuffer positionBuffer;
     private final RecordingIdLookup recordingIdLookup;
+    private final GroupCommitter groupCommitter;
+
+    private boolean closed;
 
     public ReplayIndex(
         final String logFileDir,
         final int requiredStreamId,
         final int indexFileSize,
+        final boolean segmented,
+        final int segmentLimit,
         final int cacheNumSets,
         final int cacheSetSize,
         final BufferFactory bufferFactory,
         final AtomicBuffer positionBuffer,
         final ErrorHandler errorHandler,
-        final RecordingIdLookup recordingIdLookup)
+        final RecordingIdLookup recordingIdLookup,
+        final GroupCommitter groupCommitter)
     {
         this.logFileDir = logFileDir;
         this.requiredStreamId = requiredStreamId;
         this.indexFileSize = indexFileSize;
+        this.segmented = segmented;
+        this.segmentLimit = segmentLimit;
         this.bufferFactory = bufferFactory;
         this.positionBuffer = positionBuffer;
         this.recordingIdLookup = recordingIdLookup;
+        this.groupCommitter = groupCommitter;
 
         checkIndexFileSize(indexFileSize);
         fixSessionIdToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionIndex::close);
@@ -166,12 +189,35 @@ public class ReplayIndex implements Index
         final long recordingId = recordingIdLookup.getRecordingId(aeronSessionId);
         positionWriter.indexedUpTo(aeronSessionId, recordingId, endPosition);
         positionWriter.updateChecksums();
+        groupCommitter.onWrite(this);
+    }
+
+    public void sync()
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        final List<SessionIndex> unsyncedSessionIndices = this.unsyncedSessionIndices;
+        for (int i = 0, size = unsyncedSessionIndices.size(); i < size; i++)
+        {
+            unsyncedSessionIndices.get(i).sync();
+        }
+        unsyncedSessionIndices.clear();
+
+        positionWriter.force();
     }
 
     public void close()
     {
+        closed = true;
         positionWriter.close();
         fixSessionIdToIndex.clear();
+        if (groupCommitter.syncsWrites())
+        {
+            positionWriter.force();
+        }
         IoUtil.unmap(positionBuffer.byteBuffer());
     }
 
@@ -180,35 +226,86 @@ public class ReplayIndex implements Index
         positionReader.readLastPosition(consumer);
     }
 
+    private static void force(final ByteBuffer byteBuffer)
+    {
+        if (byteBuffer instanceof MappedByteBuffer)
+        {
+            ((MappedByteBuffer)byteBuffer).force();
+        }
+    }
+
     private final class SessionIndex implements AutoCloseable
     {
-        private final ByteBuffer wrappedBuffer;
-        private final AtomicBuffer buffer;
+        private final long fixSessionId;
+        private final ByteBuffer headByteBuffer;
+        private final AtomicBuffer headBuffer;
         private final int recordCapacity;
 
+        // Unsegmented indices write their records into the head file.
+        private ByteBuffer segmentByteBuffer;
+        private AtomicBuffer segmentBuffer;
+        private long segmentIndex = NO_SEGMENT;
+
+        private boolean unsynced;
+
         SessionIndex(final long fixSessionId)
         {
-            final File logFile = replayIndexFile(logFileDir, fixSessionId, requiredStreamId);
-            final boolean exists = logFile.exists();
-            this.wrappedBuffer = bufferFactory.map(logFile, indexFileSize);
-            this.buffer = new UnsafeBuffer(wrappedBuffer);
+            this.fixSessionId = fixSessionId;
+
+            final File headFile = segmented ?
+                replayIndexHeadFile(logFileDir, fixSessionId, requiredStreamId) :
+                replayIndexFile(logFileDir, fixSessionId, requiredStreamId);
+            final boolean exists = headFile.exists();
+            this.headByteBuffer = bufferFactory.map(headFile, segmented ? HEAD_FILE_SIZE : indexFileSize);
+            this.headBuffer = new UnsafeBuffer(headByteBuffer);
 
-            recordCapacity = recordCapacity(buffer.capacity());
             if (!exists)
             {
-                indexHeaderEncoder
-                    .wrap(buffer, 0)
-                    .blockLength(replayIndexRecord.sbeBlockLength())
-                    .templateId(replayIndexRecord.sbeTemplateId())
-                    .schemaId(replayIndexRecord.sbeSchemaId())
-                    .version(replayIndexRecord.sbeSchemaVersion());
+                writeHeader(headBuffer);
+                if (segmented)
+                {
+                    segmentFileSize(headBuffer, indexFileSize);
+                }
+            }
+
+            if (segmented)
+            {
+                // Positions map onto segments using the size the index was created with, not the configured one.
+                recordCapacity = recordCapacity(segmentFileSize(headBuffer));
             }
             else
             {
-                // Reset the positions in order to avoid wraps at the start.
-                final long resetPosition = beginChange(buffer) + RECORD_LENGTH;
-                beginChangeOrdered(buffer, resetPosition);
-                endChangeOrdered(buffer, resetPosition);
+                segmentByteBuffer = headByteBuffer;
+                segmentBuffer = headBuffer;
+                recordCapacity = recordCapacity(headBuffer.capacity());
+            }
+
+            if (exists)
+            {
+                discardPartialRecord();
+            }
+        }
+
+        private void writeHeader(final AtomicBuffer buffer)
+        {
+            indexHeaderEncoder
+                .wrap(buffer, 0)
+                .blockLength(replayIndexRecord.sbeBlockLength())
+                .templateId(replayIndexRecord.sbeTemplateId())
+                .schemaId(replayIndexRecord.sbeSchemaId())
+                .version(replayIndexRecord.sbeSchemaVersion());
+        }
+
+        // If the engine stopped whilst writing a record then that record is zeroed and overwritten by the next one.
+        // Records are kept contiguous so that queries can binary search them.
+        private void discardPartialRecord()
+        {
+            final long endChangePosition = endChangeVolatile(headBuffer);
+            if (beginChange(headBuffer) != endChangePosition)
+            {
+                final AtomicBuffer buffer = segmented ? segmentBuffer(endChangePosition) : segmentBuffer;
+                buffer.setMemory(offset(endChangePosition, recordCapacity), RECORD_LENGTH, (byte)0);
+                beginChangeOrdered(headBuffer, endChangePosition);
             }
         }
 
@@ -219,13 +316,14 @@ public class ReplayIndex implements Index
             final int sequenceIndex,
             final Header header)
         {
-            final long beginChangePosition = beginChange(buffer);
+            final long beginChangePosition = beginChange(headBuffer);
             final long changePosition = beginChangePosition + RECORD_LENGTH;
             final int aeronSessionId = header.sessionId();
             final long recordingId = recordingIdLookup.getRecordingId(aeronSessionId);
             final long beginPosition = endPosition - length;
+            final AtomicBuffer buffer = segmented ? segmentBuffer(beginChangePosition) : segmentBuffer;
 
-            beginChangeOrdered(buffer, changePosition);
+            beginChangeOrdered(headBuffer, changePosition);
             UNSAFE.storeFence();
 
             final int offset = offset(beginChangePosition, recordCapacity);
@@ -238,12 +336,108 @@ public class ReplayIndex implements Index
                 .recordingId(recordingId)
                 .length(length);
 
-            endChangeOrdered(buffer, changePosition);
+            endChangeOrdered(headBuffer, changePosition);
+
+            if (!unsynced && groupCommitter.syncsWrites())
+            {
+                unsynced = true;
+                unsyncedSessionIndices.add(this);
+            }
+        }
+
+        private AtomicBuffer segmentBuffer(final long changePosition)
+        {
+            final long segmentIndex = segmentIndex(changePosition, recordCapacity);
+            if (segmentIndex != this.segmentIndex)
+            {
+                closeSegment();
+                mapSegment(segmentIndex);
+                retainSegments(segmentIndex);
+            }
+
+            return segmentBuffer;
+        }
+
+        private void mapSegment(final long segmentIndex)
+        {
+            final File segmentFile = replayIndexSegmentFile(logFileDir, fixSessionId, requiredStreamId, segmentIndex);
+            final boolean exists = segmentFile.exists();
+            segmentByteBuffer = bufferFactory.map(segmentFile, recordCapacity + INITIAL_RECORD_OFFSET);
+            segmentBuffer = new UnsafeBuffer(segmentByteBuffer);
+            this.segmentIndex = segmentIndex;
+
+            if (!exists)
+            {
+                writeHeader(segmentBuffer);
+            }
+        }
+
+        private void retainSegments(final long segmentIndex)
+        {
+            if (segmentLimit == NO_SEGMENT_LIMIT)
+            {
+                return;
+            }
+
+            final long retainedSegmentIndex = segmentIndex - segmentLimit + 1;
+            if (retainedSegmentIndex <= 0)
+            {
+                return;
+            }
+
+            retainedPositionOrdered(headBuffer, retainedSegmentIndex * recordCapacity);
+
+            // The segment before the retained one is kept so that queries which have just read the previous retained
+            // position don't try to map a deleted file.
+            for (long expiredSegmentIndex = retainedSegmentIndex - 2; expiredSegmentIndex >= 0; expiredSegmentIndex--)
+            {
+                if (!replayIndexSegmentFile(logFileDir, fixSessionId, requiredStreamId, expiredSegmentIndex).delete())
+                {
+                    break;
+                }
+            }
+        }
+
+        private void closeSegment()
+        {
+            if (segmentByteBuffer != null)
+            {
+                // Written segments that are closed before a commit are synced now as they won't be in it.
+                if (unsynced)
+                {
+                    force(segmentByteBuffer);
+                }
+
+                IoUtil.unmap(segmentByteBuffer);
+                segmentByteBuffer = null;
+                segmentBuffer = null;
+            }
+        }
+
+        void sync()
+        {
+            unsynced = false;
+            force(headByteBuffer);
+            if (segmented && segmentByteBuffer != null)
+            {
+                force(segmentByteBuffer);
+            }
         }
 
         public void close()
         {
-            IoUtil.unmap(wrappedBuffer);
+            // Evicted session indices are synced before being unmapped as they won't be in the next commit.
+            if (unsynced)
+            {
+                unsyncedSessionIndices.remove(this);
+                sync();
+            }
+
+            if (segmented)
+            {
+                closeSegment();
+            }
+            IoUtil.unmap(headByteBuffer);
         }
     }
 }
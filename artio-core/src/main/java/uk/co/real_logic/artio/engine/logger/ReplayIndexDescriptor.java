@@ -32,6 +32,15 @@ public final class ReplayIndexDescriptor
 
     public static final int INITIAL_RECORD_OFFSET = END_CHANGE_OFFSET + BitUtil.SIZE_OF_LONG;
 
+    // Segmented indices keep their header and change positions in a separate head file, followed by these fields.
+    private static final int SEGMENT_FILE_SIZE_OFFSET = INITIAL_RECORD_OFFSET;
+    private static final int RETAINED_POSITION_OFFSET = SEGMENT_FILE_SIZE_OFFSET + BitUtil.SIZE_OF_LONG;
+
+    static final int HEAD_FILE_SIZE = RETAINED_POSITION_OFFSET + BitUtil.SIZE_OF_LONG;
+
+    public static final int NO_SEGMENT_LIMIT = 0;
+    static final long NO_SEGMENT = -1;
+
     static final int RECORD_LENGTH = 32;
     static
     {
@@ -47,6 +56,19 @@ public final class ReplayIndexDescriptor
         return new File(String.format(logFileDir + File.separator + "replay-index-%d-%d", fixSessionId, streamId));
     }
 
+    static File replayIndexHeadFile(final String logFileDir, final long fixSessionId, final int streamId)
+    {
+        return new File(String.format(
+            logFileDir + File.separator + "replay-index-%d-%d-head", fixSessionId, streamId));
+    }
+
+    static File replayIndexSegmentFile(
+        final String logFileDir, final long fixSessionId, final int streamId, final long segmentIndex)
+    {
+        return new File(String.format(
+            logFileDir + File.separator + "replay-index-%d-%d-%d", fixSessionId, streamId, segmentIndex));
+    }
+
     public static UnsafeBuffer replayPositionBuffer(final String logFileDir, final int streamId)
     {
         final String pathname = replayPositionPath(logFileDir, streamId);
@@ -83,6 +105,31 @@ public final class ReplayIndexDescriptor
         return buffer.getLong(BEGIN_CHANGE_OFFSET);
     }
 
+    static void segmentFileSize(final AtomicBuffer buffer, final int segmentFileSize)
+    {
+        buffer.putInt(SEGMENT_FILE_SIZE_OFFSET, segmentFileSize);
+    }
+
+    static int segmentFileSize(final AtomicBuffer buffer)
+    {
+        return buffer.getInt(SEGMENT_FILE_SIZE_OFFSET);
+    }
+
+    static void retainedPositionOrdered(final AtomicBuffer buffer, final long retainedPosition)
+    {
+        buffer.putLongOrdered(RETAINED_POSITION_OFFSET, retainedPosition);
+    }
+
+    static long retainedPositionVolatile(final AtomicBuffer buffer)
+    {
+        return buffer.getLongVolatile(RETAINED_POSITION_OFFSET);
+    }
+
+    static long segmentIndex(final long changePosition, final int capacity)
+    {
+        return changePosition / capacity;
+    }
+
     static int recordCapacity(final int indexFileSize)
     {
         return indexFileSize - INITIAL_RECORD_OFFSET;
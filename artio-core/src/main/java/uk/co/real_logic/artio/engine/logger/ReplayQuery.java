@@ -55,8 +55,8 @@ public class ReplayQuery implements AutoCloseable
     private final Long2ObjectCache<SessionQuery> fixSessionToIndex;
     private final String logFileDir;
     private final ExistingBufferFactory indexBufferFactory;
+    private final boolean segmented;
     private final int requiredStreamId;
-    private final IdleStrategy idleStrategy;
     private final AeronArchive aeronArchive;
     private final ErrorHandler errorHandler;
     private final int archiveReplayStream;
@@ -68,16 +68,16 @@ public class ReplayQuery implements AutoCloseable
         final int cacheNumSets,
         final int cacheSetSize,
         final ExistingBufferFactory indexBufferFactory,
+        final boolean segmented,
         final int requiredStreamId,
-        final IdleStrategy idleStrategy,
         final AeronArchive aeronArchive,
         final ErrorHandler errorHandler,
         final int archiveReplayStream)
     {
         this.logFileDir = logFileDir;
         this.indexBufferFactory = indexBufferFactory;
+        this.segmented = segmented;
         this.requiredStreamId = requiredStreamId;
-        this.idleStrategy = idleStrategy;
         this.aeronArchive = aeronArchive;
         this.errorHandler = errorHandler;
         this.archiveReplayStream = archiveReplayStream;
@@ -85,6 +85,46 @@ public class ReplayQuery implements AutoCloseable
         fixSessionToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionQuery::close);
     }
 
+    /**
+     * Creates a query over a single ring buffer replay index.
+     *
+     * @param logFileDir the directory containing the replay index files.
+     * @param cacheNumSets the number of sets in the cache of open session indices.
+     * @param cacheSetSize the size of each set in the cache of open session indices.
+     * @param indexBufferFactory maps existing replay index files.
+     * @param requiredStreamId the stream id of the indexed messages.
+     * @param idleStrategy unused.
+     * @param aeronArchive the archive that messages are replayed from.
+     * @param errorHandler the handler for errors reading indices.
+     * @param archiveReplayStream the stream id to replay archived messages on.
+     * @deprecated queries no longer wait for the index writer, so the idle strategy is unused. Please use
+     * {@link #ReplayQuery(String, int, int, ExistingBufferFactory, boolean, int, AeronArchive, ErrorHandler, int)}
+     * instead.
+     */
+    @Deprecated
+    public ReplayQuery(
+        final String logFileDir,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final ExistingBufferFactory indexBufferFactory,
+        final int requiredStreamId,
+        final IdleStrategy idleStrategy,
+        final AeronArchive aeronArchive,
+        final ErrorHandler errorHandler,
+        final int archiveReplayStream)
+    {
+        this(
+            logFileDir,
+            cacheNumSets,
+            cacheSetSize,
+            indexBufferFactory,
+            false,
+            requiredStreamId,
+            aeronArchive,
+            errorHandler,
+            archiveReplayStream);
+    }
+
     /**
      *
      * @param handler the handler to pass the messages to
@@ -102,10 +142,41 @@ public class ReplayQuery implements AutoCloseable
         final int beginSequenceIndex,
         final int endSequenceNumber,
         final int endSequenceIndex)
+    {
+        final List<RecordingRange> ranges = queryRanges(
+            sessionId, beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
+
+        return newReplayOperation(handler, ranges);
+    }
+
+    List<RecordingRange> queryRanges(
+        final long sessionId,
+        final int beginSequenceNumber,
+        final int beginSequenceIndex,
+        final int endSequenceNumber,
+        final int endSequenceIndex)
     {
         return fixSessionToIndex
             .computeIfAbsent(sessionId, newSessionQuery)
-            .query(handler, beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
+            .queryRanges(beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
+    }
+
+    private ReplayOperation newReplayOperation(
+        final ControlledFragmentHandler handler, final List<RecordingRange> ranges)
+    {
+        if (replaySubscription == null)
+        {
+            replaySubscription = aeronArchive.context().aeron().addSubscription(
+                IPC_CHANNEL, archiveReplayStream);
+        }
+
+        return new ReplayOperation(
+            handler,
+            ranges,
+            aeronArchive,
+            errorHandler,
+            replaySubscription,
+            archiveReplayStream);
     }
 
     public void close()
@@ -115,21 +186,42 @@ public class ReplayQuery implements AutoCloseable
 
     private final class SessionQuery implements AutoCloseable
     {
+        private final long sessionId;
         private final ByteBuffer wrappedBuffer;
         private final UnsafeBuffer buffer;
         private final int capacity;
         private final Predicate<FixMessageDecoder> msgPredicate;
 
+        // Unsegmented indices read their records from the head file.
+        private ByteBuffer segmentByteBuffer;
+        private UnsafeBuffer segmentBuffer;
+        private long segmentIndex = NO_SEGMENT;
+
+        private int actingBlockLength;
+        private int actingVersion;
+
         SessionQuery(final long sessionId)
         {
-            wrappedBuffer = indexBufferFactory.map(replayIndexFile(logFileDir, sessionId, requiredStreamId));
+            this.sessionId = sessionId;
+            wrappedBuffer = indexBufferFactory.map(segmented ?
+                replayIndexHeadFile(logFileDir, sessionId, requiredStreamId) :
+                replayIndexFile(logFileDir, sessionId, requiredStreamId));
             buffer = new UnsafeBuffer(wrappedBuffer);
-            capacity = recordCapacity(buffer.capacity());
             msgPredicate = decoder -> decoder.session() == sessionId;
+
+            if (segmented)
+            {
+                capacity = recordCapacity(segmentFileSize(buffer));
+            }
+            else
+            {
+                capacity = recordCapacity(buffer.capacity());
+                segmentByteBuffer = wrappedBuffer;
+                segmentBuffer = buffer;
+            }
         }
 
-        ReplayOperation query(
-            final ControlledFragmentHandler handler,
+        List<RecordingRange> queryRanges(
             final int beginSequenceNumber,
             final int beginSequenceIndex,
             final int endSequenceNumber,
@@ -137,8 +229,8 @@ public class ReplayQuery implements AutoCloseable
         {
             messageFrameHeader.wrap(buffer, 0);
 
-            final int actingBlockLength = messageFrameHeader.blockLength();
-            final int actingVersion = messageFrameHeader.version();
+            actingBlockLength = messageFrameHeader.blockLength();
+            actingVersion = messageFrameHeader.version();
             final boolean upToMostRecentMessage = endSequenceNumber == MOST_RECENT_MESSAGE;
 
             // LOOKUP THE RANGE FROM THE INDEX
@@ -146,67 +238,53 @@ public class ReplayQuery implements AutoCloseable
             final List<RecordingRange> ranges = new ArrayList<>();
             RecordingRange currentRange = null;
 
-            long iteratorPosition = getIteratorPosition();
-            long stopIteratingPosition = iteratorPosition + capacity;
+            long iteratorPosition = search(beginSequenceNumber, beginSequenceIndex);
 
             int lastSequenceNumber = -1;
-            while (iteratorPosition != stopIteratingPosition)
+            // Records before the end change position have been completely written.
+            while (iteratorPosition < endChangeVolatile(buffer))
             {
-                final long changePosition = endChangeVolatile(buffer);
-
-                // Lapped by writer
-                if (changePosition > iteratorPosition && (iteratorPosition + capacity) <= beginChangeVolatile(buffer))
-                {
-                    iteratorPosition = changePosition;
-                    stopIteratingPosition = iteratorPosition + capacity;
-                }
-
-                final int offset = offset(iteratorPosition, capacity);
-                indexRecord.wrap(buffer, offset, actingBlockLength, actingVersion);
+                wrapRecord(iteratorPosition);
                 final long beginPosition = indexRecord.position();
                 final int sequenceIndex = indexRecord.sequenceIndex();
                 final int sequenceNumber = indexRecord.sequenceNumber();
                 final long recordingId = indexRecord.recordingId();
                 final int readLength = indexRecord.length();
 
-                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past the lapped check below.
 
-                // if the block was read atomically with no updates
-                if (changePosition == beginChangeVolatile(buffer))
+                final long oldestPosition = oldestPosition();
+                if (iteratorPosition < oldestPosition)
                 {
-                    idleStrategy.reset();
-
-                    final boolean afterEnd = !upToMostRecentMessage && (sequenceIndex > endSequenceIndex ||
-                        (sequenceIndex == endSequenceIndex && sequenceNumber > endSequenceNumber));
-                    if (beginPosition == 0 || afterEnd)
-                    {
-                        break;
-                    }
+                    // Lapped by writer, so the record may have been overwritten whilst it was read.
+                    iteratorPosition = oldestPosition;
+                    continue;
+                }
 
-                    final boolean withinQueryRange = sequenceIndex > beginSequenceIndex ||
-                        (sequenceIndex == beginSequenceIndex && sequenceNumber >= beginSequenceNumber);
-                    if (withinQueryRange)
-                    {
-                        currentRange = addRange(
-                            ranges,
-                            currentRange,
-                            lastSequenceNumber,
-                            beginPosition,
-                            sequenceNumber,
-                            recordingId,
-                            readLength);
-                        lastSequenceNumber = sequenceNumber;
-                        iteratorPosition += RECORD_LENGTH;
-                    }
-                    else // before start of query
-                    {
-                        iteratorPosition = skipToStart(beginSequenceNumber, iteratorPosition, sequenceNumber);
-                    }
+                final boolean afterEnd = !upToMostRecentMessage && (sequenceIndex > endSequenceIndex ||
+                    (sequenceIndex == endSequenceIndex && sequenceNumber > endSequenceNumber));
+                if (afterEnd)
+                {
+                    break;
                 }
-                else
+
+                // Skips records left empty by restarts of older versions and records written before the query's
+                // range whilst being lapped.
+                if (beginPosition != 0 &&
+                    !before(sequenceIndex, sequenceNumber, beginSequenceIndex, beginSequenceNumber))
                 {
-                    idleStrategy.idle();
+                    currentRange = addRange(
+                        ranges,
+                        currentRange,
+                        lastSequenceNumber,
+                        beginPosition,
+                        sequenceNumber,
+                        recordingId,
+                        readLength);
+                    lastSequenceNumber = sequenceNumber;
                 }
+
+                iteratorPosition += RECORD_LENGTH;
             }
 
             if (currentRange != null)
@@ -214,46 +292,91 @@ public class ReplayQuery implements AutoCloseable
                 ranges.add(currentRange);
             }
 
-            return newReplayOperation(handler, ranges);
+            return ranges;
         }
 
-        private long skipToStart(final int beginSequenceNumber, final long iteratorPosition, final int sequenceNumber)
+        /**
+         * Finds the position of the first record at or after a sequence number and index. Records are ordered by
+         * sequence index and then sequence number, so this is a binary search over the positions that the writer
+         * has finished writing. The writer only appends records, so those positions remain ordered whilst it runs.
+         */
+        private long search(final int sequenceNumber, final int sequenceIndex)
         {
-            if (sequenceNumber < beginSequenceNumber)
-            {
-                // Pre: sequenceIndex <= beginSequenceIndex
-                return jumpPosition(beginSequenceNumber, sequenceNumber, iteratorPosition);
-            }
-            else
+            long low = oldestPosition();
+            long high = endChangeVolatile(buffer);
+
+            while (low < high)
             {
-                // Pre: sequenceIndex < beginSequenceIndex
-                // Don't have a good way to estimate the jump, so just scan forward.
-                return iteratorPosition + RECORD_LENGTH;
+                final long middle = low + ((high - low) / (2 * RECORD_LENGTH)) * RECORD_LENGTH;
+
+                // Restarts of older versions could leave empty records, which aren't ordered.
+                long probe = middle;
+                wrapRecord(probe);
+                while (indexRecord.position() == 0)
+                {
+                    probe += RECORD_LENGTH;
+                    if (probe >= high)
+                    {
+                        break;
+                    }
+                    wrapRecord(probe);
+                }
+
+                if (probe >= high)
+                {
+                    high = middle;
+                    continue;
+                }
+
+                final int probeSequenceIndex = indexRecord.sequenceIndex();
+                final int probeSequenceNumber = indexRecord.sequenceNumber();
+
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past the lapped check below.
+
+                final long oldestPosition = oldestPosition();
+                if (probe < oldestPosition)
+                {
+                    low = oldestPosition;
+                    high = Math.max(high, oldestPosition);
+                }
+                else if (before(probeSequenceIndex, probeSequenceNumber, sequenceIndex, sequenceNumber))
+                {
+                    low = probe + RECORD_LENGTH;
+                }
+                else
+                {
+                    high = middle;
+                }
             }
+
+            return low;
         }
 
-        private long jumpPosition(final int beginSequenceNumber, final int sequenceNumber, final long iteratorPosition)
+        private boolean before(
+            final int sequenceIndex,
+            final int sequenceNumber,
+            final int otherSequenceIndex,
+            final int otherSequenceNumber)
         {
-            final int sequenceNumberJump = beginSequenceNumber - sequenceNumber;
-            return iteratorPosition + sequenceNumberJump * RECORD_LENGTH;
+            return sequenceIndex < otherSequenceIndex ||
+                (sequenceIndex == otherSequenceIndex && sequenceNumber < otherSequenceNumber);
         }
 
-        private ReplayOperation newReplayOperation(
-            final ControlledFragmentHandler handler, final List<RecordingRange> ranges)
+        // Records before this position may have been overwritten or deleted by the writer.
+        private long oldestPosition()
         {
-            if (replaySubscription == null)
+            if (segmented)
             {
-                replaySubscription = aeronArchive.context().aeron().addSubscription(
-                    IPC_CHANNEL, archiveReplayStream);
+                return retainedPositionVolatile(buffer);
             }
 
-            return new ReplayOperation(
-                handler,
-                ranges,
-                aeronArchive,
-                errorHandler,
-                replaySubscription,
-                archiveReplayStream);
+            // positions on a monotonically increasing scale, the ring holds the last capacity bytes of records
+            return Math.max(0, beginChangeVolatile(buffer) - capacity);
+        }
+
+        private void wrapRecord(final long position)
+        {
+            indexRecord.wrap(segmentBuffer(position), offset(position, capacity), actingBlockLength, actingVersion);
         }
 
         private RecordingRange addRange(
@@ -288,20 +411,39 @@ public class ReplayQuery implements AutoCloseable
             return range;
         }
 
-        private long getIteratorPosition()
+        private UnsafeBuffer segmentBuffer(final long position)
+        {
+            if (segmented)
+            {
+                final long segmentIndex = segmentIndex(position, capacity);
+                if (segmentIndex != this.segmentIndex)
+                {
+                    closeSegment();
+                    segmentByteBuffer = indexBufferFactory.map(
+                        replayIndexSegmentFile(logFileDir, sessionId, requiredStreamId, segmentIndex));
+                    segmentBuffer = new UnsafeBuffer(segmentByteBuffer);
+                    this.segmentIndex = segmentIndex;
+                }
+            }
+
+            return segmentBuffer;
+        }
+
+        private void closeSegment()
         {
-            // positions on a monotonically increasing scale
-            long iteratorPosition = beginChangeVolatile(buffer);
-            // First iteration around you need to start at 0
-            if (iteratorPosition < capacity)
+            if (segmentByteBuffer instanceof MappedByteBuffer)
             {
-                iteratorPosition = 0;
+                IoUtil.unmap((MappedByteBuffer)segmentByteBuffer);
             }
-            return iteratorPosition;
         }
 
         public void close()
         {
+            if (segmented)
+            {
+                closeSegment();
+            }
+
             if (wrappedBuffer instanceof MappedByteBuffer)
             {
                 IoUtil.unmap((MappedByteBuffer)wrappedBuffer);
@@ -185,7 +185,9 @@ class ReplayerSession implements ControlledFragmentHandler
             MESSAGE_HEADER.version());
 
         final int messageOffset = srcOffset + MESSAGE_FRAME_BLOCK_LENGTH;
-        final int messageLength = srcLength - MESSAGE_FRAME_BLOCK_LENGTH;
+        final int messageLength = FIX_MESSAGE.bodyLength();
+        // Excludes any space that was claimed for the message but not used, see GatewayPublication.claimMessage()
+        final int frameLength = MESSAGE_FRAME_BLOCK_LENGTH + messageLength;
 
         ASCII_BUFFER.wrap(srcBuffer);
         FIX_HEADER.reset();
@@ -224,7 +226,7 @@ class ReplayerSession implements ControlledFragmentHandler
             }
 
             final Action action = possDupEnabler.enablePossDupFlag(
-                srcBuffer, messageOffset, messageLength, srcOffset, srcLength);
+                srcBuffer, messageOffset, messageLength, srcOffset, frameLength);
             if (action != ABORT)
             {
                 lastSeqNo = msgSeqNum;
@@ -16,6 +16,7 @@
 package uk.co.real_logic.artio.engine.logger;
 
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import uk.co.real_logic.artio.engine.SectorFramer;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
@@ -25,17 +26,33 @@ import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder;
 import static uk.co.real_logic.artio.engine.SectorFramer.OUT_OF_SPACE;
 import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.*;
+import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexWriter.SEQUENCE_NUMBER_OFFSET;
 import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.BLOCK_LENGTH;
 import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.SCHEMA_VERSION;
 
+/**
+ * Reads the last known sequence number of sessions from the buffer that a {@link SequenceNumberIndexWriter} writes.
+ *
+ * The offsets of records are indexed lazily by session id as they are read. The writer only ever appends records
+ * at the first free slot, so a lookup that misses the index first scans the records that have been appended since
+ * the previous scan. When the writer resets its index sessions are written back in whatever order they log on, so
+ * previously scanned slots may hold different sessions. A lookup that still misses therefore rescans every record
+ * once before reporting the session as unknown. Misses only happen when looking up a new session.
+ */
 public class SequenceNumberIndexReader
 {
+    private static final long MISSING_RECORD = -1L;
+
     private final MessageHeaderDecoder fileHeaderDecoder = new MessageHeaderDecoder();
     private final LastKnownSequenceNumberDecoder lastKnownDecoder = new LastKnownSequenceNumberDecoder();
     private final AtomicBuffer inMemoryBuffer;
     private final SectorFramer sectorFramer;
     private final IndexedPositionReader positions;
     private final ErrorHandler errorHandler;
+    private final Long2LongHashMap recordOffsets = new Long2LongHashMap(MISSING_RECORD);
+
+    // Records before this position are indexed and can't be reused by the writer for another session.
+    private int scannedUpTo = SequenceNumberIndexDescriptor.HEADER_SIZE;
 
     public SequenceNumberIndexReader(final AtomicBuffer inMemoryBuffer, final ErrorHandler errorHandler)
     {
@@ -49,7 +66,36 @@ public class SequenceNumberIndexReader
 
     public int lastKnownSequenceNumber(final long sessionId)
     {
-        int position = SequenceNumberIndexDescriptor.HEADER_SIZE;
+        final int recordOffset = (int)recordOffsets.get(sessionId);
+        if (recordOffset != MISSING_RECORD)
+        {
+            lastKnownDecoder.wrap(inMemoryBuffer, recordOffset, BLOCK_LENGTH, SCHEMA_VERSION);
+            if (lastKnownDecoder.sessionId() == sessionId)
+            {
+                return lastKnownDecoder.sequenceNumber();
+            }
+
+            // The record has been overwritten, so the writer has reset its index.
+            resetRecordOffsets();
+            return scanRecords(sessionId);
+        }
+
+        final boolean scannedFromStart = scannedUpTo == SequenceNumberIndexDescriptor.HEADER_SIZE;
+        final int sequenceNumber = scanRecords(sessionId);
+        if (sequenceNumber == UNK_SESSION && !scannedFromStart)
+        {
+            // The writer may have reset its index and reused the slots that were scanned before for other sessions.
+            resetRecordOffsets();
+            return scanRecords(sessionId);
+        }
+
+        return sequenceNumber;
+    }
+
+    private int scanRecords(final long sessionId)
+    {
+        boolean recordsAreIndexable = true;
+        int position = scannedUpTo;
         while (true)
         {
             position = sectorFramer.claim(position, RECORD_SIZE);
@@ -58,17 +104,41 @@ public class SequenceNumberIndexReader
                 return UNK_SESSION;
             }
 
+            // The writer stores the session id before the sequence number, and a slot whose sequence number is 0 may
+            // be reused for a different session, so only records with a sequence number are indexed.
+            final int sequenceNumber = inMemoryBuffer.getIntVolatile(position + SEQUENCE_NUMBER_OFFSET);
             lastKnownDecoder.wrap(inMemoryBuffer, position, BLOCK_LENGTH, SCHEMA_VERSION);
+            final long recordSessionId = lastKnownDecoder.sessionId();
+            if (recordSessionId == 0)
+            {
+                return UNK_SESSION;
+            }
 
-            if (lastKnownDecoder.sessionId() == sessionId)
+            if (recordsAreIndexable && sequenceNumber != 0)
             {
-                return lastKnownDecoder.sequenceNumber();
+                recordOffsets.put(recordSessionId, position);
+                scannedUpTo = position + RECORD_SIZE;
+            }
+            else
+            {
+                recordsAreIndexable = false;
+            }
+
+            if (recordSessionId == sessionId)
+            {
+                return sequenceNumber;
             }
 
             position += RECORD_SIZE;
         }
     }
 
+    private void resetRecordOffsets()
+    {
+        recordOffsets.clear();
+        scannedUpTo = SequenceNumberIndexDescriptor.HEADER_SIZE;
+    }
+
     public long indexedPosition(final int aeronSessionId)
     {
         return positions.indexedPosition(aeronSessionId);
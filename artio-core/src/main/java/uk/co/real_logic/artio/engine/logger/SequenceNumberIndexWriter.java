@@ -24,6 +24,7 @@ import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.engine.ChecksumFramer;
+import uk.co.real_logic.artio.engine.GroupCommitter;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberDecoder;
@@ -32,6 +33,7 @@ import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.io.File;
+import java.util.Arrays;
 
 import static io.aeron.protocol.DataHeaderFlyweight.BEGIN_FLAG;
 import static uk.co.real_logic.artio.engine.SectorFramer.*;
@@ -41,8 +43,12 @@ import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEnc
 /**
  * Writes updates into an in-memory buffer. This buffer is then flushed down to disk. A passing place
  * file is used to ensure that there's a recoverable option if it fails.
+ *
+ * Only the sectors that have been modified since they were last written to a file are flushed. Since the files
+ * are flipped after each flush, the writable file also needs the sectors that were modified in the previous flush.
+ * When to flush is decided by a {@link GroupCommitter}.
  */
-public class SequenceNumberIndexWriter implements Index
+public class SequenceNumberIndexWriter implements Index, GroupCommitter.Syncable
 {
     private static final boolean RUNNING_ON_WINDOWS = System.getProperty("os.name").startsWith("Windows");
 
@@ -73,6 +79,9 @@ public class SequenceNumberIndexWriter implements Index
     private final int streamId;
     private final int indexedPositionsOffset;
     private final IndexedPositionWriter positions;
+    private final GroupCommitter groupCommitter;
+    private final long[] dirtySectors;
+    private final long[] staleWritableSectors;
 
     private MappedFile writableFile;
     private MappedFile indexFile;
@@ -83,7 +92,8 @@ public class SequenceNumberIndexWriter implements Index
         final MappedFile indexFile,
         final ErrorHandler errorHandler,
         final int streamId,
-        final RecordingIdLookup recordingIdLookup)
+        final RecordingIdLookup recordingIdLookup,
+        final GroupCommitter groupCommitter)
     {
         this.inMemoryBuffer = inMemoryBuffer;
         this.indexFile = indexFile;
@@ -91,6 +101,13 @@ public class SequenceNumberIndexWriter implements Index
         this.streamId = streamId;
         this.fileCapacity = indexFile.buffer().capacity();
         this.recordingIdLookup = recordingIdLookup;
+        this.groupCommitter = groupCommitter;
+
+        final int sectorCount = (fileCapacity + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        dirtySectors = new long[(sectorCount + 63) >> 6];
+        staleWritableSectors = new long[dirtySectors.length];
+        markAllSectors(dirtySectors);
+        markAllSectors(staleWritableSectors);
 
         final String indexFilePath = indexFile.file().getAbsolutePath();
         indexPath = indexFile.file();
@@ -182,16 +199,23 @@ public class SequenceNumberIndexWriter implements Index
             }
         }
 
-        checkTermRoll(buffer, srcOffset, endPosition, length);
-
         final long recordingId = recordingIdLookup.getRecordingId(aeronSessionId);
-        positions.indexedUpTo(aeronSessionId, recordingId, endPosition);
+        final int positionOffset = positions.indexedUpTo(aeronSessionId, recordingId, endPosition);
+        if (positionOffset != OUT_OF_SPACE)
+        {
+            markSector(indexedPositionsOffset + positionOffset);
+        }
+        groupCommitter.onWrite(this);
+
+        checkTermRoll(buffer, srcOffset, endPosition, length);
     }
 
     void resetSequenceNumbers()
     {
         inMemoryBuffer.setMemory(0, indexedPositionsOffset, (byte)0);
+        recordOffsets.clear();
         initialiseBlankBuffer();
+        markAllSectors(dirtySectors);
     }
 
     private void checkTermRoll(final DirectBuffer buffer, final int offset, final long endPosition, final int length)
@@ -205,25 +229,82 @@ public class SequenceNumberIndexWriter implements Index
         else if (endPosition > nextRollPosition)
         {
             nextRollPosition += termBufferLength;
+            groupCommitter.onTermRoll();
+        }
+    }
+
+    public void sync()
+    {
+        if (isOpen())
+        {
             updateFile();
         }
     }
 
-    private void updateFile()
+    void updateFile()
     {
-        checksumFramer.updateChecksums();
-        positions.updateChecksums();
+        updateDirtyChecksums();
         saveFile();
-        flipFiles();
+        if (flipFiles())
+        {
+            System.arraycopy(dirtySectors, 0, staleWritableSectors, 0, dirtySectors.length);
+        }
+        else
+        {
+            markAllSectors(staleWritableSectors);
+        }
+        Arrays.fill(dirtySectors, 0L);
+    }
+
+    private void updateDirtyChecksums()
+    {
+        final long[] dirtySectors = this.dirtySectors;
+        for (int i = 0; i < dirtySectors.length; i++)
+        {
+            long sectors = dirtySectors[i];
+            while (sectors != 0)
+            {
+                final int sectorStart = ((i << 6) + Long.numberOfTrailingZeros(sectors)) * SECTOR_SIZE;
+                if (sectorStart + SECTOR_SIZE <= fileCapacity)
+                {
+                    checksumFramer.updateChecksum(sectorStart);
+                }
+                sectors &= sectors - 1;
+            }
+        }
     }
 
     private void saveFile()
     {
-        writableFile.buffer().putBytes(0, inMemoryBuffer, 0, fileCapacity);
+        final AtomicBuffer writableBuffer = writableFile.buffer();
+        final long[] dirtySectors = this.dirtySectors;
+        final long[] staleWritableSectors = this.staleWritableSectors;
+        for (int i = 0; i < dirtySectors.length; i++)
+        {
+            long sectors = dirtySectors[i] | staleWritableSectors[i];
+            while (sectors != 0)
+            {
+                final int sectorStart = ((i << 6) + Long.numberOfTrailingZeros(sectors)) * SECTOR_SIZE;
+                final int length = Math.min(SECTOR_SIZE, fileCapacity - sectorStart);
+                writableBuffer.putBytes(sectorStart, inMemoryBuffer, sectorStart, length);
+                sectors &= sectors - 1;
+            }
+        }
         writableFile.force();
     }
 
-    private void flipFiles()
+    private void markSector(final int offset)
+    {
+        final int sector = offset / SECTOR_SIZE;
+        dirtySectors[sector >> 6] |= 1L << (sector & 63);
+    }
+
+    private void markAllSectors(final long[] sectors)
+    {
+        Arrays.fill(sectors, -1L);
+    }
+
+    private boolean flipFiles()
     {
         if (RUNNING_ON_WINDOWS)
         {
@@ -247,6 +328,8 @@ public class SequenceNumberIndexWriter implements Index
             writableFile = indexFile;
             indexFile = file;
         }
+
+        return flipsFiles;
     }
 
     private boolean rename(final File src, final File dest)
@@ -292,7 +375,7 @@ public class SequenceNumberIndexWriter implements Index
         new IndexedPositionReader(positions.buffer()).readLastPosition(consumer);
     }
 
-    private void saveRecord(final int newSequenceNumber, final long sessionId)
+    void saveRecord(final int newSequenceNumber, final long sessionId)
     {
         int position = (int)recordOffsets.get(sessionId);
         if (position == MISSING_RECORD)
@@ -426,5 +509,6 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + SEQUENCE_NUMBER_OFFSET, value);
+        markSector(recordOffset);
     }
 }
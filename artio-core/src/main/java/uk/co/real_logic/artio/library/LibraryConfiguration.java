@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static java.lang.Integer.getInteger;
 import static uk.co.real_logic.artio.engine.FixEngine.ENGINE_LIBRARY_ID;
 
 
@@ -65,6 +66,13 @@ public final class LibraryConfiguration extends CommonConfiguration
 
     public static final SessionProxyFactory DEFAULT_SESSION_PROXY_FACTORY = DirectSessionProxy::new;
 
+    /**
+     * Property name for the number of bytes that sessions claim in the outbound publication to encode messages
+     * directly into, 0 disables this.
+     */
+    public static final String SESSION_CLAIM_CAPACITY_PROPERTY = "fix.library.session_claim_capacity";
+    public static final int DEFAULT_SESSION_CLAIM_CAPACITY = 0;
+
     private final int libraryId;
 
     {
@@ -88,6 +96,7 @@ public final class LibraryConfiguration extends CommonConfiguration
     private LibraryScheduler scheduler = new DefaultLibraryScheduler();
     private String libraryName = "";
     private SessionProxyFactory sessionProxyFactory = DEFAULT_SESSION_PROXY_FACTORY;
+    private int sessionClaimCapacity = getInteger(SESSION_CLAIM_CAPACITY_PROPERTY, DEFAULT_SESSION_CLAIM_CAPACITY);
 
     /**
      * When a new session connects to the gateway you register a callback handler to find
@@ -248,12 +257,46 @@ public final class LibraryConfiguration extends CommonConfiguration
         return this;
     }
 
+    /**
+     * Sets the number of bytes that sessions claim in the outbound publication in order to encode messages sent
+     * via {@link uk.co.real_logic.artio.session.Session#send(uk.co.real_logic.artio.builder.Encoder)} directly into
+     * it, rather than encoding them into the session's buffer and then copying them into the publication.
+     * <p>
+     * The length of a message isn't known until it has been encoded, so this many bytes are claimed for every message
+     * and any that it doesn't use are left unused at the end of its fragment in the publication and the archive.
+     * A message is only encoded into the claim if its encoder's
+     * {@link uk.co.real_logic.artio.builder.Encoder#maxEncodedLength()} fits within it, so this should be a little
+     * larger than the bound on the messages that are usually sent. Other messages, and messages larger than a single
+     * fragment, are encoded into the session's buffer and copied as normal.
+     * <p>
+     * Default: 0, which disables claiming.
+     *
+     * @param sessionClaimCapacity the number of bytes that sessions claim, or 0 to disable claiming.
+     * @return this
+     * @see LibraryConfiguration#SESSION_CLAIM_CAPACITY_PROPERTY
+     */
+    public LibraryConfiguration sessionClaimCapacity(final int sessionClaimCapacity)
+    {
+        this.sessionClaimCapacity = sessionClaimCapacity;
+        return this;
+    }
+
+    public int sessionClaimCapacity()
+    {
+        return sessionClaimCapacity;
+    }
+
     void conclude()
     {
         super.conclude("library-" + libraryId());
 
         Verify.notNull(sessionAcquireHandler, "sessionAcquireHandler");
 
+        if (sessionClaimCapacity < 0)
+        {
+            throw new IllegalArgumentException("sessionClaimCapacity must not be negative: " + sessionClaimCapacity);
+        }
+
         if (libraryAeronChannels.isEmpty())
         {
             throw new IllegalArgumentException("You must specify at least one channel to connect to");
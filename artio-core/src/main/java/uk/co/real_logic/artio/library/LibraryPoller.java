@@ -113,6 +113,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final SentPositionHandler sentPositionHandler;
     private final boolean enginesAreClustered;
     private final FixCounters fixCounters;
+    private final SessionPollScheduler sessionPollScheduler;
 
     private final Long2ObjectHashMap<LibraryReply<?>> correlationIdToReply = new Long2ObjectHashMap<>();
     private final LibraryTransport transport;
@@ -161,6 +162,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         this.sessionExistsHandler = configuration.sessionExistsHandler();
         this.sentPositionHandler = configuration.sentPositionHandler();
         this.clock = clock;
+        this.sessionPollScheduler = new SessionPollScheduler(clock);
         this.enginesAreClustered = configuration.libraryAeronChannels().size() > 1;
     }
 
@@ -559,16 +561,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     private int pollSessions(final long timeInMs)
     {
-        final InternalSession[] sessions = this.sessions;
-        int total = 0;
-
-        for (int i = 0, size = sessions.length; i < size; i++)
-        {
-            final InternalSession session = sessions[i];
-            total += session.poll(timeInMs);
-        }
-
-        return total;
+        return sessionPollScheduler.poll(timeInMs);
     }
 
     private int pollPendingInitiatorSessions(final long timeInMs)
@@ -584,7 +577,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             {
                 this.pendingInitiatorSessions = pendingSessions = ArrayUtil.remove(pendingSessions, i);
                 size--;
-                sessions = ArrayUtil.add(sessions, session);
+                addSession(session);
             }
             else
             {
@@ -729,6 +722,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     session.closedResendInterval(closedResendInterval);
                     session.resendRequestChunkSize(resendRequestChunkSize);
                     session.sendRedundantResendRequests(sendRedundantResendRequests);
+                    session.engineSendingTime(configuration.engineSendingTime());
+                    session.claimCapacity(configuration.sessionClaimCapacity());
                     session.awaitingResend(awaitingResend);
 
                     createSessionSubscriber(connection, session, reply, slowStatus);
@@ -768,10 +763,16 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         }
         else
         {
-            sessions = ArrayUtil.add(sessions, session);
+            addSession(session);
         }
     }
 
+    private void addSession(final InternalSession session)
+    {
+        sessions = ArrayUtil.add(sessions, session);
+        sessionPollScheduler.add(session);
+    }
+
     public Action onMessage(
         final DirectBuffer buffer,
         final int offset,
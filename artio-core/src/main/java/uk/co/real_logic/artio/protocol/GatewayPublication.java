@@ -15,7 +15,7 @@
  */
 package uk.co.real_logic.artio.protocol;
 
-import io.aeron.ExclusivePublication;
+import io.aeron.Publication;
 import io.aeron.logbuffer.BufferClaim;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
@@ -26,7 +26,9 @@ import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.messages.ControlNotificationEncoder.SessionsEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static io.aeron.protocol.DataHeaderFlyweight.BEGIN_FLAG;
@@ -47,6 +49,17 @@ public class GatewayPublication extends ClaimablePublication
 
     private static final int FRAMED_MESSAGE_SIZE = MessageHeaderEncoder.ENCODED_LENGTH + FRAME_SIZE;
 
+    /**
+     * The offset within {@link #claimedBuffer()} that a claimed FIX message must start at when it is committed.
+     */
+    public static final int CLAIMED_MESSAGE_OFFSET = FRAMED_MESSAGE_SIZE;
+
+    /**
+     * The sendingTimeOffset of messages whose SendingTime isn't stamped by the engine, a SendingTime value can never
+     * be at the start of a message.
+     */
+    public static final int NO_SENDING_TIME_OFFSET = 0;
+
     private static final byte[] NO_BYTES = {};
 
     private static final int HEARTBEAT_LENGTH = HEADER_LENGTH + ApplicationHeartbeatEncoder.BLOCK_LENGTH;
@@ -100,13 +113,15 @@ public class GatewayPublication extends ClaimablePublication
     private final SlowStatusNotificationEncoder slowStatusNotification = new SlowStatusNotificationEncoder();
     private final FollowerSessionRequestEncoder followerSessionRequest = new FollowerSessionRequestEncoder();
     private final FollowerSessionReplyEncoder followerSessionReply = new FollowerSessionReplyEncoder();
+    private final MutableAsciiBuffer claimedBuffer = new MutableAsciiBuffer();
+    private BufferClaim[] batchClaims = new BufferClaim[0];
 
     private final Clock clock;
     private final int maxPayloadLength;
     private final int maxInitialBodyLength;
 
     public GatewayPublication(
-        final ExclusivePublication dataPublication,
+        final Publication dataPublication,
         final AtomicCounter fails,
         final IdleStrategy idleStrategy,
         final Clock clock,
@@ -129,6 +144,53 @@ public class GatewayPublication extends ClaimablePublication
         final long connectionId,
         final MessageStatus status,
         final int sequenceNumber)
+    {
+        return saveMessage(
+            srcBuffer,
+            srcOffset,
+            srcLength,
+            libraryId,
+            messageType,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            status,
+            sequenceNumber,
+            NO_SENDING_TIME_OFFSET,
+            0);
+    }
+
+    /**
+     * Save a FIX message whose SendingTime is a placeholder for the engine to stamp when it writes the message.
+     *
+     * @param srcBuffer the buffer that the message is in.
+     * @param srcOffset the offset of the message within srcBuffer.
+     * @param srcLength the length of the message.
+     * @param libraryId the id of the library that owns the session.
+     * @param messageType the message type of the message.
+     * @param sessionId the id of the session.
+     * @param sequenceIndex the sequence index of the session.
+     * @param connectionId the id of the connection.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param sendingTimeOffset the offset of the SendingTime value from the start of the message or
+     *                          {@link #NO_SENDING_TIME_OFFSET} if the engine doesn't stamp it.
+     * @param enqueueTimeInMs the epoch time that the message was sent at, in milliseconds.
+     * @return the position of the message or a negative number indicating an error status.
+     */
+    public long saveMessage(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final int libraryId,
+        final int messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final int sendingTimeOffset,
+        final long enqueueTimeInMs)
     {
         final BufferClaim bufferClaim = this.bufferClaim;
         final long timestamp = clock.time();
@@ -164,6 +226,8 @@ public class GatewayPublication extends ClaimablePublication
             .timestamp(timestamp)
             .status(status)
             .sequenceNumber(sequenceNumber)
+            .sendingTimeOffset(sendingTimeOffset)
+            .enqueueTimeInMs(enqueueTimeInMs)
             .putBody(srcBuffer, srcFragmentOffset, srcFragmentLength);
 
         if (!fragmented)
@@ -201,6 +265,214 @@ public class GatewayPublication extends ClaimablePublication
         return position;
     }
 
+    /**
+     * Claims space for a FIX message that is encoded directly into the publication, rather than being encoded into
+     * another buffer and then copied by {@link #saveMessage}. The length of the message isn't known until it has been
+     * encoded, so maxLength bytes are claimed and any that the message doesn't use are left at the end of its
+     * fragment. A successful claim must be followed by a call to either {@link #commitClaimedMessage} or
+     * {@link #abortClaimedMessage()}.
+     *
+     * @param maxLength the maximum length of the FIX message, must fit within a single fragment.
+     * @return the position of the claim or a negative number indicating an error status.
+     * @see #fitsInSingleFragment(int)
+     */
+    public long claimMessage(final int maxLength)
+    {
+        final long position = claim(FRAMED_MESSAGE_SIZE + maxLength);
+        if (position > 0)
+        {
+            final BufferClaim bufferClaim = this.bufferClaim;
+            claimedBuffer.wrap(bufferClaim.buffer(), bufferClaim.offset(), bufferClaim.length());
+        }
+
+        return position;
+    }
+
+    /**
+     * Gets the buffer that wraps the space claimed by {@link #claimMessage(int)}, only valid until the claim is
+     * committed or aborted.
+     *
+     * @return the buffer that wraps the claimed space.
+     */
+    public MutableAsciiBuffer claimedBuffer()
+    {
+        return claimedBuffer;
+    }
+
+    /**
+     * Commits a FIX message that has been encoded into the {@link #claimedBuffer()}. If the message doesn't start
+     * at {@link #CLAIMED_MESSAGE_OFFSET} it is moved there.
+     *
+     * @param srcOffset the offset within the claimed buffer that the message was encoded at.
+     * @param srcLength the length of the message, no longer than the claim's maxLength.
+     * @param libraryId the id of the library that owns the session.
+     * @param messageType the message type of the message.
+     * @param sessionId the id of the session.
+     * @param sequenceIndex the sequence index of the session.
+     * @param connectionId the id of the connection.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param sendingTimeOffset the offset of the SendingTime value from the start of the message or
+     *                          {@link #NO_SENDING_TIME_OFFSET} if the engine doesn't stamp it.
+     * @param enqueueTimeInMs the epoch time that the message was sent at, in milliseconds, if the engine stamps its
+     *                        SendingTime.
+     */
+    public void commitClaimedMessage(
+        final int srcOffset,
+        final int srcLength,
+        final int libraryId,
+        final int messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final int sendingTimeOffset,
+        final long enqueueTimeInMs)
+    {
+        final MutableAsciiBuffer claimedBuffer = this.claimedBuffer;
+        if (srcOffset != CLAIMED_MESSAGE_OFFSET)
+        {
+            claimedBuffer.putBytes(CLAIMED_MESSAGE_OFFSET, claimedBuffer, srcOffset, srcLength);
+        }
+
+        fixMessage
+            .wrapAndApplyHeader(claimedBuffer, 0, header)
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(clock.time())
+            .status(status)
+            .sequenceNumber(sequenceNumber)
+            .sendingTimeOffset(sendingTimeOffset)
+            .enqueueTimeInMs(enqueueTimeInMs);
+        claimedBuffer.putShort(
+            CLAIMED_MESSAGE_OFFSET - FixMessageEncoder.bodyHeaderLength(), (short)srcLength, LITTLE_ENDIAN);
+
+        bufferClaim.commit();
+
+        DebugLogger.log(FIX_MESSAGE_FLOW, "Enqueued %s%n", claimedBuffer, CLAIMED_MESSAGE_OFFSET, srcLength);
+    }
+
+    /**
+     * Aborts the claim made by {@link #claimMessage(int)}, its space is skipped by subscribers.
+     */
+    public void abortClaimedMessage()
+    {
+        bufferClaim.abort();
+    }
+
+    /**
+     * Save a batch of FIX messages sent on the same session, all or none of them are published. Space is claimed
+     * for every message before any of them is written, so the batch is a contiguous block of the publication and
+     * if any claim fails then the claims already made are aborted. Each message must fit within a single fragment.
+     *
+     * @param srcBuffer the buffer that the messages were encoded into.
+     * @param srcOffsets the offsets of the messages within srcBuffer.
+     * @param srcLengths the lengths of the messages.
+     * @param messageTypes the message types of the messages.
+     * @param count the number of messages in the batch.
+     * @param libraryId the id of the library that owns the session.
+     * @param sessionId the id of the session.
+     * @param sequenceIndex the sequence index of the session.
+     * @param connectionId the id of the connection.
+     * @param firstSequenceNumber the sequence number of the first message, the rest follow on contiguously.
+     * @param sendingTimeOffsets the offsets of the SendingTime values from the start of the messages, or
+     *                           {@link #NO_SENDING_TIME_OFFSET} where the engine doesn't stamp it.
+     * @param enqueueTimeInMs the epoch time that the messages were sent at, in milliseconds, if the engine stamps
+     *                        their SendingTime.
+     * @return the position of the end of the last message or a negative number indicating an error status.
+     * @see #fitsInSingleFragment(int)
+     */
+    public long saveMessageBatch(
+        final DirectBuffer srcBuffer,
+        final int[] srcOffsets,
+        final int[] srcLengths,
+        final int[] messageTypes,
+        final int count,
+        final int libraryId,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final int firstSequenceNumber,
+        final int[] sendingTimeOffsets,
+        final long enqueueTimeInMs)
+    {
+        final BufferClaim[] batchClaims = batchClaims(count);
+        long position = 0;
+        for (int i = 0; i < count; i++)
+        {
+            position = claim(FRAMED_MESSAGE_SIZE + srcLengths[i], batchClaims[i]);
+            if (position < 0)
+            {
+                for (int j = 0; j < i; j++)
+                {
+                    batchClaims[j].abort();
+                }
+
+                return position;
+            }
+        }
+
+        final long timestamp = clock.time();
+        for (int i = 0; i < count; i++)
+        {
+            final BufferClaim bufferClaim = batchClaims[i];
+            final int srcOffset = srcOffsets[i];
+            final int srcLength = srcLengths[i];
+
+            fixMessage
+                .wrapAndApplyHeader(bufferClaim.buffer(), bufferClaim.offset(), header)
+                .libraryId(libraryId)
+                .messageType(messageTypes[i])
+                .session(sessionId)
+                .sequenceIndex(sequenceIndex)
+                .connection(connectionId)
+                .timestamp(timestamp)
+                .status(MessageStatus.OK)
+                .sequenceNumber(firstSequenceNumber + i)
+                .sendingTimeOffset(sendingTimeOffsets[i])
+                .enqueueTimeInMs(enqueueTimeInMs)
+                .putBody(srcBuffer, srcOffset, srcLength);
+
+            bufferClaim.commit();
+
+            DebugLogger.log(FIX_MESSAGE_FLOW, "Enqueued %s%n", srcBuffer, srcOffset, srcLength);
+        }
+
+        return position;
+    }
+
+    private BufferClaim[] batchClaims(final int count)
+    {
+        BufferClaim[] batchClaims = this.batchClaims;
+        if (batchClaims.length < count)
+        {
+            final int oldLength = batchClaims.length;
+            batchClaims = Arrays.copyOf(batchClaims, Math.max(count, oldLength * 2));
+            for (int i = oldLength; i < batchClaims.length; i++)
+            {
+                batchClaims[i] = new BufferClaim();
+            }
+            this.batchClaims = batchClaims;
+        }
+
+        return batchClaims;
+    }
+
+    /**
+     * Checks whether a FIX message can be published without being fragmented.
+     *
+     * @param srcLength the length of the FIX message.
+     * @return true if the message fits within a single fragment, false otherwise.
+     */
+    public boolean fitsInSingleFragment(final int srcLength)
+    {
+        return FRAMED_MESSAGE_SIZE + srcLength <= maxPayloadLength;
+    }
+
     private void putBodyLength(final int srcLength, final int offset, final MutableDirectBuffer destBuffer)
     {
         destBuffer.putShort(offset + FixMessageEncoder.BLOCK_LENGTH, (short)srcLength, LITTLE_ENDIAN);
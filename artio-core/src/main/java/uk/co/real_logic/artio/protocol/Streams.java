@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.protocol;
 
 import io.aeron.Aeron;
 import io.aeron.ExclusivePublication;
+import io.aeron.Publication;
 import io.aeron.Subscription;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.status.AtomicCounter;
@@ -66,9 +67,33 @@ public final class Streams
         );
     }
 
+    /**
+     * Creates a gateway publication whose underlying publication is shared with every other publication that is
+     * created by this method for the same stream, so they can be used from different threads and their messages are
+     * all published in the same order that they are claimed.
+     *
+     * @param idleStrategy the idle strategy used when retrying claims on the publication.
+     * @param name the name of the publication for logging purposes.
+     * @return the new gateway publication.
+     */
+    public GatewayPublication sharedGatewayPublication(final IdleStrategy idleStrategy, final String name)
+    {
+        return new GatewayPublication(
+            track(name, aeron.addPublication(aeronChannel, streamId)),
+            failedPublications,
+            idleStrategy,
+            clock,
+            maxClaimAttempts
+        );
+    }
+
     private ExclusivePublication dataPublication(final String name)
     {
-        final ExclusivePublication publication = aeron.addExclusivePublication(aeronChannel, streamId);
+        return track(name, aeron.addExclusivePublication(aeronChannel, streamId));
+    }
+
+    private <T extends Publication> T track(final String name, final T publication)
+    {
         if (recordingCoordinator != null)
         {
             recordingCoordinator.track(publication);
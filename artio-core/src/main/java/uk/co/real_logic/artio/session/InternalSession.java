@@ -124,6 +124,16 @@ public class InternalSession extends Session
         super.sendRedundantResendRequests(sendRedundantResendRequests);
     }
 
+    public void engineSendingTime(final boolean engineSendingTime)
+    {
+        super.engineSendingTime(engineSendingTime);
+    }
+
+    public void claimCapacity(final int claimCapacity)
+    {
+        super.claimCapacity(claimCapacity);
+    }
+
     public void updateLastMessageProcessed()
     {
         super.updateLastMessageProcessed();
@@ -37,10 +37,13 @@ import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
 import static java.lang.Integer.MIN_VALUE;
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.agrona.DeadlineTimerWheel.NULL_TIMER;
 import static uk.co.real_logic.artio.Constants.NEW_SEQ_NO;
 import static uk.co.real_logic.artio.Constants.VERSION_CHARS;
+import static uk.co.real_logic.artio.builder.Encoder.UNKNOWN_LENGTH;
 import static uk.co.real_logic.artio.builder.Validation.CODEC_VALIDATION_DISABLED;
 import static uk.co.real_logic.artio.builder.Validation.CODEC_VALIDATION_ENABLED;
 import static uk.co.real_logic.artio.decoder.LogonDecoder.MESSAGE_TYPE_CHARS;
@@ -51,6 +54,8 @@ import static uk.co.real_logic.artio.library.SessionConfiguration.NO_RESEND_REQU
 import static uk.co.real_logic.artio.messages.DisconnectReason.*;
 import static uk.co.real_logic.artio.messages.MessageStatus.OK;
 import static uk.co.real_logic.artio.messages.SessionState.*;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.CLAIMED_MESSAGE_OFFSET;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_SENDING_TIME_OFFSET;
 import static uk.co.real_logic.artio.session.DirectSessionProxy.NO_LAST_MSG_SEQ_NUM_PROCESSED;
 
 /**
@@ -88,6 +93,13 @@ public class Session implements AutoCloseable
     private static final long NO_OPERATION = MIN_VALUE;
     static final long LIBRARY_DISCONNECTED = NO_OPERATION + 1;
     public static final long NO_LOGON_TIME = -1;
+    /**
+     * The SendingTime that messages are sent with when the engine stamps their SendingTime as it writes them, see
+     * {@link CommonConfiguration#engineSendingTime(boolean)}.
+     */
+    public static final String ENGINE_SENDING_TIME_PLACEHOLDER = "19700101-00:00:00.000";
+    private static final byte[] ENGINE_SENDING_TIME_PLACEHOLDER_BYTES =
+        ENGINE_SENDING_TIME_PLACEHOLDER.getBytes(US_ASCII);
     private static final int INITIAL_SEQUENCE_NUMBER = 1;
 
     static final short ACTIVE_VALUE = 3;
@@ -153,10 +165,20 @@ public class Session implements AutoCloseable
     private boolean closedResendInterval;
     private int resendRequestChunkSize;
     private boolean sendRedundantResendRequests;
+    private boolean engineSendingTime;
+    private int claimCapacity;
+    // How far before CLAIMED_MESSAGE_OFFSET to encode, so that encoded messages start at it
+    private int claimEncodeGap;
+    private int[] batchOffsets = new int[0];
+    private int[] batchLengths = new int[0];
+    private int[] batchSendingTimeOffsets = new int[0];
+    private int[] batchMessageTypes = new int[0];
 
     private boolean incorrectBeginString = false;
 
     private SessionLogonListener logonListener;
+    private SessionPollScheduler pollScheduler;
+    private long pollTimerId = NULL_TIMER;
 
     private int logoutRejectReason = NO_LOGOUT_REJECT_REASON;
 
@@ -449,10 +471,134 @@ public class Session implements AutoCloseable
         validateCanSendMessage();
 
         final int sentSeqNum = newSentSeqNum();
+        prepareHeader(encoder, sentSeqNum);
+
+        final int claimCapacity = this.claimCapacity;
+        if (claimCapacity > 0 && fitsInClaim(encoder) && publication.fitsInSingleFragment(claimCapacity))
+        {
+            final long position = publication.claimMessage(claimCapacity);
+            if (position < 0)
+            {
+                return position;
+            }
+
+            if (encodeClaimedMessage(encoder, sentSeqNum))
+            {
+                lastSentMsgSeqNum(sentSeqNum, position);
+                return position;
+            }
+        }
+
+        final long result = encoder.encode(asciiBuffer, 0);
+        final int length = Encoder.length(result);
+        final int offset = Encoder.offset(result);
+
+        if (engineSendingTime)
+        {
+            return sendEngineStamped(
+                asciiBuffer, offset, length, sentSeqNum, encoder.messageType(), sendingTimeOffset(encoder, offset));
+        }
+
+        return send(asciiBuffer, offset, length, sentSeqNum, encoder.messageType());
+    }
+
+    /**
+     * Send a batch of messages on this session, either all of the messages are sent or none of them are. The
+     * messages are given contiguous sequence numbers and are published as a single block, so the engine can write
+     * them to the connection together.
+     *
+     * @param encoders the encoders of the messages to be sent, in the order to send them.
+     * @param count the number of encoders from the start of the encoders array to send.
+     * @return the position in the stream that corresponds to the end of the last message or a negative
+     * number indicating an error status, in which case none of the messages have been sent.
+     * @throws IndexOutOfBoundsException if the encoded messages are too large, if this happens consider
+     *                                   increasing {@link CommonConfiguration#sessionBufferSize(int)}
+     * @throws IllegalArgumentException if any of the encoded messages is too large to be published as a single
+     *                                  fragment
+     */
+    public long sendBatch(final Encoder[] encoders, final int count)
+    {
+        validateCanSendMessage();
+
+        if (count <= 0)
+        {
+            return NO_OPERATION;
+        }
+
+        ensureBatchCapacity(count);
+        final int[] batchOffsets = this.batchOffsets;
+        final int[] batchLengths = this.batchLengths;
+        final int[] batchMessageTypes = this.batchMessageTypes;
+        final int[] batchSendingTimeOffsets = this.batchSendingTimeOffsets;
+        final MutableAsciiBuffer asciiBuffer = this.asciiBuffer;
+        final GatewayPublication publication = this.publication;
+
+        final int firstSeqNum = newSentSeqNum();
+        int encodeOffset = 0;
+        for (int i = 0; i < count; i++)
+        {
+            final Encoder encoder = encoders[i];
+            prepareHeader(encoder, firstSeqNum + i);
+
+            final long result = encoder.encode(asciiBuffer, encodeOffset);
+            final int length = Encoder.length(result);
+            if (!publication.fitsInSingleFragment(length))
+            {
+                throw new IllegalArgumentException(String.format(
+                    "Message %d of the batch is %d bytes long, which is too large to send in a batch", i, length));
+            }
+
+            final int offset = Encoder.offset(result);
+            batchOffsets[i] = offset;
+            batchLengths[i] = length;
+            batchMessageTypes[i] = encoder.messageType();
+            batchSendingTimeOffsets[i] = sendingTimeOffset(encoder, offset);
+            encodeOffset = offset + length;
+        }
+
+        final long position = publication.saveMessageBatch(
+            asciiBuffer,
+            batchOffsets,
+            batchLengths,
+            batchMessageTypes,
+            count,
+            libraryId,
+            id(),
+            sequenceIndex(),
+            connectionId,
+            firstSeqNum,
+            batchSendingTimeOffsets,
+            engineSendingTime ? time() : 0);
+
+        lastSentMsgSeqNum(firstSeqNum + count - 1, position);
+
+        return position;
+    }
+
+    private void ensureBatchCapacity(final int count)
+    {
+        if (batchOffsets.length < count)
+        {
+            final int capacity = Math.max(count, batchOffsets.length * 2);
+            batchOffsets = new int[capacity];
+            batchLengths = new int[capacity];
+            batchMessageTypes = new int[capacity];
+            batchSendingTimeOffsets = new int[capacity];
+        }
+    }
+
+    private void prepareHeader(final Encoder encoder, final int sentSeqNum)
+    {
         final SessionHeaderEncoder header = encoder.header();
-        header
-            .msgSeqNum(sentSeqNum)
-            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(time()));
+        header.msgSeqNum(sentSeqNum);
+        if (engineSendingTime)
+        {
+            header.sendingTime(ENGINE_SENDING_TIME_PLACEHOLDER_BYTES);
+        }
+        else
+        {
+            header.sendingTime(timestampEncoder.buffer(), timestampEncoder.update(time()));
+        }
 
         if (enableLastMsgSeqNumProcessed)
         {
@@ -463,12 +609,101 @@ public class Session implements AutoCloseable
         {
             sessionIdStrategy.setupSession(sessionKey, header);
         }
+    }
 
-        final long result = encoder.encode(asciiBuffer, 0);
+    // Only true if the message can't be encoded beyond the end of the claim, whatever its length turns out to be.
+    private boolean fitsInClaim(final Encoder encoder)
+    {
+        final int maxLength = encoder.maxEncodedLength();
+        final int encodeOffset = CLAIMED_MESSAGE_OFFSET - claimEncodeGap;
+
+        return maxLength != UNKNOWN_LENGTH && encodeOffset >= 0 &&
+            encodeOffset + maxLength <= CLAIMED_MESSAGE_OFFSET + claimCapacity;
+    }
+
+    // Returns false if the message can't be moved to the start of the claim, in which case it has been aborted.
+    private boolean encodeClaimedMessage(final Encoder encoder, final int sentSeqNum)
+    {
+        final GatewayPublication publication = this.publication;
+        final long result;
+        try
+        {
+            result = encoder.encode(publication.claimedBuffer(), CLAIMED_MESSAGE_OFFSET - claimEncodeGap);
+        }
+        catch (final RuntimeException ex)
+        {
+            publication.abortClaimedMessage();
+            throw ex;
+        }
+
+        // The message is within the claim, but if it starts before CLAIMED_MESSAGE_OFFSET it may not fit after it.
         final int length = Encoder.length(result);
         final int offset = Encoder.offset(result);
+        if (length > claimCapacity)
+        {
+            publication.abortClaimedMessage();
+            return false;
+        }
 
-        return send(asciiBuffer, offset, length, sentSeqNum, encoder.messageType());
+        // Encoders reserve space for the BeginString and BodyLength, so learn where to encode the next message.
+        claimEncodeGap += offset - CLAIMED_MESSAGE_OFFSET;
+        publication.commitClaimedMessage(
+            offset,
+            length,
+            libraryId,
+            encoder.messageType(),
+            id(),
+            sequenceIndex(),
+            connectionId,
+            OK,
+            sentSeqNum,
+            sendingTimeOffset(encoder, offset),
+            engineSendingTime ? time() : 0);
+
+        return true;
+    }
+
+    // Offset of the SendingTime placeholder from the start of the message, for the engine to stamp it in place.
+    private int sendingTimeOffset(final Encoder encoder, final int messageOffset)
+    {
+        if (!engineSendingTime)
+        {
+            return NO_SENDING_TIME_OFFSET;
+        }
+
+        // The header reports an offset of 0 if it didn't encode a SendingTime
+        final int sendingTimeOffset = encoder.header().encodedSendingTimeOffset();
+        return sendingTimeOffset > messageOffset ? sendingTimeOffset - messageOffset : NO_SENDING_TIME_OFFSET;
+    }
+
+    private long sendEngineStamped(
+        final DirectBuffer messageBuffer,
+        final int offset,
+        final int length,
+        final int seqNum,
+        final int messageType,
+        final int sendingTimeOffset)
+    {
+        final long position = publication.saveMessage(
+            messageBuffer,
+            offset,
+            length,
+            libraryId,
+            messageType,
+            id(),
+            sequenceIndex(),
+            connectionId,
+            OK,
+            seqNum,
+            sendingTimeOffset,
+            time());
+
+        if (position > 0)
+        {
+            lastSentMsgSeqNum(seqNum, position);
+        }
+
+        return position;
     }
 
     /**
@@ -604,6 +839,11 @@ public class Session implements AutoCloseable
      */
     public void close()
     {
+        if (pollScheduler != null)
+        {
+            pollScheduler.remove(this);
+        }
+
         sentMsgSeqNo.close();
         receivedMsgSeqNo.close();
     }
@@ -1382,11 +1622,13 @@ public class Session implements AutoCloseable
         incNextReceivedInboundMessageTime(time);
         sendingHeartbeatIntervalInMs = (long)(heartbeatIntervalInMs * HEARTBEAT_PAUSE_FACTOR);
         nextRequiredHeartbeatTimeInMs = time + sendingHeartbeatIntervalInMs;
+        reschedulePoll();
     }
 
     protected Session state(final SessionState state)
     {
         this.state = state;
+        reschedulePoll();
         return this;
     }
 
@@ -1612,6 +1854,60 @@ public class Session implements AutoCloseable
         }
     }
 
+    /**
+     * Gets the time at which {@link #poll(long)} next has a timer to check or some work to retry, all of its work
+     * before then is driven by messages. Any change that brings this time forward reschedules the session's poll.
+     *
+     * @return the time at which the session next needs polling or {@link SessionPollScheduler#NO_POLL_TIME}.
+     */
+    long nextPollTimeInMs()
+    {
+        switch (state().value())
+        {
+            case DISCONNECTING_VALUE:
+            case LOGGING_OUT_VALUE:
+            case LOGGING_OUT_AND_DISCONNECTING_VALUE:
+                return 0;
+
+            case ACTIVE_VALUE:
+                return Math.min(nextRequiredHeartbeatTimeInMs, nextRequiredInboundMessageTimeInMs);
+
+            case AWAITING_LOGOUT_VALUE:
+                return nextRequiredInboundMessageTimeInMs;
+
+            default:
+                return awaitingHeartbeat ? nextRequiredInboundMessageTimeInMs : SessionPollScheduler.NO_POLL_TIME;
+        }
+    }
+
+    private void reschedulePoll()
+    {
+        if (pollScheduler != null)
+        {
+            pollScheduler.schedule(this);
+        }
+    }
+
+    void pollScheduler(final SessionPollScheduler pollScheduler)
+    {
+        this.pollScheduler = pollScheduler;
+    }
+
+    SessionPollScheduler pollScheduler()
+    {
+        return pollScheduler;
+    }
+
+    void pollTimerId(final long pollTimerId)
+    {
+        this.pollTimerId = pollTimerId;
+    }
+
+    long pollTimerId()
+    {
+        return pollTimerId;
+    }
+
     void libraryConnected(final boolean libraryConnected)
     {
         proxy.libraryConnected(libraryConnected);
@@ -1673,6 +1969,16 @@ public class Session implements AutoCloseable
         this.closedResendInterval = closedResendInterval;
     }
 
+    void engineSendingTime(final boolean engineSendingTime)
+    {
+        this.engineSendingTime = engineSendingTime;
+    }
+
+    void claimCapacity(final int claimCapacity)
+    {
+        this.claimCapacity = claimCapacity;
+    }
+
     void sendRedundantResendRequests(final boolean sendRedundantResendRequests)
     {
         this.sendRedundantResendRequests = sendRedundantResendRequests;
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import uk.co.real_logic.artio.decoder.HeaderDecoder;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+
+import static uk.co.real_logic.artio.dictionary.StandardFixConstants.START_OF_HEADER;
+import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
+
+/**
+ * Scans the standard header of a FIX message for the fields that the session logic needs from application messages,
+ * without decoding the rest of the header like a {@link HeaderDecoder} does.
+ * <p>
+ * Fields are read in place: other than the MsgType, which is copied into a reused array, the scanner only records
+ * the offset and length of the fields that it finds. Offsets are only valid until the buffer is reused.
+ * <p>
+ * The scan stops at the first field that is neither in the standard FIX header nor a user defined field, which
+ * is the start of the message body. User defined fields (tag 5000 and above) are skipped so that custom header fields
+ * don't end the scan.
+ */
+public class SessionHeaderScanner
+{
+    private static final int BEGIN_STRING = 8;
+    private static final int BODY_LENGTH = 9;
+    private static final int MSG_SEQ_NUM = 34;
+    private static final int MSG_TYPE = 35;
+    private static final int POSS_DUP_FLAG = 43;
+    private static final int SENDER_COMP_ID = 49;
+    private static final int SENDER_SUB_ID = 50;
+    private static final int SENDING_TIME = 52;
+    private static final int TARGET_COMP_ID = 56;
+    private static final int TARGET_SUB_ID = 57;
+    private static final int SECURE_DATA_LEN = 90;
+    private static final int SECURE_DATA = 91;
+    private static final int POSS_RESEND = 97;
+    private static final int ON_BEHALF_OF_COMP_ID = 115;
+    private static final int ON_BEHALF_OF_SUB_ID = 116;
+    private static final int ORIG_SENDING_TIME = 122;
+    private static final int DELIVER_TO_COMP_ID = 128;
+    private static final int DELIVER_TO_SUB_ID = 129;
+    private static final int SENDER_LOCATION_ID = 142;
+    private static final int TARGET_LOCATION_ID = 143;
+    private static final int ON_BEHALF_OF_LOCATION_ID = 144;
+    private static final int DELIVER_TO_LOCATION_ID = 145;
+    private static final int XML_DATA_LEN = 212;
+    private static final int XML_DATA = 213;
+    private static final int MESSAGE_ENCODING = 347;
+    private static final int LAST_MSG_SEQ_NUM_PROCESSED = 369;
+    private static final int NO_HOPS = 627;
+    private static final int HOP_COMP_ID = 628;
+    private static final int HOP_SENDING_TIME = 629;
+    private static final int HOP_REF_ID = 630;
+    private static final int APPL_VER_ID = 1128;
+    private static final int CSTM_APPL_VER_ID = 1129;
+    private static final int APPL_EXT_ID = 1156;
+
+    private static final int FIRST_USER_DEFINED_TAG = 5000;
+    private static final int MAX_TAG_BEFORE_DIGIT = (Integer.MAX_VALUE - 9) / 10;
+    private static final int NO_LENGTH = -1;
+    private static final boolean[] STANDARD_HEADER_TAGS = standardHeaderTags();
+
+    private char[] msgType = new char[1];
+    private int msgTypeLength;
+    private int msgSeqNum;
+    private boolean possDup;
+    private boolean possResend;
+    private int sendingTimeOffset;
+    private int sendingTimeLength;
+    private int origSendingTimeOffset;
+    private int origSendingTimeLength;
+    private int senderCompIdOffset;
+    private int senderCompIdLength;
+    private int targetCompIdOffset;
+    private int targetCompIdLength;
+
+    private static boolean[] standardHeaderTags()
+    {
+        final int[] tags = {
+            BEGIN_STRING, BODY_LENGTH, MSG_SEQ_NUM, MSG_TYPE, POSS_DUP_FLAG, SENDER_COMP_ID, SENDER_SUB_ID,
+            SENDING_TIME, TARGET_COMP_ID, TARGET_SUB_ID, SECURE_DATA_LEN, SECURE_DATA, POSS_RESEND,
+            ON_BEHALF_OF_COMP_ID, ON_BEHALF_OF_SUB_ID, ORIG_SENDING_TIME, DELIVER_TO_COMP_ID, DELIVER_TO_SUB_ID,
+            SENDER_LOCATION_ID, TARGET_LOCATION_ID, ON_BEHALF_OF_LOCATION_ID, DELIVER_TO_LOCATION_ID, XML_DATA_LEN,
+            XML_DATA, MESSAGE_ENCODING, LAST_MSG_SEQ_NUM_PROCESSED, NO_HOPS, HOP_COMP_ID, HOP_SENDING_TIME,
+            HOP_REF_ID, APPL_VER_ID, CSTM_APPL_VER_ID, APPL_EXT_ID
+        };
+
+        final boolean[] standardHeaderTags = new boolean[FIRST_USER_DEFINED_TAG];
+        for (final int tag : tags)
+        {
+            standardHeaderTags[tag] = true;
+        }
+
+        return standardHeaderTags;
+    }
+
+    /**
+     * Scan the header of a message.
+     *
+     * @param buffer the buffer containing the message.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @return the offset of the first field after the header, or the end of the message if it doesn't have a body.
+     */
+    public int scan(final AsciiBuffer buffer, final int offset, final int length)
+    {
+        reset();
+
+        final int end = offset + length;
+        int dataLength = NO_LENGTH;
+        int position = offset;
+
+        while (position < end)
+        {
+            // Tags are short, so they're parsed as they're scanned for the end of the tag
+            int tag = 0;
+            int equalsPosition = position;
+            byte character;
+            while (equalsPosition < end && (character = buffer.getByte(equalsPosition)) != '=')
+            {
+                if (character < '0' || character > '9' || tag > MAX_TAG_BEFORE_DIGIT)
+                {
+                    return position;
+                }
+
+                tag = tag * 10 + character - '0';
+                equalsPosition++;
+            }
+
+            if (tag == 0 || equalsPosition == end ||
+                (tag < FIRST_USER_DEFINED_TAG && !STANDARD_HEADER_TAGS[tag]))
+            {
+                break;
+            }
+
+            final int valueOffset = equalsPosition + 1;
+            final int endOfField;
+            // Data fields can contain the field separator, so are delimited by their preceding length field
+            if ((tag == SECURE_DATA || tag == XML_DATA) && dataLength != NO_LENGTH)
+            {
+                endOfField = valueOffset + dataLength;
+            }
+            else
+            {
+                endOfField = buffer.scan(valueOffset, end, START_OF_HEADER);
+            }
+
+            if (endOfField == AsciiBuffer.UNKNOWN_INDEX || endOfField >= end)
+            {
+                break;
+            }
+
+            final int valueLength = endOfField - valueOffset;
+            dataLength = NO_LENGTH;
+            switch (tag)
+            {
+                case MSG_TYPE:
+                    msgType = buffer.getChars(msgType, valueOffset, valueLength);
+                    msgTypeLength = valueLength;
+                    break;
+
+                case MSG_SEQ_NUM:
+                    msgSeqNum = buffer.getInt(valueOffset, endOfField);
+                    break;
+
+                case POSS_DUP_FLAG:
+                    possDup = buffer.getBoolean(valueOffset);
+                    break;
+
+                case POSS_RESEND:
+                    possResend = buffer.getBoolean(valueOffset);
+                    break;
+
+                case SENDING_TIME:
+                    sendingTimeOffset = valueOffset;
+                    sendingTimeLength = valueLength;
+                    break;
+
+                case ORIG_SENDING_TIME:
+                    origSendingTimeOffset = valueOffset;
+                    origSendingTimeLength = valueLength;
+                    break;
+
+                case SENDER_COMP_ID:
+                    senderCompIdOffset = valueOffset;
+                    senderCompIdLength = valueLength;
+                    break;
+
+                case TARGET_COMP_ID:
+                    targetCompIdOffset = valueOffset;
+                    targetCompIdLength = valueLength;
+                    break;
+
+                case SECURE_DATA_LEN:
+                case XML_DATA_LEN:
+                    dataLength = buffer.getInt(valueOffset, endOfField);
+                    break;
+            }
+
+            position = endOfField + 1;
+        }
+
+        return position;
+    }
+
+    private void reset()
+    {
+        msgTypeLength = 0;
+        msgSeqNum = MISSING_INT;
+        possDup = false;
+        possResend = false;
+        sendingTimeOffset = 0;
+        sendingTimeLength = NO_LENGTH;
+        origSendingTimeOffset = 0;
+        origSendingTimeLength = NO_LENGTH;
+        senderCompIdOffset = 0;
+        senderCompIdLength = NO_LENGTH;
+        targetCompIdOffset = 0;
+        targetCompIdLength = NO_LENGTH;
+    }
+
+    public char[] msgType()
+    {
+        return msgType;
+    }
+
+    public int msgTypeLength()
+    {
+        return msgTypeLength;
+    }
+
+    public int msgSeqNum()
+    {
+        return msgSeqNum;
+    }
+
+    public boolean possDup()
+    {
+        return possDup;
+    }
+
+    public boolean possResend()
+    {
+        return possResend;
+    }
+
+    public boolean hasSendingTime()
+    {
+        return sendingTimeLength != NO_LENGTH;
+    }
+
+    public int sendingTimeOffset()
+    {
+        return sendingTimeOffset;
+    }
+
+    public int sendingTimeLength()
+    {
+        return sendingTimeLength;
+    }
+
+    public boolean hasOrigSendingTime()
+    {
+        return origSendingTimeLength != NO_LENGTH;
+    }
+
+    public int origSendingTimeOffset()
+    {
+        return origSendingTimeOffset;
+    }
+
+    public int origSendingTimeLength()
+    {
+        return origSendingTimeLength;
+    }
+
+    public boolean hasSenderCompId()
+    {
+        return senderCompIdLength != NO_LENGTH;
+    }
+
+    public int senderCompIdOffset()
+    {
+        return senderCompIdOffset;
+    }
+
+    public int senderCompIdLength()
+    {
+        return senderCompIdLength;
+    }
+
+    public boolean hasTargetCompId()
+    {
+        return targetCompIdLength != NO_LENGTH;
+    }
+
+    public int targetCompIdOffset()
+    {
+        return targetCompIdOffset;
+    }
+
+    public int targetCompIdLength()
+    {
+        return targetCompIdLength;
+    }
+}
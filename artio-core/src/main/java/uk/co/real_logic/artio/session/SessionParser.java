@@ -52,6 +52,7 @@ public class SessionParser
     private final HeaderDecoder header = new HeaderDecoder();
     private final SequenceResetDecoder sequenceReset = new SequenceResetDecoder();
     private final HeartbeatDecoder heartbeat = new HeartbeatDecoder();
+    private final SessionHeaderScanner headerScanner = new SessionHeaderScanner();
 
     private final Session session;
     private final MessageValidationStrategy validationStrategy;
@@ -180,6 +181,11 @@ public class SessionParser
 
     private Action onAnyOtherMessage(final int offset, final int length)
     {
+        if (!CODEC_VALIDATION_ENABLED)
+        {
+            return onScannedMessage(offset, length);
+        }
+
         final HeaderDecoder header = this.header;
         header.reset();
         header.decode(asciiBuffer, offset, length);
@@ -202,6 +208,23 @@ public class SessionParser
         return CONTINUE;
     }
 
+    // Without validation the session logic doesn't need the rest of the header, so it's scanned rather than decoded
+    private Action onScannedMessage(final int offset, final int length)
+    {
+        final SessionHeaderScanner headerScanner = this.headerScanner;
+        headerScanner.scan(asciiBuffer, offset, length);
+
+        final boolean possDup = headerScanner.possDup();
+        return session.onMessage(
+            headerScanner.msgSeqNum(),
+            headerScanner.msgType(),
+            headerScanner.msgTypeLength(),
+            MISSING_LONG,
+            headerScanner.hasOrigSendingTime() ? MISSING_LONG : UNKNOWN,
+            possDup || headerScanner.possResend(),
+            possDup);
+    }
+
     private Action onMessage(final HeaderDecoder header)
     {
         final long origSendingTime = origSendingTime(header);
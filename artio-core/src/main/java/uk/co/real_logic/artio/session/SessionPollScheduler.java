@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.EpochClock;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.agrona.DeadlineTimerWheel.NULL_TIMER;
+
+/**
+ * Polls sessions when their heartbeat, test request or logout timers are due rather than polling every session on
+ * every duty cycle.
+ * <p>
+ * Sessions are held in a {@link DeadlineTimerWheel} by the time that they next need polling. Sending and receiving
+ * messages only moves a session's timers later, so sessions aren't rescheduled when that happens: they're polled at
+ * their original time and then rescheduled for their new one. A session reschedules itself when a change, such as to
+ * its state, means that it needs polling sooner. Sessions are removed from their scheduler when they are closed.
+ * <p>
+ * Should only be accessed on the thread that polls its sessions.
+ */
+public class SessionPollScheduler implements DeadlineTimerWheel.TimerHandler
+{
+    static final long NO_POLL_TIME = Long.MAX_VALUE;
+
+    private static final int TICK_RESOLUTION_IN_MS = 8;
+    private static final int TICKS_PER_WHEEL = 1024;
+
+    private final Long2ObjectHashMap<Session> timerIdToSession = new Long2ObjectHashMap<>();
+    private final ArrayList<Session> dueSessions = new ArrayList<>();
+    private final EpochClock clock;
+    private final DeadlineTimerWheel timerWheel;
+
+    public SessionPollScheduler(final EpochClock clock)
+    {
+        this.clock = clock;
+        timerWheel = new DeadlineTimerWheel(MILLISECONDS, clock.time(), TICK_RESOLUTION_IN_MS, TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Add a session to be polled by this scheduler until it is closed.
+     *
+     * @param session the session to poll.
+     */
+    public void add(final Session session)
+    {
+        session.pollScheduler(this);
+        schedule(session);
+    }
+
+    /**
+     * Poll the sessions whose timers are due.
+     *
+     * @param timeInMs the current time.
+     * @return the number of actions that the polled sessions performed.
+     */
+    public int poll(final long timeInMs)
+    {
+        final DeadlineTimerWheel timerWheel = this.timerWheel;
+
+        // Sessions aren't polled from within the timer wheel as polling them can reschedule them.
+        while (timerWheel.timerCount() > 0)
+        {
+            timerWheel.poll(timeInMs, this, Integer.MAX_VALUE);
+
+            // The wheel only advances a tick per poll, so catch up if this wasn't polled for a while.
+            if (timerWheel.currentTickTime() > timeInMs)
+            {
+                break;
+            }
+        }
+
+        final ArrayList<Session> dueSessions = this.dueSessions;
+        int actions = 0;
+        for (int i = 0, size = dueSessions.size(); i < size; i++)
+        {
+            final Session session = dueSessions.get(i);
+
+            // Sessions can be closed by polling another session or by polling themselves.
+            if (session.pollScheduler() == this)
+            {
+                actions += session.poll(timeInMs);
+
+                if (session.pollScheduler() == this)
+                {
+                    schedule(session);
+                }
+            }
+        }
+        dueSessions.clear();
+
+        return actions;
+    }
+
+    public boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId)
+    {
+        final Session session = timerIdToSession.remove(timerId);
+        session.pollTimerId(NULL_TIMER);
+        dueSessions.add(session);
+
+        return true;
+    }
+
+    void schedule(final Session session)
+    {
+        cancel(session);
+
+        final long pollTimeInMs = session.nextPollTimeInMs();
+        if (pollTimeInMs != NO_POLL_TIME)
+        {
+            final DeadlineTimerWheel timerWheel = this.timerWheel;
+            if (timerWheel.timerCount() == 0)
+            {
+                // Avoids the wheel having to catch up on the ticks that passed whilst it was empty.
+                timerWheel.resetStartTime(clock.time());
+            }
+
+            final long timerId = timerWheel.scheduleTimer(pollTimeInMs);
+            session.pollTimerId(timerId);
+            timerIdToSession.put(timerId, session);
+        }
+    }
+
+    void remove(final Session session)
+    {
+        cancel(session);
+        session.pollScheduler(null);
+    }
+
+    private void cancel(final Session session)
+    {
+        final long timerId = session.pollTimerId();
+        if (timerId != NULL_TIMER)
+        {
+            timerWheel.cancelTimer(timerId);
+            timerIdToSession.remove(timerId);
+            session.pollTimerId(NULL_TIMER);
+        }
+    }
+}
@@ -17,20 +17,43 @@ package uk.co.real_logic.artio.timing;
 
 import uk.co.real_logic.artio.Clock;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class EngineTimers
 {
     private final Timer outboundTimer;
     private final Timer sendTimer;
-    private final List<Timer> timers;
+    private final List<Timer> framerStageTimers;
+    private final List<Timer> timers = new ArrayList<>();
 
     public EngineTimers(final Clock clock)
+    {
+        this(clock, false);
+    }
+
+    public EngineTimers(final Clock clock, final boolean framerProfiling)
     {
         outboundTimer = new Timer(clock, "Outbound", 1);
         sendTimer = new Timer(clock, "Send", 2);
-        timers = Arrays.asList(outboundTimer, sendTimer);
+        timers.add(outboundTimer);
+        timers.add(sendTimer);
+
+        if (framerProfiling)
+        {
+            final List<Timer> framerStageTimers = new ArrayList<>();
+            for (final FramerStage stage : FramerStage.values())
+            {
+                framerStageTimers.add(new Timer(clock, stage.displayName(), timers.size() + 1));
+                timers.add(framerStageTimers.get(stage.ordinal()));
+            }
+            this.framerStageTimers = Collections.unmodifiableList(framerStageTimers);
+        }
+        else
+        {
+            this.framerStageTimers = Collections.emptyList();
+        }
     }
 
     public Timer outboundTimer()
@@ -43,6 +66,16 @@ public class EngineTimers
         return sendTimer;
     }
 
+    /**
+     * Gets the timers for each stage of the Framer's duty cycle, indexed by {@link FramerStage#ordinal()}.
+     *
+     * @return the timers for each stage of the Framer's duty cycle, or an empty list if framer profiling is off.
+     */
+    public List<Timer> framerStageTimers()
+    {
+        return framerStageTimers;
+    }
+
     public List<Timer> all()
     {
         return timers;
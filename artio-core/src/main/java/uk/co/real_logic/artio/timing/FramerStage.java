@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+/**
+ * The stages of the Framer's duty cycle that are timed when framer profiling is switched on, in the order that the
+ * Framer executes them.
+ */
+public enum FramerStage
+{
+    RETRY_MANAGER("Framer Retry Manager"),
+    SPILLED_WRITES("Framer Spilled Writes"),
+    OUTBOUND("Framer Outbound Messages"),
+    REPLAY("Framer Replay Messages"),
+    END_POINTS("Framer End Points"),
+    NEW_CONNECTIONS("Framer New Connections"),
+    LIBRARIES("Framer Libraries"),
+    SESSIONS("Framer Sessions"),
+    TIMEOUTS("Framer Timeouts"),
+    ADMIN_COMMANDS("Framer Admin Commands"),
+    DUTY_CYCLE_CHECKS("Framer Duty Cycle Checks");
+
+    private final String displayName;
+
+    FramerStage(final String displayName)
+    {
+        this.displayName = displayName;
+    }
+
+    public String displayName()
+    {
+        return displayName;
+    }
+}
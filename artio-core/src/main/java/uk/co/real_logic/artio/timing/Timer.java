@@ -54,7 +54,7 @@ public class Timer
         return 0;
     }
 
-    void recordValue(final long duration)
+    public void recordValue(final long duration)
     {
         recorder.recordValue(duration);
     }
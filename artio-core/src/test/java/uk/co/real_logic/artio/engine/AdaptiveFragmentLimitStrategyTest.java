@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.Clock;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.real_logic.artio.engine.AdaptiveFragmentLimitStrategy.MAX_LIMIT_MULTIPLIER;
+import static uk.co.real_logic.artio.engine.FragmentLimitStrategy.NO_OUTBOUND_MESSAGES;
+
+public class AdaptiveFragmentLimitStrategyTest
+{
+    private static final int OUTBOUND_LIMIT = 100;
+    private static final int REPLAY_LIMIT = 4;
+    private static final long TARGET_LATENCY_IN_NS = 1_000;
+    private static final long NOW = 1_000_000;
+
+    private final Clock clock = mock(Clock.class);
+    private final AdaptiveFragmentLimitStrategy strategy = new AdaptiveFragmentLimitStrategy(
+        OUTBOUND_LIMIT, REPLAY_LIMIT, TARGET_LATENCY_IN_NS, clock);
+
+    @Before
+    public void setUp()
+    {
+        when(clock.time()).thenReturn(NOW);
+    }
+
+    @Test
+    public void shouldGrowReplayLimitWhilstReplayHasABacklog()
+    {
+        strategy.onPoll(0, REPLAY_LIMIT, NO_OUTBOUND_MESSAGES);
+        strategy.onPoll(0, REPLAY_LIMIT + 1, NO_OUTBOUND_MESSAGES);
+
+        assertLimits(OUTBOUND_LIMIT, REPLAY_LIMIT + 2);
+    }
+
+    @Test
+    public void shouldShrinkReplayLimitBackOnceBacklogIsRead()
+    {
+        strategy.onPoll(0, REPLAY_LIMIT, NO_OUTBOUND_MESSAGES);
+        strategy.onPoll(0, 0, NO_OUTBOUND_MESSAGES);
+        strategy.onPoll(0, 0, NO_OUTBOUND_MESSAGES);
+
+        assertLimits(OUTBOUND_LIMIT, REPLAY_LIMIT);
+    }
+
+    @Test
+    public void shouldNotGrowLimitsBeyondMaximum()
+    {
+        for (int i = 0; i < REPLAY_LIMIT * MAX_LIMIT_MULTIPLIER * 2; i++)
+        {
+            strategy.onPoll(
+                strategy.outboundLibraryFragmentLimit(), strategy.replayFragmentLimit(), NOW);
+        }
+
+        assertLimits(OUTBOUND_LIMIT * MAX_LIMIT_MULTIPLIER, REPLAY_LIMIT * MAX_LIMIT_MULTIPLIER);
+    }
+
+    @Test
+    public void shouldFavourLiveMessagesWhenTheyAreLate()
+    {
+        final long lateTimestamp = NOW - TARGET_LATENCY_IN_NS - 1;
+
+        strategy.onPoll(OUTBOUND_LIMIT, REPLAY_LIMIT, lateTimestamp);
+        assertLimits(OUTBOUND_LIMIT * 2, REPLAY_LIMIT / 2);
+
+        strategy.onPoll(0, REPLAY_LIMIT, lateTimestamp);
+        strategy.onPoll(0, REPLAY_LIMIT, lateTimestamp);
+        assertLimits(OUTBOUND_LIMIT * 2, 1);
+    }
+
+    @Test
+    public void shouldNotFavourLiveMessagesWithinTargetLatency()
+    {
+        strategy.onPoll(1, REPLAY_LIMIT, NOW - TARGET_LATENCY_IN_NS);
+
+        assertLimits(OUTBOUND_LIMIT, REPLAY_LIMIT + 1);
+    }
+
+    private void assertLimits(final int outboundLimit, final int replayLimit)
+    {
+        assertEquals(outboundLimit, strategy.outboundLibraryFragmentLimit());
+        assertEquals(replayLimit, strategy.replayFragmentLimit());
+    }
+}
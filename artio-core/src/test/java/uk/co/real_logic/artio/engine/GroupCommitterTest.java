@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.concurrent.EpochClock;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.DurabilityPolicy.*;
+
+public class GroupCommitterTest
+{
+    private static final long PERIOD_IN_MS = 100;
+    private static final int BATCH_SIZE = 3;
+
+    private final EpochClock clock = mock(EpochClock.class);
+    private final GroupCommitter.Syncable firstIndex = mock(GroupCommitter.Syncable.class);
+    private final GroupCommitter.Syncable secondIndex = mock(GroupCommitter.Syncable.class);
+
+    @Test
+    public void shouldSyncEachWrittenIndexOncePerTermRoll()
+    {
+        final GroupCommitter committer = newCommitter(PER_TERM);
+
+        committer.onWrite(firstIndex);
+        committer.onWrite(secondIndex);
+        committer.onWrite(firstIndex);
+        committer.onMessage();
+        verifyNoMoreInteractions(firstIndex, secondIndex);
+
+        committer.onTermRoll();
+
+        verify(firstIndex).sync();
+        verify(secondIndex).sync();
+        verifyNoMoreInteractions(firstIndex, secondIndex);
+    }
+
+    @Test
+    public void shouldSyncStandaloneWritesImmediatelyPerTerm()
+    {
+        final GroupCommitter committer = newCommitter(PER_TERM);
+
+        committer.onStandaloneWrite(firstIndex);
+
+        verify(firstIndex).sync();
+    }
+
+    @Test
+    public void shouldSyncOnceBatchOfMessagesIsIndexed()
+    {
+        final GroupCommitter committer = newCommitter(PER_N_MESSAGES);
+
+        for (int i = 1; i < BATCH_SIZE; i++)
+        {
+            committer.onWrite(firstIndex);
+            committer.onMessage();
+        }
+        committer.onTermRoll();
+        verifyNoMoreInteractions(firstIndex);
+
+        committer.onWrite(firstIndex);
+        committer.onMessage();
+
+        verify(firstIndex).sync();
+    }
+
+    @Test
+    public void shouldSyncPartialBatchOfMessagesOnClose()
+    {
+        final GroupCommitter committer = newCommitter(PER_N_MESSAGES);
+
+        committer.onWrite(firstIndex);
+        committer.onMessage();
+        committer.onStandaloneWrite(secondIndex);
+        verifyNoMoreInteractions(firstIndex, secondIndex);
+
+        committer.onClose();
+
+        verify(firstIndex).sync();
+        verify(secondIndex).sync();
+        verifyNoMoreInteractions(firstIndex, secondIndex);
+    }
+
+    @Test
+    public void shouldSyncPeriodically()
+    {
+        final GroupCommitter committer = newCommitter(PERIODIC);
+        when(clock.time()).thenReturn(PERIOD_IN_MS);
+
+        committer.onWrite(firstIndex);
+        assertEquals(1, committer.doWork());
+
+        committer.onWrite(firstIndex);
+        when(clock.time()).thenReturn(2 * PERIOD_IN_MS - 1);
+        assertEquals(0, committer.doWork());
+
+        when(clock.time()).thenReturn(2 * PERIOD_IN_MS);
+        assertEquals(1, committer.doWork());
+
+        verify(firstIndex, times(2)).sync();
+    }
+
+    @Test
+    public void shouldNeverSyncWithoutDurability()
+    {
+        final GroupCommitter committer = newCommitter(NONE);
+
+        committer.onStandaloneWrite(firstIndex);
+        committer.onWrite(secondIndex);
+        committer.onTermRoll();
+        committer.onClose();
+
+        verifyNoMoreInteractions(firstIndex, secondIndex);
+    }
+
+    private GroupCommitter newCommitter(final DurabilityPolicy policy)
+    {
+        return new GroupCommitter(policy, PERIOD_IN_MS, BATCH_SIZE, clock, "groupCommitter");
+    }
+}
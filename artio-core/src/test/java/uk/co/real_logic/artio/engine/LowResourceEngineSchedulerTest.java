@@ -19,15 +19,18 @@ import org.agrona.ErrorHandler;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.BusySpinIdleStrategy;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import java.io.IOException;
 
+import static java.util.Collections.singletonList;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.Timing.assertEventuallyTrue;
 
 public class LowResourceEngineSchedulerTest
 {
     private Agent framer = mock(Agent.class);
+    private Agent framerShard = mock(Agent.class);
     private Agent archivingAgent = mock(Agent.class);
     private Agent monitoringAgent = mock(Agent.class);
     private EngineConfiguration configuration = mock(EngineConfiguration.class);
@@ -59,4 +62,33 @@ public class LowResourceEngineSchedulerTest
             );
         }
     }
+
+    @Test
+    public void shouldRunFramerShardsAfterFramer() throws Exception
+    {
+        when(configuration.framerIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.threadFactory()).thenReturn(Thread::new);
+
+        try (EngineScheduler scheduler = new LowResourceEngineScheduler())
+        {
+            scheduler.launch(
+                configuration,
+                mockErrorHandler,
+                framer,
+                singletonList(framerShard),
+                archivingAgent,
+                monitoringAgent,
+                conductorAgent,
+                recordingCoordinator);
+
+            assertEventuallyTrue(
+                "Failed to invoke framer shard",
+                () -> verify(framerShard, atLeastOnce()).doWork()
+            );
+        }
+
+        final InOrder inOrder = inOrder(framer, framerShard);
+        inOrder.verify(framer).onClose();
+        inOrder.verify(framerShard).onClose();
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import io.aeron.logbuffer.BufferClaim;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.logger.AbstractLogTest;
+import uk.co.real_logic.artio.engine.logger.ReplayQuery;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.framer.CatchupReplayer.FRAME_LENGTH;
+import static uk.co.real_logic.artio.messages.MessageStatus.CATCHUP_REPLAY;
+import static uk.co.real_logic.artio.session.Session.ENGINE_SENDING_TIME_PLACEHOLDER;
+
+public class CatchupReplayerTest extends AbstractLogTest
+{
+    private static final long CORRELATION_ID = 3;
+    private static final int UNUSED_CLAIM_LENGTH = 100;
+    private static final long ENQUEUE_TIME_IN_MS = 1_546_398_245_006L;
+
+    private final GatewayPublication inboundPublication = mock(GatewayPublication.class);
+    private final EpochClock clock = mock(EpochClock.class);
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+
+    private UnsafeBuffer resentBuffer;
+    private CatchupReplayer catchupReplayer;
+
+    @Before
+    public void setUp()
+    {
+        when(inboundPublication.maxPayloadLength()).thenReturn(BIG_BUFFER_LENGTH);
+        when(inboundPublication.claim(anyInt(), any(BufferClaim.class))).then(inv ->
+        {
+            final int length = inv.getArgument(0);
+            final BufferClaim bufferClaim = inv.getArgument(1);
+            resentBuffer = new UnsafeBuffer(new byte[HEADER_LENGTH + length]);
+            bufferClaim.wrap(resentBuffer, 0, HEADER_LENGTH + length);
+            return 1L;
+        });
+
+        catchupReplayer = new CatchupReplayer(
+            mock(ReplayQuery.class),
+            inboundPublication,
+            errorHandler,
+            CORRELATION_ID,
+            CONNECTION_ID,
+            LIBRARY_ID,
+            SEQUENCE_NUMBER,
+            SEQUENCE_INDEX,
+            SEQUENCE_NUMBER,
+            SEQUENCE_INDEX,
+            mock(GatewaySession.class),
+            1000,
+            clock);
+    }
+
+    @Test
+    public void shouldReplayMessageWithPossDupFlag()
+    {
+        bufferContainsExampleMessage(false);
+
+        assertEquals(CONTINUE, catchupReplayer.onFragment(buffer, START, fragmentLength(), null));
+
+        assertResentWithPossDupFlag();
+    }
+
+    @Test
+    public void shouldNotReplaySpaceClaimedForMessageButNotUsed()
+    {
+        bufferContainsExampleMessage(false);
+
+        assertEquals(CONTINUE, catchupReplayer.onFragment(
+            buffer, START, fragmentLength() + UNUSED_CLAIM_LENGTH, null));
+
+        assertResentWithPossDupFlag();
+    }
+
+    @Test
+    public void shouldReplaceEngineSendingTimePlaceholderWithEnqueueTimeAsOrigSendingTime()
+    {
+        bufferContainsExampleMessage(false);
+        messageFrame.enqueueTimeInMs(ENQUEUE_TIME_IN_MS);
+        assertThat(
+            new MutableAsciiBuffer(buffer).getAscii(offset, logEntryLength),
+            containsString("\00152=" + ENGINE_SENDING_TIME_PLACEHOLDER + "\001"));
+
+        assertEquals(CONTINUE, catchupReplayer.onFragment(buffer, START, fragmentLength(), null));
+
+        final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+        final int timestampLength = timestampEncoder.encode(ENQUEUE_TIME_IN_MS);
+        final String enqueueTime = new String(timestampEncoder.buffer(), 0, timestampLength, US_ASCII);
+        assertThat(assertResentWithPossDupFlag(), containsString("\001122=" + enqueueTime + "\001"));
+    }
+
+    private String assertResentWithPossDupFlag()
+    {
+        verifyNoMoreInteractions(errorHandler);
+
+        messageHeader.wrap(resentBuffer, HEADER_LENGTH);
+        fixMessage.wrap(
+            resentBuffer,
+            HEADER_LENGTH + MessageHeaderDecoder.ENCODED_LENGTH,
+            messageHeader.blockLength(),
+            messageHeader.version());
+
+        assertEquals(CATCHUP_REPLAY, fixMessage.status());
+        assertEquals(LIBRARY_ID, fixMessage.libraryId());
+
+        final int bodyLength = fixMessage.bodyLength();
+        assertEquals(FRAME_LENGTH + bodyLength, resentBuffer.capacity() - HEADER_LENGTH);
+
+        final String resentMessage = new MutableAsciiBuffer(resentBuffer)
+            .getAscii(HEADER_LENGTH + FRAME_LENGTH, bodyLength);
+        assertThat(resentMessage, containsString("\00143=Y\001"));
+        assertEquals(resentMessage.length() - 8, resentMessage.lastIndexOf("\00110="));
+        assertThat(resentMessage, endsWith("\001"));
+
+        return resentMessage;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.Clock;
+import uk.co.real_logic.artio.FixCounters;
+import uk.co.real_logic.artio.timing.EngineTimers;
+import uk.co.real_logic.artio.timing.FramerStage;
+import uk.co.real_logic.artio.timing.Timer;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class FramerProfilerTest
+{
+    private final Clock clock = mock(Clock.class);
+    private final FixCounters fixCounters = mock(FixCounters.class);
+    private final AtomicCounter outboundTime = mock(AtomicCounter.class);
+    private final AtomicCounter outboundWork = mock(AtomicCounter.class);
+    private final AtomicCounter otherCounter = mock(AtomicCounter.class);
+    private final List<Timer> timers = new EngineTimers(clock, true).framerStageTimers();
+
+    private FramerProfiler profiler;
+
+    @Before
+    public void setUp()
+    {
+        when(fixCounters.framerStageTime(anyString())).thenReturn(otherCounter);
+        when(fixCounters.framerStageWork(anyString())).thenReturn(otherCounter);
+        when(fixCounters.framerStageTime(FramerStage.OUTBOUND.displayName())).thenReturn(outboundTime);
+        when(fixCounters.framerStageWork(FramerStage.OUTBOUND.displayName())).thenReturn(outboundWork);
+
+        profiler = new FramerProfiler(clock, timers, fixCounters);
+    }
+
+    @Test
+    public void shouldHaveATimerForEachStage()
+    {
+        assertEquals(FramerStage.values().length, timers.size());
+    }
+
+    @Test
+    public void shouldRecordTimeAndWorkOfStage()
+    {
+        when(clock.time()).thenReturn(150L);
+
+        final long time = profiler.onStageComplete(FramerStage.OUTBOUND, 100L, 3);
+
+        assertEquals(150L, time);
+        verify(outboundTime).getAndAddOrdered(50L);
+        verify(outboundWork).getAndAddOrdered(3L);
+        verifyNoMoreInteractions(otherCounter);
+    }
+
+    @Test
+    public void shouldNotRecordWorkOfIdleStage()
+    {
+        when(clock.time()).thenReturn(150L);
+
+        profiler.onStageComplete(FramerStage.OUTBOUND, 100L, 0);
+
+        verify(outboundTime).getAndAddOrdered(50L);
+        verify(outboundWork, never()).getAndAddOrdered(anyLong());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
+import org.agrona.concurrent.QueuedPipe;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class FramerShardTest
+{
+    private final GatewayPublication inboundPublication = mock(GatewayPublication.class);
+    private final QueuedPipe<ReceiverEndPoint> shardDisconnects = new ManyToOneConcurrentArrayQueue<>(1);
+    private final ReceiverEndPoint endPoint = mock(ReceiverEndPoint.class);
+    private final ReceiverEndPoint otherEndPoint = mock(ReceiverEndPoint.class);
+
+    private FramerShard shard;
+
+    @Before
+    public void setUp()
+    {
+        shard = new FramerShard(1, inboundPublication, null, shardDisconnects, "");
+    }
+
+    @After
+    public void close()
+    {
+        shard.onClose();
+    }
+
+    @Test
+    public void shouldPollEndPointOnceHandedOver() throws Exception
+    {
+        handOver(endPoint);
+
+        verify(endPoint, never()).poll();
+
+        shard.doWork();
+
+        verify(endPoint).registerWithShard(any());
+        verify(endPoint).poll();
+    }
+
+    @Test
+    public void shouldNotPollEndPointOnceRecalled()
+    {
+        handOver(endPoint);
+        shard.doWork();
+
+        recall(endPoint);
+        shard.doWork();
+        shard.doWork();
+
+        verify(endPoint).deregisterFromShard();
+        verify(endPoint, times(1)).poll();
+    }
+
+    @Test
+    public void shouldNotPollEndPointRecalledBeforeShardTakesOver() throws Exception
+    {
+        handOver(endPoint);
+        recall(endPoint);
+
+        shard.doWork();
+
+        verify(endPoint, never()).registerWithShard(any());
+        verify(endPoint, never()).poll();
+    }
+
+    @Test
+    public void shouldNotPollEndPointRecalledBeforeShardRemovesIt()
+    {
+        handOver(endPoint);
+        shard.doWork();
+
+        // The Framer has recalled the end point, but the shard hasn't completed the hand over yet.
+        when(endPoint.shard()).thenReturn(null);
+        shard.poll(endPoint);
+
+        verify(endPoint, times(1)).poll();
+    }
+
+    @Test(timeout = 10_000L)
+    public void shouldWaitForShardToFinishPollingEndPointBeforeRecallCompletes() throws Exception
+    {
+        final CountDownLatch polling = new CountDownLatch(1);
+        final CountDownLatch finishPolling = new CountDownLatch(1);
+        when(endPoint.poll()).then(inv ->
+        {
+            polling.countDown();
+            finishPolling.await();
+            return 1;
+        });
+        handOver(endPoint);
+
+        final Thread shardThread = new Thread(shard::doWork);
+        shardThread.start();
+        polling.await();
+
+        final Thread framerThread = new Thread(() -> shard.remove(endPoint));
+        framerThread.start();
+        framerThread.join(100);
+        assertTrue("Recall completed whilst the end point was being polled", framerThread.isAlive());
+
+        finishPolling.countDown();
+        framerThread.join();
+        shardThread.join();
+    }
+
+    @Test
+    public void shouldReportDisconnectsToFramer()
+    {
+        disconnectOnPoll(endPoint);
+        handOver(endPoint);
+
+        shard.doWork();
+
+        assertSame(endPoint, shardDisconnects.poll());
+    }
+
+    @Test
+    public void shouldRetryReportingDisconnectsInOrderWhenFramerIsBehind()
+    {
+        disconnectOnPoll(endPoint);
+        disconnectOnPoll(otherEndPoint);
+        assertTrue(shardDisconnects.offer(mock(ReceiverEndPoint.class)));
+        handOver(endPoint);
+        shard.doWork();
+        recall(endPoint);
+        handOver(otherEndPoint);
+        shard.doWork();
+
+        assertNotNull(shardDisconnects.poll());
+        assertNull(shardDisconnects.poll());
+
+        shard.doWork();
+        assertSame(endPoint, shardDisconnects.poll());
+
+        shard.doWork();
+        assertSame(otherEndPoint, shardDisconnects.poll());
+    }
+
+    // End points stop reading once they've detected a disconnect
+    private void disconnectOnPoll(final ReceiverEndPoint endPoint)
+    {
+        when(endPoint.poll()).then(inv ->
+        {
+            shard.onDisconnectDetected(endPoint);
+            return 0;
+        }).thenReturn(0);
+    }
+
+    // Mirrors ReceiverEndPoint.moveToShard()
+    private void handOver(final ReceiverEndPoint endPoint)
+    {
+        when(endPoint.shard()).thenReturn(shard);
+        shard.add(endPoint);
+    }
+
+    // Mirrors ReceiverEndPoint.recallFromShard()
+    private void recall(final ReceiverEndPoint endPoint)
+    {
+        when(endPoint.shard()).thenReturn(null);
+        shard.remove(endPoint);
+    }
+}
@@ -23,6 +23,7 @@ import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
 import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.QueuedPipe;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 import org.junit.After;
@@ -33,6 +34,7 @@ import org.mockito.verification.VerificationMode;
 import uk.co.real_logic.artio.Timing;
 import uk.co.real_logic.artio.engine.CompletionPosition;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.FragmentLimitStrategy;
 import uk.co.real_logic.artio.engine.RecordingCoordinator;
 import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.engine.framer.SubscriptionSlowPeeker.LibrarySlowPeeker;
@@ -168,6 +170,7 @@ public class FramerTest
             mock(Timer.class),
             engineConfiguration,
             mockEndPointFactory,
+            new ReceiverEndPoints(),
             outboundLibrarySubscription,
             outboundSlowSubscription,
             replayImage,
@@ -187,7 +190,12 @@ public class FramerTest
             mock(CompletionPosition.class),
             finalImagePositions,
             mock(AgentInvoker.class),
-            mock(RecordingCoordinator.class));
+            mock(RecordingCoordinator.class),
+            null,
+            FragmentLimitStrategy.staticLimits(
+                engineConfiguration.outboundLibraryFragmentLimit(), engineConfiguration.replayFragmentLimit()),
+            mock(AtomicCounter.class),
+            mock(AtomicCounter.class));
 
         when(sessionContexts.onLogon(any())).thenReturn(new SessionContext(SESSION_ID,
             SessionContext.UNKNOWN_SEQUENCE_INDEX,
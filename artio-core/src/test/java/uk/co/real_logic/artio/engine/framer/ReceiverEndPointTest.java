@@ -72,6 +72,8 @@ public class ReceiverEndPointTest
     private GatewaySession gatewaySession = mock(GatewaySession.class);
     private Session session = mock(Session.class);
     private GatewaySessions mockGatewaySessions = mock(GatewaySessions.class);
+    private AtomicCounter buffersBorrowed = mock(AtomicCounter.class);
+    private AtomicCounter buffersPooled = mock(AtomicCounter.class);
     private CompositeKey sessionKey = SessionIdStrategy
         .senderAndTarget()
         .onInitiateLogon("ACCEPTOR", "", "", "INIATOR", "", "");
@@ -131,12 +133,31 @@ public class ReceiverEndPointTest
     }
 
     private void givenReceiverEndPoint(final long sessionId)
+    {
+        givenReceiverEndPoint(sessionId, false, null);
+    }
+
+    private void givenAPooledReceiverEndPoint()
+    {
+        givenReceiverEndPoint(
+            SESSION_ID, false, new ReceiveBufferPool(BUFFER_SIZE, 2, buffersBorrowed, buffersPooled));
+    }
+
+    private void givenADeferredCompactionReceiverEndPoint()
+    {
+        givenReceiverEndPoint(SESSION_ID, true, null);
+    }
+
+    private void givenReceiverEndPoint(
+        final long sessionId,
+        final boolean deferredCompaction,
+        final ReceiveBufferPool receiveBufferPool)
     {
         endPoint = new ReceiverEndPoint(
             mockChannel, BUFFER_SIZE, publication,
             CONNECTION_ID, sessionId, SEQUENCE_INDEX, mockSessionContexts,
             messagesRead, framer, errorHandler, LIBRARY_ID,
-            mockGatewaySessions);
+            mockGatewaySessions, deferredCompaction, receiveBufferPool);
         endPoint.gatewaySession(gatewaySession);
     }
 
@@ -436,6 +457,136 @@ public class ReceiverEndPointTest
         savesFramedMessages(1, OK, LOGON_LEN, LogonDecoder.MESSAGE_TYPE);
     }
 
+    @Test
+    public void shouldNotBorrowABufferWhenAllReadDataIsFramed()
+    {
+        givenAPooledReceiverEndPoint();
+
+        theEndpointReceivesACompleteMessage();
+        endPoint.poll();
+
+        savesAFramedMessage();
+        sessionReceivesOneMessage();
+        verify(buffersBorrowed, never()).increment();
+    }
+
+    @Test
+    public void shouldBorrowABufferWhilstAMessageIsIncomplete()
+    {
+        givenAPooledReceiverEndPoint();
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+
+        verify(buffersBorrowed).increment();
+        nothingMoreSaved();
+
+        theEndpointReceivesTheRestOfTheMessage();
+        endPoint.poll();
+
+        savesAFramedMessage();
+        sessionReceivesOneMessage();
+        verify(buffersBorrowed).getAndAdd(-1);
+        verify(buffersPooled).increment();
+    }
+
+    @Test
+    public void shouldBorrowABufferWhenBackpressured()
+    {
+        givenAPooledReceiverEndPoint();
+        firstSaveAttemptIsBackPressured();
+
+        theEndpointReceivesACompleteMessage();
+        endPoint.poll();
+
+        verify(buffersBorrowed).increment();
+
+        theEndpointReceivesNothing();
+        endPoint.poll();
+
+        savesFramedMessages(2, OK, MSG_LEN);
+        sessionReceivesOneMessage();
+        verify(buffersBorrowed).getAndAdd(-1);
+    }
+
+    @Test
+    public void shouldReleaseBorrowedBufferWhenClosed()
+    {
+        givenAPooledReceiverEndPoint();
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+
+        endPoint.close(REMOTE_DISCONNECT);
+
+        verify(buffersBorrowed).increment();
+        verify(buffersBorrowed).getAndAdd(-1);
+        verify(buffersPooled).increment();
+    }
+
+    @Test
+    public void shouldFrameSecondSplitMessageWithoutCompactingWhenCompactionIsDeferred()
+    {
+        givenADeferredCompactionReceiverEndPoint();
+
+        theEndpointReceivesACompleteAndAnIncompleteMessage();
+        endPoint.poll();
+
+        theEndpointReceivesTheRestOfTheMessage();
+        assertEquals(8 + MSG_LEN, endPoint.poll());
+
+        savesTwoFramedMessages(1);
+        sessionReceivesTwoMessages();
+    }
+
+    @Test
+    public void shouldFrameBackpressuredMessageInPlaceWhenCompactionIsDeferred()
+    {
+        givenADeferredCompactionReceiverEndPoint();
+        when(publication.saveMessage(
+            anyBuffer(), eq(MSG_LEN), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt()))
+            .thenReturn(BACK_PRESSURED, POSITION);
+
+        theEndpointReceivesTwoCompleteMessages();
+        endPoint.poll();
+
+        theEndpointReceivesNothing();
+        endPoint.poll();
+
+        savesAFramedMessage();
+        verify(publication, times(2)).saveMessage(
+            anyBuffer(), eq(MSG_LEN), eq(MSG_LEN), eq(LIBRARY_ID), eq(MESSAGE_TYPE),
+            eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID), eq(OK), eq(0));
+        sessionReceivesTwoMessages();
+    }
+
+    @Test
+    public void shouldCompactOnceBufferIsLowOnSpaceWhenCompactionIsDeferred()
+    {
+        givenADeferredCompactionReceiverEndPoint();
+
+        final int completeMessages = BUFFER_SIZE / MSG_LEN;
+        final int incompleteLength = BUFFER_SIZE - completeMessages * MSG_LEN;
+        endpointBufferUpdatedWith(
+            (buffer) ->
+            {
+                for (int i = 0; i < completeMessages; i++)
+                {
+                    buffer.put(EG_MESSAGE);
+                }
+                buffer.put(EG_MESSAGE, 0, incompleteLength);
+                return BUFFER_SIZE;
+            });
+        endPoint.poll();
+
+        theEndpointReceives(EG_MESSAGE, incompleteLength, MSG_LEN - incompleteLength);
+        endPoint.poll();
+
+        // The first message and the compacted last message are both framed at the start of the buffer
+        savesFramedMessages(2, OK, MSG_LEN);
+        sessionReceivesMessageAt(0, MSG_LEN, times(2));
+    }
+
     private void firstSaveAttemptIsBackPressured()
     {
         when(publication
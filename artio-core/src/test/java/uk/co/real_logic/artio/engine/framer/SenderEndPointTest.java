@@ -51,6 +51,7 @@ public class SenderEndPointTest
     private static final int FRAGMENT_LENGTH = alignTerm(HEADER_LENGTH + FRAME_SIZE + BODY_LENGTH);
     private static final long BEGIN_POSITION = 8000;
     private static final int MAX_BYTES_IN_BUFFER = 3 * BODY_LENGTH;
+    private static final int COALESCING_BUFFER_SIZE = 3 * BODY_LENGTH;
 
     private TcpChannel tcpChannel = mock(TcpChannel.class);
     private AtomicCounter bytesInBuffer = fakeCounter();
@@ -76,7 +77,54 @@ public class SenderEndPointTest
         MAX_BYTES_IN_BUFFER,
         DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
         0,
-        senderSequenceNumber);
+        senderSequenceNumber,
+        0,
+        null,
+        null,
+        false,
+        null);
+
+    private AtomicCounter coalescedWrites = fakeCounter();
+    private AtomicCounter coalescedMessages = fakeCounter();
+    private SenderEndPoint coalescingEndPoint = new SenderEndPoint(
+        CONNECTION_ID,
+        LIBRARY_ID,
+        libraryBlockablePosition,
+        replayBlockablePosition,
+        tcpChannel,
+        bytesInBuffer,
+        invalidLibraryAttempts,
+        errorHandler,
+        framer,
+        MAX_BYTES_IN_BUFFER,
+        DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+        0,
+        senderSequenceNumber,
+        COALESCING_BUFFER_SIZE,
+        coalescedWrites,
+        coalescedMessages,
+        false,
+        null);
+
+    private SenderEndPoint spillingEndPoint = new SenderEndPoint(
+        CONNECTION_ID,
+        LIBRARY_ID,
+        libraryBlockablePosition,
+        replayBlockablePosition,
+        tcpChannel,
+        bytesInBuffer,
+        invalidLibraryAttempts,
+        errorHandler,
+        framer,
+        MAX_BYTES_IN_BUFFER,
+        DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+        0,
+        senderSequenceNumber,
+        0,
+        null,
+        null,
+        true,
+        null);
 
     @Test
     public void shouldRetrySlowConsumerMessage()
@@ -416,6 +464,134 @@ public class SenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    @Test
+    public void shouldCoalesceMessagesUntilFlushed() throws IOException
+    {
+        onCoalescedOutboundMessage(POSITION);
+        onCoalescedOutboundMessage(POSITION + FRAGMENT_LENGTH);
+        verify(tcpChannel, never()).write(any(ByteBuffer.class));
+
+        coalescedChannelWillWrite(2 * BODY_LENGTH);
+        assertEquals(2, coalescingEndPoint.flush(100));
+
+        verify(tcpChannel, times(1)).write(any(ByteBuffer.class));
+        assertEquals(1, coalescedWrites.get());
+        assertEquals(2, coalescedMessages.get());
+        assertEquals(0, coalescingEndPoint.flush(100));
+        assertBytesInBuffer(0);
+        verifyDoesNotBlockLibrary();
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldFlushWhenCoalescingBufferIsFull() throws IOException
+    {
+        coalescedChannelWillWrite(3 * BODY_LENGTH);
+
+        onCoalescedOutboundMessage(POSITION);
+        onCoalescedOutboundMessage(POSITION + FRAGMENT_LENGTH);
+        onCoalescedOutboundMessage(POSITION + 2 * FRAGMENT_LENGTH);
+        verify(tcpChannel, never()).write(any(ByteBuffer.class));
+
+        onCoalescedOutboundMessage(POSITION + 3 * FRAGMENT_LENGTH);
+        verify(tcpChannel, times(1)).write(any(ByteBuffer.class));
+        assertEquals(3, coalescedMessages.get());
+
+        assertEquals(1, coalescingEndPoint.flush(100));
+        assertEquals(4, coalescedMessages.get());
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldBecomeSlowConsumerWhenCoalescedWriteIsPartial()
+    {
+        final int partialWrite = 10;
+        coalescedChannelWillWrite(BODY_LENGTH + partialWrite);
+
+        onCoalescedOutboundMessage(POSITION);
+        onCoalescedOutboundMessage(POSITION + FRAGMENT_LENGTH);
+        onCoalescedOutboundMessage(POSITION + 2 * FRAGMENT_LENGTH);
+        coalescingEndPoint.flush(100);
+
+        assertBytesInBuffer(2 * BODY_LENGTH - partialWrite);
+        verify(framer).slowStatus(LIBRARY_ID, CONNECTION_ID, true);
+        verifySlowConsumerDisconnect(never());
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldSpillUnsentSlowConsumerMessageRatherThanBlock() throws IOException
+    {
+        channelWillWrite(0);
+        spillingEndPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, POSITION, 0);
+        byteBufferWritten();
+
+        final int firstWrites = 41;
+        final int remaining = BODY_LENGTH - firstWrites;
+        channelWillWrite(firstWrites);
+        onSlowOutboundMessage(spillingEndPoint, POSITION);
+        byteBufferWritten();
+        verifyDoesNotBlockLibrary();
+        assertTrue(spillingEndPoint.hasSpilledData());
+        assertBytesInBuffer(remaining);
+
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(remaining);
+        assertEquals(remaining, spillingEndPoint.writeSpilledData(100));
+
+        assertFalse(spillingEndPoint.hasSpilledData());
+        assertBytesInBuffer(0);
+        verify(framer).slowStatus(LIBRARY_ID, CONNECTION_ID, false);
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldSpillMessagesBehindSpilledData() throws IOException
+    {
+        channelWillWrite(0);
+        spillingEndPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, POSITION, 0);
+        spillingEndPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, POSITION + FRAGMENT_LENGTH, 0);
+        byteBufferWritten();
+        assertBytesInBuffer(2 * BODY_LENGTH);
+
+        channelWillWrite(0);
+        onSlowOutboundMessage(spillingEndPoint, POSITION);
+        byteBufferWritten();
+        onSlowOutboundMessage(spillingEndPoint, POSITION + FRAGMENT_LENGTH);
+        byteBufferNotWritten();
+
+        verifyDoesNotBlockLibrary();
+        assertBytesInBuffer(2 * BODY_LENGTH);
+
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(2 * BODY_LENGTH);
+        assertEquals(2 * BODY_LENGTH, spillingEndPoint.writeSpilledData(100));
+        assertBytesInBuffer(0);
+        verifySlowConsumerDisconnect(never());
+    }
+
+    private void onSlowOutboundMessage(final SenderEndPoint endPoint, final long position)
+    {
+        final Action action = endPoint.onSlowOutboundMessage(
+            buffer, HEADER_LENGTH, LENGTH, position, BODY_LENGTH, LIBRARY_ID, 100);
+        assertEquals(CONTINUE, action);
+    }
+
+    private void onCoalescedOutboundMessage(final long position)
+    {
+        coalescingEndPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, position, 100);
+    }
+
+    private void coalescedChannelWillWrite(final int bodyLength)
+    {
+        try
+        {
+            when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(bodyLength);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
     private void byteBufferNotWritten()
     {
         byteBufferWritten(never());
@@ -534,6 +710,10 @@ public class SenderEndPointTest
         when(atomicCounter.getAndAdd(anyLong())).then(add);
         when(atomicCounter.getAndAddOrdered(anyLong())).then(add);
 
+        final Answer<Long> increment = (inv) -> value.getAndIncrement();
+        when(atomicCounter.increment()).then(increment);
+        when(atomicCounter.incrementOrdered()).then(increment);
+
         return atomicCounter;
     }
 
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
+import static uk.co.real_logic.artio.session.Session.ENGINE_SENDING_TIME_PLACEHOLDER;
+
+public class SendingTimeStamperTest
+{
+    // 2019-03-15 12:34:56.789
+    private static final long TIME_IN_MS = 1552653296789L;
+    private static final String TIMESTAMP = "20190315-12:34:56.789";
+    private static final int OFFSET = 10;
+    private static final long POSITION = 1024;
+    private static final String PLACEHOLDER_MESSAGE = message(ENGINE_SENDING_TIME_PLACEHOLDER);
+    private static final String STAMPED_MESSAGE = message(TIMESTAMP);
+    private static final int SENDING_TIME_OFFSET = PLACEHOLDER_MESSAGE.indexOf("\00152=") + 4;
+
+    private long timeInMs = TIME_IN_MS;
+    private final SendingTimeStamper stamper = new SendingTimeStamper(() -> timeInMs);
+    private final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(byteBuffer);
+
+    @Test
+    public void shouldReadSendingTimeOffsetFromFrame()
+    {
+        final FixMessageEncoder messageFrame = new FixMessageEncoder();
+        messageFrame
+            .wrapAndApplyHeader(buffer, OFFSET, new MessageHeaderEncoder())
+            .sendingTimeOffset(SENDING_TIME_OFFSET);
+
+        assertEquals(
+            SENDING_TIME_OFFSET,
+            SendingTimeStamper.sendingTimeOffset(buffer, OFFSET + MessageHeaderEncoder.ENCODED_LENGTH + FRAME_SIZE));
+    }
+
+    @Test
+    public void shouldStampPlaceholderSendingTimeWithoutAlteringMessage()
+    {
+        final int length = putMessage();
+
+        stamper.stamp(buffer, OFFSET, length, SENDING_TIME_OFFSET, POSITION);
+
+        assertEquals(STAMPED_MESSAGE, written(stamper.buffers(byteBuffer, OFFSET, 0)));
+        assertEquals(PLACEHOLDER_MESSAGE, buffer.getAscii(OFFSET, length));
+        assertTrue(stamper.hasStamped(POSITION));
+    }
+
+    @Test
+    public void shouldStampPlaceholderSendingTimeInPlace()
+    {
+        final int length = putMessage();
+
+        stamper.stampInPlace(buffer, OFFSET, length, SENDING_TIME_OFFSET);
+
+        assertEquals(STAMPED_MESSAGE, buffer.getAscii(OFFSET, length));
+        assertValidChecksum(buffer, OFFSET, length);
+        assertFalse(stamper.hasStamped(POSITION));
+    }
+
+    @Test
+    public void shouldStampSendingTimeWithTimeOfStamping()
+    {
+        final int length = putMessage();
+        stamper.stampInPlace(buffer, OFFSET, length, SENDING_TIME_OFFSET);
+
+        putMessage();
+        timeInMs += 1;
+        stamper.stampInPlace(buffer, OFFSET, length, SENDING_TIME_OFFSET);
+
+        assertEquals(message("20190315-12:34:56.790"), buffer.getAscii(OFFSET, length));
+        assertValidChecksum(buffer, OFFSET, length);
+    }
+
+    @Test
+    public void shouldWriteRestOfPartiallyWrittenMessage()
+    {
+        final int length = putMessage();
+        stamper.stamp(buffer, OFFSET, length, SENDING_TIME_OFFSET, POSITION);
+
+        for (int bytesPreviouslySent = 1; bytesPreviouslySent < length; bytesPreviouslySent++)
+        {
+            assertEquals(
+                STAMPED_MESSAGE.substring(bytesPreviouslySent),
+                written(stamper.buffers(byteBuffer, OFFSET, bytesPreviouslySent)));
+        }
+    }
+
+    @Test
+    public void shouldCopyRestOfPartiallyWrittenMessage()
+    {
+        final int length = putMessage();
+        stamper.stamp(buffer, OFFSET, length, SENDING_TIME_OFFSET, POSITION);
+        final MutableAsciiBuffer destBuffer = new MutableAsciiBuffer(new byte[length]);
+
+        for (int bytesPreviouslySent = 0; bytesPreviouslySent < length; bytesPreviouslySent++)
+        {
+            stamper.getBytes(buffer, OFFSET, bytesPreviouslySent, destBuffer, 0);
+
+            assertEquals(
+                STAMPED_MESSAGE.substring(bytesPreviouslySent),
+                destBuffer.getAscii(0, length - bytesPreviouslySent));
+        }
+    }
+
+    @Test
+    public void shouldRetainPartiallyWrittenMessageStampedInPlace()
+    {
+        final int length = putMessage();
+        stamper.stampInPlace(buffer, OFFSET, length, SENDING_TIME_OFFSET);
+        final MutableAsciiBuffer coalescingBuffer = new MutableAsciiBuffer(new byte[1024]);
+        coalescingBuffer.putBytes(0, buffer, OFFSET, length);
+
+        stamper.retain(coalescingBuffer, 0, length, SENDING_TIME_OFFSET, POSITION);
+        putMessage();
+        timeInMs += 1;
+
+        assertTrue(stamper.hasStamped(POSITION));
+        assertEquals(STAMPED_MESSAGE.substring(5), written(stamper.buffers(byteBuffer, OFFSET, 5)));
+    }
+
+    private int putMessage()
+    {
+        return buffer.putAscii(OFFSET, PLACEHOLDER_MESSAGE);
+    }
+
+    private static String written(final ByteBuffer[] buffers)
+    {
+        final StringBuilder written = new StringBuilder();
+        for (final ByteBuffer buffer : buffers)
+        {
+            while (buffer.hasRemaining())
+            {
+                written.append((char)buffer.get());
+            }
+        }
+
+        return written.toString();
+    }
+
+    private static String message(final String sendingTime)
+    {
+        return withChecksum("8=FIX.4.4\0019=0\00135=D\00149=INITIATOR\00156=ACCEPTOR\00134=2\00152=" + sendingTime +
+            "\00111=A\00121=1\00155=MSFT\00154=1\001");
+    }
+
+    private static String withChecksum(final String message)
+    {
+        int checksum = 0;
+        for (final byte value : message.getBytes(US_ASCII))
+        {
+            checksum += value;
+        }
+
+        return message + String.format("10=%03d\001", checksum & 0xFF);
+    }
+
+    private static void assertValidChecksum(final MutableAsciiBuffer buffer, final int offset, final int length)
+    {
+        final int checksumOffset = offset + length - 4;
+        final int checksum = buffer.computeChecksum(offset, offset + length - 7);
+        assertEquals(checksum, buffer.getNatural(checksumOffset, checksumOffset + 3));
+    }
+}
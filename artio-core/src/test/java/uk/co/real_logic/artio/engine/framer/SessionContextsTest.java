@@ -25,6 +25,7 @@ import uk.co.real_logic.artio.builder.Encoder;
 import uk.co.real_logic.artio.builder.LogonEncoder;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.engine.GroupCommitter;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.session.Session;
@@ -41,6 +42,7 @@ import static java.util.stream.Collectors.toList;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.DurabilityPolicy.PER_TERM;
 import static uk.co.real_logic.artio.engine.framer.SessionContexts.DUPLICATE_SESSION;
 import static uk.co.real_logic.artio.engine.framer.SessionContexts.LOWEST_VALID_SESSION_ID;
 
@@ -267,7 +269,8 @@ public class SessionContextsTest
     private SessionContexts newSessionContexts(final AtomicBuffer buffer)
     {
         when(mappedFile.buffer()).thenReturn(buffer);
-        return new SessionContexts(mappedFile, idStrategy, errorHandler);
+        return new SessionContexts(
+            mappedFile, idStrategy, errorHandler, new GroupCommitter(PER_TERM, 0, 1, null, "sessionContexts"));
     }
 
     private void assertValuesEqual(
@@ -26,7 +26,6 @@ import io.aeron.logbuffer.ControlledFragmentHandler;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.concurrent.IdleStrategy;
-import org.agrona.concurrent.NoOpIdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.YieldingIdleStrategy;
 import org.junit.After;
@@ -36,27 +35,35 @@ import org.mockito.verification.VerificationMode;
 import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.TestFixtures;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+import uk.co.real_logic.artio.engine.GroupCommitter;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.IntStream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.TestFixtures.cleanupMediaDriver;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
+import static uk.co.real_logic.artio.engine.DurabilityPolicy.PER_TERM;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
-import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
-import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.REPLAY_POSITION_BUFFER_SIZE;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
 import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
 
 public class ReplayIndexTest extends AbstractLogTest
 {
     private static final String CHANNEL = CommonContext.IPC_CHANNEL;
+    private static final int RECORDS_PER_SEGMENT = 4;
+    private static final int SEGMENT_FILE_SIZE = INITIAL_RECORD_OFFSET + RECORDS_PER_SEGMENT * RECORD_LENGTH;
 
     private ByteBuffer indexBuffer = ByteBuffer.allocate(DEFAULT_REPLAY_INDEX_FILE_SIZE);
+    private Map<File, ByteBuffer> indexFiles = new HashMap<>();
     private ExistingBufferFactory existingBufferFactory = mock(ExistingBufferFactory.class);
     private BufferFactory newBufferFactory = mock(BufferFactory.class);
     private ReplayIndex replayIndex;
@@ -77,17 +84,39 @@ public class ReplayIndexTest extends AbstractLogTest
     private RecordingIdLookup recordingIdLookup;
 
     private void newReplayIndex()
+    {
+        newReplayIndex(DEFAULT_REPLAY_INDEX_FILE_SIZE, false, NO_SEGMENT_LIMIT);
+    }
+
+    private void newReplayIndex(final int indexFileSize, final boolean segmented, final int segmentLimit)
     {
         replayIndex = new ReplayIndex(
             DEFAULT_LOG_FILE_DIR,
             STREAM_ID,
-            DEFAULT_REPLAY_INDEX_FILE_SIZE,
+            indexFileSize,
+            segmented,
+            segmentLimit,
             DEFAULT_LOGGER_CACHE_NUM_SETS,
             DEFAULT_LOGGER_CACHE_SET_SIZE,
             newBufferFactory,
             replayPositionBuffer,
             errorHandler,
-            recordingIdLookup);
+            recordingIdLookup,
+            new GroupCommitter(PER_TERM, 0, 1, null, "replayIndex"));
+    }
+
+    private void newReplayQuery(final boolean segmented)
+    {
+        query = new ReplayQuery(
+            DEFAULT_LOG_FILE_DIR,
+            DEFAULT_LOGGER_CACHE_NUM_SETS,
+            DEFAULT_LOGGER_CACHE_SET_SIZE,
+            existingBufferFactory,
+            segmented,
+            DEFAULT_OUTBOUND_LIBRARY_STREAM,
+            aeronArchive,
+            errorHandler,
+            DEFAULT_ARCHIVE_REPLAY_STREAM);
     }
 
     private Aeron aeron()
@@ -115,16 +144,7 @@ public class ReplayIndexTest extends AbstractLogTest
         IoUtil.deleteIfExists(logFile);
 
         newReplayIndex();
-        query = new ReplayQuery(
-            DEFAULT_LOG_FILE_DIR,
-            DEFAULT_LOGGER_CACHE_NUM_SETS,
-            DEFAULT_LOGGER_CACHE_SET_SIZE,
-            existingBufferFactory,
-            DEFAULT_OUTBOUND_LIBRARY_STREAM,
-            new NoOpIdleStrategy(),
-            aeronArchive,
-            errorHandler,
-            DEFAULT_ARCHIVE_REPLAY_STREAM);
+        newReplayQuery(false);
 
         returnBuffer(indexBuffer, SESSION_ID);
         returnBuffer(ByteBuffer.allocate(16 * 1024), SESSION_ID_2);
@@ -324,6 +344,88 @@ public class ReplayIndexTest extends AbstractLogTest
         verifyMappedFile(SESSION_ID_2);
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldQueryAcrossSegments()
+    {
+        useSegmentedIndex(NO_SEGMENT_LIMIT);
+
+        final int endSequenceNumber = 3 * RECORDS_PER_SEGMENT;
+        indexExampleMessages(endSequenceNumber);
+
+        final int msgCount = query(1, SEQUENCE_INDEX, endSequenceNumber, SEQUENCE_INDEX);
+
+        assertEquals(endSequenceNumber, msgCount);
+        verifyMessagesRead(endSequenceNumber);
+        assertThat(indexFiles.keySet(), hasItem(segmentFile(2)));
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldOnlyQueryRetainedSegments()
+    {
+        final int segmentLimit = 2;
+        useSegmentedIndex(segmentLimit);
+
+        final int endSequenceNumber = 2 * RECORDS_PER_SEGMENT + 1;
+        indexExampleMessages(endSequenceNumber);
+
+        final int msgCount = query(1, SEQUENCE_INDEX, endSequenceNumber, SEQUENCE_INDEX);
+
+        // The first segment has been dropped when the third was started.
+        final int expectedMessages = endSequenceNumber - RECORDS_PER_SEGMENT;
+        assertEquals(expectedMessages, msgCount);
+        verifyMessagesRead(expectedMessages);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldContinueSegmentedIndexAfterARestart()
+    {
+        useSegmentedIndex(NO_SEGMENT_LIMIT);
+
+        indexExampleMessages(RECORDS_PER_SEGMENT);
+
+        // Fake restarting the gateway
+        newReplayIndex(SEGMENT_FILE_SIZE, true, NO_SEGMENT_LIMIT);
+
+        final int endSequenceNumber = RECORDS_PER_SEGMENT + 1;
+        indexExampleMessage(SESSION_ID, endSequenceNumber, SEQUENCE_INDEX);
+
+        final int msgCount = query(1, SEQUENCE_INDEX, endSequenceNumber, SEQUENCE_INDEX);
+
+        assertEquals(endSequenceNumber, msgCount);
+        verifyMessagesRead(endSequenceNumber);
+    }
+
+    private void useSegmentedIndex(final int segmentLimit)
+    {
+        reset(newBufferFactory, existingBufferFactory);
+        when(newBufferFactory.map(any(), anyInt())).thenAnswer(invocation ->
+        {
+            final File file = invocation.getArgument(0);
+            final int size = invocation.getArgument(1);
+            return indexFiles.computeIfAbsent(file, ignore -> ByteBuffer.allocate(size));
+        });
+        when(existingBufferFactory.map(any())).thenAnswer(invocation ->
+        {
+            final File file = invocation.getArgument(0);
+            return indexFiles.get(file);
+        });
+
+        replayIndex.close();
+        newReplayIndex(SEGMENT_FILE_SIZE, true, segmentLimit);
+        newReplayQuery(true);
+    }
+
+    private File segmentFile(final long segmentIndex)
+    {
+        return ReplayIndexDescriptor.replayIndexSegmentFile(DEFAULT_LOG_FILE_DIR, SESSION_ID, STREAM_ID, segmentIndex);
+    }
+
+    private void indexExampleMessages(final int endSequenceNumber)
+    {
+        IntStream.rangeClosed(1, endSequenceNumber).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+    }
+
     private void indexExampleMessage()
     {
         indexExampleMessage(SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX);
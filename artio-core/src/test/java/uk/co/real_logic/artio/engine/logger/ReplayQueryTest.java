@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_LOG_FILE_DIR;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+public class ReplayQueryTest
+{
+    private static final long SESSION_ID = 1;
+    private static final int STREAM_ID = 2;
+    private static final int RECORD_CAPACITY = 64;
+    private static final int MESSAGE_LENGTH = 128;
+
+    private final ByteBuffer indexBuffer = ByteBuffer.allocate(INITIAL_RECORD_OFFSET + RECORD_CAPACITY * RECORD_LENGTH);
+    private final UnsafeBuffer buffer = new UnsafeBuffer(indexBuffer);
+    private final ReplayIndexRecordEncoder replayIndexRecord = new ReplayIndexRecordEncoder();
+    private final ReplayQuery query = new ReplayQuery(
+        DEFAULT_LOG_FILE_DIR,
+        1,
+        1,
+        file -> indexBuffer,
+        false,
+        STREAM_ID,
+        null,
+        mock(ErrorHandler.class),
+        0);
+
+    private long changePosition;
+
+    @Before
+    public void setUp()
+    {
+        new MessageHeaderEncoder()
+            .wrap(buffer, 0)
+            .blockLength(replayIndexRecord.sbeBlockLength())
+            .templateId(replayIndexRecord.sbeTemplateId())
+            .schemaId(replayIndexRecord.sbeSchemaId())
+            .version(replayIndexRecord.sbeSchemaVersion());
+    }
+
+    @After
+    public void tearDown()
+    {
+        query.close();
+    }
+
+    @Test
+    public void shouldFindRecordsAfterSequenceIndexChange()
+    {
+        indexMessages(0, 1, 20);
+        indexMessages(1, 1, 20);
+
+        assertEquals(6, queryCount(1, 5, 1, 10));
+        assertEquals(10, queryCount(0, 16, 1, 5));
+    }
+
+    @Test
+    public void shouldFindOnlyRecordsThatHaveNotBeenOverwritten()
+    {
+        indexMessages(0, 1, RECORD_CAPACITY + 10);
+
+        assertEquals(RECORD_CAPACITY, queryCount(0, 1, 0, RECORD_CAPACITY + 10));
+        assertEquals(11, queryCount(0, 64, 0, 74));
+    }
+
+    @Test
+    public void shouldCountFragmentedMessagesOnce()
+    {
+        indexMessages(0, 1, 3);
+        indexRecord(0, 4);
+        indexRecord(0, 4);
+        indexMessages(0, 5, 6);
+
+        assertEquals(3, queryCount(0, 3, 0, 5));
+    }
+
+    @Test
+    public void shouldSkipEmptyRecords()
+    {
+        indexMessages(0, 1, 10);
+        changePosition += RECORD_LENGTH;
+        indexMessages(0, 11, 20);
+
+        for (int sequenceNumber = 1; sequenceNumber <= 20; sequenceNumber++)
+        {
+            assertEquals(1, queryCount(0, sequenceNumber, 0, sequenceNumber));
+        }
+        assertEquals(20, queryCount(0, 1, 0, 20));
+    }
+
+    @Test
+    public void shouldNotFindRecordsOutsideOfTheIndex()
+    {
+        indexMessages(1, 5, 10);
+
+        assertEquals(0, queryCount(0, 1, 1, 4));
+        assertEquals(0, queryCount(1, 11, 1, 20));
+        assertEquals(0, queryCount(2, 1, 2, 1));
+    }
+
+    private int queryCount(
+        final int beginSequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceIndex,
+        final int endSequenceNumber)
+    {
+        final List<RecordingRange> ranges = query.queryRanges(
+            SESSION_ID, beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
+
+        int count = 0;
+        for (final RecordingRange range : ranges)
+        {
+            count += range.count;
+        }
+        return count;
+    }
+
+    private void indexMessages(final int sequenceIndex, final int beginSequenceNumber, final int endSequenceNumber)
+    {
+        for (int sequenceNumber = beginSequenceNumber; sequenceNumber <= endSequenceNumber; sequenceNumber++)
+        {
+            indexRecord(sequenceIndex, sequenceNumber);
+        }
+    }
+
+    private void indexRecord(final int sequenceIndex, final int sequenceNumber)
+    {
+        final long position = changePosition;
+        changePosition += RECORD_LENGTH;
+
+        replayIndexRecord
+            .wrap(buffer, offset(position, RECORD_CAPACITY * RECORD_LENGTH))
+            .position(MESSAGE_LENGTH + position / RECORD_LENGTH * MESSAGE_LENGTH)
+            .sequenceNumber(sequenceNumber)
+            .sequenceIndex(sequenceIndex)
+            .recordingId(0)
+            .length(MESSAGE_LENGTH);
+
+        beginChangeOrdered(buffer, changePosition);
+        endChangeOrdered(buffer, changePosition);
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import uk.co.real_logic.artio.FileSystemCorruptionException;
+import uk.co.real_logic.artio.engine.GroupCommitter;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.engine.SessionInfo;
 
@@ -47,6 +48,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
 import static uk.co.real_logic.artio.TestFixtures.launchJustMediaDriver;
+import static uk.co.real_logic.artio.engine.DurabilityPolicy.PER_TERM;
 import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
 import static uk.co.real_logic.artio.engine.logger.ErrorHandlerVerifier.verify;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.*;
@@ -63,6 +65,7 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     private SequenceNumberIndexWriter writer;
     private SequenceNumberIndexReader reader;
     private RecordingIdLookup recordingIdLookup = mock(RecordingIdLookup.class);
+    private GroupCommitter groupCommitter = new GroupCommitter(PER_TERM, 0, 1, null, "sequenceNumberIndex");
 
     private MediaDriver mediaDriver = launchJustMediaDriver();
     private Aeron aeron;
@@ -246,6 +249,25 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         }
     }
 
+    @Test
+    public void shouldSaveRecordsModifiedInEarlierFlushesAfterFlippingFiles()
+    {
+        indexFixMessage();
+        writer.updateFile();
+
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+        writer.updateFile();
+
+        bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + 2, SEQUENCE_INDEX);
+        indexRecord();
+        writer.close();
+
+        final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER + 2, newReader);
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER + 1, newReader);
+    }
+
     @Test
     public void shouldAlignMessagesAndNotOverlapCheckSums()
     {
@@ -277,6 +299,56 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         assertUnknownSession();
     }
 
+    @Test
+    public void shouldReadSequenceNumbersOfSessionsIndexedAfterAPreviousRead()
+    {
+        indexFixMessage();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER);
+
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+        bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + 2, SEQUENCE_INDEX);
+        indexRecord();
+
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER + 1);
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER + 2);
+    }
+
+    @Test
+    public void shouldReadSequenceNumbersOfSessionsIndexedAfterAReset()
+    {
+        indexFixMessage();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER);
+
+        writer.resetSequenceNumbers();
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+
+        assertUnknownSession();
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER + 1);
+    }
+
+    @Test
+    public void shouldReadSequenceNumbersOfSessionsReindexedInADifferentOrderAfterAReset()
+    {
+        final long sessionId3 = SESSION_ID_2 + 1;
+        indexFixMessage();
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER);
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER + 1);
+
+        writer.resetSequenceNumbers();
+        bufferContainsExampleMessage(true, sessionId3, SEQUENCE_NUMBER + 2, SEQUENCE_INDEX);
+        indexRecord();
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER + 3, SEQUENCE_INDEX);
+        indexRecord();
+
+        assertLastKnownSequenceNumberIs(sessionId3, SEQUENCE_NUMBER + 2);
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER + 3);
+        assertUnknownSession();
+    }
+
     @After
     public void verifyNoErrors()
     {
@@ -297,7 +369,8 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     private SequenceNumberIndexWriter newWriter(final AtomicBuffer inMemoryBuffer)
     {
         final MappedFile indexFile = newIndexFile();
-        return new SequenceNumberIndexWriter(inMemoryBuffer, indexFile, errorHandler, STREAM_ID, recordingIdLookup);
+        return new SequenceNumberIndexWriter(
+            inMemoryBuffer, indexFile, errorHandler, STREAM_ID, recordingIdLookup, groupCommitter);
     }
 
     private MappedFile newIndexFile()
@@ -22,9 +22,11 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.verification.VerificationMode;
+import uk.co.real_logic.artio.builder.Encoder;
 import uk.co.real_logic.artio.builder.HeaderEncoder;
 import uk.co.real_logic.artio.builder.TestRequestEncoder;
 import uk.co.real_logic.artio.decoder.SequenceResetDecoder;
+import uk.co.real_logic.artio.decoder.TestRequestDecoder;
 import uk.co.real_logic.artio.engine.framer.FakeEpochClock;
 import uk.co.real_logic.artio.messages.SessionState;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
@@ -45,7 +47,11 @@ import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_LONG;
 import static uk.co.real_logic.artio.fields.RejectReason.*;
 import static uk.co.real_logic.artio.messages.DisconnectReason.APPLICATION_DISCONNECT;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
 import static uk.co.real_logic.artio.messages.SessionState.*;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.CLAIMED_MESSAGE_OFFSET;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_SENDING_TIME_OFFSET;
+import static uk.co.real_logic.artio.session.Session.ENGINE_SENDING_TIME_PLACEHOLDER;
 import static uk.co.real_logic.artio.session.Session.TEST_REQ_ID;
 import static uk.co.real_logic.artio.session.Session.UNKNOWN;
 import static uk.co.real_logic.artio.session.DirectSessionProxy.NO_LAST_MSG_SEQ_NUM_PROCESSED;
@@ -565,6 +571,55 @@ public abstract class AbstractSessionTest
         verifyDisconnect(times(2));
     }
 
+    @Test
+    public void shouldOnlyPollScheduledSessionWhenHeartbeatIsDue()
+    {
+        givenActive();
+        final SessionPollScheduler scheduler = new SessionPollScheduler(fakeClock);
+        scheduler.add(session());
+
+        fakeClock.advanceSeconds(1);
+
+        assertEquals(0, scheduler.poll(fakeClock.time()));
+        verify(sessionProxy, never()).sendHeartbeat(anyInt(), anyInt(), anyInt());
+
+        fakeClock.advanceSeconds(1);
+
+        assertEquals(1, scheduler.poll(fakeClock.time()));
+        verify(sessionProxy).sendHeartbeat(anyInt(), eq(SEQUENCE_INDEX), anyInt());
+    }
+
+    @Test
+    public void shouldPollScheduledSessionWhenLogoutIsBackPressured()
+    {
+        givenActive();
+        final SessionPollScheduler scheduler = new SessionPollScheduler(fakeClock);
+        scheduler.add(session());
+        when(sessionProxy.sendLogout(anyInt(), eq(SEQUENCE_INDEX), anyInt())).thenReturn(BACK_PRESSURED, POSITION);
+
+        session().startLogout();
+        assertState(LOGGING_OUT);
+
+        assertEquals(1, scheduler.poll(fakeClock.time()));
+
+        assertState(AWAITING_LOGOUT);
+        verify(sessionProxy, times(2)).sendLogout(anyInt(), eq(SEQUENCE_INDEX), anyInt());
+    }
+
+    @Test
+    public void shouldNotPollClosedScheduledSession()
+    {
+        givenActive();
+        final SessionPollScheduler scheduler = new SessionPollScheduler(fakeClock);
+        scheduler.add(session());
+
+        session().close();
+        twoHeartBeatIntervalsPass();
+
+        assertEquals(0, scheduler.poll(fakeClock.time()));
+        verifyNoFurtherMessages();
+    }
+
     @Test
     public void shouldSuppressTimeoutWhenMessageReceived()
     {
@@ -964,6 +1019,138 @@ public abstract class AbstractSessionTest
         assertEquals(expectedAction, action);
     }
 
+    @Test
+    public void shouldEncodeSentMessagesIntoClaimedSpace()
+    {
+        final MutableAsciiBuffer claimedBuffer = new MutableAsciiBuffer(new byte[CLAIMED_MESSAGE_OFFSET + 256]);
+        givenClaimCapacity(256, claimedBuffer);
+        givenActive();
+        testRequest.testReqID("testReqID");
+
+        assertEquals(POSITION, session().send(testRequest));
+        assertEquals(POSITION, session().send(testRequest));
+
+        verify(mockPublication, times(2)).commitClaimedMessage(
+            offsetCaptor.capture(),
+            lengthCaptor.capture(),
+            anyInt(),
+            eq(TestRequestDecoder.MESSAGE_TYPE),
+            anyLong(),
+            eq(SEQUENCE_INDEX),
+            eq(CONNECTION_ID),
+            eq(OK),
+            anyInt(),
+            eq(NO_SENDING_TIME_OFFSET),
+            anyLong());
+        verifyNoSavedMessages();
+        assertEquals(CLAIMED_MESSAGE_OFFSET, (int)offsetCaptor.getValue());
+        assertThat(
+            claimedBuffer.getAscii(offsetCaptor.getValue(), lengthCaptor.getValue()),
+            containsString("\001112=testReqID\001"));
+        assertEquals(2, session().lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldCopySentMessagesLargerThanClaimCapacity()
+    {
+        final int claimCapacity = 32;
+        givenClaimCapacity(claimCapacity, new MutableAsciiBuffer(new byte[CLAIMED_MESSAGE_OFFSET + claimCapacity]));
+        givenActive();
+
+        final String message = sendTestRequest(0);
+
+        verify(mockPublication, never()).claimMessage(anyInt());
+        verify(mockPublication, never()).commitClaimedMessage(
+            anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt(), anyInt(),
+            anyLong());
+        assertThat(message, containsString("\001112=testReqID\001"));
+    }
+
+    @Test
+    public void shouldSendBatchWithContiguousSequenceNumbers()
+    {
+        givenActive();
+        final int firstSeqNum = nextMsgSeqNum();
+        when(mockPublication.fitsInSingleFragment(anyInt())).thenReturn(true);
+        when(mockPublication.saveMessageBatch(
+            bufferCaptor.capture(), any(), any(), any(), eq(2), anyInt(), anyLong(), eq(SEQUENCE_INDEX),
+            eq(CONNECTION_ID), eq(firstSeqNum), any(), anyLong())).thenReturn(POSITION);
+
+        final TestRequestEncoder otherTestRequest = new TestRequestEncoder();
+        testRequest.testReqID("first");
+        otherTestRequest.testReqID("second");
+
+        assertEquals(POSITION, session().sendBatch(new Encoder[]{ testRequest, otherTestRequest }, 2));
+
+        final String sent = ((MutableAsciiBuffer)bufferCaptor.getValue()).getAscii(0, 512);
+        assertThat(sent, containsString("\00134=" + firstSeqNum + "\001"));
+        assertThat(sent, containsString("\001112=first\001"));
+        assertThat(sent, containsString("\00134=" + (firstSeqNum + 1) + "\001"));
+        assertThat(sent, containsString("\001112=second\001"));
+        assertEquals(firstSeqNum + 1, session().lastSentMsgSeqNum());
+        verifyNoSavedMessages();
+    }
+
+    @Test
+    public void shouldNotConsumeSequenceNumbersWhenBatchIsBackPressured()
+    {
+        givenActive();
+        final int lastSentMsgSeqNum = session().lastSentMsgSeqNum();
+        when(mockPublication.fitsInSingleFragment(anyInt())).thenReturn(true);
+        when(mockPublication.saveMessageBatch(
+            any(), any(), any(), any(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), anyInt(), any(), anyLong()))
+            .thenReturn(BACK_PRESSURED);
+        testRequest.testReqID("testReqID");
+
+        assertEquals(BACK_PRESSURED, session().sendBatch(new Encoder[]{ testRequest, testRequest }, 2));
+
+        assertEquals(lastSentMsgSeqNum, session().lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldSaveOffsetOfSendingTimePlaceholderForEngineToStamp()
+    {
+        final ArgumentCaptor<Integer> sendingTimeOffsetCaptor = ArgumentCaptor.forClass(Integer.class);
+        session().engineSendingTime(true);
+        givenActive();
+        testRequest.testReqID("testReqID");
+
+        session().send(testRequest);
+
+        verify(mockPublication).saveMessage(
+            bufferCaptor.capture(),
+            offsetCaptor.capture(),
+            anyInt(),
+            anyInt(),
+            eq(TestRequestDecoder.MESSAGE_TYPE),
+            anyLong(),
+            eq(SEQUENCE_INDEX),
+            eq(CONNECTION_ID),
+            eq(OK),
+            anyInt(),
+            sendingTimeOffsetCaptor.capture(),
+            eq(fakeClock.time()));
+        final MutableAsciiBuffer buffer = (MutableAsciiBuffer)bufferCaptor.getValue();
+        final int sendingTimeOffset = offsetCaptor.getValue() + sendingTimeOffsetCaptor.getValue();
+        assertEquals(
+            "52=" + ENGINE_SENDING_TIME_PLACEHOLDER + "\001",
+            buffer.getAscii(sendingTimeOffset - 3, ENGINE_SENDING_TIME_PLACEHOLDER.length() + 4));
+    }
+
+    private void givenClaimCapacity(final int claimCapacity, final MutableAsciiBuffer claimedBuffer)
+    {
+        session().claimCapacity(claimCapacity);
+        when(mockPublication.fitsInSingleFragment(claimCapacity)).thenReturn(true);
+        when(mockPublication.claimMessage(claimCapacity)).thenReturn(POSITION);
+        when(mockPublication.claimedBuffer()).thenReturn(claimedBuffer);
+    }
+
+    private void verifyNoSavedMessages()
+    {
+        verify(mockPublication, never()).saveMessage(
+            any(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt());
+    }
+
     private String sendTestRequest(final long nonSecondDurationInMs)
     {
         testRequest.reset();
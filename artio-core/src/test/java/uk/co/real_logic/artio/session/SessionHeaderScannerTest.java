@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.junit.Test;
+import uk.co.real_logic.artio.decoder.HeaderDecoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
+
+public class SessionHeaderScannerTest
+{
+    private static final String BODY = "11=A\00143=Y\001122=20190101-00:00:00\00110=000\001";
+
+    private final SessionHeaderScanner scanner = new SessionHeaderScanner();
+    private final HeaderDecoder header = new HeaderDecoder();
+
+    @Test
+    public void shouldScanTheSameFieldsAsTheHeaderDecoder()
+    {
+        final MutableAsciiBuffer buffer = bufferOf(
+            "8=FIX.4.4\0019=80\00135=D\00149=SENDER\00156=TARGET\00134=42\00143=Y\00197=N\001" +
+            "52=20190101-00:00:01.123\001122=20190101-00:00:00.456\001" + BODY);
+
+        scan(buffer);
+        header.decode(buffer, 0, buffer.capacity());
+
+        assertEquals(header.msgSeqNum(), scanner.msgSeqNum());
+        assertEquals(header.msgTypeLength(), scanner.msgTypeLength());
+        assertEquals(header.msgTypeAsString(), new String(scanner.msgType(), 0, scanner.msgTypeLength()));
+        assertEquals(header.possDupFlag(), scanner.possDup());
+        assertEquals(header.possResend(), scanner.possResend());
+        assertEquals(header.hasOrigSendingTime(), scanner.hasOrigSendingTime());
+        assertEquals(
+            header.sendingTimeAsString(),
+            buffer.getAscii(scanner.sendingTimeOffset(), scanner.sendingTimeLength()));
+        assertEquals(
+            header.origSendingTimeAsString(),
+            buffer.getAscii(scanner.origSendingTimeOffset(), scanner.origSendingTimeLength()));
+        assertEquals(
+            header.senderCompIDAsString(),
+            buffer.getAscii(scanner.senderCompIdOffset(), scanner.senderCompIdLength()));
+        assertEquals(
+            header.targetCompIDAsString(),
+            buffer.getAscii(scanner.targetCompIdOffset(), scanner.targetCompIdLength()));
+    }
+
+    @Test
+    public void shouldStopScanningAtTheBody()
+    {
+        final MutableAsciiBuffer buffer = bufferOf(
+            "8=FIX.4.4\0019=60\00135=D\00149=SENDER\00156=TARGET\00134=42\00152=20190101-00:00:01\001" + BODY);
+
+        final int endOfHeader = scan(buffer);
+
+        assertEquals(buffer.capacity() - BODY.length(), endOfHeader);
+        assertFalse(scanner.possDup());
+        assertFalse(scanner.hasOrigSendingTime());
+    }
+
+    @Test
+    public void shouldScanPastUserDefinedHeaderFields()
+    {
+        final MutableAsciiBuffer buffer = bufferOf(
+            "8=FIX.4.4\0019=60\00135=D\00149=SENDER\00156=TARGET\0015001=X\00134=42\00143=Y\001" + BODY);
+
+        scan(buffer);
+
+        assertEquals(42, scanner.msgSeqNum());
+        assertTrue(scanner.possDup());
+    }
+
+    @Test
+    public void shouldScanPastDataFieldsContainingTheFieldSeparator()
+    {
+        final MutableAsciiBuffer buffer = bufferOf(
+            "8=FIX.4.4\0019=60\00135=D\00149=SENDER\00156=TARGET\001212=5\001213=<\001a/>\00134=42\00197=Y\001" +
+            BODY);
+
+        scan(buffer);
+
+        assertEquals(42, scanner.msgSeqNum());
+        assertTrue(scanner.possResend());
+    }
+
+    @Test
+    public void shouldResetFieldsBetweenMessages()
+    {
+        scan(bufferOf(
+            "8=FIX.4.4\0019=60\00135=AB\00149=SENDER\00156=TARGET\00134=42\00143=Y\001" +
+            "122=20190101-00:00:00\001" + BODY));
+
+        scan(bufferOf("8=FIX.4.4\0019=60\00135=D\00149=SENDER\00156=TARGET\001" + BODY));
+
+        assertEquals(MISSING_INT, scanner.msgSeqNum());
+        assertEquals(1, scanner.msgTypeLength());
+        assertEquals('D', scanner.msgType()[0]);
+        assertFalse(scanner.possDup());
+        assertFalse(scanner.hasOrigSendingTime());
+        assertFalse(scanner.hasSendingTime());
+    }
+
+    private int scan(final MutableAsciiBuffer buffer)
+    {
+        return scanner.scan(buffer, 0, buffer.capacity());
+    }
+
+    private MutableAsciiBuffer bufferOf(final String message)
+    {
+        return new MutableAsciiBuffer(message.getBytes(US_ASCII));
+    }
+}
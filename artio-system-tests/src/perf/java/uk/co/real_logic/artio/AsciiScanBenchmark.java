@@ -0,0 +1,178 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Compares the word at a time scanning and checksum methods of {@link MutableAsciiBuffer} against the equivalent
+ * byte at a time loops for typically sized messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AsciiScanBenchmark
+{
+    private static final byte START_OF_HEADER = 1;
+    private static final byte EQUALS = '=';
+    private static final byte ABSENT = '|';
+
+    @Param({"200", "500", "1000", "2000"})
+    int size;
+
+    private MutableAsciiBuffer buffer;
+    private int end;
+
+    @Setup
+    public void setup()
+    {
+        final StringBuilder message = new StringBuilder("8=FIX.4.4\0019=0000\00135=W\00149=ABC_DEFG01\001");
+        for (int i = 0; message.length() < size - 7; i++)
+        {
+            message.append(270 + i % 3).append('=').append(100 + i * 7).append(".25\001");
+        }
+        message.setLength(size - 7);
+        message.append("\00110=").append("123");
+
+        buffer = new MutableAsciiBuffer(message.toString().getBytes(US_ASCII));
+        end = buffer.capacity();
+    }
+
+    @Benchmark
+    public int scanMessage()
+    {
+        return buffer.scan(0, end - 1, ABSENT);
+    }
+
+    @Benchmark
+    public int byteScanMessage()
+    {
+        return byteScan(buffer, 0, end - 1, ABSENT);
+    }
+
+    @Benchmark
+    public int scanBackMessage()
+    {
+        return buffer.scanBack(end - 1, 0, ABSENT);
+    }
+
+    @Benchmark
+    public int byteScanBackMessage()
+    {
+        return byteScanBack(buffer, end - 1, 0, ABSENT);
+    }
+
+    @Benchmark
+    public void scanFields(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = this.end - 1;
+        int position = 0;
+        while (position < end)
+        {
+            final int equalsPosition = buffer.scan(position, end, EQUALS);
+            final int endOfField = buffer.scan(equalsPosition + 1, end, START_OF_HEADER);
+            if (endOfField == UNKNOWN_INDEX)
+            {
+                break;
+            }
+
+            bh.consume(equalsPosition);
+            position = endOfField + 1;
+        }
+    }
+
+    @Benchmark
+    public void byteScanFields(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = this.end - 1;
+        int position = 0;
+        while (position < end)
+        {
+            final int equalsPosition = byteScan(buffer, position, end, EQUALS);
+            final int endOfField = byteScan(buffer, equalsPosition + 1, end, START_OF_HEADER);
+            if (endOfField == UNKNOWN_INDEX)
+            {
+                break;
+            }
+
+            bh.consume(equalsPosition);
+            position = endOfField + 1;
+        }
+    }
+
+    @Benchmark
+    public int computeChecksum()
+    {
+        return buffer.computeChecksum(0, end);
+    }
+
+    @Benchmark
+    public int byteComputeChecksum()
+    {
+        return byteComputeChecksum(buffer, 0, end);
+    }
+
+    private static int byteScan(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endInclusive, final byte terminator)
+    {
+        for (int i = startInclusive; i <= endInclusive; i++)
+        {
+            if (buffer.getByte(i) == terminator)
+            {
+                return i;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+
+    private static int byteScanBack(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endInclusive, final byte terminator)
+    {
+        for (int i = startInclusive; i >= endInclusive; i--)
+        {
+            if (buffer.getByte(i) == terminator)
+            {
+                return i;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+
+    private static int byteComputeChecksum(final MutableAsciiBuffer buffer, final int offset, final int end)
+    {
+        int total = 0;
+        for (int index = offset; index < end; index++)
+        {
+            total += (int)buffer.getByte(index);
+        }
+
+        return total % 256;
+    }
+}
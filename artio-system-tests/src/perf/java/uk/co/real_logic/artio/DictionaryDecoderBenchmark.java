@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.builder.Validation;
+import uk.co.real_logic.artio.decoder.*;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Measures the DictionaryDecoder's decode, callback and reset cycle. The Logon is the widest message in the session
+ * dictionary and the Heartbeat only has the standard header, so most of its dictionary entries are never decoded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DictionaryDecoderBenchmark
+{
+    private static final byte[] HEARTBEAT = (
+        "8=FIX.4.4\0019=0058\00135=0\00149=ABC_DEFG01\00156=CCG\00134=10\001" +
+        "52=20150514-15:57:31.336\00110=018\001").getBytes(US_ASCII);
+
+    private final MutableAsciiBuffer logonBuffer = new MutableAsciiBuffer(TestData.LOGON);
+    private final MutableAsciiBuffer heartbeatBuffer = new MutableAsciiBuffer(HEARTBEAT);
+
+    private DictionaryDecoder dictionaryDecoder;
+    private int lastValue;
+
+    @Setup
+    public void setup()
+    {
+        if (Validation.CODEC_VALIDATION_ENABLED)
+        {
+            throw new IllegalStateException(
+                "Benchmark cannot run with validation enabled, set -Dfix.codecs.no_validation=true");
+        }
+
+        dictionaryDecoder = new DictionaryDecoder(new DefaultDictionaryAcceptor()
+        {
+            public void onLogon(final LogonDecoder decoder)
+            {
+                lastValue = decoder.heartBtInt();
+            }
+
+            public void onHeartbeat(final HeartbeatDecoder decoder)
+            {
+                lastValue = decoder.header().msgSeqNum();
+            }
+        });
+    }
+
+    @Benchmark
+    public int onLogon()
+    {
+        dictionaryDecoder.onMessage(logonBuffer, 0, logonBuffer.capacity(), LogonDecoder.MESSAGE_TYPE);
+        return lastValue;
+    }
+
+    @Benchmark
+    public int onHeartbeat()
+    {
+        dictionaryDecoder.onMessage(heartbeatBuffer, 0, heartbeatBuffer.capacity(), HeartbeatDecoder.MESSAGE_TYPE);
+        return lastValue;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.dictionary.CharArrayMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generated switch based decoding of a string enum from a char[] against looking it up in a
+ * {@link CharArrayMap}, which is how generated enums used to decode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EnumDecodeBenchmark
+{
+    @Param({"0", "A", "5", "AB"})
+    String representation;
+
+    private char[] value;
+    private int length;
+    private CharArrayMap<MsgType> charMap;
+
+    @Setup
+    public void setup()
+    {
+        value = representation.toCharArray();
+        length = value.length;
+
+        final Map<String, MsgType> stringMap = new HashMap<>();
+        for (final MsgType msgType : MsgType.values())
+        {
+            stringMap.put(msgType.representation(), msgType);
+        }
+        charMap = new CharArrayMap<>(stringMap);
+    }
+
+    @Benchmark
+    public MsgType switchDecode()
+    {
+        return MsgType.decode(value, length);
+    }
+
+    @Benchmark
+    public MsgType charArrayMapDecode()
+    {
+        final MsgType msgType = charMap.get(value, length);
+        return msgType == null ? MsgType.ARTIO_UNKNOWN : msgType;
+    }
+}
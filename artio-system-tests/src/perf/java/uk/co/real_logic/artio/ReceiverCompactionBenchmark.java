@@ -0,0 +1,164 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Compares compacting the receiver buffer after every framing pass against deferred compaction, see
+ * {@link EngineConfiguration#receiverDeferredCompaction(boolean)}, when large market data snapshot messages arrive
+ * fragmented over many TCP reads.
+ * <p>
+ * Models the receiver end point's read, frame and compact cycle over a stream of messages with the receiver's default
+ * buffer size. Each operation receives {@link #MESSAGES_PER_OPERATION} messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReceiverCompactionBenchmark
+{
+    private static final int MESSAGES_PER_OPERATION = 100;
+    private static final int BUFFER_SIZE = EngineConfiguration.DEFAULT_RECEIVER_BUFFER_SIZE;
+    private static final String BEGIN_STRING_AND_BODY_LENGTH_TAG = "8=FIX.4.4\0019=";
+    private static final int START_OF_BODY_LENGTH = BEGIN_STRING_AND_BODY_LENGTH_TAG.length();
+    private static final int CHECKSUM_LENGTH = "10=000\001".length();
+    private static final byte START_OF_HEADER = 1;
+
+    @Param({"1024", "4096", "12288"})
+    int messageSize;
+
+    // An ethernet segment's worth of data or as much as fits into the buffer
+    @Param({"1460", "65536"})
+    int readSize;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private MutableAsciiBuffer stream;
+
+    @Setup
+    public void setup()
+    {
+        final StringBuilder body = new StringBuilder(
+            "35=W\00149=SENDER\00156=TARGET\00134=1\00152=20190101-00:00:00.000\00155=EUR/USD\001268=0\001");
+        for (int i = 0; body.length() < messageSize - 32; i++)
+        {
+            body.append("269=").append(i % 2).append("\001270=1.1").append(2345 + i).append("\001271=1000000\001");
+        }
+
+        final String message =
+            BEGIN_STRING_AND_BODY_LENGTH_TAG + body.length() + "\001" + body + "10=000\001";
+        final StringBuilder messages = new StringBuilder();
+        for (int i = 0; i < MESSAGES_PER_OPERATION; i++)
+        {
+            messages.append(message);
+        }
+
+        stream = new MutableAsciiBuffer(messages.toString().getBytes(US_ASCII));
+    }
+
+    @Benchmark
+    public int compactAfterEveryPass()
+    {
+        return receiveMessages(false);
+    }
+
+    @Benchmark
+    public int deferredCompaction()
+    {
+        return receiveMessages(true);
+    }
+
+    private int receiveMessages(final boolean deferCompaction)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final MutableAsciiBuffer stream = this.stream;
+        final int streamLength = stream.capacity();
+        final int readSize = this.readSize;
+
+        int streamOffset = 0;
+        int usedBufferData = 0;
+        int dataOffset = 0;
+        int checksums = 0;
+        int messages = 0;
+
+        while (messages < MESSAGES_PER_OPERATION)
+        {
+            if (dataOffset > 0 && BUFFER_SIZE - usedBufferData < dataOffset)
+            {
+                usedBufferData -= dataOffset;
+                buffer.putBytes(0, buffer, dataOffset, usedBufferData);
+                dataOffset = 0;
+            }
+
+            final int dataRead = Math.min(
+                Math.min(readSize, BUFFER_SIZE - usedBufferData), streamLength - streamOffset);
+            buffer.putBytes(usedBufferData, stream, streamOffset, dataRead);
+            streamOffset += dataRead;
+            usedBufferData += dataRead;
+
+            int offset = dataOffset;
+            int endOfMessage;
+            while ((endOfMessage = endOfMessage(buffer, offset, usedBufferData)) != UNKNOWN_INDEX)
+            {
+                checksums += buffer.computeChecksum(offset, endOfMessage - CHECKSUM_LENGTH);
+                messages++;
+                offset = endOfMessage;
+            }
+
+            if (deferCompaction && offset < usedBufferData)
+            {
+                dataOffset = offset;
+            }
+            else
+            {
+                usedBufferData -= offset;
+                buffer.putBytes(0, buffer, offset, usedBufferData);
+                dataOffset = 0;
+            }
+        }
+
+        return checksums;
+    }
+
+    private static int endOfMessage(final MutableAsciiBuffer buffer, final int offset, final int usedBufferData)
+    {
+        final int startOfBodyLength = offset + START_OF_BODY_LENGTH;
+        if (startOfBodyLength >= usedBufferData)
+        {
+            return UNKNOWN_INDEX;
+        }
+
+        final int endOfBodyLength = buffer.scan(startOfBodyLength, usedBufferData - 1, START_OF_HEADER);
+        if (endOfBodyLength == UNKNOWN_INDEX)
+        {
+            return UNKNOWN_INDEX;
+        }
+
+        final int bodyLength = buffer.getNatural(startOfBodyLength, endOfBodyLength);
+        final int endOfMessage = endOfBodyLength + 1 + bodyLength + CHECKSUM_LENGTH;
+        return endOfMessage <= usedBufferData ? endOfMessage : UNKNOWN_INDEX;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.builder.Validation;
+import uk.co.real_logic.artio.decoder.HeaderDecoder;
+import uk.co.real_logic.artio.session.SessionHeaderScanner;
+import uk.co.real_logic.artio.session.SessionParser;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Compares the time per inbound application message that {@link SessionParser} spends reading the message's header
+ * when it decodes the header with a {@link HeaderDecoder} against scanning it with a {@link SessionHeaderScanner}, as
+ * it does when codec validation is disabled.
+ * <p>
+ * Runs with codec validation disabled, see {@link Validation#CODEC_VALIDATION_DISABLED_PROP}, so that the header
+ * decoder does the same work as it would have done on that path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-D" + Validation.CODEC_VALIDATION_DISABLED_PROP + "=true")
+public class SessionHeaderScannerBenchmark
+{
+    private static final String MESSAGE =
+        "8=FIX.4.4\0019=183\00135=D\00149=SENDER\00156=TARGET\00134=1234\00150=DESK\00157=EXCHANGE\001" +
+        "52=20190101-12:34:56.789\00111=ORDER-1\00121=1\00155=EUR/USD\00154=1\00160=20190101-12:34:56.789\001" +
+        "38=1000000\00140=2\00144=1.12345\00159=0\00110=000\001";
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(MESSAGE.getBytes(US_ASCII));
+    private final HeaderDecoder header = new HeaderDecoder();
+    private final SessionHeaderScanner headerScanner = new SessionHeaderScanner();
+
+    @Benchmark
+    public void decodeHeader(final Blackhole bh)
+    {
+        final HeaderDecoder header = this.header;
+        final MutableAsciiBuffer buffer = this.buffer;
+
+        header.reset();
+        header.decode(buffer, 0, buffer.capacity());
+
+        bh.consume(header.msgSeqNum());
+        bh.consume(header.msgType());
+        bh.consume(header.hasPossDupFlag() && header.possDupFlag());
+        bh.consume(header.hasPossResend() && header.possResend());
+        bh.consume(header.hasOrigSendingTime());
+    }
+
+    @Benchmark
+    public void scanHeader(final Blackhole bh)
+    {
+        final SessionHeaderScanner headerScanner = this.headerScanner;
+        final MutableAsciiBuffer buffer = this.buffer;
+
+        headerScanner.scan(buffer, 0, buffer.capacity());
+
+        bh.consume(headerScanner.msgSeqNum());
+        bh.consume(headerScanner.msgType());
+        bh.consume(headerScanner.possDup());
+        bh.consume(headerScanner.possResend());
+        bh.consume(headerScanner.hasOrigSendingTime());
+    }
+}
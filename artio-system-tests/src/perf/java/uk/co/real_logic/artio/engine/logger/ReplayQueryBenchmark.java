@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_LOG_FILE_DIR;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Measures looking up the records of a resend request in a replay index of 1M records. The records are spread over
+ * several sequence indices, as happens when a session's sequence numbers are reset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReplayQueryBenchmark
+{
+    private static final long SESSION_ID = 1;
+    private static final int STREAM_ID = 1;
+    private static final int RECORD_COUNT = 1024 * 1024;
+    private static final int SEQUENCE_INDEX_COUNT = 4;
+    private static final int MESSAGES_PER_SEQUENCE_INDEX = RECORD_COUNT / SEQUENCE_INDEX_COUNT;
+    private static final int MESSAGE_LENGTH = 256;
+    private static final int RESEND_LENGTH = 10;
+
+    @Param({"0", "3"})
+    int sequenceIndex;
+
+    @Param({"1000", "200000"})
+    int beginSequenceNumber;
+
+    private ReplayQuery query;
+
+    @Setup
+    public void setup()
+    {
+        final int capacity = RECORD_COUNT * RECORD_LENGTH;
+        final ByteBuffer indexBuffer = ByteBuffer.allocateDirect(INITIAL_RECORD_OFFSET + capacity);
+        final UnsafeBuffer buffer = new UnsafeBuffer(indexBuffer);
+        final ReplayIndexRecordEncoder replayIndexRecord = new ReplayIndexRecordEncoder();
+
+        new MessageHeaderEncoder()
+            .wrap(buffer, 0)
+            .blockLength(replayIndexRecord.sbeBlockLength())
+            .templateId(replayIndexRecord.sbeTemplateId())
+            .schemaId(replayIndexRecord.sbeSchemaId())
+            .version(replayIndexRecord.sbeSchemaVersion());
+
+        long position = 0;
+        for (int index = 0; index < SEQUENCE_INDEX_COUNT; index++)
+        {
+            for (int sequenceNumber = 1; sequenceNumber <= MESSAGES_PER_SEQUENCE_INDEX; sequenceNumber++)
+            {
+                replayIndexRecord
+                    .wrap(buffer, offset(position, capacity))
+                    .position(MESSAGE_LENGTH + (position / RECORD_LENGTH) * MESSAGE_LENGTH)
+                    .sequenceNumber(sequenceNumber)
+                    .sequenceIndex(index)
+                    .recordingId(0)
+                    .length(MESSAGE_LENGTH);
+
+                position += RECORD_LENGTH;
+            }
+        }
+        beginChangeOrdered(buffer, position);
+        endChangeOrdered(buffer, position);
+
+        query = new ReplayQuery(
+            DEFAULT_LOG_FILE_DIR,
+            1,
+            1,
+            file -> indexBuffer,
+            false,
+            STREAM_ID,
+            null,
+            Throwable::printStackTrace,
+            0);
+    }
+
+    @Benchmark
+    public List<RecordingRange> queryRanges()
+    {
+        return query.queryRanges(
+            SESSION_ID,
+            beginSequenceNumber,
+            sequenceIndex,
+            beginSequenceNumber + RESEND_LENGTH - 1,
+            sequenceIndex);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        query.close();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.engine.DurabilityPolicy;
+import uk.co.real_logic.artio.engine.GroupCommitter;
+import uk.co.real_logic.artio.engine.MappedFile;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE;
+import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.passingPath;
+import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.writablePath;
+
+/**
+ * Measures the latency of flushing the sequence number index to disk, as happens on every term roll, when a fixed
+ * number of sessions have sent messages since the last flush out of an increasing number of indexed sessions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SequenceNumberIndexFlushBenchmark
+{
+    private static final int UPDATED_SESSIONS = 100;
+
+    @Param({"100", "10000", "100000"})
+    int sessionCount;
+
+    private File indexFile;
+    private SequenceNumberIndexWriter writer;
+    private int sequenceNumber = 1;
+    private long nextSessionId = 0;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        indexFile = File.createTempFile("sequence_numbers", "");
+        deleteFiles();
+
+        writer = new SequenceNumberIndexWriter(
+            new UnsafeBuffer(new byte[DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE]),
+            MappedFile.map(indexFile, DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE),
+            Throwable::printStackTrace,
+            0,
+            null,
+            new GroupCommitter(DurabilityPolicy.NONE, 0, 1, null, "sequenceNumberIndex"));
+
+        for (int sessionId = 1; sessionId <= sessionCount; sessionId++)
+        {
+            writer.saveRecord(sequenceNumber, sessionId);
+        }
+
+        // Flush twice so that neither file is stale from initialisation
+        writer.updateFile();
+        writer.updateFile();
+    }
+
+    @Benchmark
+    public void updateFile()
+    {
+        final int sequenceNumber = ++this.sequenceNumber;
+        for (int i = 0; i < UPDATED_SESSIONS; i++)
+        {
+            writer.saveRecord(sequenceNumber, nextSessionId + 1);
+            nextSessionId = (nextSessionId + 997) % sessionCount;
+        }
+
+        writer.updateFile();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        writer.close();
+        deleteFiles();
+    }
+
+    private void deleteFiles()
+    {
+        final String path = indexFile.getAbsolutePath();
+        IoUtil.deleteIfExists(indexFile);
+        IoUtil.deleteIfExists(writablePath(path));
+        IoUtil.deleteIfExists(passingPath(path));
+    }
+}
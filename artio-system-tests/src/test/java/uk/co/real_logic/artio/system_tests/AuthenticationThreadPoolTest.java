@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.system_tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.Reply;
+import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.session.Session;
+import uk.co.real_logic.artio.validation.AuthenticationStrategy;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
+
+public class AuthenticationThreadPoolTest extends AbstractGatewayToGatewaySystemTest
+{
+    private final FakeAuthenticationStrategy auth = new FakeAuthenticationStrategy();
+
+    @Before
+    public void launch()
+    {
+        delete(ACCEPTOR_LOGS);
+
+        mediaDriver = launchMediaDriver();
+
+        final EngineConfiguration acceptingConfig = acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID);
+        acceptingConfig.authenticationStrategy(auth);
+        acceptingConfig.authenticationThreadCount(2);
+
+        acceptingEngine = FixEngine.launch(acceptingConfig);
+        initiatingEngine = launchInitiatingEngine(libraryAeronPort);
+
+        acceptingLibrary = connect(acceptingLibraryConfig(acceptingHandler));
+        initiatingLibrary = newInitiatingLibrary(libraryAeronPort, initiatingHandler);
+        testSystem = new TestSystem(acceptingLibrary, initiatingLibrary);
+    }
+
+    @Test
+    public void messagesCanBeSentFromInitiatorToAcceptor()
+    {
+        connectSessions();
+
+        messagesCanBeExchanged();
+
+        assertThat(auth.authenticatingThreadName, containsString("authentication-"));
+    }
+
+    @Test
+    public void shouldDisconnectRejectedLogons()
+    {
+        auth.accept = false;
+
+        final Reply<Session> reply = initiate(initiatingLibrary, port, INITIATOR_ID, ACCEPTOR_ID);
+        testSystem.awaitReply(reply);
+
+        assertTrue(reply.toString(), reply.hasErrored());
+        assertThat(auth.authenticatingThreadName, containsString("authentication-"));
+    }
+
+    private static class FakeAuthenticationStrategy implements AuthenticationStrategy
+    {
+        volatile boolean accept = true;
+        volatile String authenticatingThreadName;
+
+        public boolean authenticate(final LogonDecoder logon)
+        {
+            authenticatingThreadName = Thread.currentThread().getName();
+            return accept;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.system_tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.DefaultEngineScheduler;
+import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.library.LibraryConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.Constants.TEST_REQUEST_MESSAGE_AS_STR;
+import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.Timing.assertEventuallyTrue;
+import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
+
+public class ShardedFramerSystemTest extends AbstractGatewayToGatewaySystemTest
+{
+    private static final int FRAMER_SHARD_COUNT = 3;
+    private static final int MESSAGE_COUNT = 200;
+
+    private final FakeConnectHandler fakeConnectHandler = new FakeConnectHandler();
+
+    @Before
+    public void launch()
+    {
+        delete(ACCEPTOR_LOGS);
+        delete(CLIENT_LOGS);
+
+        mediaDriver = launchMediaDriver();
+
+        acceptingEngine = FixEngine.launch(acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID)
+            .framerShardCount(FRAMER_SHARD_COUNT)
+            .scheduler(new DefaultEngineScheduler()));
+
+        initiatingEngine = FixEngine.launch(initiatingConfig(libraryAeronPort)
+            .framerShardCount(FRAMER_SHARD_COUNT)
+            .scheduler(new DefaultEngineScheduler()));
+
+        final LibraryConfiguration acceptingLibraryConfig = acceptingLibraryConfig(acceptingHandler);
+        acceptingLibraryConfig.libraryConnectHandler(fakeConnectHandler);
+        acceptingLibrary = connect(acceptingLibraryConfig);
+        initiatingLibrary = newInitiatingLibrary(libraryAeronPort, initiatingHandler);
+        testSystem = new TestSystem(acceptingLibrary, initiatingLibrary);
+
+        connectSessions();
+    }
+
+    @Test
+    public void messagesCanBeSentFromInitiatorToAcceptor()
+    {
+        messagesCanBeExchanged();
+
+        assertInitiatingSequenceIndexIs(0);
+    }
+
+    @Test
+    public void messagesCanBeSentFromInitiatorToAcceptingLibrary()
+    {
+        acquireAcceptingSession();
+
+        messagesCanBeExchanged();
+
+        assertSequenceIndicesAre(0);
+    }
+
+    @Test
+    public void messagesAreReceivedInOrder()
+    {
+        acquireAcceptingSession();
+
+        final List<String> testReqIds = new ArrayList<>();
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            final String testReqId = testReqId();
+            testReqIds.add(testReqId);
+            sendTestRequest(initiatingSession, testReqId);
+        }
+
+        assertEventuallyTrue("Failed to receive test requests", () ->
+        {
+            testSystem.poll();
+
+            return receivedTestRequests().size() == MESSAGE_COUNT;
+        });
+
+        final List<FixMessage> testRequests = receivedTestRequests();
+        assertEquals(testReqIds, testRequests.stream().map(FixMessage::testReqId).collect(toList()));
+        for (int i = 1; i < MESSAGE_COUNT; i++)
+        {
+            assertEquals(
+                testRequests.get(i - 1).messageSequenceNumber() + 1,
+                testRequests.get(i).messageSequenceNumber());
+        }
+    }
+
+    @Test
+    public void sessionsCanReconnect()
+    {
+        super.sessionsCanReconnect();
+    }
+
+    @Test
+    public void librariesShouldBeAbleToReleaseInitiatedSessionToEngine()
+    {
+        acquireAcceptingSession();
+
+        releaseSessionToEngine(initiatingSession, initiatingLibrary, initiatingEngine);
+    }
+
+    @Test
+    public void librariesShouldBeAbleToReleaseAcceptedSessionToEngine()
+    {
+        acquireAcceptingSession();
+
+        releaseSessionToEngine(acceptingSession, acceptingLibrary, acceptingEngine);
+    }
+
+    private List<FixMessage> receivedTestRequests()
+    {
+        return acceptingOtfAcceptor.hasReceivedMessage(TEST_REQUEST_MESSAGE_AS_STR).collect(toList());
+    }
+}